@@ -0,0 +1,74 @@
+package benchmarks;
+
+import dsa.Dijkstra;
+import dsa.Graph;
+import generator.Dataset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dijkstra Benchmarks
+ * Point-to-point, single-source and nearest-warehouse queries on generated
+ * networks of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class DijkstraBenchmark {
+    private static final int QUERY_COUNT = 1024;
+    private static final int WAREHOUSE_COUNT = 50;
+
+    @Param({"15", "1000", "100000", "1000000"})
+    public int cities;
+
+    private Graph graph;
+    private Dijkstra dijkstra;
+    private String[] sources;
+    private String[] targets;
+    private List<String> warehouses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Dataset dataset = GraphFixtures.generate(cities, Math.min(WAREHOUSE_COUNT, Math.max(1, cities / 5)), 42);
+        graph = dataset.toGraph();
+        dijkstra = new Dijkstra();
+        warehouses = dataset.getWarehouseCityNames();
+
+        Random random = new Random(7);
+        sources = new String[QUERY_COUNT];
+        targets = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sources[i] = GraphFixtures.cityName(dataset, random.nextInt(cities));
+            targets[i] = GraphFixtures.cityName(dataset, random.nextInt(cities));
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (QUERY_COUNT - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public Dijkstra.PathResult pointToPoint() {
+        int i = next();
+        return dijkstra.findShortestPath(graph, sources[i], targets[i]);
+    }
+
+    @Benchmark
+    public Map<String, Integer> singleSource() {
+        return dijkstra.findShortestDistances(graph, sources[next()]);
+    }
+
+    @Benchmark
+    public Dijkstra.PathResult nearestWarehouse() {
+        return dijkstra.findNearestCity(graph, sources[next()], warehouses);
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import dsa.Graph;
+import generator.Dataset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph Benchmarks
+ * Adjacency access cost, the inner loop of every search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class GraphBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"15", "1000", "100000", "1000000"})
+    public int cities;
+
+    private Graph graph;
+    private String[] queries;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Dataset dataset = GraphFixtures.generate(cities, 1, 42);
+        graph = dataset.toGraph();
+
+        Random random = new Random(7);
+        queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = GraphFixtures.cityName(dataset, random.nextInt(cities));
+        }
+    }
+
+    @Benchmark
+    public int getNeighbors() {
+        cursor = (cursor + 1) & (QUERY_COUNT - 1);
+        int total = 0;
+        for (Graph.Edge edge : graph.getNeighbors(queries[cursor])) {
+            total += edge.getWeight();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import generator.Dataset;
+import generator.DatasetGenerator;
+
+/**
+ * Graph Fixtures
+ * Deterministic road networks for benchmarks, produced by the dataset
+ * generator so benchmarks run on the same clustered, nearest-neighbour
+ * networks that can be bulk loaded into the database.
+ */
+public final class GraphFixtures {
+
+    private GraphFixtures() {
+    }
+
+    /**
+     * Generate a connected network with warehouses and no catalog
+     * @param cityCount Number of cities
+     * @param warehouseCount Number of warehouses (placed in the most populous cities)
+     * @param seed Random seed
+     * @return Generated dataset
+     */
+    public static Dataset generate(int cityCount, int warehouseCount, long seed) {
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        generator.setCityCount(cityCount);
+        generator.setProductCount(0);
+        generator.setWarehouseCount(warehouseCount);
+        return generator.generate();
+    }
+
+    /**
+     * Name of the i-th generated city
+     * @param dataset Generated dataset
+     * @param index City index
+     * @return City name
+     */
+    public static String cityName(Dataset dataset, int index) {
+        return dataset.getCities().get(index).getName();
+    }
+}
@@ -1,16 +1,142 @@
+import analytics.OrderScan;
+import analytics.OrderStats;
+import engine.BatchRunner;
 import engine.ShellEngine;
+import engine.WarmupWorkload;
+import importer.ImportPipeline;
+import server.StoreServer;
 import config.DBConnection;
+import dao.DAOFactory;
 import utils.Printer;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
 /**
  * Main Application Entry Point
  * StoreAlgorithms - E-Commerce Order Fulfillment Simulator
+ * Usage: java Main [--backend=jdbc|memory] [--plain] [--batch[=file]] [--threads=N] [--serve[=port]]
+ *                   [--train[=rounds]] [--import=feed [--fresh]]
+ *                   [--export-orders=file] [--order-report[=file]] [--orders-from=export]
+ * --plain prints without colors or emoji.
+ * With --batch, commands are read from the file (or stdin) and results are
+ * written as tab-separated lines instead of starting the interactive shell.
+ * With --serve, the HTTP/JSON API (server.StoreServer) is started instead of
+ * the shell, on port 8080 unless another port is given.
+ * --train runs the built-in warm-up workload (engine.WarmupWorkload) and
+ * exits; bin/store uses it to build the class-data sharing archive.
+ * --import loads a CSV or NDJSON supplier feed of stock levels and prices
+ * (importer.ImportPipeline) and exits; run again after a failure, it
+ * continues from the feed's checkpoint unless --fresh is given.
+ * --export-orders streams every order to an NDJSON (.ndjson) or compact
+ * columnar file (analytics.OrderScan) and exits. --order-report prints order
+ * volumes and delivery km per warehouse, city and day, or writes them as
+ * NDJSON to the file given; with --orders-from it reads a columnar export
+ * instead of the database.
  */
 public class Main {
+    private static final int DEFAULT_SERVER_PORT = 8080;
+    private static final int DEFAULT_TRAINING_ROUNDS = 5;
+    private static final int REPORT_ROWS = 20;
+
     public static void main(String[] args) {
+        String batchFile = null;
+        int serverPort = -1;
+        int trainingRounds = 0;
+        String importFile = null;
+        boolean freshImport = false;
+        String exportFile = null;
+        boolean orderReport = false;
+        String reportFile = null;
+        String ordersFrom = null;
+        Integer threadsOption = null;
+        for (String arg : args) {
+            if (arg.startsWith("--backend=")) {
+                System.setProperty("store.backend", arg.substring("--backend=".length()));
+            } else if (arg.equals("--plain")) {
+                System.setProperty("store.output", "plain");
+            } else if (arg.equals("--batch")) {
+                batchFile = "-";
+            } else if (arg.startsWith("--batch=")) {
+                batchFile = arg.substring("--batch=".length());
+            } else if (arg.equals("--serve")) {
+                serverPort = DEFAULT_SERVER_PORT;
+            } else if (arg.startsWith("--serve=")) {
+                serverPort = Integer.parseInt(arg.substring("--serve=".length()));
+            } else if (arg.equals("--train")) {
+                trainingRounds = DEFAULT_TRAINING_ROUNDS;
+            } else if (arg.startsWith("--train=")) {
+                trainingRounds = Integer.parseInt(arg.substring("--train=".length()));
+            } else if (arg.startsWith("--import=")) {
+                importFile = arg.substring("--import=".length());
+            } else if (arg.equals("--fresh")) {
+                freshImport = true;
+            } else if (arg.startsWith("--export-orders=")) {
+                exportFile = arg.substring("--export-orders=".length());
+            } else if (arg.equals("--order-report")) {
+                orderReport = true;
+            } else if (arg.startsWith("--order-report=")) {
+                orderReport = true;
+                reportFile = arg.substring("--order-report=".length());
+            } else if (arg.startsWith("--orders-from=")) {
+                ordersFrom = arg.substring("--orders-from=".length());
+            } else if (arg.startsWith("--threads=")) {
+                String value = arg.substring("--threads=".length());
+                try {
+                    threadsOption = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    threadsOption = 0;
+                }
+                if (threadsOption < 1) {
+                    System.err.println("❌ Invalid thread count: " + value + ". Usage: --threads=N with N at least 1");
+                    System.exit(1);
+                }
+            }
+        }
+        int threads = threadsOption != null ? threadsOption : Runtime.getRuntime().availableProcessors();
+
+        if (trainingRounds > 0) {
+            System.exit(runTraining(trainingRounds));
+        }
+        if (importFile != null) {
+            System.exit(runImport(importFile, threadsOption != null ? threadsOption : ImportPipeline.DEFAULT_WRITERS,
+                    freshImport));
+        }
+        if (exportFile != null || orderReport) {
+            System.exit(runOrderScan(exportFile, orderReport, reportFile, ordersFrom));
+        }
+        if (batchFile != null) {
+            System.exit(runBatch(batchFile, threads));
+        }
+        if (serverPort >= 0) {
+            int exitCode = runServer(serverPort);
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+            return;
+        }
+
+        Printer.useBufferedOutput();
         try {
-            // Test database connection
-            if (DBConnection.testConnection()) {
+            DAOFactory daoFactory = DAOFactory.getInstance();
+
+            // Test database connection (not needed by the in-memory backend)
+            if (!daoFactory.requiresDatabase() || DBConnection.testConnection()) {
+                if (!daoFactory.requiresDatabase()) {
+                    System.out.println("🧠 Using the in-memory backend with generated data (no database)");
+                }
+
                 // Start the CLI shell
                 ShellEngine shell = new ShellEngine();
                 shell.start();
@@ -18,6 +144,7 @@ public class Main {
                 Printer.printError("Database connection failed!");
                 System.out.println("🔧 Please ensure MySQL is running and database is configured.");
                 System.out.println("📝 Check connection settings in config/DBConnection.java");
+                System.out.println("💡 Or run without a database: java Main --backend=memory");
             }
         } catch (Exception e) {
             Printer.printError("Application startup failed: " + e.getMessage());
@@ -25,6 +152,177 @@ public class Main {
         } finally {
             // Clean up database connection
             DBConnection.closeConnection();
+            Printer.flush();
+        }
+    }
+
+    /**
+     * Run commands from a file or stdin without the interactive shell
+     * Result lines go to stdout; the summary and problems go to stderr.
+     * @param batchFile Command file, or "-" for stdin
+     * @param threads Worker threads for independent commands
+     * @return Process exit code
+     */
+    private static int runBatch(String batchFile, int threads) {
+        // Start-up messages would mix with the result lines, which bypass System.out
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        DAOFactory daoFactory = DAOFactory.getInstance();
+        if (daoFactory.requiresDatabase() && !DBConnection.testConnection()) {
+            System.err.println("❌ Database connection failed! Use --backend=memory to run without MySQL.");
+            return 1;
+        }
+
+        PrintStream output = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+                false, StandardCharsets.UTF_8);
+        try (BufferedReader input = batchFile.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(batchFile), StandardCharsets.UTF_8)) {
+            long start = System.nanoTime();
+            BatchRunner runner = new BatchRunner(daoFactory, threads);
+            long commands = runner.run(input, output);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.err.printf("✅ %d commands in %.2f s (%.0f/s): %d ok, %d not found, %d errors%n",
+                    commands, seconds, commands / seconds,
+                    runner.getOkCount(), runner.getNotFoundCount(), runner.getErrorCount());
+            return runner.getErrorCount() == 0 ? 0 : 2;
+        } catch (IOException e) {
+            System.err.println("❌ Batch failed: " + e.getMessage());
+            return 1;
+        } finally {
+            output.flush();
+            DBConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Import a supplier feed of stock levels and prices
+     * Progress lines go to stdout, the outcome to stderr.
+     * @param feed CSV or NDJSON feed file
+     * @param writers Parallel writer threads, each with its own connection
+     * @param fresh Ignore the checkpoint of an earlier run
+     * @return Process exit code: 0 if done, 2 if lines were rejected, 1 if the import failed
+     */
+    private static int runImport(String feed, int writers, boolean fresh) {
+        DAOFactory daoFactory = DAOFactory.getInstance();
+        if (daoFactory.requiresDatabase() && !DBConnection.testConnection()) {
+            System.err.println("❌ Database connection failed! Use --backend=memory to run without MySQL.");
+            return 1;
+        }
+
+        ImportPipeline pipeline = new ImportPipeline(daoFactory, writers);
+        pipeline.setFresh(fresh);
+        try {
+            ImportPipeline.Result result = pipeline.run(Path.of(feed));
+            System.err.println("✅ " + result);
+            return result.getRejectedRows() == 0 ? 0 : 2;
+        } catch (IOException | SQLException e) {
+            System.err.println("❌ Import failed: " + e.getMessage());
+            return 1;
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Export the orders and/or report their totals per warehouse, city and day
+     * Both come from one pass over the orders. The report is printed, or
+     * written as NDJSON when a report file is given; the outcome goes to stderr.
+     * @param exportFile NDJSON or columnar export file, or null
+     * @param report Whether to report the totals
+     * @param reportFile NDJSON file for the totals, or null to print them
+     * @param source Columnar export to read instead of the database, or null
+     * @return Process exit code
+     */
+    private static int runOrderScan(String exportFile, boolean report, String reportFile, String source) {
+        if (source != null && exportFile != null) {
+            System.err.println("❌ --orders-from can only be used with --order-report");
+            return 1;
+        }
+        OrderStats stats = report ? new OrderStats() : null;
+        try {
+            long start = System.nanoTime();
+            long orders;
+            if (source != null) {
+                orders = OrderScan.readExport(Path.of(source), stats);
+            } else {
+                DAOFactory daoFactory = DAOFactory.getInstance();
+                if (daoFactory.requiresDatabase() && !DBConnection.testConnection()) {
+                    System.err.println("❌ Database connection failed! Use --backend=memory to run without MySQL.");
+                    return 1;
+                }
+                OrderScan scan = new OrderScan(daoFactory.getOrderDAO());
+                orders = exportFile != null ? scan.export(Path.of(exportFile), stats) : scan.run(stats);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            if (exportFile != null) {
+                System.err.printf("✅ Exported %d orders to %s (%.1f MB) in %.2f s%n",
+                        orders, exportFile, Files.size(Path.of(exportFile)) / 1e6, seconds);
+            }
+            if (stats != null && reportFile != null) {
+                try (Writer writer = Files.newBufferedWriter(Path.of(reportFile), StandardCharsets.UTF_8)) {
+                    stats.writeNdjson(writer);
+                }
+                System.err.printf("✅ Totals of %d orders written to %s in %.2f s%n", orders, reportFile, seconds);
+            } else if (stats != null) {
+                stats.print(REPORT_ROWS);
+            }
+            return 0;
+        } catch (IOException | SQLException e) {
+            System.err.println("❌ Order scan failed: " + e.getMessage());
+            return 1;
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Run the warm-up workload and report how long it took
+     * @param rounds Rounds of commands to run
+     * @return Process exit code
+     */
+    private static int runTraining(int rounds) {
+        try {
+            long start = System.nanoTime();
+            long commands = new WarmupWorkload(rounds, 42).run();
+            System.err.printf("🏋️ Warm-up: %d commands in %.2f s%n", commands, (System.nanoTime() - start) / 1e9);
+            return 0;
+        } catch (Exception e) {
+            System.err.println("❌ Warm-up failed: " + e.getMessage());
+            return 1;
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Start the HTTP/JSON API and keep serving until the process is stopped
+     * The server's own threads keep the JVM running after main returns.
+     * @param port Port to listen on
+     * @return Process exit code if the server could not start, 0 otherwise
+     */
+    private static int runServer(int port) {
+        DAOFactory daoFactory = DAOFactory.getInstance();
+        if (daoFactory.requiresDatabase() && !DBConnection.testConnection()) {
+            System.err.println("❌ Database connection failed! Use --backend=memory to run without MySQL.");
+            return 1;
+        }
+
+        try {
+            StoreServer server = new StoreServer(daoFactory, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                DBConnection.closeConnection();
+            }));
+            server.start();
+            System.err.println("🌐 Serving the " + daoFactory.getBackend() + " backend on http://localhost:"
+                    + server.getPort() + " (Ctrl+C to stop)");
+            return 0;
+        } catch (IOException e) {
+            System.err.println("❌ Could not start the server: " + e.getMessage());
+            return 1;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package analytics;
+
+import models.Order;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Columnar Order Reader
+ * Reads an export written by ColumnarOrderWriter back into orders, one block
+ * at a time, so reports can be run on an export instead of the database.
+ * A damaged or truncated file is reported with an IOException.
+ */
+public class ColumnarOrderReader implements Closeable {
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final Path file;
+    private final DataInputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+
+    private byte[] body = new byte[0];
+    private int position;
+    private int limit;
+    private int previousId;
+    private long previousSecond;
+
+    public ColumnarOrderReader(Path file) throws IOException {
+        this.file = file;
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        try {
+            if (in.readLong() != ColumnarOrderWriter.MAGIC) {
+                throw new IOException(file + " is not a columnar order export");
+            }
+            int version = in.readInt();
+            if (version != ColumnarOrderWriter.VERSION) {
+                throw new IOException(file + " has unsupported version " + version);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e instanceof EOFException ? new IOException(file + " is not a columnar order export") : e;
+        }
+    }
+
+    /**
+     * Read every order in the file
+     * @param consumer Receives each order, in id order
+     * @return Number of orders read
+     */
+    public long forEach(Consumer<Order> consumer) throws IOException {
+        long count = 0;
+        try {
+            int rows;
+            while ((rows = in.readInt()) != 0) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (rows < 0 || length < rows) { // a row takes at least a byte per column
+                    throw new IOException(file + " is damaged (bad block header)");
+                }
+                if (body.length < length) {
+                    body = new byte[length];
+                }
+                in.readFully(body, 0, length);
+                crc.reset();
+                crc.update(body, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException(file + " is damaged (checksum mismatch)");
+                }
+                readBlock(rows, length, consumer);
+                count += rows;
+            }
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated after " + count + " orders");
+        }
+        return count;
+    }
+
+    private void readBlock(int rows, int length, Consumer<Order> consumer) throws IOException {
+        position = 0;
+        limit = length;
+        int added = (int) getVarint();
+        for (int i = 0; i < added; i++) {
+            int bytes = (int) getVarint();
+            if (bytes < 0 || bytes > limit - position) {
+                throw new IOException(file + " is damaged (block overrun)");
+            }
+            dictionary.add(new String(body, position, bytes, StandardCharsets.UTF_8));
+            position += bytes;
+        }
+
+        Order[] orders = new Order[rows];
+        for (int i = 0; i < rows; i++) {
+            orders[i] = new Order();
+            previousId += (int) getSigned();
+            orders[i].setId(previousId);
+        }
+        for (Order order : orders) {
+            order.setProductId((int) getSigned());
+        }
+        for (Order order : orders) {
+            order.setProductName(string());
+        }
+        for (Order order : orders) {
+            order.setQuantity((int) getSigned());
+        }
+        for (Order order : orders) {
+            order.setTotalPrice(getSigned() / 100.0);
+        }
+        for (Order order : orders) {
+            order.setCustomerCity(string());
+        }
+        for (Order order : orders) {
+            order.setWarehouseId((int) getSigned());
+        }
+        for (Order order : orders) {
+            order.setWarehouseName(string());
+        }
+        for (Order order : orders) {
+            order.setWarehouseCity(string());
+        }
+        for (Order order : orders) {
+            order.setDeliveryDistance((int) getSigned());
+        }
+        for (Order order : orders) {
+            if (position >= limit) {
+                throw new IOException(file + " is damaged (block overrun)");
+            }
+            int status = body[position++] & 0xFF;
+            if (status != ColumnarOrderWriter.NO_STATUS && status >= STATUSES.length) {
+                throw new IOException(file + " is damaged (unknown status " + status + ")");
+            }
+            order.setStatus(status == ColumnarOrderWriter.NO_STATUS ? null : STATUSES[status]);
+        }
+        for (Order order : orders) {
+            previousSecond += getSigned();
+            order.setOrderDate(LocalDateTime.ofEpochSecond(previousSecond, 0, ZoneOffset.UTC));
+        }
+        if (position != limit) {
+            throw new IOException(file + " is damaged (block length mismatch)");
+        }
+
+        for (Order order : orders) {
+            consumer.accept(order);
+        }
+    }
+
+    private String string() throws IOException {
+        int code = (int) getVarint();
+        if (code < 0 || code > dictionary.size()) {
+            throw new IOException(file + " is damaged (unknown string " + code + ")");
+        }
+        return code == 0 ? null : dictionary.get(code - 1);
+    }
+
+    private long getSigned() throws IOException {
+        long value = getVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IOException(file + " is damaged (block overrun)");
+            }
+            byte b = body[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException(file + " is damaged (bad number)");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,209 @@
+package analytics;
+
+import models.Order;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Columnar Order Writer
+ * Compact binary order export, read back by ColumnarOrderReader. Orders are
+ * collected into blocks of BLOCK_ROWS and each block is stored column by
+ * column, so every column holds similar values next to each other:
+ *  - ids and order times are stored as the difference from the previous
+ *    order, which is small because orders are exported in id order;
+ *  - product names, cities and warehouse names are numbers into a string
+ *    dictionary; each block first lists the strings it adds to it;
+ *  - prices are whole paisa; numbers are zigzag varints (1 byte below 64).
+ * An order takes under 20 bytes, against about 270 as NDJSON.
+ *
+ *   header: magic "ORDERCOL" (8 bytes), version (int)
+ *   block:  row count (int), body length (int), CRC32 of the body (int), body
+ *   end:    row count 0
+ *
+ * Order times are kept to the second, as in the orders table.
+ */
+public class ColumnarOrderWriter implements OrderWriter {
+    static final long MAGIC = 0x4F52444552434F4CL; // "ORDERCOL"
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 8192;
+    static final int NO_STATUS = 0xFF;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> newStrings = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+
+    // Columns of the current block
+    private final int[] ids = new int[BLOCK_ROWS];
+    private final int[] productIds = new int[BLOCK_ROWS];
+    private final int[] productNames = new int[BLOCK_ROWS];
+    private final int[] quantities = new int[BLOCK_ROWS];
+    private final long[] pricePaisa = new long[BLOCK_ROWS];
+    private final int[] customerCities = new int[BLOCK_ROWS];
+    private final int[] warehouseIds = new int[BLOCK_ROWS];
+    private final int[] warehouseNames = new int[BLOCK_ROWS];
+    private final int[] warehouseCities = new int[BLOCK_ROWS];
+    private final int[] distances = new int[BLOCK_ROWS];
+    private final int[] statuses = new int[BLOCK_ROWS];
+    private final long[] seconds = new long[BLOCK_ROWS];
+    private int rows;
+    private long count;
+
+    private byte[] body = new byte[BLOCK_ROWS * 16];
+    private int length;
+    private int previousId;        // carried across blocks
+    private long previousSecond;
+
+    public ColumnarOrderWriter(Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeLong(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    @Override
+    public void write(Order order) throws IOException {
+        ids[rows] = order.getId();
+        productIds[rows] = order.getProductId();
+        productNames[rows] = code(order.getProductName());
+        quantities[rows] = order.getQuantity();
+        pricePaisa[rows] = Math.round(order.getTotalPrice() * 100);
+        customerCities[rows] = code(order.getCustomerCity());
+        warehouseIds[rows] = order.getWarehouseId();
+        warehouseNames[rows] = code(order.getWarehouseName());
+        warehouseCities[rows] = code(order.getWarehouseCity());
+        distances[rows] = order.getDeliveryDistance();
+        statuses[rows] = order.getStatus() != null ? order.getStatus().ordinal() : NO_STATUS;
+        seconds[rows] = order.getOrderDate().toEpochSecond(ZoneOffset.UTC);
+        rows++;
+        count++;
+
+        if (rows == BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Get the dictionary number of a string
+     * @return 0 for null, otherwise one more than the string's position
+     */
+    private int code(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            code = dictionary.size() + 1;
+            dictionary.put(value, code);
+            newStrings.add(value);
+        }
+        return code;
+    }
+
+    private void writeBlock() throws IOException {
+        length = 0;
+        putVarint(newStrings.size());
+        for (String value : newStrings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, body, length, bytes.length);
+            length += bytes.length;
+        }
+        newStrings.clear();
+
+        for (int i = 0; i < rows; i++) {
+            putSigned(ids[i] - previousId);
+            previousId = ids[i];
+        }
+        putSignedColumn(productIds);
+        putColumn(productNames);
+        putSignedColumn(quantities);
+        for (int i = 0; i < rows; i++) {
+            putSigned(pricePaisa[i]);
+        }
+        putColumn(customerCities);
+        putSignedColumn(warehouseIds);
+        putColumn(warehouseNames);
+        putColumn(warehouseCities);
+        putSignedColumn(distances);
+        ensure(rows);
+        for (int i = 0; i < rows; i++) {
+            body[length++] = (byte) statuses[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            putSigned(seconds[i] - previousSecond);
+            previousSecond = seconds[i];
+        }
+
+        crc.reset();
+        crc.update(body, 0, length);
+        out.writeInt(rows);
+        out.writeInt(length);
+        out.writeInt((int) crc.getValue());
+        out.write(body, 0, length);
+        rows = 0;
+    }
+
+    private void putColumn(int[] column) {
+        for (int i = 0; i < rows; i++) {
+            putVarint(column[i]);
+        }
+    }
+
+    private void putSignedColumn(int[] column) {
+        for (int i = 0; i < rows; i++) {
+            putSigned(column[i]);
+        }
+    }
+
+    private void putSigned(long value) {
+        putVarint((value << 1) ^ (value >> 63)); // zigzag: small magnitudes become small numbers
+    }
+
+    private void putVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            body[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        body[length++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > body.length) {
+            body = Arrays.copyOf(body, Math.max(body.length * 2, length + bytes));
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Write the last block and the end marker
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rows > 0) {
+                writeBlock();
+            }
+            out.writeInt(0);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package analytics;
+
+import models.Order;
+import server.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * NDJSON Order Writer
+ * Writes each order as one JSON object per line, with the column names of
+ * the orders table:
+ *
+ *   {"id":1,"product_id":3,"product_name":"Laptop","quantity":2,"total_price":189998.0,
+ *    "customer_city":"Lahore","warehouse_id":1,"warehouse_name":"Central","warehouse_city":"Lahore",
+ *    "delivery_distance":0,"status":"CONFIRMED","order_date":"2024-06-01T10:15:30"}
+ */
+public class NdjsonOrderWriter implements OrderWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedWriter out;
+    private long count;
+
+    public NdjsonOrderWriter(Path file) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(Order order) throws IOException {
+        JsonWriter json = new JsonWriter().beginObject()
+                .name("id").value(order.getId())
+                .name("product_id").value(order.getProductId())
+                .name("product_name").value(order.getProductName())
+                .name("quantity").value(order.getQuantity())
+                .name("total_price").value(order.getTotalPrice())
+                .name("customer_city").value(order.getCustomerCity())
+                .name("warehouse_id").value(order.getWarehouseId())
+                .name("warehouse_name").value(order.getWarehouseName())
+                .name("warehouse_city").value(order.getWarehouseCity())
+                .name("delivery_distance").value(order.getDeliveryDistance())
+                .name("status").value(order.getStatus() != null ? order.getStatus().name() : null)
+                .name("order_date").value(order.getOrderDate().toString())
+                .endObject();
+        out.write(json.toString());
+        out.write('\n');
+        count++;
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
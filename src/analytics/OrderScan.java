@@ -0,0 +1,99 @@
+package analytics;
+
+import dao.OrderDAO;
+import models.Order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Order Scan
+ * Reads every order once, in id order, for exports and reports, with
+ * constant memory. Orders are read in pages of the primary key (see
+ * OrderDAO.forEachOrder): each page is one short read-only statement on a
+ * forward-only cursor, so the scan takes no locks, keeps no transaction open
+ * between pages and can run during business hours. The scan stops at the
+ * last order that existed when it started; orders are not changed once saved,
+ * so the result is the orders table as of that moment.
+ */
+public class OrderScan {
+    public static final int DEFAULT_PAGE_SIZE = 50_000;
+
+    private final OrderDAO orderDAO;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    public OrderScan(OrderDAO orderDAO) {
+        this.orderDAO = orderDAO;
+    }
+
+    /**
+     * Set the number of orders read per statement
+     * @param pageSize Orders per page
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Visit every order saved before the scan started
+     * @param consumer Receives each order, in id order
+     * @return Number of orders visited
+     */
+    public long run(Consumer<Order> consumer) throws SQLException {
+        int lastId = orderDAO.getLastOrderId();
+        long[] visited = {0};
+        int[] pageEnd = {0};
+        while (pageEnd[0] < lastId) {
+            int read = orderDAO.forEachOrder(pageEnd[0], pageSize, order -> {
+                pageEnd[0] = order.getId();
+                if (order.getId() <= lastId) {
+                    consumer.accept(order);
+                    visited[0]++;
+                }
+            });
+            if (read == 0) {
+                break;
+            }
+        }
+        return visited[0];
+    }
+
+    /**
+     * Export every order to a file
+     * @param file NDJSON or columnar file, chosen by its name (see OrderWriter.Format)
+     * @param stats Totals to add the exported orders to, or null
+     * @return Number of orders written
+     */
+    public long export(Path file, OrderStats stats) throws IOException, SQLException {
+        try (OrderWriter writer = OrderWriter.open(file)) {
+            run(order -> {
+                try {
+                    writer.write(order);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (stats != null) {
+                    stats.accept(order);
+                }
+            });
+            return writer.getCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Read the orders of a columnar export instead of the database
+     * @param file File written by ColumnarOrderWriter
+     * @param consumer Receives each order, in id order
+     * @return Number of orders read
+     */
+    public static long readExport(Path file, Consumer<Order> consumer) throws IOException {
+        try (ColumnarOrderReader reader = new ColumnarOrderReader(file)) {
+            return reader.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package analytics;
+
+import dsa.IntObjectHashMap;
+import models.Order;
+import server.JsonWriter;
+import utils.Printer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Order Stats
+ * Order volumes and delivery distances per warehouse, per customer city and
+ * per day, added up one order at a time. Memory grows with the number of
+ * warehouses, cities and days, not with the number of orders, so any number
+ * of orders can be streamed through it (see OrderScan).
+ */
+public class OrderStats implements Consumer<Order> {
+
+    /**
+     * Totals of one warehouse, city or day
+     */
+    public static class Group {
+        private final int id;
+        private final String name;
+        private final String city;
+        private long orders;
+        private long units;
+        private long revenuePaisa; // exact, unlike a running double total
+        private long deliveryKm;
+
+        Group(int id, String name, String city) {
+            this.id = id;
+            this.name = name;
+            this.city = city;
+        }
+
+        void add(Order order) {
+            orders++;
+            units += order.getQuantity();
+            revenuePaisa += Math.round(order.getTotalPrice() * 100);
+            deliveryKm += order.getDeliveryDistance();
+        }
+
+        /**
+         * @return Warehouse ID or epoch day; 0 for cities
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return Warehouse name, city name or ISO date
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return City of the warehouse, or null for cities and days
+         */
+        public String getCity() {
+            return city;
+        }
+
+        public long getOrders() {
+            return orders;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        /**
+         * @return Total price of the orders in rupees
+         */
+        public double getRevenue() {
+            return revenuePaisa / 100.0;
+        }
+
+        public long getDeliveryKm() {
+            return deliveryKm;
+        }
+    }
+
+    private static final Comparator<Group> BY_ORDERS = Comparator.comparingLong(Group::getOrders).reversed()
+            .thenComparing(Group::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Group total = new Group(0, "total", null);
+    private final IntObjectHashMap<Group> warehouses = new IntObjectHashMap<>();
+    private final Map<String, Group> cities = new HashMap<>();
+    private final IntObjectHashMap<Group> days = new IntObjectHashMap<>();
+
+    /**
+     * Add an order to its warehouse, city and day
+     * @param order Order with an order date
+     */
+    @Override
+    public void accept(Order order) {
+        total.add(order);
+
+        Group warehouse = warehouses.get(order.getWarehouseId());
+        if (warehouse == null) {
+            warehouse = new Group(order.getWarehouseId(), order.getWarehouseName(), order.getWarehouseCity());
+            warehouses.put(order.getWarehouseId(), warehouse);
+        }
+        warehouse.add(order);
+
+        cities.computeIfAbsent(order.getCustomerCity(), city -> new Group(0, city, null)).add(order);
+
+        LocalDate date = order.getOrderDate().toLocalDate();
+        int epochDay = (int) date.toEpochDay();
+        Group day = days.get(epochDay);
+        if (day == null) {
+            day = new Group(epochDay, date.toString(), null);
+            days.put(epochDay, day);
+        }
+        day.add(order);
+    }
+
+    public Group getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Warehouses, most orders first
+     */
+    public List<Group> getWarehouses() {
+        List<Group> groups = warehouses.values();
+        groups.sort(BY_ORDERS);
+        return groups;
+    }
+
+    /**
+     * @return Customer cities, most orders first
+     */
+    public List<Group> getCities() {
+        List<Group> groups = new ArrayList<>(cities.values());
+        groups.sort(BY_ORDERS);
+        return groups;
+    }
+
+    /**
+     * @return Days, oldest first
+     */
+    public List<Group> getDays() {
+        List<Group> groups = days.values();
+        groups.sort(Comparator.comparingInt(Group::getId));
+        return groups;
+    }
+
+    /**
+     * Print the busiest warehouses and cities and the most recent days
+     * @param top Rows to show in each table
+     */
+    public void print(int top) {
+        if (total.orders == 0) {
+            Printer.printInfo("No orders yet");
+            return;
+        }
+        Printer.printHeader(String.format("Orders: %d, %d units, Rs. %.2f, %d delivery km",
+                total.orders, total.units, total.getRevenue(), total.deliveryKm));
+
+        System.out.println(Printer.BLUE + "🏭 Warehouses (" + warehouses.size() + ")" + Printer.RESET);
+        List<Group> byWarehouse = getWarehouses();
+        printTable(byWarehouse.subList(0, Math.min(top, byWarehouse.size())), true);
+
+        System.out.println();
+        System.out.println(Printer.BLUE + "🏙️  Customer cities (" + cities.size() + ")" + Printer.RESET);
+        List<Group> byCity = getCities();
+        printTable(byCity.subList(0, Math.min(top, byCity.size())), false);
+
+        System.out.println();
+        System.out.println(Printer.BLUE + "📅 Days (" + days.size() + ")" + Printer.RESET);
+        List<Group> byDay = getDays();
+        printTable(byDay.subList(Math.max(0, byDay.size() - top), byDay.size()), false);
+        System.out.println();
+    }
+
+    private static void printTable(List<Group> groups, boolean withCity) {
+        System.out.printf("  %-32s %10s %12s %16s %12s%n", "", "orders", "units", "revenue Rs.", "km");
+        for (Group group : groups) {
+            String label = withCity ? group.name + " (" + group.city + ")" : group.name;
+            System.out.printf("  %-32s %10d %12d %16.2f %12d%n",
+                    label, group.orders, group.units, group.getRevenue(), group.deliveryKm);
+        }
+    }
+
+    /**
+     * Write every group as one JSON object per line
+     * {"group": "warehouse" | "city" | "day", "name": ..., "orders": ..., ...}
+     * @param out Destination
+     */
+    public void writeNdjson(Writer out) throws IOException {
+        writeGroup(out, "total", total);
+        for (Group group : getWarehouses()) {
+            writeGroup(out, "warehouse", group);
+        }
+        for (Group group : getCities()) {
+            writeGroup(out, "city", group);
+        }
+        for (Group group : getDays()) {
+            writeGroup(out, "day", group);
+        }
+    }
+
+    private static void writeGroup(Writer out, String kind, Group group) throws IOException {
+        JsonWriter json = new JsonWriter().beginObject().name("group").value(kind);
+        if (kind.equals("warehouse")) {
+            json.name("id").value(group.id).name("name").value(group.name).name("city").value(group.city);
+        } else if (!kind.equals("total")) {
+            json.name("name").value(group.name);
+        }
+        json.name("orders").value(group.orders)
+                .name("units").value(group.units)
+                .name("revenue").value(group.getRevenue())
+                .name("delivery_km").value(group.deliveryKm)
+                .endObject();
+        out.write(json.toString());
+        out.write('\n');
+    }
+}
@@ -0,0 +1,54 @@
+package analytics;
+
+import models.Order;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Order Writer
+ * Destination of an order export, written one order at a time
+ */
+public interface OrderWriter extends Closeable {
+
+    /**
+     * Export file format
+     */
+    enum Format {
+        NDJSON,
+        COLUMNAR;
+
+        /**
+         * Guess the format from the file name
+         * @param file Export file
+         * @return NDJSON for .ndjson, .jsonl and .json files, COLUMNAR otherwise
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : COLUMNAR;
+        }
+    }
+
+    /**
+     * Create a writer for the format of the file name
+     * @param file Export file, replaced if it exists
+     * @return Writer
+     */
+    static OrderWriter open(Path file) throws IOException {
+        return Format.of(file) == Format.NDJSON ? new NdjsonOrderWriter(file) : new ColumnarOrderWriter(file);
+    }
+
+    /**
+     * Append an order
+     * @param order Order with an order date
+     */
+    void write(Order order) throws IOException;
+
+    /**
+     * Get the number of orders written
+     * @return Order count
+     */
+    long getCount();
+}
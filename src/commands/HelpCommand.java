@@ -14,6 +14,9 @@ public class HelpCommand {
         System.out.println("📋 " + Printer.CYAN + "list products" + Printer.RESET +
                           " - Display all available products with prices and quantities");
 
+        System.out.println("📄 " + Printer.CYAN + "list products page <n> | after <id>" + Printer.RESET +
+                          " - Display one page of products in id order");
+
         System.out.println("🔍 " + Printer.CYAN + "list products search <term>" + Printer.RESET +
                           " - Deep search products using DFS algorithm");
 
@@ -26,6 +29,27 @@ public class HelpCommand {
         System.out.println("🗺️  " + Printer.CYAN + "show route <city1> to <city2>" + Printer.RESET +
                           " - Display shortest route between two cities");
 
+        System.out.println("🛣️  " + Printer.CYAN + "show route <city1> to <city2> alternatives [k]" + Printer.RESET +
+                          " - Display the k shortest alternative routes (Yen's algorithm)");
+
+        System.out.println("📊 " + Printer.CYAN + "stats [reset | export <file>]" + Printer.RESET +
+                          " - Show latency percentiles and rates, or export them for Prometheus");
+
+        System.out.println("📥 " + Printer.CYAN + "import <feed.csv | feed.ndjson> [fresh]" + Printer.RESET +
+                          " - Import stock levels and prices in the background, continuing an interrupted import");
+
+        System.out.println("📈 " + Printer.CYAN + "report [rows]" + Printer.RESET +
+                          " - Show order volumes and delivery km per warehouse, city and day");
+
+        System.out.println("📤 " + Printer.CYAN + "export <orders.ndjson | orders.ocol>" + Printer.RESET +
+                          " - Export all orders as NDJSON or a compact columnar file in the background");
+
+        System.out.println("⏳ " + Printer.CYAN + "jobs" + Printer.RESET +
+                          " - List commands still running in the background");
+
+        System.out.println("📬 " + Printer.CYAN + "wait [id]" + Printer.RESET +
+                          " - Wait for background commands and show their output");
+
         System.out.println("🧹 " + Printer.CYAN + "clear" + Printer.RESET +
                           " - Clear the console screen");
         
@@ -39,10 +63,12 @@ public class HelpCommand {
         
         System.out.println(Printer.YELLOW + "📝 Examples:" + Printer.RESET);
         System.out.println("  • " + Printer.GREEN + "list products" + Printer.RESET);
+        System.out.println("  • " + Printer.GREEN + "list products page 2" + Printer.RESET);
         System.out.println("  • " + Printer.GREEN + "list products search laptop" + Printer.RESET + " (DFS search)");
         System.out.println("  • " + Printer.GREEN + "order Laptop from Lahore" + Printer.RESET + " (Dijkstra - shortest distance)");
         System.out.println("  • " + Printer.GREEN + "order Mobile from Karachi fast" + Printer.RESET + " (BFS - fastest delivery)");
         System.out.println("  • " + Printer.GREEN + "show route Lahore to Islamabad" + Printer.RESET);
+        System.out.println("  • " + Printer.GREEN + "show route Lahore to Karachi alternatives 3" + Printer.RESET + " (Yen - alternative routes)");
         
         Printer.printSeparator();
         
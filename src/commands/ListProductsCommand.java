@@ -1,73 +1,175 @@
 package commands;
 
+import dao.DAOFactory;
 import dao.ProductDAO;
 import models.Product;
 import utils.Printer;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * List Products Command
- * Displays all available products from the database
+ * Displays all available products from the database.
+ * Products are streamed in name order and printed as they are read, with the
+ * stock summary counted in the same pass, so the listing never holds the
+ * catalog in memory. "page <n>" and "after <id>" show one page at a time in
+ * id order; "after <id>" continues from a known id, which stays fast however
+ * far into the catalog it is.
  */
 public class ListProductsCommand {
+    private static final int PAGE_SIZE = 20;
+
     private final ProductDAO productDAO;
 
     public ListProductsCommand() {
-        this.productDAO = new ProductDAO();
+        this.productDAO = DAOFactory.getInstance().getProductDAO();
+    }
+
+    /**
+     * Prints each product as it is read and keeps the stock counts
+     */
+    private static class ProductPrinter implements Consumer<Product> {
+        int inStock = 0;
+        int outOfStock = 0;
+        int lastId = 0;
+
+        @Override
+        public void accept(Product product) {
+            if (product.isInStock()) {
+                Printer.printProduct(product.getId(), product.getName(),
+                                   product.getPrice(), product.getQuantity());
+                inStock++;
+            } else {
+                Printer.printOutOfStockProduct(product.getId(), product.getName(), product.getPrice());
+                outOfStock++;
+            }
+            lastId = product.getId();
+        }
+
+        int getTotal() {
+            return inStock + outOfStock;
+        }
     }
 
     public void execute(String[] args) {
+        // The command handler passes "products" as the first argument
+        int first = args.length > 0 && args[0].equalsIgnoreCase("products") ? 1 : 0;
+        String mode = args.length > first ? args[first].toLowerCase() : "";
+
         try {
             // Check if this is a search command
-            if (args.length > 0 && args[0].equalsIgnoreCase("search") && args.length > 1) {
-                String searchTerm = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+            if (mode.equals("search") && args.length > first + 1) {
+                String searchTerm = String.join(" ", Arrays.copyOfRange(args, first + 1, args.length));
                 performDFSSearch(searchTerm);
                 return;
             }
 
-            Printer.printHeader("Available Products");
-
-            List<Product> products = productDAO.getAllProducts();
-
-            if (products.isEmpty()) {
-                Printer.printWarning("No products found in inventory!");
-                System.out.println("💡 Please check database connection or add products to inventory.");
+            if (mode.equals("page") || mode.equals("after")) {
+                if (args.length <= first + 1) {
+                    Printer.printError("Usage: list products page <n> | list products after <id>");
+                    return;
+                }
+                int value;
+                try {
+                    value = Integer.parseInt(args[first + 1]);
+                } catch (NumberFormatException e) {
+                    Printer.printError("Invalid " + (mode.equals("page") ? "page number" : "product id") + ": " + args[first + 1]);
+                    return;
+                }
+                if (mode.equals("page")) {
+                    showPage(value);
+                } else {
+                    showProductsAfter(value, "Products after #" + value);
+                }
                 return;
             }
 
-            System.out.println(Printer.BLUE + "📦 Total Products: " + products.size() + Printer.RESET);
-            Printer.printSeparator();
+            listAllProducts();
 
-            for (Product product : products) {
-                if (product.isInStock()) {
-                    Printer.printProduct(product.getId(), product.getName(),
-                                       product.getPrice(), product.getQuantity());
-                } else {
-                    System.out.printf(Printer.RED + "📦 %d. %s " + Printer.YELLOW + "(Rs. %.0f) " +
-                                    Printer.RED + "- Out of Stock%n" + Printer.RESET,
-                                    product.getId(), product.getName(), product.getPrice());
-                }
+        } catch (Exception e) {
+            Printer.printError("Failed to retrieve products: " + e.getMessage());
+            System.out.println("🔧 Please check database connection and try again.");
+        }
+    }
+
+    /**
+     * Stream the whole catalog
+     */
+    private void listAllProducts() throws Exception {
+        Printer.printHeader("Available Products");
+        Printer.printSeparator();
+
+        ProductPrinter printer = new ProductPrinter();
+        productDAO.forEachProductByName(printer);
+
+        if (printer.getTotal() == 0) {
+            Printer.printWarning("No products found in inventory!");
+            System.out.println("💡 Please check database connection or add products to inventory.");
+            return;
+        }
+
+        Printer.printSeparator();
+
+        // Show summary statistics
+        System.out.println(Printer.BLUE + "📦 Total Products: " + printer.getTotal() + Printer.RESET);
+        System.out.println(Printer.GREEN + "✅ In Stock: " + printer.inStock + Printer.RESET +
+                         " | " + Printer.RED + "❌ Out of Stock: " + printer.outOfStock + Printer.RESET);
+
+        System.out.println();
+        System.out.println("💡 To place an order, use: " + Printer.CYAN +
+                         "order <product_name> from <city>" + Printer.RESET);
+        System.out.println("🔍 To search products, use: " + Printer.CYAN +
+                         "list products search <term>" + Printer.RESET);
+    }
+
+    /**
+     * Show a numbered page
+     * The id before the page is looked up first, then the page is read by keyset.
+     * @param page Page number, starting at 1
+     */
+    private void showPage(int page) throws Exception {
+        if (page < 1) {
+            Printer.printError("Page numbers start at 1");
+            return;
+        }
+
+        int afterId = 0;
+        if (page > 1) {
+            afterId = productDAO.getProductIdAt((page - 1) * PAGE_SIZE - 1);
+            if (afterId < 0) {
+                Printer.printWarning("Page " + page + " is past the end of the product list.");
+                return;
             }
+        }
+        showProductsAfter(afterId, "Products - Page " + page);
+    }
 
-            Printer.printSeparator();
+    /**
+     * Show one page of products following a product id
+     * @param afterId Last product id of the previous page
+     * @param title Header title
+     */
+    private void showProductsAfter(int afterId, String title) throws Exception {
+        Printer.printHeader(title);
+        Printer.printSeparator();
 
-            // Show summary statistics
-            long inStockCount = products.stream().filter(Product::isInStock).count();
-            long outOfStockCount = products.size() - inStockCount;
+        ProductPrinter printer = new ProductPrinter();
+        productDAO.forEachProduct(afterId, PAGE_SIZE, printer);
 
-            System.out.println(Printer.GREEN + "✅ In Stock: " + inStockCount + Printer.RESET +
-                             " | " + Printer.RED + "❌ Out of Stock: " + outOfStockCount + Printer.RESET);
+        if (printer.getTotal() == 0) {
+            Printer.printWarning("No more products after #" + afterId + ".");
+            return;
+        }
 
-            System.out.println();
-            System.out.println("💡 To place an order, use: " + Printer.CYAN +
-                             "order <product_name> from <city>" + Printer.RESET);
-            System.out.println("🔍 To search products, use: " + Printer.CYAN +
-                             "list products search <term>" + Printer.RESET);
+        Printer.printSeparator();
+        System.out.println(Printer.BLUE + "📦 Products on this page: " + printer.getTotal() + Printer.RESET +
+                         " | " + Printer.GREEN + "✅ In Stock: " + printer.inStock + Printer.RESET +
+                         " | " + Printer.RED + "❌ Out of Stock: " + printer.outOfStock + Printer.RESET);
 
-        } catch (Exception e) {
-            Printer.printError("Failed to retrieve products: " + e.getMessage());
-            System.out.println("🔧 Please check database connection and try again.");
+        if (printer.getTotal() == PAGE_SIZE) {
+            System.out.println("➡️  Next page: " + Printer.CYAN +
+                             "list products after " + printer.lastId + Printer.RESET);
         }
     }
 
@@ -107,9 +209,7 @@ public class ListProductsCommand {
                         Printer.printProduct(product.getId(), product.getName(),
                                            product.getPrice(), product.getQuantity());
                     } else {
-                        System.out.printf(Printer.RED + "📦 %d. %s " + Printer.YELLOW + "(Rs. %.0f) " +
-                                        Printer.RED + "- Out of Stock%n" + Printer.RESET,
-                                        product.getId(), product.getName(), product.getPrice());
+                        Printer.printOutOfStockProduct(product.getId(), product.getName(), product.getPrice());
                     }
                 }
                 System.out.println();
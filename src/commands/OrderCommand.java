@@ -1,6 +1,7 @@
 package commands;
 
 import dao.OrderProcessor;
+import engine.CommandParser.OrderRequest;
 import models.Order;
 import utils.Printer;
 
@@ -15,8 +16,12 @@ public class OrderCommand {
         this.orderProcessor = new OrderProcessor();
     }
 
-    public void execute(String[] args) {
-        if (args.length < 2) {
+    /**
+     * Place an order
+     * @param request Parsed order, or null to show the usage
+     */
+    public void execute(OrderRequest request) {
+        if (request == null) {
             Printer.printError("Invalid order format!");
             System.out.println("💡 Usage: " + Printer.CYAN + "order <product_name> from <city>" + Printer.RESET);
             System.out.println("💡 Fast delivery: " + Printer.CYAN + "order <product_name> from <city> fast" + Printer.RESET);
@@ -25,9 +30,9 @@ public class OrderCommand {
             return;
         }
 
-        String productName = args[0];
-        String customerCity = args[1];
-        boolean fastDelivery = args.length > 2 && args[2].equalsIgnoreCase("fast");
+        String productName = request.getProductName();
+        String customerCity = request.getCustomerCity();
+        boolean fastDelivery = request.isFastDelivery();
 
         try {
             if (fastDelivery) {
@@ -0,0 +1,69 @@
+package commands;
+
+import analytics.OrderScan;
+import analytics.OrderStats;
+import dao.DAOFactory;
+import utils.Printer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Report Command
+ * Shows order volumes and delivery km per warehouse, customer city and day,
+ * or exports every order to a file, from one streaming pass over the orders
+ * (see analytics.OrderScan)
+ */
+public class ReportCommand {
+    private static final int DEFAULT_ROWS = 10;
+
+    /**
+     * Print the order report: "report [rows]"
+     * @param args Command arguments
+     */
+    public void execute(String[] args) {
+        int rows = DEFAULT_ROWS;
+        if (args.length > 0) {
+            try {
+                rows = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                rows = -1;
+            }
+            if (rows <= 0 || args.length > 1) {
+                System.out.println("❌ Usage: report [rows]");
+                return;
+            }
+        }
+
+        OrderStats stats = new OrderStats();
+        try {
+            new OrderScan(DAOFactory.getInstance().getOrderDAO()).run(stats);
+        } catch (SQLException e) {
+            Printer.printError("Could not read orders: " + e.getMessage());
+            return;
+        }
+        stats.print(rows);
+    }
+
+    /**
+     * Export every order: "export <file.ndjson | file.ocol>"
+     * @param args Command arguments
+     */
+    public void export(String[] args) {
+        if (args.length == 0) {
+            System.out.println("❌ Usage: export <orders.ndjson | orders.ocol>");
+            return;
+        }
+
+        String file = String.join(" ", args);
+        long start = System.nanoTime();
+        try {
+            long orders = new OrderScan(DAOFactory.getInstance().getOrderDAO()).export(Path.of(file), null);
+            Printer.printSuccess(String.format("Exported %d orders to %s in %.2f s",
+                    orders, file, (System.nanoTime() - start) / 1e9));
+        } catch (IOException | SQLException e) {
+            Printer.printError("Export failed: " + e.getMessage());
+        }
+    }
+}
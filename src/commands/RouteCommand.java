@@ -1,8 +1,13 @@
 package commands;
 
+import dsa.CompactGraph;
+import dsa.ConnectedComponents;
 import dsa.Dijkstra;
 import dsa.Graph;
+import dsa.ShortestPathTree;
+import dao.DAOFactory;
 import dao.RouteDAO;
+import engine.CommandParser.RouteQuery;
 import utils.Printer;
 import java.util.List;
 
@@ -14,35 +19,51 @@ public class RouteCommand {
     private final RouteDAO routeDAO;
     private final Graph cityGraph;
     private final Dijkstra dijkstra;
+    private ConnectedComponents components; // guarded by this, see getComponents()
 
     public RouteCommand() {
-        this.routeDAO = new RouteDAO();
-        this.cityGraph = new Graph();
+        DAOFactory daoFactory = DAOFactory.getInstance();
+        this.routeDAO = daoFactory.getRouteDAO();
+        this.cityGraph = daoFactory.getCityGraph();
         this.dijkstra = new Dijkstra();
-        
-        // Load city graph from database
-        loadCityGraph();
     }
 
-    public void execute(String[] args) {
-        if (args.length < 2) {
+    /**
+     * Show the shortest route, or alternative routes when the query asks for them
+     * @param query Parsed route query, or null to show the usage
+     */
+    public void execute(RouteQuery query) {
+        if (query == null) {
             Printer.printError("Invalid route format!");
             System.out.println("💡 Usage: " + Printer.CYAN + "show route <city1> to <city2>" + Printer.RESET);
             System.out.println("📝 Example: " + Printer.GREEN + "show route Lahore to Karachi" + Printer.RESET);
+            System.out.println("📝 Alternatives: " + Printer.GREEN + "show route Lahore to Karachi alternatives 3" + Printer.RESET);
             return;
         }
 
-        String fromCity = args[0];
-        String toCity = args[1];
+        String fromCity = query.getFromCity();
+        String toCity = query.getToCity();
+
+        if (query.wantsAlternatives()) {
+            executeAlternatives(fromCity, toCity, query.getAlternatives());
+            return;
+        }
 
         try {
             Printer.printInfo("Finding shortest route from " + fromCity + " to " + toCity + "...");
+
+            // Cities in different components can never be connected, skip the search
+            if (!getComponents().areConnected(fromCity, toCity)) {
+                handleRouteNotFound(fromCity, toCity);
+                return;
+            }
             
             // Find shortest path using Dijkstra's algorithm
-            Dijkstra.PathResult result = dijkstra.findShortestPath(cityGraph, fromCity, toCity);
+            ShortestPathTree tree = dijkstra.buildShortestPathTree(cityGraph, fromCity);
+            Dijkstra.PathResult result = tree.getPath(toCity);
             
             if (result != null && result.getPath() != null && !result.getPath().isEmpty()) {
-                displayRoute(result, fromCity, toCity);
+                displayRoute(result, tree.getSegmentDistances(toCity), fromCity, toCity);
             } else {
                 handleRouteNotFound(fromCity, toCity);
             }
@@ -53,7 +74,7 @@ public class RouteCommand {
         }
     }
 
-    private void displayRoute(Dijkstra.PathResult result, String fromCity, String toCity) {
+    private void displayRoute(Dijkstra.PathResult result, List<Integer> segmentDistances, String fromCity, String toCity) {
         Printer.printSeparator();
         Printer.printSuccess("Shortest route found!");
         
@@ -91,8 +112,8 @@ public class RouteCommand {
                 String currentCity = path.get(i);
                 String nextCity = path.get(i + 1);
                 
-                // Get distance between consecutive cities
-                int segmentDistance = getDistanceBetweenCities(currentCity, nextCity);
+                // Segment distances come from the same search, no database lookup needed
+                int segmentDistance = segmentDistances.get(i);
                 
                 System.out.printf("  %d. %s → %s (%d km)%n", 
                                 (i + 1), currentCity, nextCity, segmentDistance);
@@ -103,6 +124,56 @@ public class RouteCommand {
         System.out.println("💡 This route is optimized for minimum distance using Dijkstra's algorithm!");
     }
 
+    /**
+     * Display the k shortest alternative routes (Yen's algorithm)
+     * @param fromCity Starting city
+     * @param toCity Destination city
+     * @param k Number of routes
+     */
+    private void executeAlternatives(String fromCity, String toCity, int k) {
+        try {
+            Printer.printInfo("Finding " + k + " alternative routes from " + fromCity + " to " + toCity + "...");
+
+            ConnectedComponents components = getComponents();
+            if (!components.areConnected(fromCity, toCity)) {
+                handleRouteNotFound(fromCity, toCity);
+                return;
+            }
+
+            List<Dijkstra.PathResult> routes = dijkstra.findKShortestPaths(cityGraph, fromCity, toCity, k);
+
+            if (routes.isEmpty()) {
+                handleRouteNotFound(fromCity, toCity);
+                return;
+            }
+
+            Printer.printSeparator();
+            Printer.printSuccess(routes.size() + " route(s) found!");
+            System.out.println();
+
+            int shortestDistance = routes.get(0).getDistance();
+            for (int i = 0; i < routes.size(); i++) {
+                Dijkstra.PathResult route = routes.get(i);
+                String label = i == 0 ? "shortest" : "+" + (route.getDistance() - shortestDistance) + " km";
+
+                System.out.println(Printer.YELLOW + "🛣️  Route " + (i + 1) + " (" + label + ")" + Printer.RESET);
+                Printer.printRoute(String.join(" → ", route.getPath()), route.getDistance());
+            }
+
+            if (routes.size() < k) {
+                System.out.println();
+                System.out.println("ℹ️ Only " + routes.size() + " loop-free route(s) exist between these cities.");
+            }
+
+            Printer.printSeparator();
+            System.out.println("💡 Alternatives are ranked by distance using Yen's k-shortest paths algorithm!");
+
+        } catch (Exception e) {
+            Printer.printError("Route calculation failed: " + e.getMessage());
+            System.out.println("🔧 Please check city names and try again.");
+        }
+    }
+
     private void handleRouteNotFound(String fromCity, String toCity) {
         Printer.printError("No route found between " + fromCity + " and " + toCity + "!");
         
@@ -133,19 +204,16 @@ public class RouteCommand {
         }
     }
 
-    private void loadCityGraph() {
-        try {
-            routeDAO.loadGraphFromDatabase(cityGraph);
-        } catch (Exception e) {
-            System.err.println("Warning: Failed to load city graph from database: " + e.getMessage());
-        }
-    }
-
-    private int getDistanceBetweenCities(String city1, String city2) {
-        try {
-            return routeDAO.getDirectDistance(city1, city2);
-        } catch (Exception e) {
-            return 0; // Return 0 if distance cannot be determined
+    /**
+     * Get the components of the current city graph, rebuilt when the graph changes
+     * Synchronized because route commands run at the same time on job workers
+     * that share this command.
+     * @return Connected components of the current graph
+     */
+    private synchronized ConnectedComponents getComponents() {
+        if (components == null || !components.getGraph().isCurrent(cityGraph)) {
+            components = new ConnectedComponents(CompactGraph.of(cityGraph));
         }
+        return components;
     }
 }
@@ -0,0 +1,104 @@
+package commands;
+
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.PrometheusExporter;
+import utils.Printer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Stats Command
+ * Displays latency percentiles and rates of commands, DAO calls and graph
+ * searches, resets them, or exports them in the Prometheus text format
+ */
+public class StatsCommand {
+
+    public void execute(String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("reset")) {
+            Metrics.reset();
+            Printer.printSuccess("Statistics reset");
+            return;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("export")) {
+            if (args.length < 2) {
+                System.out.println("❌ Usage: stats export <file>");
+                return;
+            }
+            try {
+                PrometheusExporter.writeTo(Path.of(args[1]));
+                Printer.printSuccess("Metrics written to " + args[1]);
+            } catch (IOException e) {
+                Printer.printError("Could not write metrics: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (args.length > 0) {
+            System.out.println("❌ Usage: stats [reset | export <file>]");
+            return;
+        }
+
+        double elapsed = Metrics.getElapsedSeconds();
+        Printer.printHeader(String.format("Statistics (last %.1f s)", elapsed));
+
+        String currentName = null;
+        for (Map.Entry<String, Histogram> entry : Metrics.getTimers().entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+
+            String name = nameOf(entry.getKey());
+            if (!name.equals(currentName)) {
+                System.out.println();
+                System.out.println(Printer.BLUE + "⏱️  " + name + Printer.RESET);
+                System.out.printf("  %-50s %9s %9s %9s %9s %9s %9s%n",
+                        "", "count", "rate/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+                currentName = name;
+            }
+
+            System.out.printf("  %-50s %9d %9.1f %9.3f %9.3f %9.3f %9.3f%n",
+                    labelsOf(entry.getKey()), histogram.getCount(), histogram.getCount() / elapsed,
+                    millis(histogram.getPercentile(50)), millis(histogram.getPercentile(90)),
+                    millis(histogram.getPercentile(99)), millis(histogram.getMax()));
+        }
+
+        boolean printedCounters = false;
+        for (Map.Entry<String, Counter> entry : Metrics.getCounters().entrySet()) {
+            long value = entry.getValue().get();
+            if (value == 0) {
+                continue;
+            }
+            if (!printedCounters) {
+                System.out.println();
+                System.out.println(Printer.BLUE + "🔢 Counters" + Printer.RESET);
+                printedCounters = true;
+            }
+            System.out.printf("  %-70s %,14d %,12.1f/s%n", entry.getKey(), value, value / elapsed);
+        }
+
+        if (currentName == null && !printedCounters) {
+            Printer.printInfo("Nothing recorded yet");
+        }
+        Printer.printSeparator();
+    }
+
+    private static String nameOf(String series) {
+        int brace = series.indexOf('{');
+        return brace == -1 ? series : series.substring(0, brace);
+    }
+
+    private static String labelsOf(String series) {
+        int brace = series.indexOf('{');
+        return brace == -1 ? "" : series.substring(brace + 1, series.length() - 1);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -1,52 +1,232 @@
 package config;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Database Connection Manager for MySQL
- * Handles connection pooling and database connectivity
+ * Handles connection pooling and database connectivity.
+ * Connections handed out by getConnection() go back to a small pool when
+ * closed, so the usual try-with-resources in the DAOs no longer reconnects on
+ * every query and several threads can run orders at once.
+ * URL and credentials can be overridden with the db.url, db.user, db.password
+ * and db.pool.size system properties.
+ * Statements that read very large results go through streamResults(), so
+ * the driver hands rows over as they arrive instead of buffering them all.
  */
 public class DBConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/store_algorithms";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "1234";
-    private static Connection connection = null;
+    private static final String URL = System.getProperty("db.url", "jdbc:mysql://localhost:3306/store_algorithms");
+    private static final String USERNAME = System.getProperty("db.user", "root");
+    private static final String PASSWORD = System.getProperty("db.password", "1234");
+    private static final int POOL_SIZE = Integer.getInteger("db.pool.size", 10);
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+
+    private static final LinkedBlockingQueue<Connection> idle = new LinkedBlockingQueue<>();
+    private static final AtomicInteger openConnections = new AtomicInteger();
+    private static final LongAdder roundTrips = new LongAdder();
+    private static boolean announced = false;
 
     /**
-     * Get database connection (singleton pattern)
-     * @return Connection object
+     * Get a pooled database connection
+     * Closing the returned connection gives it back to the pool.
+     * @return Connection object, or null if no connection could be made
      */
     public static Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                System.out.println("✅ Database connected successfully!");
-            }
+            Connection physical = borrow();
+            return physical != null ? pooled(physical) : null;
         } catch (ClassNotFoundException e) {
             System.err.println("❌ MySQL JDBC Driver not found!");
             e.printStackTrace();
         } catch (SQLException e) {
             System.err.println("❌ Database connection failed!");
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("❌ Interrupted while waiting for a database connection!");
+        }
+        return null;
+    }
+
+    private static Connection borrow() throws SQLException, ClassNotFoundException, InterruptedException {
+        while (true) {
+            Connection physical = idle.poll();
+            if (physical == null) {
+                // Open a new connection while below the pool size, otherwise wait for one
+                if (openConnections.incrementAndGet() <= POOL_SIZE) {
+                    try {
+                        return connect();
+                    } catch (SQLException | ClassNotFoundException e) {
+                        openConnections.decrementAndGet();
+                        throw e;
+                    }
+                }
+                openConnections.decrementAndGet();
+                physical = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (physical == null) {
+                    throw new SQLException("Timed out waiting for a pooled connection");
+                }
+            }
+
+            if (!physical.isClosed()) {
+                return physical;
+            }
+            openConnections.decrementAndGet(); // dropped by the server, replace it
+        }
+    }
+
+    private static Connection connect() throws SQLException, ClassNotFoundException {
+        Properties info = new Properties();
+        info.setProperty("user", USERNAME);
+        info.setProperty("password", PASSWORD);
+        if (URL.startsWith("jdbc:mysql:")) {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        }
+        Connection connection = DriverManager.getConnection(URL, info);
+        synchronized (DBConnection.class) {
+            if (!announced) {
+                announced = true;
+                System.out.println("✅ Database connected successfully!");
+            }
         }
         return connection;
     }
 
+    private static void release(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                openConnections.decrementAndGet();
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idle.offer(physical);
+        } catch (SQLException e) {
+            openConnections.decrementAndGet();
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // already broken
+            }
+        }
+    }
+
     /**
-     * Close database connection
+     * Wrap a physical connection so close() returns it to the pool
+     * and every statement execution is counted as a round trip.
      */
-    public static void closeConnection() {
+    private static Connection pooled(Connection physical) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean closed = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            release(physical);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || physical.isClosed();
+                    case "commit":
+                    case "rollback":
+                        roundTrips.increment();
+                        break;
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("Connection already returned to the pool");
+                }
+
+                Object result = invokeTarget(physical, method, args);
+                if (result instanceof Statement statement) {
+                    return countingStatement(statement, method.getReturnType());
+                }
+                return result;
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object countingStatement(Statement statement, Class<?> type) {
+        Class<?> iface = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{iface}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                roundTrips.increment();
+            }
+            return invokeTarget(statement, method, args);
+        });
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("🔌 Database connection closed.");
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Make a forward-only, read-only statement stream its rows
+     * MySQL Connector/J streams row by row only for a fetch size of
+     * Integer.MIN_VALUE; other fetch sizes there would need cursor fetch, which
+     * turns every statement on the connection into a server-side prepared
+     * statement. Other drivers get the given fetch size. The connection runs no
+     * other statement until the streamed result set is closed.
+     * @param stmt Statement about to be executed
+     * @param fetchSize Rows per fetch for drivers other than MySQL
+     */
+    public static void streamResults(Statement stmt, int fetchSize) throws SQLException {
+        stmt.setFetchSize(URL.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : fetchSize);
+    }
+
+    /**
+     * Get the number of database round trips made so far
+     * Counts statement executions, commits and rollbacks on pooled connections.
+     * @return Round trip count
+     */
+    public static long getRoundTripCount() {
+        return roundTrips.sum();
+    }
+
+    /**
+     * Close all pooled database connections
+     */
+    public static void closeConnection() {
+        boolean closedAny = false;
+        Connection physical;
+        while ((physical = idle.poll()) != null) {
+            try {
+                physical.close();
+                closedAny = true;
+            } catch (SQLException e) {
+                System.err.println("❌ Error closing database connection!");
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            System.err.println("❌ Error closing database connection!");
-            e.printStackTrace();
+            openConnections.decrementAndGet();
+        }
+        if (closedAny) {
+            System.out.println("🔌 Database connection closed.");
         }
     }
 
@@ -55,8 +235,7 @@ public class DBConnection {
      * @return true if connection successful
      */
     public static boolean testConnection() {
-        try {
-            Connection testConn = getConnection();
+        try (Connection testConn = getConnection()) {
             return testConn != null && !testConn.isClosed();
         } catch (SQLException e) {
             return false;
@@ -0,0 +1,120 @@
+package dao;
+
+import metrics.Counter;
+import metrics.Metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalescing DAO
+ * Wraps a DAO interface in a proxy that sends its single-key lookups through
+ * a RequestCoalescer, so lookups made at the same moment by different
+ * threads (server requests, batch workers) share one multi-get query. Other
+ * methods are passed straight through. Lookups and the batches that served
+ * them are counted in store_coalesced_lookups_total{dao, method} and
+ * store_coalesced_batches_total{dao, method}.
+ */
+public final class CoalescingDAO {
+    // Single-key lookups and the multi-gets that serve them
+    private static final String[][] LOOKUPS = {
+            {"getProductById", "getProductsById"},
+            {"getProductByName", "getProductsByName"},
+            {"getWarehouseById", "getWarehousesById"},
+            {"getCityById", "getCitiesById"},
+            {"getCityByName", "getCitiesByName"},
+            {"getOrderById", "getOrdersById"},
+    };
+
+    private CoalescingDAO() {
+    }
+
+    /**
+     * Wrap a DAO
+     * @param daoInterface DAO interface to expose
+     * @param target Implementation with the multi-get methods
+     * @param windowNanos How long the first lookup of a batch waits for others
+     * @param maxBatchSize Lookups per batch
+     * @return Proxy implementing the interface
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> daoInterface, T target, long windowNanos, int maxBatchSize) {
+        String dao = daoInterface.getSimpleName();
+        Map<Method, RequestCoalescer<Object, Object>> coalescers = new HashMap<>();
+        for (String[] lookup : LOOKUPS) {
+            Method single = find(daoInterface, lookup[0]);
+            Method multi = find(daoInterface, lookup[1]);
+            if (single == null || multi == null) {
+                continue;
+            }
+
+            boolean byId = single.getParameterTypes()[0] == int.class;
+            Counter batches = Metrics.counter("store_coalesced_batches_total", "dao", dao, "method", lookup[0]);
+            Counter lookups = Metrics.counter("store_coalesced_lookups_total", "dao", dao, "method", lookup[0]);
+            coalescers.put(single, new RequestCoalescer<>(keys -> {
+                batches.increment();
+                lookups.add(keys.size());
+                return multiGet(target, multi, byId, keys);
+            }, windowNanos, maxBatchSize));
+        }
+
+        return (T) Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[]{daoInterface}, (proxy, method, args) -> {
+            RequestCoalescer<Object, Object> coalescer = coalescers.get(method);
+            if (coalescer != null && args[0] != null) {
+                return coalescer.get(args[0]);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static Method find(Class<?> daoInterface, String name) {
+        for (Method method : daoInterface.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Call the multi-get of a batch with an int[] of IDs or a list of names
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> multiGet(Object target, Method multi, boolean byId, List<Object> keys)
+            throws SQLException {
+        Object argument;
+        if (byId) {
+            int[] ids = new int[keys.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = (Integer) keys.get(i);
+            }
+            argument = ids;
+        } else {
+            argument = new ArrayList<>(keys);
+        }
+
+        try {
+            return (List<Object>) multi.invoke(target, argument);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
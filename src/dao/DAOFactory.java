@@ -0,0 +1,307 @@
+package dao;
+
+import dsa.Graph;
+import dsa.GraphSnapshot;
+import dsa.InventoryMatrix;
+import generator.Dataset;
+import generator.DatasetGenerator;
+import metrics.InstrumentedDAO;
+import metrics.Metrics;
+import models.Product;
+import models.Warehouse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * DAO Factory
+ * Provides the data access objects of one storage backend:
+ *  - "jdbc"   (default): MySQL through DBConnection
+ *  - "memory": in-process stores filled from a generated dataset, with no database
+ * The backend is chosen with the store.backend system property (Main also
+ * accepts --backend=memory). The in-memory dataset size is set with
+ * store.dataset.cities, store.dataset.products, store.dataset.warehouses and
+ * store.dataset.seed.
+ * With store.inventory=offheap the warehouse stock is kept in an off-heap
+ * InventoryMatrix: instead of per-warehouse maps for the memory backend, and
+ * as a write-through copy of warehouse_inventory for the JDBC backend.
+ * store.inventory.file maps the in-memory matrix from a file so stock levels
+ * survive restarts; the JDBC backend reloads it from the database instead.
+ * The city graph is loaded once per factory and shared (see getCityGraph). It
+ * is saved to the store.graph.snapshot file (city-graph.bin for the JDBC
+ * backend by default, "off" to disable) and read back from there while the
+ * routes are unchanged.
+ * The shared instance times every DAO call unless store.metrics=false.
+ * With store.coalesce=true, concurrent single-key lookups are merged into
+ * multi-get queries (see CoalescingDAO). store.coalesce.window.micros sets
+ * how long a lookup waits for others and store.coalesce.batch the batch size.
+ */
+public class DAOFactory {
+    public static final String JDBC = "jdbc";
+    public static final String MEMORY = "memory";
+    private static final long DEFAULT_COALESCE_WINDOW_MICROS = 50;
+    private static final int DEFAULT_COALESCE_BATCH = 256;
+
+    private static DAOFactory instance;
+
+    private final String backend;
+    private final ProductDAO productDAO;
+    private final WarehouseDAO warehouseDAO;
+    private final RouteDAO routeDAO;
+    private final CityDAO cityDAO;
+    private final OrderDAO orderDAO;
+    private Graph cityGraph; // loaded on first use, guarded by this
+
+    public DAOFactory(String backend, ProductDAO productDAO, WarehouseDAO warehouseDAO,
+                      RouteDAO routeDAO, CityDAO cityDAO, OrderDAO orderDAO) {
+        this.backend = backend;
+        this.productDAO = productDAO;
+        this.warehouseDAO = warehouseDAO;
+        this.routeDAO = routeDAO;
+        this.cityDAO = cityDAO;
+        this.orderDAO = orderDAO;
+    }
+
+    /**
+     * Create the MySQL backed DAOs
+     * @return JDBC factory
+     */
+    public static DAOFactory jdbc() {
+        return jdbc(new JdbcWarehouseDAO());
+    }
+
+    private static DAOFactory jdbc(JdbcWarehouseDAO warehouseDAO) {
+        return new DAOFactory(JDBC, new JdbcProductDAO(), warehouseDAO,
+                new JdbcRouteDAO(), new JdbcCityDAO(), new JdbcOrderDAO());
+    }
+
+    /**
+     * Create in-memory DAOs holding a copy of a dataset
+     * @param dataset Cities, routes, products, warehouses and inventory to serve
+     * @return In-memory factory
+     */
+    public static DAOFactory inMemory(Dataset dataset) {
+        return inMemory(dataset, null);
+    }
+
+    /**
+     * Create in-memory DAOs with warehouse stock kept in an inventory matrix
+     * @param dataset Cities, routes, products, warehouses and inventory to serve
+     * @param matrix Grid for the warehouse stock, or null for per-warehouse maps
+     * @return In-memory factory
+     */
+    public static DAOFactory inMemory(Dataset dataset, InventoryMatrix matrix) {
+        return new DAOFactory(MEMORY,
+                new InMemoryProductDAO(dataset.getProducts()),
+                new InMemoryWarehouseDAO(dataset.getWarehouses(), matrix),
+                new InMemoryRouteDAO(dataset.getCities(), dataset.getRoutes()),
+                new InMemoryCityDAO(dataset.getCities()),
+                new InMemoryOrderDAO());
+    }
+
+    /**
+     * Create the factory selected by system properties
+     * @return Factory for the configured backend
+     */
+    public static DAOFactory fromSystemProperties() {
+        String backend = System.getProperty("store.backend", JDBC);
+        if (backend.equalsIgnoreCase(MEMORY)) {
+            DatasetGenerator generator = new DatasetGenerator(Long.getLong("store.dataset.seed", 42));
+            generator.setCityCount(Integer.getInteger("store.dataset.cities", 15));
+            generator.setProductCount(Integer.getInteger("store.dataset.products", 15));
+            generator.setWarehouseCount(Integer.getInteger("store.dataset.warehouses", 3));
+            Dataset dataset = generator.generate();
+            return inMemory(dataset, inventoryMatrix(dataset));
+        }
+        if (!backend.equalsIgnoreCase(JDBC)) {
+            System.err.println("Warning: Unknown backend '" + backend + "', using " + JDBC);
+        }
+        if (System.getProperty("store.inventory", "heap").equalsIgnoreCase("offheap")) {
+            try {
+                return jdbc(JdbcWarehouseDAO.withInventoryMatrix());
+            } catch (SQLException e) {
+                System.err.println("Warning: Failed to load the inventory matrix, reading stock from the database: " + e.getMessage());
+            }
+        }
+        return jdbc();
+    }
+
+    /**
+     * Create the off-heap inventory matrix selected by system properties
+     * When the matrix is restored from a file, product stock totals are taken
+     * from it so they agree with the warehouse stock.
+     * @param dataset Dataset whose warehouses and products make the rows and columns
+     * @return Matrix, or null to keep stock in per-warehouse maps
+     */
+    private static InventoryMatrix inventoryMatrix(Dataset dataset) {
+        String file = System.getProperty("store.inventory.file");
+        if (file == null && !System.getProperty("store.inventory", "heap").equalsIgnoreCase("offheap")) {
+            return null;
+        }
+
+        int[] warehouseIds = dataset.getWarehouses().stream().mapToInt(Warehouse::getId).sorted().toArray();
+        int[] productIds = dataset.getProducts().stream().mapToInt(Product::getId).sorted().toArray();
+        if (file == null) {
+            return InventoryMatrix.allocate(warehouseIds, productIds);
+        }
+
+        try {
+            InventoryMatrix matrix = InventoryMatrix.open(Path.of(file), warehouseIds, productIds);
+            if (matrix.isRestored()) {
+                for (Product product : dataset.getProducts()) {
+                    product.setQuantity((int) matrix.productTotal(matrix.productIndex(product.getId())));
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(matrix::force));
+            return matrix;
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to map inventory file " + file + ", keeping stock on the heap: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the application-wide factory, creating it from system properties on first use
+     * @return Shared factory
+     */
+    public static synchronized DAOFactory getInstance() {
+        if (instance == null) {
+            DAOFactory factory = fromSystemProperties();
+            if (Boolean.getBoolean("store.coalesce")) {
+                factory = factory.coalesced(
+                        Long.getLong("store.coalesce.window.micros", DEFAULT_COALESCE_WINDOW_MICROS) * 1000,
+                        Integer.getInteger("store.coalesce.batch", DEFAULT_COALESCE_BATCH));
+            }
+            instance = Metrics.isEnabled() ? factory.instrumented() : factory;
+        }
+        return instance;
+    }
+
+    /**
+     * Wrap every DAO of this factory so its calls are timed in the metrics registry
+     * @return Factory with the same backend and timed DAOs
+     */
+    public DAOFactory instrumented() {
+        return new DAOFactory(backend,
+                InstrumentedDAO.wrap(ProductDAO.class, productDAO),
+                InstrumentedDAO.wrap(WarehouseDAO.class, warehouseDAO),
+                InstrumentedDAO.wrap(RouteDAO.class, routeDAO),
+                InstrumentedDAO.wrap(CityDAO.class, cityDAO),
+                InstrumentedDAO.wrap(OrderDAO.class, orderDAO));
+    }
+
+    /**
+     * Wrap the DAOs of this factory so concurrent single-key lookups share multi-get queries
+     * Route lookups are not keyed by ID and are passed through unchanged.
+     * @param windowNanos How long the first lookup of a batch waits for others
+     * @param maxBatchSize Lookups per batch
+     * @return Factory with the same backend and coalescing DAOs
+     */
+    public DAOFactory coalesced(long windowNanos, int maxBatchSize) {
+        return new DAOFactory(backend,
+                CoalescingDAO.wrap(ProductDAO.class, productDAO, windowNanos, maxBatchSize),
+                CoalescingDAO.wrap(WarehouseDAO.class, warehouseDAO, windowNanos, maxBatchSize),
+                routeDAO,
+                CoalescingDAO.wrap(CityDAO.class, cityDAO, windowNanos, maxBatchSize),
+                CoalescingDAO.wrap(OrderDAO.class, orderDAO, windowNanos, maxBatchSize));
+    }
+
+    /**
+     * Replace the application-wide factory
+     * @param factory Factory to use from now on
+     */
+    public static synchronized void setInstance(DAOFactory factory) {
+        instance = factory;
+    }
+
+    /**
+     * Get the city graph, loading it on first use
+     * The graph is shared by every caller and must not be modified. It is
+     * read from the graph snapshot when the snapshot matches the routes,
+     * otherwise loaded from the route DAO and saved as the new snapshot.
+     * A failed load is not kept, so the next call tries again.
+     * @return City graph, empty if it could not be loaded
+     */
+    public synchronized Graph getCityGraph() {
+        if (cityGraph != null) {
+            return cityGraph;
+        }
+
+        Path snapshot = graphSnapshotPath();
+        try {
+            long stamp = snapshot != null ? routeDAO.getGraphStamp() : 0;
+            if (snapshot != null) {
+                try {
+                    cityGraph = GraphSnapshot.read(snapshot, stamp);
+                } catch (IOException e) {
+                    System.err.println("Warning: Failed to read graph snapshot " + snapshot + ": " + e.getMessage());
+                }
+                if (cityGraph != null) {
+                    return cityGraph;
+                }
+            }
+
+            Graph graph = new Graph();
+            routeDAO.loadGraph(graph);
+            cityGraph = graph;
+            if (snapshot != null) {
+                try {
+                    GraphSnapshot.write(graph, snapshot, stamp);
+                } catch (IOException e) {
+                    System.err.println("Warning: Failed to write graph snapshot " + snapshot + ": " + e.getMessage());
+                }
+            }
+            return cityGraph;
+        } catch (Exception e) {
+            System.err.println("Warning: Failed to load city graph: " + e.getMessage());
+            return new Graph();
+        }
+    }
+
+    /**
+     * Get the graph snapshot file selected by system properties
+     * @return Snapshot file, or null when snapshots are off
+     */
+    private Path graphSnapshotPath() {
+        String file = System.getProperty("store.graph.snapshot", requiresDatabase() ? "city-graph.bin" : "off");
+        return file.isBlank() || file.equalsIgnoreCase("off") ? null : Path.of(file);
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    /**
+     * Check whether this backend needs the MySQL database
+     * @return true for the JDBC backend
+     */
+    public boolean requiresDatabase() {
+        return JDBC.equals(backend);
+    }
+
+    public ProductDAO getProductDAO() {
+        return productDAO;
+    }
+
+    public WarehouseDAO getWarehouseDAO() {
+        return warehouseDAO;
+    }
+
+    public RouteDAO getRouteDAO() {
+        return routeDAO;
+    }
+
+    public CityDAO getCityDAO() {
+        return cityDAO;
+    }
+
+    public OrderDAO getOrderDAO() {
+        return orderDAO;
+    }
+
+    @Override
+    public String toString() {
+        return "DAOFactory{backend=" + backend + "}";
+    }
+}
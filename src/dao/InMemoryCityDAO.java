@@ -0,0 +1,106 @@
+package dao;
+
+import dsa.IntObjectHashMap;
+import models.City;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-Memory City Data Access Object
+ * Read-only city store indexed by id and by lower-case name.
+ * Returned cities are copies, like rows read from the database.
+ */
+public class InMemoryCityDAO implements CityDAO {
+    private final List<City> citiesByName;            // sorted by name
+    private final IntObjectHashMap<City> citiesById;
+    private final Map<String, City> citiesByLowerName;
+
+    public InMemoryCityDAO(List<City> cities) {
+        this.citiesByName = new ArrayList<>();
+        this.citiesById = new IntObjectHashMap<>(cities.size());
+        this.citiesByLowerName = new HashMap<>();
+
+        for (City city : cities) {
+            City stored = copy(city);
+            citiesByName.add(stored);
+            citiesById.put(stored.getId(), stored);
+            citiesByLowerName.put(stored.getName().toLowerCase(), stored);
+        }
+        citiesByName.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+    }
+
+    static City copy(City city) {
+        return new City(city.getId(), city.getName(), city.getProvince(),
+                city.getLatitude(), city.getLongitude(), city.getPopulation());
+    }
+
+    @Override
+    public List<City> getAllCities() {
+        List<City> cities = new ArrayList<>(citiesByName.size());
+        for (City city : citiesByName) {
+            cities.add(copy(city));
+        }
+        return cities;
+    }
+
+    @Override
+    public City getCityById(int id) {
+        City city = citiesById.get(id);
+        return city != null ? copy(city) : null;
+    }
+
+    @Override
+    public City getCityByName(String name) {
+        City city = citiesByLowerName.get(name.toLowerCase());
+        return city != null ? copy(city) : null;
+    }
+
+    @Override
+    public List<City> getCitiesById(int[] ids) {
+        List<City> cities = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            cities.add(getCityById(id));
+        }
+        return cities;
+    }
+
+    @Override
+    public List<City> getCitiesByName(List<String> names) {
+        List<City> cities = new ArrayList<>(names.size());
+        for (String name : names) {
+            cities.add(name != null ? getCityByName(name) : null);
+        }
+        return cities;
+    }
+
+    @Override
+    public List<City> getCitiesByProvince(String province) {
+        List<City> cities = new ArrayList<>();
+        for (City city : citiesByName) {
+            if (city.getProvince() != null && city.getProvince().equalsIgnoreCase(province)) {
+                cities.add(copy(city));
+            }
+        }
+        return cities;
+    }
+
+    @Override
+    public boolean cityExists(String cityName) {
+        return citiesByLowerName.containsKey(cityName.toLowerCase());
+    }
+
+    @Override
+    public List<City> getMetroCities() {
+        List<City> cities = new ArrayList<>();
+        for (City city : citiesByName) {
+            if (city.isMetroCity()) {
+                cities.add(copy(city));
+            }
+        }
+        cities.sort((a, b) -> Integer.compare(b.getPopulation(), a.getPopulation()));
+        return cities;
+    }
+}
@@ -0,0 +1,123 @@
+package dao;
+
+import models.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * In-Memory Order Data Access Object
+ * Append-only order log. Order ids come from an atomic sequence and double as
+ * positions in fixed-size chunks that are allocated on demand, so saving an
+ * order never copies earlier ones and never blocks other writers.
+ */
+public class InMemoryOrderDAO implements OrderDAO {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 16; // about a billion orders
+
+    private final AtomicInteger lastId = new AtomicInteger();
+    private final AtomicReferenceArray<AtomicReferenceArray<Order>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    @Override
+    public int saveOrder(Order order) {
+        int id = lastId.incrementAndGet();
+        int position = id - 1;
+        if ((position >>> CHUNK_BITS) >= MAX_CHUNKS) {
+            throw new IllegalStateException("In-memory order store is full");
+        }
+
+        // Stored as of now, like the NOW() order_date of the JDBC insert
+        Order stored = copy(order);
+        stored.setId(id);
+        stored.setOrderDate(LocalDateTime.now());
+        chunkFor(position).set(position & (CHUNK_SIZE - 1), stored);
+
+        order.setId(id);
+        return id;
+    }
+
+    private AtomicReferenceArray<Order> chunkFor(int position) {
+        int index = position >>> CHUNK_BITS;
+        AtomicReferenceArray<Order> chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    @Override
+    public Order getOrderById(int orderId) {
+        if (orderId <= 0 || orderId > lastId.get()) {
+            return null;
+        }
+        int position = orderId - 1;
+        AtomicReferenceArray<Order> chunk = chunks.get(position >>> CHUNK_BITS);
+        Order stored = chunk != null ? chunk.get(position & (CHUNK_SIZE - 1)) : null;
+        return stored != null ? copy(stored) : null; // null while the save is still in flight
+    }
+
+    @Override
+    public List<Order> getOrdersById(int[] orderIds) {
+        List<Order> orders = new ArrayList<>(orderIds.length);
+        for (int orderId : orderIds) {
+            orders.add(getOrderById(orderId));
+        }
+        return orders;
+    }
+
+    /**
+     * Stream orders in id order
+     * Orders still being saved by another thread are skipped.
+     * @param afterId Start after this order ID (0 for the first order)
+     * @param limit Maximum orders to visit, or 0 for all
+     * @param consumer Receives each order
+     * @return Number of orders visited
+     */
+    @Override
+    public int forEachOrder(int afterId, int limit, Consumer<Order> consumer) {
+        int last = lastId.get();
+        int visited = 0;
+        for (int position = Math.max(afterId, 0); position < last && (limit <= 0 || visited < limit); position++) {
+            AtomicReferenceArray<Order> chunk = chunks.get(position >>> CHUNK_BITS);
+            Order stored = chunk != null ? chunk.get(position & (CHUNK_SIZE - 1)) : null;
+            if (stored != null) {
+                consumer.accept(copy(stored));
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    @Override
+    public int getLastOrderId() {
+        return lastId.get();
+    }
+
+    /**
+     * Get the number of saved orders
+     * @return Number of orders
+     */
+    public int getOrderCount() {
+        return lastId.get();
+    }
+
+    private static Order copy(Order order) {
+        Order copy = new Order(order.getProductId(), order.getProductName(), order.getQuantity(),
+                order.getTotalPrice(), order.getCustomerCity());
+        copy.setId(order.getId());
+        copy.setWarehouseId(order.getWarehouseId());
+        copy.setWarehouseName(order.getWarehouseName());
+        copy.setWarehouseCity(order.getWarehouseCity());
+        copy.setDeliveryDistance(order.getDeliveryDistance());
+        copy.setStatus(order.getStatus());
+        copy.setOrderDate(order.getOrderDate());
+        copy.setDeliveryDate(order.getDeliveryDate());
+        return copy;
+    }
+}
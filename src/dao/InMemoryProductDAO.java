@@ -0,0 +1,262 @@
+package dao;
+
+import dsa.IntObjectHashMap;
+import models.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-Memory Product Data Access Object
+ * Products indexed by id and by lower-case name. The catalog itself is fixed
+ * apart from prices; stock levels are atomic counters updated with
+ * compare-and-set, so concurrent orders never oversell without taking a lock.
+ * Returned products are copies, like rows read from the database.
+ */
+public class InMemoryProductDAO implements ProductDAO {
+    private final List<StoredProduct> productsByName; // sorted by name
+    private final StoredProduct[] productsInIdOrder;
+    private final IntObjectHashMap<StoredProduct> productsById;
+    private final Map<String, StoredProduct> productsByLowerName;
+
+    /**
+     * Catalog entry with its live stock counter
+     */
+    private static class StoredProduct {
+        final Product product; // quantity and price fields unused, see stock and price
+        final AtomicInteger stock;
+        volatile double price;
+
+        StoredProduct(Product product) {
+            this.product = product;
+            this.stock = new AtomicInteger(product.getQuantity());
+            this.price = product.getPrice();
+        }
+
+        Product snapshot() {
+            return new Product(product.getId(), product.getName(), price, stock.get(),
+                    product.getCategory(), product.getDescription());
+        }
+    }
+
+    public InMemoryProductDAO(List<Product> products) {
+        this.productsByName = new ArrayList<>();
+        this.productsById = new IntObjectHashMap<>(products.size());
+        this.productsByLowerName = new HashMap<>();
+
+        for (Product product : products) {
+            StoredProduct stored = new StoredProduct(new Product(product.getId(), product.getName(), product.getPrice(),
+                    product.getQuantity(), product.getCategory(), product.getDescription()));
+            productsByName.add(stored);
+            productsById.put(product.getId(), stored);
+            productsByLowerName.putIfAbsent(product.getName().toLowerCase(), stored);
+        }
+        productsByName.sort((a, b) -> a.product.getName().compareToIgnoreCase(b.product.getName()));
+        this.productsInIdOrder = productsByName.toArray(new StoredProduct[0]);
+        Arrays.sort(productsInIdOrder, (a, b) -> Integer.compare(a.product.getId(), b.product.getId()));
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> products = new ArrayList<>(productsByName.size());
+        for (StoredProduct stored : productsByName) {
+            products.add(stored.snapshot());
+        }
+        return products;
+    }
+
+    @Override
+    public int forEachProduct(int afterId, int limit, Consumer<Product> consumer) {
+        int visited = 0;
+        for (int i = firstIndexAfter(afterId); i < productsInIdOrder.length; i++) {
+            if (limit > 0 && visited == limit) {
+                break;
+            }
+            consumer.accept(productsInIdOrder[i].snapshot());
+            visited++;
+        }
+        return visited;
+    }
+
+    @Override
+    public int forEachProductByName(Consumer<Product> consumer) {
+        for (StoredProduct stored : productsByName) {
+            consumer.accept(stored.snapshot());
+        }
+        return productsByName.size();
+    }
+
+    @Override
+    public int getProductIdAt(int position) {
+        if (position < 0 || position >= productsInIdOrder.length) {
+            return -1;
+        }
+        return productsInIdOrder[position].product.getId();
+    }
+
+    /**
+     * Binary search for the first product with an id greater than afterId
+     */
+    private int firstIndexAfter(int afterId) {
+        int low = 0;
+        int high = productsInIdOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (productsInIdOrder[mid].product.getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public Product getProductById(int id) {
+        StoredProduct stored = productsById.get(id);
+        return stored != null ? stored.snapshot() : null;
+    }
+
+    @Override
+    public Product getProductByName(String name) {
+        StoredProduct stored = productsByLowerName.get(name.toLowerCase());
+        return stored != null ? stored.snapshot() : null;
+    }
+
+    @Override
+    public List<Product> getProductsById(int[] ids) {
+        List<Product> products = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            products.add(getProductById(id));
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> getProductsByName(List<String> names) {
+        List<Product> products = new ArrayList<>(names.size());
+        for (String name : names) {
+            products.add(name != null ? getProductByName(name) : null);
+        }
+        return products;
+    }
+
+    @Override
+    public boolean updateProductQuantity(int productId, int newQuantity) {
+        StoredProduct stored = productsById.get(productId);
+        if (stored == null) {
+            return false;
+        }
+        stored.stock.set(newQuantity);
+        return true;
+    }
+
+    @Override
+    public int updatePrices(int[] productIds, double[] prices, int count) {
+        int updated = 0;
+        for (int i = 0; i < count; i++) {
+            StoredProduct stored = productsById.get(productIds[i]);
+            if (stored != null) {
+                stored.price = prices[i];
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean reduceStock(int productId, int quantity) {
+        StoredProduct stored = productsById.get(productId);
+        if (stored == null) {
+            return false;
+        }
+        while (true) {
+            int current = stored.stock.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (stored.stock.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasStock(int productId, int requiredQuantity) {
+        StoredProduct stored = productsById.get(productId);
+        return stored != null && stored.stock.get() >= requiredQuantity;
+    }
+
+    @Override
+    public List<Product> getProductsByCategory(String category) {
+        List<Product> products = new ArrayList<>();
+        for (StoredProduct stored : productsByName) {
+            if (stored.product.getCategory() != null && stored.product.getCategory().equalsIgnoreCase(category)) {
+                products.add(stored.snapshot());
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> deepSearchProducts(String searchTerm) {
+        Set<Product> foundProducts = new HashSet<>();
+        Set<String> visitedCategories = new HashSet<>();
+
+        // Same DFS through categories as the JDBC implementation
+        dfsProductSearch(searchTerm, foundProducts, visitedCategories, 0, 3); // Max depth 3
+
+        return new ArrayList<>(foundProducts);
+    }
+
+    private void dfsProductSearch(String searchTerm, Set<Product> foundProducts,
+                                  Set<String> visitedCategories, int depth, int maxDepth) {
+        if (depth >= maxDepth) return;
+
+        String term = searchTerm.toLowerCase();
+        for (StoredProduct stored : productsByName) {
+            Product product = stored.product;
+            if (!contains(product.getName(), term) && !contains(product.getCategory(), term)
+                    && !contains(product.getDescription(), term)) {
+                continue;
+            }
+
+            foundProducts.add(stored.snapshot());
+
+            String category = product.getCategory();
+            if (category != null && visitedCategories.add(category.toLowerCase())) {
+                dfsProductSearch(category, foundProducts, visitedCategories, depth + 1, maxDepth);
+            }
+        }
+    }
+
+    private static boolean contains(String value, String lowerTerm) {
+        return value != null && value.toLowerCase().contains(lowerTerm);
+    }
+
+    @Override
+    public List<Product> findRelatedProducts(int productId) {
+        Product baseProduct = getProductById(productId);
+        if (baseProduct == null || baseProduct.getCategory() == null) {
+            return new ArrayList<>();
+        }
+
+        Set<Product> relatedProducts = new HashSet<>();
+        Set<String> visitedCategories = new HashSet<>();
+
+        // Start DFS from the base product's category
+        dfsProductSearch(baseProduct.getCategory(), relatedProducts, visitedCategories, 0, 2);
+
+        // Remove the original product from results
+        relatedProducts.removeIf(p -> p.getId() == productId);
+
+        return new ArrayList<>(relatedProducts);
+    }
+}
@@ -0,0 +1,121 @@
+package dao;
+
+import dsa.Graph;
+import models.City;
+import models.Route;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * In-Memory Route Data Access Object
+ * Read-only route store with routes grouped by their starting city.
+ * Returned routes are copies, like rows read from the database.
+ */
+public class InMemoryRouteDAO implements RouteDAO {
+    private final List<Route> routes;                     // sorted by from/to city name
+    private final Map<String, List<Route>> routesFromCity; // lower-case name -> routes sorted by distance
+    private final Map<String, Integer> cityIds;            // lower-case name -> id
+    private final List<String> cityNames;                  // sorted
+
+    public InMemoryRouteDAO(List<City> cities, List<Route> routes) {
+        this.cityIds = new HashMap<>();
+        this.cityNames = new ArrayList<>();
+        for (City city : cities) {
+            cityIds.put(city.getName().toLowerCase(), city.getId());
+            cityNames.add(city.getName());
+        }
+        cityNames.sort(String::compareToIgnoreCase);
+
+        this.routes = new ArrayList<>();
+        this.routesFromCity = new HashMap<>();
+        for (Route route : routes) {
+            Route stored = copy(route);
+            this.routes.add(stored);
+            routesFromCity.computeIfAbsent(stored.getFromCityName().toLowerCase(), c -> new ArrayList<>()).add(stored);
+        }
+        this.routes.sort(Comparator.comparing(Route::getFromCityName, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Route::getToCityName, String.CASE_INSENSITIVE_ORDER));
+        for (List<Route> fromCity : routesFromCity.values()) {
+            fromCity.sort(Comparator.comparingInt(Route::getDistance));
+        }
+    }
+
+    private static Route copy(Route route) {
+        return new Route(route.getId(), route.getFromCityId(), route.getFromCityName(), route.getToCityId(),
+                route.getToCityName(), route.getDistance(), route.getRoadType(), true);
+    }
+
+    @Override
+    public void loadGraph(Graph graph) {
+        for (Route route : routes) {
+            graph.addRoute(route.getFromCityName(), route.getToCityName(), route.getDistance());
+        }
+    }
+
+    @Override
+    public long getGraphStamp() {
+        CRC32 crc = new CRC32();
+        long sum = 0;
+        for (Route route : routes) {
+            crc.reset();
+            crc.update((route.getFromCityName() + "|" + route.getToCityName() + "|" + route.getDistance())
+                    .getBytes(StandardCharsets.UTF_8));
+            sum += crc.getValue();
+        }
+        return routes.size() * 0x9E3779B97F4A7C15L + sum;
+    }
+
+    @Override
+    public List<Route> getAllRoutes() {
+        List<Route> result = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            result.add(copy(route));
+        }
+        return result;
+    }
+
+    @Override
+    public int getDirectDistance(String city1, String city2) {
+        for (Route route : routesFromCity.getOrDefault(city1.toLowerCase(), List.of())) {
+            if (route.getToCityName().equalsIgnoreCase(city2)) {
+                return route.getDistance();
+            }
+        }
+        for (Route route : routesFromCity.getOrDefault(city2.toLowerCase(), List.of())) {
+            if (route.getToCityName().equalsIgnoreCase(city1)) {
+                return route.getDistance();
+            }
+        }
+        return -1; // No direct route found
+    }
+
+    @Override
+    public List<String> getAllCityNames() {
+        return new ArrayList<>(cityNames);
+    }
+
+    @Override
+    public boolean cityExists(String cityName) {
+        return cityIds.containsKey(cityName.toLowerCase());
+    }
+
+    @Override
+    public int getCityId(String cityName) {
+        return cityIds.getOrDefault(cityName.toLowerCase(), -1);
+    }
+
+    @Override
+    public List<Route> getRoutesFromCity(String cityName) {
+        List<Route> result = new ArrayList<>();
+        for (Route route : routesFromCity.getOrDefault(cityName.toLowerCase(), List.of())) {
+            result.add(copy(route));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,252 @@
+package dao;
+
+import dsa.AtomicIntIntHashMap;
+import dsa.IntIntHashMap;
+import dsa.IntObjectHashMap;
+import dsa.InventoryMatrix;
+import models.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * In-Memory Warehouse Data Access Object
+ * Every warehouse keeps an AtomicIntIntHashMap of stock levels. Stock
+ * changes are compare-and-set on the map's value array and readers never
+ * lock; only stocking a new product takes the map's lock.
+ * Alternatively the stock lives in an off-heap InventoryMatrix shared by all
+ * warehouses (see DAOFactory), which keeps very large warehouse x product
+ * grids out of the garbage-collected heap and can be backed by a file.
+ * Returned warehouses are copies with an inventory snapshot, like rows read
+ * from the database. Warehouses found by getWarehousesWithProduct carry only
+ * the stock of that product, so an order never copies whole inventories.
+ */
+public class InMemoryWarehouseDAO implements WarehouseDAO {
+    private final List<StoredWarehouse> warehousesByName; // sorted by name
+    private final IntObjectHashMap<StoredWarehouse> warehousesById;
+
+    /**
+     * Warehouse details with live stock counters, kept either in its own map
+     * or in a row of the shared matrix
+     */
+    private static class StoredWarehouse {
+        final Warehouse warehouse; // inventory field unused, see stock
+        final AtomicIntIntHashMap stock; // product id -> quantity, null when matrix is used
+        final InventoryMatrix matrix;
+        final int row;
+
+        StoredWarehouse(Warehouse warehouse, AtomicIntIntHashMap stock, InventoryMatrix matrix, int row) {
+            this.warehouse = warehouse;
+            this.stock = stock;
+            this.matrix = matrix;
+            this.row = row;
+        }
+
+        /**
+         * @return Quantity, or -1 if the product is not stocked here
+         */
+        int stockOf(int productId) {
+            if (stock != null) {
+                return stock.getOrDefault(productId, -1);
+            }
+            int column = matrix.productIndex(productId);
+            return column >= 0 && matrix.isStocked(row, column) ? matrix.get(row, column) : -1;
+        }
+
+        boolean reduce(int productId, int quantity) {
+            if (stock != null) {
+                return stock.tryDecrement(productId, quantity);
+            }
+            int column = matrix.productIndex(productId);
+            return column >= 0 && matrix.tryReserve(row, column, quantity);
+        }
+
+        boolean set(int productId, int quantity) {
+            if (stock != null) {
+                stock.put(productId, quantity);
+                return true;
+            }
+            int column = matrix.productIndex(productId);
+            if (column < 0) {
+                return false;
+            }
+            matrix.set(row, column, quantity);
+            return true;
+        }
+
+        boolean add(int productId, int quantity) {
+            if (stock != null) {
+                stock.addAndGet(productId, quantity);
+                return true;
+            }
+            int column = matrix.productIndex(productId);
+            if (column < 0) {
+                return false; // the grid has no column for products outside its catalog
+            }
+            matrix.add(row, column, quantity);
+            return true;
+        }
+
+        /**
+         * Copy the warehouse details with an inventory of one product only
+         * Avoids copying a whole map or matrix row when the caller only
+         * looks at the product it asked about.
+         */
+        Warehouse snapshot(int productId, int quantity) {
+            Warehouse copy = details();
+            IntIntHashMap inventory = new IntIntHashMap(1);
+            inventory.put(productId, quantity);
+            copy.setInventory(inventory);
+            return copy;
+        }
+
+        Warehouse snapshot() {
+            Warehouse copy = details();
+            if (stock != null) {
+                copy.setInventory(stock.toMap());
+            } else {
+                IntIntHashMap inventory = new IntIntHashMap();
+                matrix.forEachInRow(row, inventory::put);
+                copy.setInventory(inventory);
+            }
+            return copy;
+        }
+
+        private Warehouse details() {
+            return new Warehouse(warehouse.getId(), warehouse.getName(), warehouse.getCityId(),
+                    warehouse.getCityName(), warehouse.getAddress(), warehouse.getCapacity());
+        }
+    }
+
+    public InMemoryWarehouseDAO(List<Warehouse> warehouses) {
+        this(warehouses, null);
+    }
+
+    /**
+     * Create the DAO over an inventory matrix
+     * A new matrix is filled from the warehouses' inventories; a matrix
+     * restored from a file keeps its stock.
+     * @param warehouses Warehouses to serve
+     * @param matrix Grid holding the stock of every warehouse, or null for per-warehouse maps
+     */
+    public InMemoryWarehouseDAO(List<Warehouse> warehouses, InventoryMatrix matrix) {
+        this.warehousesByName = new ArrayList<>();
+        this.warehousesById = new IntObjectHashMap<>(warehouses.size());
+
+        for (Warehouse warehouse : warehouses) {
+            Warehouse details = new Warehouse(warehouse.getId(), warehouse.getName(),
+                    warehouse.getCityId(), warehouse.getCityName(), warehouse.getAddress(), warehouse.getCapacity());
+            StoredWarehouse stored;
+            if (matrix == null) {
+                stored = new StoredWarehouse(details, new AtomicIntIntHashMap(warehouse.getInventory()), null, -1);
+            } else {
+                int row = matrix.warehouseIndex(warehouse.getId());
+                if (row < 0) {
+                    throw new IllegalArgumentException("Warehouse " + warehouse.getId() + " is not in the inventory matrix");
+                }
+                if (!matrix.isRestored()) {
+                    warehouse.getInventory().forEach((productId, quantity) -> {
+                        int column = matrix.productIndex(productId);
+                        if (column >= 0) {
+                            matrix.set(row, column, quantity);
+                        }
+                    });
+                }
+                stored = new StoredWarehouse(details, null, matrix, row);
+            }
+            warehousesByName.add(stored);
+            warehousesById.put(warehouse.getId(), stored);
+        }
+        warehousesByName.sort((a, b) -> a.warehouse.getName().compareToIgnoreCase(b.warehouse.getName()));
+    }
+
+    @Override
+    public List<Warehouse> getAllWarehouses() {
+        List<Warehouse> warehouses = new ArrayList<>(warehousesByName.size());
+        for (StoredWarehouse stored : warehousesByName) {
+            warehouses.add(stored.snapshot());
+        }
+        return warehouses;
+    }
+
+    @Override
+    public Warehouse getWarehouseById(int id) {
+        StoredWarehouse stored = warehousesById.get(id);
+        return stored != null ? stored.snapshot() : null;
+    }
+
+    @Override
+    public List<Warehouse> getWarehousesById(int[] ids) {
+        List<Warehouse> warehouses = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            warehouses.add(getWarehouseById(id));
+        }
+        return warehouses;
+    }
+
+    @Override
+    public List<String> getWarehouseCityNames() {
+        TreeSet<String> cityNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (StoredWarehouse stored : warehousesByName) {
+            cityNames.add(stored.warehouse.getCityName());
+        }
+        return new ArrayList<>(cityNames);
+    }
+
+    @Override
+    public List<Warehouse> getWarehousesWithProduct(int productId, int requiredQuantity) {
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (StoredWarehouse stored : warehousesByName) {
+            int quantity = stored.stockOf(productId);
+            if (quantity >= 0 && quantity >= requiredQuantity) {
+                warehouses.add(stored.snapshot(productId, quantity));
+            }
+        }
+
+        // Largest stock first, as in the JDBC query
+        warehouses.sort((a, b) -> Integer.compare(b.getProductQuantity(productId), a.getProductQuantity(productId)));
+        return warehouses;
+    }
+
+    @Override
+    public boolean reduceInventory(int warehouseId, int productId, int quantity) {
+        StoredWarehouse stored = warehousesById.get(warehouseId);
+        return stored != null && stored.reduce(productId, quantity);
+    }
+
+    @Override
+    public boolean addInventory(int warehouseId, int productId, int quantity) {
+        StoredWarehouse stored = warehousesById.get(warehouseId);
+        return stored != null && stored.add(productId, quantity);
+    }
+
+    @Override
+    public int setInventory(int[] warehouseIds, int[] productIds, int[] quantities, int count) {
+        int written = 0;
+        for (int i = 0; i < count; i++) {
+            StoredWarehouse stored = warehousesById.get(warehouseIds[i]);
+            if (stored != null && stored.set(productIds[i], quantities[i])) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public int getInventoryQuantity(int warehouseId, int productId) {
+        StoredWarehouse stored = warehousesById.get(warehouseId);
+        return stored != null ? Math.max(0, stored.stockOf(productId)) : 0;
+    }
+
+    @Override
+    public List<Warehouse> getWarehousesByCity(String cityName) {
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (StoredWarehouse stored : warehousesByName) {
+            if (stored.warehouse.getCityName().equalsIgnoreCase(cityName)) {
+                warehouses.add(stored.snapshot());
+            }
+        }
+        return warehouses;
+    }
+}
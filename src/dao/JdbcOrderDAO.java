@@ -0,0 +1,162 @@
+package dao;
+
+import config.DBConnection;
+import models.Order;
+
+import java.sql.*;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Order Data Access Object
+ * Handles database operations for orders
+ */
+public class JdbcOrderDAO implements OrderDAO {
+    private static final String ORDER_COLUMNS = "id, product_id, product_name, quantity, total_price, customer_city, "
+            + "warehouse_id, warehouse_name, warehouse_city, delivery_distance, status, order_date";
+    private static final int STREAM_FETCH_SIZE = 2000;
+
+    /**
+     * Save order to database
+     * @param order Order to save
+     * @return Generated order ID
+     */
+    @Override
+    public int saveOrder(Order order) throws SQLException {
+        String sql = """
+            INSERT INTO orders (product_id, product_name, quantity, total_price, customer_city, 
+                               warehouse_id, warehouse_name, warehouse_city, delivery_distance, status, order_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            stmt.setInt(1, order.getProductId());
+            stmt.setString(2, order.getProductName());
+            stmt.setInt(3, order.getQuantity());
+            stmt.setDouble(4, order.getTotalPrice());
+            stmt.setString(5, order.getCustomerCity());
+            stmt.setInt(6, order.getWarehouseId());
+            stmt.setString(7, order.getWarehouseName());
+            stmt.setString(8, order.getWarehouseCity());
+            stmt.setInt(9, order.getDeliveryDistance());
+            stmt.setString(10, order.getStatus().toString());
+            
+            int rowsAffected = stmt.executeUpdate();
+            
+            if (rowsAffected > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int orderId = generatedKeys.getInt(1);
+                        order.setId(orderId);
+                        return orderId;
+                    }
+                }
+            }
+        }
+        
+        return -1;
+    }
+
+    /**
+     * Get order by ID
+     * @param orderId Order ID
+     * @return Order object or null if not found
+     */
+    @Override
+    public Order getOrderById(int orderId) throws SQLException {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, orderId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return readOrder(rs);
+                }
+            }
+        }
+        
+        return null;
+    }
+
+    /**
+     * Get several orders by ID, MultiGet.CHUNK_SIZE per query
+     * @param orderIds Order IDs
+     * @return One order per ID, in the same order; null where not found
+     */
+    @Override
+    public List<Order> getOrdersById(int[] orderIds) throws SQLException {
+        return MultiGet.byIds("SELECT " + ORDER_COLUMNS + " FROM orders WHERE id IN (",
+                orderIds, JdbcOrderDAO::readOrder, Order::getId);
+    }
+
+    /**
+     * Stream orders in id order
+     * A forward-only, read-only statement over the primary key whose rows are
+     * streamed (see DBConnection.streamResults). It is a plain consistent read,
+     * so it takes no row or table locks and does not hold up new orders.
+     * @param afterId Start after this order ID (0 for the first order)
+     * @param limit Maximum orders to visit, or 0 for all
+     * @param consumer Receives each order
+     * @return Number of orders visited
+     */
+    @Override
+    public int forEachOrder(int afterId, int limit, Consumer<Order> consumer) throws SQLException {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE id > ? ORDER BY id"
+                + (limit > 0 ? " LIMIT ?" : "");
+        int visited = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DBConnection.streamResults(stmt, limit > 0 ? Math.min(limit, STREAM_FETCH_SIZE) : STREAM_FETCH_SIZE);
+            stmt.setInt(1, afterId);
+            if (limit > 0) {
+                stmt.setInt(2, limit);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(readOrder(rs));
+                    visited++;
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    /**
+     * Get the highest order ID
+     * @return Last order ID, or 0 if there are no orders
+     */
+    @Override
+    public int getLastOrderId() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM orders");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static Order readOrder(ResultSet rs) throws SQLException {
+        Order order = new Order();
+        order.setId(rs.getInt("id"));
+        order.setProductId(rs.getInt("product_id"));
+        order.setProductName(rs.getString("product_name"));
+        order.setQuantity(rs.getInt("quantity"));
+        order.setTotalPrice(rs.getDouble("total_price"));
+        order.setCustomerCity(rs.getString("customer_city"));
+        order.setWarehouseId(rs.getInt("warehouse_id"));
+        order.setWarehouseName(rs.getString("warehouse_name"));
+        order.setWarehouseCity(rs.getString("warehouse_city"));
+        order.setDeliveryDistance(rs.getInt("delivery_distance"));
+        order.setStatus(Order.OrderStatus.valueOf(rs.getString("status")));
+        order.setOrderDate(rs.getTimestamp("order_date").toLocalDateTime());
+        return order;
+    }
+}
@@ -0,0 +1,488 @@
+package dao;
+
+import config.DBConnection;
+import dsa.IntIntHashMap;
+import models.Product;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Product Data Access Object
+ * Handles all database operations for products
+ */
+public class JdbcProductDAO implements ProductDAO {
+    // Rows per fetch while streaming, for drivers other than MySQL (see DBConnection.streamResults)
+    private static final int STREAM_FETCH_SIZE = 500;
+    // Products per UPDATE when prices are set in bulk
+    private static final int PRICES_PER_STATEMENT = 500;
+
+    /**
+     * Get all products from database
+     * @return List of all products
+     */
+    @Override
+    public List<Product> getAllProducts() throws SQLException {
+        List<Product> products = new ArrayList<>();
+        String sql = "SELECT id, name, price, quantity, category, description FROM products ORDER BY name";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                Product product = new Product();
+                product.setId(rs.getInt("id"));
+                product.setName(rs.getString("name"));
+                product.setPrice(rs.getDouble("price"));
+                product.setQuantity(rs.getInt("quantity"));
+                product.setCategory(rs.getString("category"));
+                product.setDescription(rs.getString("description"));
+                
+                products.add(product);
+            }
+        }
+        
+        return products;
+    }
+
+    /**
+     * Stream products in id order
+     * The keyset condition (id > ?) walks the primary key, so rows start
+     * arriving before the end of the table is reached, and a page continued
+     * from the last id seen costs the same as the first one.
+     * @param afterId Only products with a greater id are visited (0 for the start)
+     * @param limit Maximum number of products to visit, 0 for no limit
+     * @param consumer Receives each product
+     * @return Number of products visited
+     */
+    @Override
+    public int forEachProduct(int afterId, int limit, Consumer<Product> consumer) throws SQLException {
+        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE id > ? ORDER BY id"
+                + (limit > 0 ? " LIMIT ?" : "");
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DBConnection.streamResults(stmt, limit > 0 ? Math.min(limit, STREAM_FETCH_SIZE) : STREAM_FETCH_SIZE);
+            stmt.setInt(1, afterId);
+            if (limit > 0) {
+                stmt.setInt(2, limit);
+            }
+            return stream(stmt, consumer);
+        }
+    }
+
+    /**
+     * Stream all products in name order
+     * @param consumer Receives each product
+     * @return Number of products visited
+     */
+    @Override
+    public int forEachProductByName(Consumer<Product> consumer) throws SQLException {
+        String sql = "SELECT id, name, price, quantity, category, description FROM products ORDER BY name";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DBConnection.streamResults(stmt, STREAM_FETCH_SIZE);
+            return stream(stmt, consumer);
+        }
+    }
+
+    private static int stream(PreparedStatement stmt, Consumer<Product> consumer) throws SQLException {
+        int visited = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(readProduct(rs));
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Get the id of the product at a position in id order
+     * Only the primary key is read, but the earlier index entries are still
+     * skipped one by one, so the cost grows with the position.
+     * @param position Zero-based position
+     * @return Product ID, or -1 if there are not that many products
+     */
+    @Override
+    public int getProductIdAt(int position) throws SQLException {
+        String sql = "SELECT id FROM products ORDER BY id LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, position);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("id") : -1;
+            }
+        }
+    }
+
+    /**
+     * Get product by ID
+     * @param id Product ID
+     * @return Product object or null if not found
+     */
+    @Override
+    public Product getProductById(int id) throws SQLException {
+        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, id);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Product product = new Product();
+                    product.setId(rs.getInt("id"));
+                    product.setName(rs.getString("name"));
+                    product.setPrice(rs.getDouble("price"));
+                    product.setQuantity(rs.getInt("quantity"));
+                    product.setCategory(rs.getString("category"));
+                    product.setDescription(rs.getString("description"));
+                    
+                    return product;
+                }
+            }
+        }
+        
+        return null;
+    }
+
+    /**
+     * Get product by name (case-insensitive)
+     * @param name Product name
+     * @return Product object or null if not found
+     */
+    @Override
+    public Product getProductByName(String name) throws SQLException {
+        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE LOWER(name) = LOWER(?)";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, name);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Product product = new Product();
+                    product.setId(rs.getInt("id"));
+                    product.setName(rs.getString("name"));
+                    product.setPrice(rs.getDouble("price"));
+                    product.setQuantity(rs.getInt("quantity"));
+                    product.setCategory(rs.getString("category"));
+                    product.setDescription(rs.getString("description"));
+                    
+                    return product;
+                }
+            }
+        }
+        
+        return null;
+    }
+
+    /**
+     * Get several products by ID, MultiGet.CHUNK_SIZE per query
+     * @param ids Product IDs
+     * @return One product per ID, in the same order; null where not found
+     */
+    @Override
+    public List<Product> getProductsById(int[] ids) throws SQLException {
+        return MultiGet.byIds("SELECT id, name, price, quantity, category, description FROM products WHERE id IN (",
+                ids, JdbcProductDAO::readProduct, Product::getId);
+    }
+
+    /**
+     * Get several products by name (case-insensitive), MultiGet.CHUNK_SIZE per query
+     * @param names Product names
+     * @return One product per name, in the same order; null where not found
+     */
+    @Override
+    public List<Product> getProductsByName(List<String> names) throws SQLException {
+        return MultiGet.byNames("SELECT id, name, price, quantity, category, description FROM products WHERE LOWER(name) IN (",
+                names, JdbcProductDAO::readProduct, Product::getName);
+    }
+
+    private static Product readProduct(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getInt("id"));
+        product.setName(rs.getString("name"));
+        product.setPrice(rs.getDouble("price"));
+        product.setQuantity(rs.getInt("quantity"));
+        product.setCategory(rs.getString("category"));
+        product.setDescription(rs.getString("description"));
+        return product;
+    }
+
+    /**
+     * Update product quantity
+     * @param productId Product ID
+     * @param newQuantity New quantity
+     * @return true if update successful
+     */
+    @Override
+    public boolean updateProductQuantity(int productId, int newQuantity) throws SQLException {
+        String sql = "UPDATE products SET quantity = ? WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, newQuantity);
+            stmt.setInt(2, productId);
+            
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+        }
+    }
+
+    /**
+     * Set the price of many products in one transaction
+     * Each statement updates up to PRICES_PER_STATEMENT products with a
+     * CASE over their ids. A CASE takes the first matching id, so duplicate
+     * ids are dropped first, keeping the last price of each product.
+     * @param productIds Product ID of each row
+     * @param prices New price of each row
+     * @param count Number of rows to write, from the start of the arrays
+     * @return Number of products updated
+     * @throws SQLException if any statement fails; nothing is written then
+     */
+    @Override
+    public int updatePrices(int[] productIds, double[] prices, int count) throws SQLException {
+        IntIntHashMap lastRow = new IntIntHashMap(count);
+        for (int i = 0; i < count; i++) {
+            lastRow.put(productIds[i], i);
+        }
+        int[] ids = lastRow.keys();
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            conn.setAutoCommit(false);
+
+            try {
+                int updated = 0;
+                for (int start = 0; start < ids.length; start += PRICES_PER_STATEMENT) {
+                    int rows = Math.min(PRICES_PER_STATEMENT, ids.length - start);
+                    try (PreparedStatement stmt = conn.prepareStatement(updatePricesSql(rows))) {
+                        int parameter = 1;
+                        for (int i = start; i < start + rows; i++) {
+                            stmt.setInt(parameter++, ids[i]);
+                            stmt.setDouble(parameter++, prices[lastRow.getOrDefault(ids[i], -1)]);
+                        }
+                        for (int i = start; i < start + rows; i++) {
+                            stmt.setInt(parameter++, ids[i]);
+                        }
+                        updated += stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return updated;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static String updatePricesSql(int rows) {
+        StringBuilder sql = new StringBuilder("UPDATE products SET price = CASE id");
+        for (int r = 0; r < rows; r++) {
+            sql.append(" WHEN ? THEN ?");
+        }
+        sql.append(" ELSE price END WHERE id IN (");
+        for (int r = 0; r < rows; r++) {
+            sql.append(r == 0 ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
+    }
+
+    /**
+     * Reduce product stock
+     * @param productId Product ID
+     * @param quantity Quantity to reduce
+     * @return true if reduction successful
+     */
+    @Override
+    public boolean reduceStock(int productId, int quantity) throws SQLException {
+        String sql = "UPDATE products SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, quantity);
+            stmt.setInt(2, productId);
+            stmt.setInt(3, quantity);
+            
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+        }
+    }
+
+    /**
+     * Check if product has sufficient stock
+     * @param productId Product ID
+     * @param requiredQuantity Required quantity
+     * @return true if sufficient stock available
+     */
+    @Override
+    public boolean hasStock(int productId, int requiredQuantity) throws SQLException {
+        String sql = "SELECT quantity FROM products WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, productId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int availableQuantity = rs.getInt("quantity");
+                    return availableQuantity >= requiredQuantity;
+                }
+            }
+        }
+        
+        return false;
+    }
+
+    /**
+     * Get products by category
+     * @param category Product category
+     * @return List of products in the category
+     */
+    @Override
+    public List<Product> getProductsByCategory(String category) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE LOWER(category) = LOWER(?) ORDER BY name";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, category);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Product product = new Product();
+                    product.setId(rs.getInt("id"));
+                    product.setName(rs.getString("name"));
+                    product.setPrice(rs.getDouble("price"));
+                    product.setQuantity(rs.getInt("quantity"));
+                    product.setCategory(rs.getString("category"));
+                    product.setDescription(rs.getString("description"));
+
+                    products.add(product);
+                }
+            }
+        }
+
+        return products;
+    }
+
+    /**
+     * Deep search for products using DFS-like approach
+     * Searches through product hierarchy and related products
+     * @param searchTerm Search term (can be partial name, category, or description)
+     * @return List of products found through deep search
+     */
+    @Override
+    public List<Product> deepSearchProducts(String searchTerm) throws SQLException {
+        Set<Product> foundProducts = new HashSet<>();
+        Set<String> visitedCategories = new HashSet<>();
+
+        // Start DFS from the search term
+        dfsProductSearch(searchTerm, foundProducts, visitedCategories, 0, 3); // Max depth 3
+
+        return new ArrayList<>(foundProducts);
+    }
+
+    /**
+     * DFS recursive search through product categories and related items
+     * @param searchTerm Current search term
+     * @param foundProducts Set to store found products
+     * @param visitedCategories Set to track visited categories (prevent cycles)
+     * @param depth Current search depth
+     * @param maxDepth Maximum search depth
+     */
+    private void dfsProductSearch(String searchTerm, Set<Product> foundProducts,
+                                 Set<String> visitedCategories, int depth, int maxDepth) throws SQLException {
+        if (depth >= maxDepth) return;
+
+        // Search for products matching the current term
+        String sql = """
+            SELECT DISTINCT id, name, price, quantity, category, description
+            FROM products
+            WHERE LOWER(name) LIKE LOWER(?)
+               OR LOWER(category) LIKE LOWER(?)
+               OR LOWER(description) LIKE LOWER(?)
+            ORDER BY name
+            """;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            String likePattern = "%" + searchTerm + "%";
+            stmt.setString(1, likePattern);
+            stmt.setString(2, likePattern);
+            stmt.setString(3, likePattern);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Product product = new Product();
+                    product.setId(rs.getInt("id"));
+                    product.setName(rs.getString("name"));
+                    product.setPrice(rs.getDouble("price"));
+                    product.setQuantity(rs.getInt("quantity"));
+                    product.setCategory(rs.getString("category"));
+                    product.setDescription(rs.getString("description"));
+
+                    foundProducts.add(product);
+
+                    // DFS: Recursively search in the same category if not visited
+                    String category = product.getCategory();
+                    if (category != null && !visitedCategories.contains(category.toLowerCase())) {
+                        visitedCategories.add(category.toLowerCase());
+                        dfsProductSearch(category, foundProducts, visitedCategories, depth + 1, maxDepth);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Find related products using DFS traversal through categories
+     * @param productId Base product ID
+     * @return List of related products
+     */
+    @Override
+    public List<Product> findRelatedProducts(int productId) throws SQLException {
+        Product baseProduct = getProductById(productId);
+        if (baseProduct == null || baseProduct.getCategory() == null) {
+            return new ArrayList<>();
+        }
+
+        Set<Product> relatedProducts = new HashSet<>();
+        Set<String> visitedCategories = new HashSet<>();
+
+        // Start DFS from the base product's category
+        dfsProductSearch(baseProduct.getCategory(), relatedProducts, visitedCategories, 0, 2);
+
+        // Remove the original product from results
+        relatedProducts.removeIf(p -> p.getId() == productId);
+
+        return new ArrayList<>(relatedProducts);
+    }
+}
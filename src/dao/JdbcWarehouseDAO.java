@@ -0,0 +1,660 @@
+package dao;
+
+import config.DBConnection;
+import dsa.IntIntHashMap;
+import dsa.IntObjectHashMap;
+import dsa.InventoryMatrix;
+import models.Warehouse;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC Warehouse Data Access Object
+ * Handles database operations for warehouses and inventory
+ * Optionally the stock is also kept in an off-heap InventoryMatrix (see
+ * withInventoryMatrix). Stock reads are then served from the grid and every
+ * change is written to the database first and to the grid after it
+ * succeeded. This assumes this process is the only writer of
+ * warehouse_inventory while it runs; warehouses and products added after
+ * the grid was loaded are served from the database alone.
+ */
+public class JdbcWarehouseDAO implements WarehouseDAO {
+    // Rows per multi-row upsert when stock is set in bulk
+    private static final int ROWS_PER_STATEMENT = 1000;
+    // Rows per fetch while the inventory table is streamed into the matrix
+    private static final int FETCH_SIZE = 10_000;
+
+    private final InventoryMatrix matrix; // null keeps the stock in the database only
+
+    public JdbcWarehouseDAO() {
+        this(null);
+    }
+
+    private JdbcWarehouseDAO(InventoryMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    /**
+     * Create the DAO with the stock of every warehouse loaded into an off-heap matrix
+     * The grid has a row per warehouse and a column per product and is
+     * filled with one streamed scan of warehouse_inventory.
+     * @return DAO that reads stock from the matrix and writes it through to the database
+     * @throws SQLException if the ids or the inventory could not be read
+     */
+    public static JdbcWarehouseDAO withInventoryMatrix() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            InventoryMatrix matrix = InventoryMatrix.allocate(
+                    selectIds(conn, "SELECT id FROM warehouses ORDER BY id"),
+                    selectIds(conn, "SELECT id FROM products ORDER BY id"));
+
+            try (Statement stmt = conn.createStatement()) {
+                DBConnection.streamResults(stmt, FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery("SELECT warehouse_id, product_id, quantity FROM warehouse_inventory")) {
+                    while (rs.next()) {
+                        int row = matrix.warehouseIndex(rs.getInt(1));
+                        int column = matrix.productIndex(rs.getInt(2));
+                        if (row >= 0 && column >= 0) {
+                            matrix.set(row, column, rs.getInt(3));
+                        }
+                    }
+                }
+            }
+            return new JdbcWarehouseDAO(matrix);
+        }
+    }
+
+    private static int[] selectIds(Connection conn, String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Get the inventory matrix holding the stock, if any
+     * @return Matrix, or null when stock is read from the database
+     */
+    public InventoryMatrix getInventoryMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Get all warehouses
+     * @return List of all warehouses
+     */
+    @Override
+    public List<Warehouse> getAllWarehouses() throws SQLException {
+        List<Warehouse> warehouses = new ArrayList<>();
+        String sql = """
+            SELECT w.id, w.name, w.city_id, c.name as city_name, w.address, w.capacity
+            FROM warehouses w
+            JOIN cities c ON w.city_id = c.id
+            ORDER BY w.name
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                Warehouse warehouse = new Warehouse();
+                warehouse.setId(rs.getInt("id"));
+                warehouse.setName(rs.getString("name"));
+                warehouse.setCityId(rs.getInt("city_id"));
+                warehouse.setCityName(rs.getString("city_name"));
+                warehouse.setAddress(rs.getString("address"));
+                warehouse.setCapacity(rs.getInt("capacity"));
+                
+                warehouses.add(warehouse);
+            }
+        }
+
+        // Load inventory for all warehouses with one query after the main query
+        loadInventories(warehouses, true);
+
+        return warehouses;
+    }
+
+    /**
+     * Get warehouse by ID
+     * @param id Warehouse ID
+     * @return Warehouse object or null if not found
+     */
+    @Override
+    public Warehouse getWarehouseById(int id) throws SQLException {
+        String sql = """
+            SELECT w.id, w.name, w.city_id, c.name as city_name, w.address, w.capacity
+            FROM warehouses w
+            JOIN cities c ON w.city_id = c.id
+            WHERE w.id = ?
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, id);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Warehouse warehouse = new Warehouse();
+                    warehouse.setId(rs.getInt("id"));
+                    warehouse.setName(rs.getString("name"));
+                    warehouse.setCityId(rs.getInt("city_id"));
+                    warehouse.setCityName(rs.getString("city_name"));
+                    warehouse.setAddress(rs.getString("address"));
+                    warehouse.setCapacity(rs.getInt("capacity"));
+                    
+                    // Load inventory for this warehouse
+                    loadWarehouseInventory(warehouse);
+
+                    return warehouse;
+                }
+            }
+        }
+        
+        return null;
+    }
+
+    /**
+     * Get the names of all cities that host at least one warehouse
+     * @return List of city names
+     */
+    @Override
+    public List<String> getWarehouseCityNames() throws SQLException {
+        List<String> cityNames = new ArrayList<>();
+        String sql = """
+            SELECT DISTINCT c.name
+            FROM warehouses w
+            JOIN cities c ON w.city_id = c.id
+            ORDER BY c.name
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                cityNames.add(rs.getString("name"));
+            }
+        }
+        
+        return cityNames;
+    }
+
+    /**
+     * Get warehouses that have a specific product in stock
+     * @param productId Product ID
+     * @param requiredQuantity Required quantity
+     * @return List of warehouses with sufficient stock
+     */
+    @Override
+    public List<Warehouse> getWarehousesWithProduct(int productId, int requiredQuantity) throws SQLException {
+        if (matrix != null) {
+            return warehousesStocking(productId, requiredQuantity);
+        }
+
+        List<Warehouse> warehouses = new ArrayList<>();
+        String sql = """
+            SELECT w.id, w.name, w.city_id, c.name as city_name, w.address, w.capacity, wi.quantity
+            FROM warehouses w
+            JOIN cities c ON w.city_id = c.id
+            JOIN warehouse_inventory wi ON w.id = wi.warehouse_id
+            WHERE wi.product_id = ? AND wi.quantity >= ?
+            ORDER BY wi.quantity DESC
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, productId);
+            stmt.setInt(2, requiredQuantity);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Warehouse warehouse = new Warehouse();
+                    warehouse.setId(rs.getInt("id"));
+                    warehouse.setName(rs.getString("name"));
+                    warehouse.setCityId(rs.getInt("city_id"));
+                    warehouse.setCityName(rs.getString("city_name"));
+                    warehouse.setAddress(rs.getString("address"));
+                    warehouse.setCapacity(rs.getInt("capacity"));
+                    
+                    warehouses.add(warehouse);
+                }
+            }
+        }
+
+        // Load inventory for these warehouses with one query after the main query
+        loadInventories(warehouses, false);
+
+        return warehouses;
+    }
+
+    /**
+     * Find the warehouses with enough stock of a product in the inventory matrix
+     * Only the details of the matching warehouses are read from the database,
+     * and each carries the stock of that product only, so an order never
+     * copies whole inventories onto the heap.
+     * @param productId Product ID
+     * @param requiredQuantity Required quantity
+     * @return Warehouses with sufficient stock, largest stock first
+     */
+    private List<Warehouse> warehousesStocking(int productId, int requiredQuantity) throws SQLException {
+        List<Warehouse> warehouses = new ArrayList<>();
+        int column = matrix.productIndex(productId);
+        if (column < 0) {
+            return warehouses;
+        }
+
+        IntIntHashMap stock = new IntIntHashMap();
+        for (int row = 0; row < matrix.getWarehouseCount(); row++) {
+            if (matrix.isStocked(row, column) && matrix.get(row, column) >= requiredQuantity) {
+                stock.put(matrix.getWarehouseId(row), matrix.get(row, column));
+            }
+        }
+
+        for (Warehouse warehouse : selectWarehouses(stock.keys())) {
+            if (warehouse != null) {
+                IntIntHashMap inventory = new IntIntHashMap(1);
+                inventory.put(productId, stock.getOrDefault(warehouse.getId(), 0));
+                warehouse.setInventory(inventory);
+                warehouses.add(warehouse);
+            }
+        }
+
+        // Largest stock first, as in the query
+        warehouses.sort((a, b) -> Integer.compare(b.getProductQuantity(productId), a.getProductQuantity(productId)));
+        return warehouses;
+    }
+
+    /**
+     * Get several warehouses by ID, MultiGet.CHUNK_SIZE per query, with their inventory
+     * @param ids Warehouse IDs
+     * @return One warehouse per ID, in the same order; null where not found
+     */
+    @Override
+    public List<Warehouse> getWarehousesById(int[] ids) throws SQLException {
+        List<Warehouse> warehouses = selectWarehouses(ids);
+
+        List<Warehouse> found = new ArrayList<>();
+        for (Warehouse warehouse : warehouses) {
+            if (warehouse != null) {
+                found.add(warehouse); // an ID asked for twice gives the same warehouse twice
+            }
+        }
+        loadInventories(found, false);
+        return warehouses;
+    }
+
+    /**
+     * Get the details of several warehouses by ID, without their inventory
+     * @param ids Warehouse IDs
+     * @return One warehouse per ID, in the same order; null where not found
+     */
+    private List<Warehouse> selectWarehouses(int[] ids) throws SQLException {
+        return MultiGet.byIds("SELECT w.id, w.name, w.city_id, c.name as city_name, w.address, w.capacity "
+                + "FROM warehouses w JOIN cities c ON w.city_id = c.id WHERE w.id IN (",
+                ids, rs -> {
+                    Warehouse warehouse = new Warehouse();
+                    warehouse.setId(rs.getInt("id"));
+                    warehouse.setName(rs.getString("name"));
+                    warehouse.setCityId(rs.getInt("city_id"));
+                    warehouse.setCityName(rs.getString("city_name"));
+                    warehouse.setAddress(rs.getString("address"));
+                    warehouse.setCapacity(rs.getInt("capacity"));
+                    return warehouse;
+                }, Warehouse::getId);
+    }
+
+    /**
+     * Load inventory for a specific warehouse
+     * @param warehouse Warehouse object to populate with inventory
+     */
+    private void loadWarehouseInventory(Warehouse warehouse) throws SQLException {
+        if (matrix != null) {
+            warehouse.setInventory(matrixInventory(warehouse.getId()));
+            return;
+        }
+
+        String sql = "SELECT product_id, quantity FROM warehouse_inventory WHERE warehouse_id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, warehouse.getId());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                IntIntHashMap inventory = new IntIntHashMap();
+                
+                // Read by column index straight into the primitive map, without boxing
+                while (rs.next()) {
+                    inventory.put(rs.getInt(1), rs.getInt(2));
+                }
+                
+                warehouse.setInventory(inventory);
+            }
+        }
+    }
+
+    /**
+     * Load the inventory of several warehouses
+     * Replaces one query per warehouse with one per MultiGet.CHUNK_SIZE
+     * warehouses, or a single scan of the table when every warehouse is loaded.
+     * @param warehouses Warehouse objects to populate with inventory
+     * @param everyWarehouse Whether the list holds every warehouse
+     */
+    private void loadInventories(List<Warehouse> warehouses, boolean everyWarehouse) throws SQLException {
+        if (matrix != null) {
+            for (Warehouse warehouse : warehouses) {
+                warehouse.setInventory(matrixInventory(warehouse.getId()));
+            }
+            return;
+        }
+
+        IntObjectHashMap<IntIntHashMap> inventories = new IntObjectHashMap<>(warehouses.size());
+        for (Warehouse warehouse : warehouses) {
+            IntIntHashMap inventory = inventories.get(warehouse.getId());
+            if (inventory == null) {
+                inventory = new IntIntHashMap();
+                inventories.put(warehouse.getId(), inventory);
+            }
+            warehouse.setInventory(inventory);
+        }
+        int[] ids = inventories.keys();
+        if (ids.length == 0) {
+            return;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            int chunk = everyWarehouse ? ids.length : MultiGet.CHUNK_SIZE;
+            for (int start = 0; start < ids.length; start += chunk) {
+                int count = Math.min(chunk, ids.length - start);
+                String sql = everyWarehouse
+                        ? "SELECT warehouse_id, product_id, quantity FROM warehouse_inventory"
+                        : "SELECT warehouse_id, product_id, quantity FROM warehouse_inventory WHERE warehouse_id IN ("
+                            + MultiGet.placeholders(count) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    if (!everyWarehouse) {
+                        for (int i = 0; i < count; i++) {
+                            stmt.setInt(i + 1, ids[start + i]);
+                        }
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        // Read by column index straight into the primitive maps, without boxing
+                        while (rs.next()) {
+                            IntIntHashMap inventory = inventories.get(rs.getInt(1));
+                            if (inventory != null) {
+                                inventory.put(rs.getInt(2), rs.getInt(3));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the stock of a warehouse out of the inventory matrix
+     * @param warehouseId Warehouse ID
+     * @return Product ID -> quantity, empty if the warehouse is not in the grid
+     */
+    private IntIntHashMap matrixInventory(int warehouseId) {
+        IntIntHashMap inventory = new IntIntHashMap();
+        int row = matrix.warehouseIndex(warehouseId);
+        if (row >= 0) {
+            matrix.forEachInRow(row, inventory::put);
+        }
+        return inventory;
+    }
+
+    /**
+     * Reduce inventory for a product in a warehouse
+     * @param warehouseId Warehouse ID
+     * @param productId Product ID
+     * @param quantity Quantity to reduce
+     * @return true if reduction successful
+     */
+    @Override
+    public boolean reduceInventory(int warehouseId, int productId, int quantity) throws SQLException {
+        String sql = """
+            UPDATE warehouse_inventory 
+            SET quantity = quantity - ? 
+            WHERE warehouse_id = ? AND product_id = ? AND quantity >= ?
+            """;
+
+        // Taken from the matrix first, so a shortfall costs no round trip; given back if the update fails
+        int row = matrix != null ? matrix.warehouseIndex(warehouseId) : -1;
+        int column = matrix != null ? matrix.productIndex(productId) : -1;
+        boolean inMatrix = row >= 0 && column >= 0;
+        if (inMatrix && !matrix.tryReserve(row, column, quantity)) {
+            return false;
+        }
+
+        boolean reduced = false;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, quantity);
+            stmt.setInt(2, warehouseId);
+            stmt.setInt(3, productId);
+            stmt.setInt(4, quantity);
+            
+            int rowsAffected = stmt.executeUpdate();
+            reduced = rowsAffected > 0;
+            return reduced;
+        } finally {
+            if (inMatrix && !reduced) {
+                matrix.add(row, column, quantity);
+            }
+        }
+    }
+
+    /**
+     * Add inventory for a product in a warehouse
+     * @param warehouseId Warehouse ID
+     * @param productId Product ID
+     * @param quantity Quantity to add
+     * @return true if addition successful
+     */
+    @Override
+    public boolean addInventory(int warehouseId, int productId, int quantity) throws SQLException {
+        String sql = """
+            INSERT INTO warehouse_inventory (warehouse_id, product_id, quantity)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE quantity = quantity + ?
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, warehouseId);
+            stmt.setInt(2, productId);
+            stmt.setInt(3, quantity);
+            stmt.setInt(4, quantity);
+            
+            int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0 && matrix != null) {
+                int row = matrix.warehouseIndex(warehouseId);
+                int column = matrix.productIndex(productId);
+                if (row >= 0 && column >= 0) {
+                    matrix.add(row, column, quantity);
+                }
+            }
+            return rowsAffected > 0;
+        }
+    }
+
+    /**
+     * Set the stock of many (warehouse, product) pairs in one transaction
+     * Rows are sent as multi-row upserts of up to ROWS_PER_STATEMENT rows, so
+     * a batch of thousands of rows costs a few round trips instead of one per
+     * row as with addInventory.
+     * @param warehouseIds Warehouse ID of each row
+     * @param productIds Product ID of each row
+     * @param quantities New quantity of each row
+     * @param count Number of rows to write, from the start of the arrays
+     * @return Number of rows written
+     * @throws SQLException if any statement fails; nothing is written then
+     */
+    @Override
+    public int setInventory(int[] warehouseIds, int[] productIds, int[] quantities, int count) throws SQLException {
+        if (count == 0) {
+            return 0;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            conn.setAutoCommit(false);
+
+            PreparedStatement full = null;
+            try {
+                for (int start = 0; start < count; start += ROWS_PER_STATEMENT) {
+                    int rows = Math.min(ROWS_PER_STATEMENT, count - start);
+
+                    // The full-size statement is prepared once and reused; the last chunk gets its own
+                    PreparedStatement stmt;
+                    if (rows == ROWS_PER_STATEMENT) {
+                        if (full == null) {
+                            full = conn.prepareStatement(upsertInventorySql(rows));
+                        }
+                        stmt = full;
+                    } else {
+                        stmt = conn.prepareStatement(upsertInventorySql(rows));
+                    }
+
+                    try {
+                        int parameter = 1;
+                        for (int i = start; i < start + rows; i++) {
+                            stmt.setInt(parameter++, warehouseIds[i]);
+                            stmt.setInt(parameter++, productIds[i]);
+                            stmt.setInt(parameter++, quantities[i]);
+                        }
+                        stmt.executeUpdate();
+                    } finally {
+                        if (stmt != full) {
+                            stmt.close();
+                        }
+                    }
+                }
+                conn.commit();
+                if (matrix != null) {
+                    setInMatrix(warehouseIds, productIds, quantities, count);
+                }
+                return count;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                if (full != null) {
+                    full.close();
+                }
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void setInMatrix(int[] warehouseIds, int[] productIds, int[] quantities, int count) {
+        for (int i = 0; i < count; i++) {
+            int row = matrix.warehouseIndex(warehouseIds[i]);
+            int column = matrix.productIndex(productIds[i]);
+            if (row >= 0 && column >= 0) {
+                matrix.set(row, column, quantities[i]);
+            }
+        }
+    }
+
+    private static String upsertInventorySql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO warehouse_inventory (warehouse_id, product_id, quantity) VALUES ");
+        for (int r = 0; r < rows; r++) {
+            sql.append(r == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        return sql.append(" ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)").toString();
+    }
+
+    /**
+     * Get inventory quantity for a specific product in a warehouse
+     * @param warehouseId Warehouse ID
+     * @param productId Product ID
+     * @return Quantity available, or 0 if not found
+     */
+    @Override
+    public int getInventoryQuantity(int warehouseId, int productId) throws SQLException {
+        if (matrix != null) {
+            int row = matrix.warehouseIndex(warehouseId);
+            int column = matrix.productIndex(productId);
+            if (row >= 0 && column >= 0) {
+                return matrix.get(row, column);
+            }
+        }
+
+        String sql = "SELECT quantity FROM warehouse_inventory WHERE warehouse_id = ? AND product_id = ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, warehouseId);
+            stmt.setInt(2, productId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("quantity");
+                }
+            }
+        }
+        
+        return 0;
+    }
+
+    /**
+     * Get warehouses in a specific city
+     * @param cityName City name
+     * @return List of warehouses in the city
+     */
+    @Override
+    public List<Warehouse> getWarehousesByCity(String cityName) throws SQLException {
+        List<Warehouse> warehouses = new ArrayList<>();
+        String sql = """
+            SELECT w.id, w.name, w.city_id, c.name as city_name, w.address, w.capacity
+            FROM warehouses w
+            JOIN cities c ON w.city_id = c.id
+            WHERE LOWER(c.name) = LOWER(?)
+            ORDER BY w.name
+            """;
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, cityName);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Warehouse warehouse = new Warehouse();
+                    warehouse.setId(rs.getInt("id"));
+                    warehouse.setName(rs.getString("name"));
+                    warehouse.setCityId(rs.getInt("city_id"));
+                    warehouse.setCityName(rs.getString("city_name"));
+                    warehouse.setAddress(rs.getString("address"));
+                    warehouse.setCapacity(rs.getInt("capacity"));
+                    
+                    warehouses.add(warehouse);
+                }
+            }
+        }
+
+        // Load inventory for these warehouses with one query after the main query
+        loadInventories(warehouses, false);
+
+        return warehouses;
+    }
+}
@@ -0,0 +1,160 @@
+package dao;
+
+import config.DBConnection;
+import dsa.IntObjectHashMap;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Multi-Get
+ * Shared code of the JDBC multi-get lookups. The distinct keys are sent
+ * CHUNK_SIZE at a time as "... IN (?, ?, ...)", all chunks on one pooled
+ * connection, and the rows are put back in the order of the keys asked for:
+ * one result per key, null where nothing matched, and the same object for a
+ * key given twice.
+ */
+final class MultiGet {
+    static final int CHUNK_SIZE = 500;
+
+    /**
+     * Builds a model object from the current row
+     */
+    interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private MultiGet() {
+    }
+
+    /**
+     * Look up rows by integer key
+     * @param sqlPrefix Query up to and including "IN (", e.g. "SELECT ... FROM cities WHERE id IN ("
+     * @param ids Keys in the order the results should have
+     * @param reader Reads one row
+     * @param keyOf Key of a read object
+     * @return One result per key
+     */
+    static <T> List<T> byIds(String sqlPrefix, int[] ids, RowReader<T> reader, ToIntFunction<T> keyOf)
+            throws SQLException {
+        List<T> results = new ArrayList<>(Collections.nCopies(ids.length, null));
+        IntObjectHashMap<T> found = new IntObjectHashMap<>(ids.length);
+        int[] distinct = distinct(ids);
+        if (distinct.length == 0) {
+            return results;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int start = 0; start < distinct.length; start += CHUNK_SIZE) {
+                int count = Math.min(CHUNK_SIZE, distinct.length - start);
+                try (PreparedStatement stmt = conn.prepareStatement(sqlPrefix + placeholders(count) + ")")) {
+                    for (int i = 0; i < count; i++) {
+                        stmt.setInt(i + 1, distinct[start + i]);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            T value = reader.read(rs);
+                            found.put(keyOf.applyAsInt(value), value);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            results.set(i, found.get(ids[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Look up rows by name, ignoring case
+     * @param sqlPrefix Query up to and including "IN (", comparing LOWER(name)
+     * @param names Names in the order the results should have
+     * @param reader Reads one row
+     * @param nameOf Name of a read object
+     * @return One result per name
+     */
+    static <T> List<T> byNames(String sqlPrefix, List<String> names, RowReader<T> reader, Function<T, String> nameOf)
+            throws SQLException {
+        List<T> results = new ArrayList<>(Collections.nCopies(names.size(), null));
+        Set<String> distinctNames = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null) {
+                distinctNames.add(lower(name));
+            }
+        }
+        List<String> distinct = new ArrayList<>(distinctNames);
+        Map<String, T> found = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return results;
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int start = 0; start < distinct.size(); start += CHUNK_SIZE) {
+                int count = Math.min(CHUNK_SIZE, distinct.size() - start);
+                try (PreparedStatement stmt = conn.prepareStatement(sqlPrefix + placeholders(count) + ")")) {
+                    for (int i = 0; i < count; i++) {
+                        stmt.setString(i + 1, distinct.get(start + i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            T value = reader.read(rs);
+                            found.put(lower(nameOf.apply(value)), value);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            results.set(i, name != null ? found.get(lower(name)) : null);
+        }
+        return results;
+    }
+
+    /**
+     * Get the distinct keys, in first-seen order
+     */
+    static int[] distinct(int[] ids) {
+        IntObjectHashMap<Boolean> seen = new IntObjectHashMap<>(ids.length);
+        int[] distinct = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            if (seen.put(id, Boolean.TRUE) == null) {
+                distinct[count++] = id;
+            }
+        }
+        return count == ids.length ? distinct : Arrays.copyOf(distinct, count);
+    }
+
+    /**
+     * Build "?, ?, ..., ?"
+     * @param count Number of parameters
+     */
+    static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+package dao;
+
+import models.Order;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Order Data Access Object
+ * Operations for placed orders, implemented over JDBC (JdbcOrderDAO)
+ * and in memory (InMemoryOrderDAO)
+ */
+public interface OrderDAO {
+
+    /**
+     * Save an order and assign its ID
+     * @param order Order to save
+     * @return Generated order ID, or -1 if the order was not saved
+     */
+    int saveOrder(Order order) throws SQLException;
+
+    /**
+     * Get order by ID
+     * @param orderId Order ID
+     * @return Order object or null if not found
+     */
+    Order getOrderById(int orderId) throws SQLException;
+
+    /**
+     * Get several orders by ID in one lookup
+     * @param orderIds Order IDs
+     * @return One order per ID, in the same order; null where not found
+     */
+    List<Order> getOrdersById(int[] orderIds) throws SQLException;
+
+    /**
+     * Stream orders in id order without holding them in memory
+     * @param afterId Start after this order ID (0 for the first order)
+     * @param limit Maximum orders to visit, or 0 for all
+     * @param consumer Receives each order
+     * @return Number of orders visited
+     */
+    int forEachOrder(int afterId, int limit, Consumer<Order> consumer) throws SQLException;
+
+    /**
+     * Get the highest order ID
+     * @return Last order ID, or 0 if there are no orders
+     */
+    int getLastOrderId() throws SQLException;
+}
@@ -1,36 +1,128 @@
 package dao;
 
-import config.DBConnection;
 import dsa.Dijkstra;
+import dsa.CompactGraph;
+import dsa.ConnectedComponents;
 import dsa.Graph;
+import dsa.HopIndex;
+import dsa.ShortestPathTree;
 import models.Order;
 import models.Product;
 import models.Warehouse;
+import profiling.CacheEvent;
+import profiling.OrderEvent;
+import profiling.OrderStageEvent;
 import utils.Printer;
 
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.*;
 
 /**
  * Order Processor
- * Handles order fulfillment logic with shortest path warehouse selection
+ * Handles order fulfillment logic with shortest path warehouse selection.
+ * Orders may be processed from several threads at once.
  */
 public class OrderProcessor {
     private final ProductDAO productDAO;
     private final WarehouseDAO warehouseDAO;
     private final RouteDAO routeDAO;
+    private final OrderDAO orderDAO;
     private final Graph cityGraph;
     private final Dijkstra dijkstra;
+    private List<String> warehouseCities;
+    private ConnectedComponents components; // rebuilt whenever the city graph changes
+    private HopIndex hopIndex; // rebuilt whenever the city graph changes
+    private volatile StageListener stageListener;
+    private volatile boolean quiet;
+
+    /**
+     * Stages of processing an order, in execution order
+     */
+    public enum Stage {
+        LOOKUP,          // product and customer city
+        WAREHOUSE_FETCH, // warehouses with stock
+        ROUTING,         // connectivity check and warehouse selection
+        INVENTORY,       // stock reservation
+        INSERT           // order row
+    }
+
+    /**
+     * Receives the time spent in each completed stage of an order
+     */
+    public interface StageListener {
+        void onStage(Stage stage, long nanos);
+    }
 
     public OrderProcessor() {
-        this.productDAO = new ProductDAO();
-        this.warehouseDAO = new WarehouseDAO();
-        this.routeDAO = new RouteDAO();
-        this.cityGraph = new Graph();
+        this(DAOFactory.getInstance());
+    }
+
+    public OrderProcessor(DAOFactory daoFactory) {
+        this.productDAO = daoFactory.getProductDAO();
+        this.warehouseDAO = daoFactory.getWarehouseDAO();
+        this.routeDAO = daoFactory.getRouteDAO();
+        this.orderDAO = daoFactory.getOrderDAO();
         this.dijkstra = new Dijkstra();
-        
-        // Load city graph for route calculations
-        loadCityGraph();
+
+        // Load warehouse locations for the fast delivery hop index
+        loadWarehouseCities();
+
+        // Last, so another thread can load the shared graph meanwhile
+        this.cityGraph = daoFactory.getCityGraph();
+    }
+
+    /**
+     * Set a listener notified with the duration of each order stage
+     * @param stageListener Listener, or null to stop reporting
+     */
+    public void setStageListener(StageListener stageListener) {
+        this.stageListener = stageListener;
+    }
+
+    /**
+     * Stop printing why orders could not be fulfilled
+     * For callers that report the outcome themselves (the HTTP server, batch
+     * runs, load tests), so their threads neither build the messages nor
+     * contend for System.out.
+     * @param quiet true to print nothing
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Times the stages of one order for the stage listener and Flight Recorder
+     */
+    private class StageClock {
+        private long startNanos = System.nanoTime();
+        private OrderStageEvent event = beginStageEvent();
+
+        /**
+         * Report a completed stage and start timing the next one
+         * @param stage Completed stage
+         */
+        void end(Stage stage) {
+            long now = System.nanoTime();
+            StageListener listener = stageListener;
+            if (listener != null) {
+                listener.onStage(stage, now - startNanos);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage.name();
+                event.commit();
+            }
+
+            startNanos = now;
+            event = beginStageEvent();
+        }
+
+        private OrderStageEvent beginStageEvent() {
+            OrderStageEvent stageEvent = new OrderStageEvent();
+            stageEvent.begin();
+            return stageEvent;
+        }
     }
 
     /**
@@ -53,175 +145,248 @@ public class OrderProcessor {
      * @return Order object if successful, null otherwise
      */
     public Order processOrder(String productName, String customerCity, int quantity, boolean fastDelivery) {
+        OrderEvent event = new OrderEvent();
+        event.begin();
+
+        Order order = fulfillOrder(productName, customerCity, quantity, fastDelivery);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.product = productName;
+            event.customerCity = customerCity;
+            event.quantity = quantity;
+            event.fastDelivery = fastDelivery;
+            event.fulfilled = order != null;
+            if (order != null) {
+                event.warehouseCity = order.getWarehouseCity();
+                event.deliveryDistance = order.getDeliveryDistance();
+            }
+            event.commit();
+        }
+        return order;
+    }
+
+    /**
+     * Run the stages of an order, reporting each one as it completes
+     * @return Order object if successful, null otherwise
+     */
+    private Order fulfillOrder(String productName, String customerCity, int quantity, boolean fastDelivery) {
+        StageClock stages = new StageClock();
         try {
             // Step 1: Find the product
             Product product = productDAO.getProductByName(productName);
             if (product == null) {
-                Printer.printError("Product '" + productName + "' not found!");
+                if (!quiet) {
+                    Printer.printError("Product '" + productName + "' not found!");
+                }
                 return null;
             }
 
             // Step 2: Check if customer city exists
             if (!routeDAO.cityExists(customerCity)) {
-                Printer.printError("City '" + customerCity + "' is not in our delivery network!");
+                if (!quiet) {
+                    Printer.printError("City '" + customerCity + "' is not in our delivery network!");
+                }
                 return null;
             }
+            stages.end(Stage.LOOKUP);
 
             // Step 3: Find warehouses with the product in stock
             List<Warehouse> availableWarehouses = warehouseDAO.getWarehousesWithProduct(product.getId(), quantity);
+            stages.end(Stage.WAREHOUSE_FETCH);
+            if (availableWarehouses.isEmpty()) {
+                if (!quiet) {
+                    Printer.printError("Product '" + productName + "' is out of stock in all warehouses!");
+                }
+                return null;
+            }
+
+            // Reject orders no warehouse can reach before running any search
+            availableWarehouses = filterConnectedWarehouses(customerCity, availableWarehouses);
             if (availableWarehouses.isEmpty()) {
-                Printer.printError("Product '" + productName + "' is out of stock in all warehouses!");
+                if (!quiet) {
+                    Printer.printError("No route available to " + customerCity + " from any warehouse with stock!");
+                }
                 return null;
             }
 
             // Step 4: Find the best warehouse using chosen algorithm
             Warehouse selectedWarehouse;
-            int deliveryDistance;
+            // One shortest path tree from the customer serves every distance query of this order
+            ShortestPathTree customerTree = dijkstra.buildShortestPathTree(cityGraph, customerCity);
 
             if (fastDelivery) {
-                // Use BFS for fastest delivery (minimum hops)
-                selectedWarehouse = findFastestWarehouse(customerCity, availableWarehouses);
+                // Use BFS for fastest delivery (minimum hops, ties broken by km)
+                HopIndex.Result fastest = findFastestWarehouse(customerCity, availableWarehouses);
+                selectedWarehouse = fastest != null ? findWarehouseInCity(availableWarehouses, fastest.getCity()) : null;
                 if (selectedWarehouse == null) {
-                    Printer.printError("No reachable warehouse found for fast delivery to " + customerCity);
-                    return null;
-                }
-
-                // Calculate actual distance using Dijkstra (for cost calculation)
-                Dijkstra.PathResult pathResult = dijkstra.findShortestPath(cityGraph, customerCity, selectedWarehouse.getCityName());
-                if (pathResult == null || !pathResult.isPathFound()) {
-                    Printer.printError("No delivery route found to " + customerCity);
+                    if (!quiet) {
+                        Printer.printError("No reachable warehouse found for fast delivery to " + customerCity);
+                    }
                     return null;
                 }
-                deliveryDistance = pathResult.getDistance();
 
             } else {
                 // Use Dijkstra for shortest distance (lowest cost)
-                selectedWarehouse = findNearestWarehouse(customerCity, availableWarehouses);
+                selectedWarehouse = findNearestWarehouse(availableWarehouses, customerTree);
                 if (selectedWarehouse == null) {
-                    Printer.printError("No reachable warehouse found for delivery to " + customerCity);
+                    if (!quiet) {
+                        Printer.printError("No reachable warehouse found for delivery to " + customerCity);
+                    }
                     return null;
                 }
+            }
 
-                // Calculate distance using Dijkstra result
-                Dijkstra.PathResult pathResult = dijkstra.findShortestPath(cityGraph, customerCity, selectedWarehouse.getCityName());
-                if (pathResult == null || !pathResult.isPathFound()) {
+            // Both kinds of delivery are charged for the shortest road distance (for cost calculation)
+            int deliveryDistance = customerTree.getDistance(selectedWarehouse.getCityName());
+            if (deliveryDistance == -1) {
+                if (!quiet) {
                     Printer.printError("No delivery route found to " + customerCity);
-                    return null;
                 }
-                deliveryDistance = pathResult.getDistance();
+                return null;
             }
 
+            stages.end(Stage.ROUTING);
+
             // Step 6: Create and save the order
             Order order = createOrder(product, customerCity, quantity, selectedWarehouse, deliveryDistance);
 
             // Step 7: Update warehouse inventory
             if (warehouseDAO.reduceInventory(selectedWarehouse.getId(), product.getId(), quantity)) {
+                stages.end(Stage.INVENTORY);
                 order.setStatus(Order.OrderStatus.CONFIRMED);
-                saveOrder(order);
+                orderDAO.saveOrder(order);
+                stages.end(Stage.INSERT);
                 return order;
             } else {
-                Printer.printError("Failed to update warehouse inventory!");
+                if (!quiet) {
+                    Printer.printError("Failed to update warehouse inventory!");
+                }
                 return null;
             }
 
         } catch (Exception e) {
-            Printer.printError("Order processing failed: " + e.getMessage());
+            if (!quiet) {
+                Printer.printError("Order processing failed: " + e.getMessage());
+            }
             return null;
         }
     }
 
     /**
      * Find the nearest warehouse to customer city using Dijkstra (shortest distance)
-     * @param customerCity Customer's city
+     * The customer's tree is settled only until the first city with a stocked
+     * warehouse, which is the nearest one by road.
      * @param warehouses List of available warehouses
+     * @param customerTree Shortest path tree rooted at the customer city
      * @return Nearest warehouse or null if none reachable
      */
-    private Warehouse findNearestWarehouse(String customerCity, List<Warehouse> warehouses) {
-        Warehouse nearestWarehouse = null;
-        int shortestDistance = Integer.MAX_VALUE;
-
+    private Warehouse findNearestWarehouse(List<Warehouse> warehouses, ShortestPathTree customerTree) {
+        List<String> stockedCities = new ArrayList<>();
         for (Warehouse warehouse : warehouses) {
-            try {
-                Dijkstra.PathResult pathResult = dijkstra.findShortestPath(cityGraph, customerCity, warehouse.getCityName());
-
-                if (pathResult != null && pathResult.isPathFound() && pathResult.getDistance() < shortestDistance) {
-                    shortestDistance = pathResult.getDistance();
-                    nearestWarehouse = warehouse;
-                }
-            } catch (Exception e) {
-                // Skip this warehouse if route calculation fails
-                continue;
-            }
+            stockedCities.add(warehouse.getCityName());
         }
 
-        return nearestWarehouse;
+        String nearestCity = customerTree.findNearest(stockedCities);
+        return nearestCity != null ? findWarehouseInCity(warehouses, nearestCity) : null;
     }
 
     /**
      * Find the fastest warehouse to customer city using BFS (minimum hops)
-     * Used when customer prioritizes delivery speed over cost
+     * Used when customer prioritizes delivery speed over cost.
+     * The precomputed hop index answers in constant time when the overall fastest
+     * warehouse has stock; otherwise a BFS restricted to the stocked warehouses runs.
      * @param customerCity Customer's city
      * @param warehouses List of available warehouses
-     * @return Fastest warehouse or null if none reachable
+     * @return Fastest warehouse city with hops and km, or null if none reachable
      */
-    private Warehouse findFastestWarehouse(String customerCity, List<Warehouse> warehouses) {
-        Warehouse fastestWarehouse = null;
-        int minimumHops = Integer.MAX_VALUE;
+    private HopIndex.Result findFastestWarehouse(String customerCity, List<Warehouse> warehouses) {
+        HopIndex index = getHopIndex();
+        if (index == null) {
+            return null;
+        }
+
+        CacheEvent event = new CacheEvent();
+        event.begin();
+        HopIndex.Result fastest = index.lookup(customerCity);
+        boolean hit = fastest != null && findWarehouseInCity(warehouses, fastest.getCity()) != null;
+        event.finish("hop_lookup", hit);
+        if (hit) {
+            return fastest;
+        }
 
+        List<String> stockedCities = new ArrayList<>();
         for (Warehouse warehouse : warehouses) {
-            try {
-                int hops = bfsMinimumHops(customerCity, warehouse.getCityName());
+            stockedCities.add(warehouse.getCityName());
+        }
+        return HopIndex.search(index.getGraph(), customerCity, stockedCities);
+    }
 
-                if (hops != -1 && hops < minimumHops) {
-                    minimumHops = hops;
-                    fastestWarehouse = warehouse;
-                }
-            } catch (Exception e) {
-                // Skip this warehouse if route calculation fails
-                continue;
+    /**
+     * Find a warehouse located in the given city
+     * @param warehouses List of warehouses
+     * @param cityName City name
+     * @return First warehouse in the city, or null if none
+     */
+    private Warehouse findWarehouseInCity(List<Warehouse> warehouses, String cityName) {
+        for (Warehouse warehouse : warehouses) {
+            if (warehouse.getCityName().equals(cityName)) {
+                return warehouse;
             }
         }
-
-        return fastestWarehouse;
+        return null;
     }
 
     /**
-     * Simple BFS to find minimum hops between two cities
-     * @param startCity Starting city
-     * @param endCity Destination city
-     * @return Number of hops, or -1 if no path found
+     * Keep only the warehouses in the same connected component as the customer
+     * @param customerCity Customer's city
+     * @param warehouses List of available warehouses
+     * @return Warehouses that may have a route to the customer
      */
-    private int bfsMinimumHops(String startCity, String endCity) {
-        if (startCity.equals(endCity)) return 0;
+    private List<Warehouse> filterConnectedWarehouses(String customerCity, List<Warehouse> warehouses) {
+        ConnectedComponents index = getComponents();
+        int customerComponent = index.componentOf(customerCity);
 
-        Queue<String> queue = new LinkedList<>();
-        Map<String, Integer> hopCount = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-
-        queue.offer(startCity);
-        visited.add(startCity);
-        hopCount.put(startCity, 0);
-
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            int currentHops = hopCount.get(current);
-
-            for (Graph.Edge edge : cityGraph.getNeighbors(current)) {
-                String neighbor = edge.getDestination();
-
-                if (neighbor.equals(endCity)) {
-                    return currentHops + 1; // Found destination
-                }
-
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    hopCount.put(neighbor, currentHops + 1);
-                    queue.offer(neighbor);
-                }
+        List<Warehouse> connected = new ArrayList<>();
+        for (Warehouse warehouse : warehouses) {
+            if (customerComponent != -1 && index.componentOf(warehouse.getCityName()) == customerComponent) {
+                connected.add(warehouse);
             }
         }
+        return connected;
+    }
+
+    /**
+     * Get the connected components for the current graph version, rebuilding them if stale
+     * @return Connected components index
+     */
+    private synchronized ConnectedComponents getComponents() {
+        CacheEvent event = new CacheEvent();
+        event.begin();
+        boolean hit = components != null && components.getGraph().isCurrent(cityGraph);
+        if (!hit) {
+            components = new ConnectedComponents(CompactGraph.of(cityGraph));
+        }
+        event.finish("components", hit);
+        return components;
+    }
 
-        return -1; // No path found
+    /**
+     * Get the hop index for the current graph version, rebuilding it if stale
+     * @return Hop index, or null if warehouse locations are unavailable
+     */
+    private synchronized HopIndex getHopIndex() {
+        if (warehouseCities == null) {
+            return null;
+        }
+        CacheEvent event = new CacheEvent();
+        event.begin();
+        boolean hit = hopIndex != null && hopIndex.getGraph().isCurrent(cityGraph);
+        if (!hit) {
+            hopIndex = HopIndex.build(CompactGraph.of(cityGraph), warehouseCities);
+        }
+        event.finish("hop_index", hit);
+        return hopIndex;
     }
 
     /**
@@ -250,55 +415,13 @@ public class OrderProcessor {
     }
 
     /**
-     * Save order to database
-     * @param order Order to save
-     * @return Generated order ID
-     */
-    private int saveOrder(Order order) throws SQLException {
-        String sql = """
-            INSERT INTO orders (product_id, product_name, quantity, total_price, customer_city, 
-                               warehouse_id, warehouse_name, warehouse_city, delivery_distance, status, order_date)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
-            """;
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setInt(1, order.getProductId());
-            stmt.setString(2, order.getProductName());
-            stmt.setInt(3, order.getQuantity());
-            stmt.setDouble(4, order.getTotalPrice());
-            stmt.setString(5, order.getCustomerCity());
-            stmt.setInt(6, order.getWarehouseId());
-            stmt.setString(7, order.getWarehouseName());
-            stmt.setString(8, order.getWarehouseCity());
-            stmt.setInt(9, order.getDeliveryDistance());
-            stmt.setString(10, order.getStatus().toString());
-            
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int orderId = generatedKeys.getInt(1);
-                        order.setId(orderId);
-                        return orderId;
-                    }
-                }
-            }
-        }
-        
-        return -1;
-    }
-
-    /**
-     * Load city graph from database
+     * Load the cities that host warehouses
      */
-    private void loadCityGraph() {
+    private void loadWarehouseCities() {
         try {
-            routeDAO.loadGraphFromDatabase(cityGraph);
+            warehouseCities = warehouseDAO.getWarehouseCityNames();
         } catch (Exception e) {
-            System.err.println("Warning: Failed to load city graph: " + e.getMessage());
+            System.err.println("Warning: Failed to load warehouse locations: " + e.getMessage());
         }
     }
 
@@ -308,38 +431,6 @@ public class OrderProcessor {
      * @return Order object or null if not found
      */
     public Order getOrderById(int orderId) throws SQLException {
-        String sql = """
-            SELECT id, product_id, product_name, quantity, total_price, customer_city,
-                   warehouse_id, warehouse_name, warehouse_city, delivery_distance, status, order_date
-            FROM orders WHERE id = ?
-            """;
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, orderId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Order order = new Order();
-                    order.setId(rs.getInt("id"));
-                    order.setProductId(rs.getInt("product_id"));
-                    order.setProductName(rs.getString("product_name"));
-                    order.setQuantity(rs.getInt("quantity"));
-                    order.setTotalPrice(rs.getDouble("total_price"));
-                    order.setCustomerCity(rs.getString("customer_city"));
-                    order.setWarehouseId(rs.getInt("warehouse_id"));
-                    order.setWarehouseName(rs.getString("warehouse_name"));
-                    order.setWarehouseCity(rs.getString("warehouse_city"));
-                    order.setDeliveryDistance(rs.getInt("delivery_distance"));
-                    order.setStatus(Order.OrderStatus.valueOf(rs.getString("status")));
-                    order.setOrderDate(rs.getTimestamp("order_date").toLocalDateTime());
-                    
-                    return order;
-                }
-            }
-        }
-        
-        return null;
+        return orderDAO.getOrderById(orderId);
     }
 }
@@ -1,108 +1,79 @@
 package dao;
 
-import config.DBConnection;
 import models.Product;
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.HashSet;
+
+import java.sql.SQLException;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Product Data Access Object
- * Handles all database operations for products
+ * Operations for products and product stock, implemented over JDBC (JdbcProductDAO)
+ * and in memory (InMemoryProductDAO)
  */
-public class ProductDAO {
+public interface ProductDAO {
 
     /**
-     * Get all products from database
+     * Get all products
      * @return List of all products
      */
-    public List<Product> getAllProducts() throws SQLException {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT id, name, price, quantity, category, description FROM products ORDER BY name";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                Product product = new Product();
-                product.setId(rs.getInt("id"));
-                product.setName(rs.getString("name"));
-                product.setPrice(rs.getDouble("price"));
-                product.setQuantity(rs.getInt("quantity"));
-                product.setCategory(rs.getString("category"));
-                product.setDescription(rs.getString("description"));
-                
-                products.add(product);
-            }
-        }
-        
-        return products;
-    }
+    List<Product> getAllProducts() throws SQLException;
+
+    /**
+     * Stream products in id order without collecting them
+     * Each product is handed to the consumer as soon as it is read, so memory
+     * stays constant however large the catalog is. Passing the id of the last
+     * product seen as afterId continues where the previous call stopped.
+     * @param afterId Only products with a greater id are visited (0 for the start)
+     * @param limit Maximum number of products to visit, 0 for no limit
+     * @param consumer Receives each product
+     * @return Number of products visited
+     */
+    int forEachProduct(int afterId, int limit, Consumer<Product> consumer) throws SQLException;
+
+    /**
+     * Stream all products in name order without collecting them
+     * @param consumer Receives each product
+     * @return Number of products visited
+     */
+    int forEachProductByName(Consumer<Product> consumer) throws SQLException;
+
+    /**
+     * Get the id of the product at a position in id order
+     * Used to turn a page number into the afterId of forEachProduct. Unlike
+     * continuing from a known id, this may take longer for later positions.
+     * @param position Zero-based position
+     * @return Product ID, or -1 if there are not that many products
+     */
+    int getProductIdAt(int position) throws SQLException;
 
     /**
      * Get product by ID
      * @param id Product ID
      * @return Product object or null if not found
      */
-    public Product getProductById(int id) throws SQLException {
-        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Product product = new Product();
-                    product.setId(rs.getInt("id"));
-                    product.setName(rs.getString("name"));
-                    product.setPrice(rs.getDouble("price"));
-                    product.setQuantity(rs.getInt("quantity"));
-                    product.setCategory(rs.getString("category"));
-                    product.setDescription(rs.getString("description"));
-                    
-                    return product;
-                }
-            }
-        }
-        
-        return null;
-    }
+    Product getProductById(int id) throws SQLException;
 
     /**
      * Get product by name (case-insensitive)
      * @param name Product name
      * @return Product object or null if not found
      */
-    public Product getProductByName(String name) throws SQLException {
-        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE LOWER(name) = LOWER(?)";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, name);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Product product = new Product();
-                    product.setId(rs.getInt("id"));
-                    product.setName(rs.getString("name"));
-                    product.setPrice(rs.getDouble("price"));
-                    product.setQuantity(rs.getInt("quantity"));
-                    product.setCategory(rs.getString("category"));
-                    product.setDescription(rs.getString("description"));
-                    
-                    return product;
-                }
-            }
-        }
-        
-        return null;
-    }
+    Product getProductByName(String name) throws SQLException;
+
+    /**
+     * Get several products by ID in one lookup
+     * @param ids Product IDs
+     * @return One product per ID, in the same order; null where not found
+     */
+    List<Product> getProductsById(int[] ids) throws SQLException;
+
+    /**
+     * Get several products by name in one lookup, ignoring case
+     * @param names Product names
+     * @return One product per name, in the same order; null where not found
+     */
+    List<Product> getProductsByName(List<String> names) throws SQLException;
 
     /**
      * Update product quantity
@@ -110,19 +81,17 @@ public class ProductDAO {
      * @param newQuantity New quantity
      * @return true if update successful
      */
-    public boolean updateProductQuantity(int productId, int newQuantity) throws SQLException {
-        String sql = "UPDATE products SET quantity = ? WHERE id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, newQuantity);
-            stmt.setInt(2, productId);
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        }
-    }
+    boolean updateProductQuantity(int productId, int newQuantity) throws SQLException;
+
+    /**
+     * Set the price of many products
+     * If a product appears more than once, the last price wins.
+     * @param productIds Product ID of each row
+     * @param prices New price of each row
+     * @param count Number of rows to write, from the start of the arrays
+     * @return Number of products updated
+     */
+    int updatePrices(int[] productIds, double[] prices, int count) throws SQLException;
 
     /**
      * Reduce product stock
@@ -130,20 +99,7 @@ public class ProductDAO {
      * @param quantity Quantity to reduce
      * @return true if reduction successful
      */
-    public boolean reduceStock(int productId, int quantity) throws SQLException {
-        String sql = "UPDATE products SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, quantity);
-            stmt.setInt(2, productId);
-            stmt.setInt(3, quantity);
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        }
-    }
+    boolean reduceStock(int productId, int quantity) throws SQLException;
 
     /**
      * Check if product has sufficient stock
@@ -151,56 +107,14 @@ public class ProductDAO {
      * @param requiredQuantity Required quantity
      * @return true if sufficient stock available
      */
-    public boolean hasStock(int productId, int requiredQuantity) throws SQLException {
-        String sql = "SELECT quantity FROM products WHERE id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, productId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    int availableQuantity = rs.getInt("quantity");
-                    return availableQuantity >= requiredQuantity;
-                }
-            }
-        }
-        
-        return false;
-    }
+    boolean hasStock(int productId, int requiredQuantity) throws SQLException;
 
     /**
      * Get products by category
      * @param category Product category
      * @return List of products in the category
      */
-    public List<Product> getProductsByCategory(String category) throws SQLException {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT id, name, price, quantity, category, description FROM products WHERE LOWER(category) = LOWER(?) ORDER BY name";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, category);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Product product = new Product();
-                    product.setId(rs.getInt("id"));
-                    product.setName(rs.getString("name"));
-                    product.setPrice(rs.getDouble("price"));
-                    product.setQuantity(rs.getInt("quantity"));
-                    product.setCategory(rs.getString("category"));
-                    product.setDescription(rs.getString("description"));
-
-                    products.add(product);
-                }
-            }
-        }
-
-        return products;
-    }
+    List<Product> getProductsByCategory(String category) throws SQLException;
 
     /**
      * Deep search for products using DFS-like approach
@@ -208,89 +122,12 @@ public class ProductDAO {
      * @param searchTerm Search term (can be partial name, category, or description)
      * @return List of products found through deep search
      */
-    public List<Product> deepSearchProducts(String searchTerm) throws SQLException {
-        Set<Product> foundProducts = new HashSet<>();
-        Set<String> visitedCategories = new HashSet<>();
-
-        // Start DFS from the search term
-        dfsProductSearch(searchTerm, foundProducts, visitedCategories, 0, 3); // Max depth 3
-
-        return new ArrayList<>(foundProducts);
-    }
-
-    /**
-     * DFS recursive search through product categories and related items
-     * @param searchTerm Current search term
-     * @param foundProducts Set to store found products
-     * @param visitedCategories Set to track visited categories (prevent cycles)
-     * @param depth Current search depth
-     * @param maxDepth Maximum search depth
-     */
-    private void dfsProductSearch(String searchTerm, Set<Product> foundProducts,
-                                 Set<String> visitedCategories, int depth, int maxDepth) throws SQLException {
-        if (depth >= maxDepth) return;
-
-        // Search for products matching the current term
-        String sql = """
-            SELECT DISTINCT id, name, price, quantity, category, description
-            FROM products
-            WHERE LOWER(name) LIKE LOWER(?)
-               OR LOWER(category) LIKE LOWER(?)
-               OR LOWER(description) LIKE LOWER(?)
-            ORDER BY name
-            """;
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            String likePattern = "%" + searchTerm + "%";
-            stmt.setString(1, likePattern);
-            stmt.setString(2, likePattern);
-            stmt.setString(3, likePattern);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Product product = new Product();
-                    product.setId(rs.getInt("id"));
-                    product.setName(rs.getString("name"));
-                    product.setPrice(rs.getDouble("price"));
-                    product.setQuantity(rs.getInt("quantity"));
-                    product.setCategory(rs.getString("category"));
-                    product.setDescription(rs.getString("description"));
-
-                    foundProducts.add(product);
-
-                    // DFS: Recursively search in the same category if not visited
-                    String category = product.getCategory();
-                    if (category != null && !visitedCategories.contains(category.toLowerCase())) {
-                        visitedCategories.add(category.toLowerCase());
-                        dfsProductSearch(category, foundProducts, visitedCategories, depth + 1, maxDepth);
-                    }
-                }
-            }
-        }
-    }
+    List<Product> deepSearchProducts(String searchTerm) throws SQLException;
 
     /**
      * Find related products using DFS traversal through categories
      * @param productId Base product ID
      * @return List of related products
      */
-    public List<Product> findRelatedProducts(int productId) throws SQLException {
-        Product baseProduct = getProductById(productId);
-        if (baseProduct == null || baseProduct.getCategory() == null) {
-            return new ArrayList<>();
-        }
-
-        Set<Product> relatedProducts = new HashSet<>();
-        Set<String> visitedCategories = new HashSet<>();
-
-        // Start DFS from the base product's category
-        dfsProductSearch(baseProduct.getCategory(), relatedProducts, visitedCategories, 0, 2);
-
-        // Remove the original product from results
-        relatedProducts.removeIf(p -> p.getId() == productId);
-
-        return new ArrayList<>(relatedProducts);
-    }
+    List<Product> findRelatedProducts(int productId) throws SQLException;
 }
@@ -0,0 +1,154 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request Coalescer
+ * Merges single-key lookups made by concurrent threads into multi-get calls.
+ * The first lookup to arrive opens a batch and waits up to the window for
+ * others to join it (less if the batch fills up), then loads the whole batch
+ * with one multi-get and hands every waiting thread its own result. Lookups
+ * arriving while a batch is being loaded open the next one.
+ *
+ * A lone lookup costs one window more than calling the DAO directly, so the
+ * window should be small next to a database round trip (tens of microseconds).
+ * Threads asking for the same key in the same batch get the same object.
+ */
+public class RequestCoalescer<K, V> {
+
+    /**
+     * Loads a batch of keys
+     */
+    public interface BatchLoader<K, V> {
+        /**
+         * @param keys Keys of the batch, possibly repeated
+         * @return One value per key, in the same order; null where not found
+         */
+        List<V> load(List<K> keys) throws SQLException;
+    }
+
+    private final BatchLoader<K, V> loader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private Batch<K, V> open; // batch still taking keys, guarded by this
+
+    /**
+     * @param loader Multi-get that serves the batches
+     * @param windowNanos How long the first lookup of a batch waits for others
+     * @param maxBatchSize Keys per batch; a full batch is loaded at once
+     */
+    public RequestCoalescer(BatchLoader<K, V> loader, long windowNanos, int maxBatchSize) {
+        this.loader = loader;
+        this.windowNanos = Math.max(0, windowNanos);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Look up one key as part of the next batch
+     * @param key Key, not null
+     * @return Value, or null if not found
+     * @throws SQLException if the batch failed; every lookup in it gets the error
+     */
+    public V get(K key) throws SQLException {
+        Batch<K, V> batch;
+        int index;
+        boolean leader = false;
+        synchronized (this) {
+            batch = open;
+            if (batch == null) {
+                batch = new Batch<>(Thread.currentThread());
+                open = batch;
+                leader = true;
+            }
+            index = batch.keys.size();
+            batch.keys.add(key);
+            if (batch.keys.size() >= maxBatchSize) {
+                open = null; // closed: the leader loads it now
+                if (!leader) {
+                    LockSupport.unpark(batch.leader);
+                }
+            }
+        }
+
+        if (leader) {
+            awaitWindow(batch);
+            batch.load(loader);
+        }
+        return batch.await(index);
+    }
+
+    /**
+     * Wait until the window has passed or the batch is full, then close it
+     */
+    private void awaitWindow(Batch<K, V> batch) {
+        long deadline = System.nanoTime() + windowNanos;
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            synchronized (this) {
+                if (open != batch) {
+                    return; // filled up
+                }
+                if (remaining <= 0) {
+                    open = null;
+                    return;
+                }
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Keys that are looked up together, and their results
+     */
+    private static class Batch<K, V> {
+        private final Thread leader;
+        private final List<K> keys = new ArrayList<>();
+        private final CountDownLatch loaded = new CountDownLatch(1);
+        private List<V> values;
+        private Exception failure;
+
+        Batch(Thread leader) {
+            this.leader = leader;
+        }
+
+        void load(BatchLoader<K, V> loader) {
+            try {
+                values = loader.load(keys);
+                if (values.size() != keys.size()) {
+                    failure = new SQLException("Multi-get returned " + values.size() + " values for " + keys.size() + " keys");
+                }
+            } catch (SQLException | RuntimeException e) {
+                failure = e;
+            } finally {
+                loaded.countDown();
+            }
+        }
+
+        V await(int index) throws SQLException {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    loaded.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // the leader is already loading; wait for the result
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (failure instanceof SQLException e) {
+                throw new SQLException(e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            }
+            if (failure != null) {
+                throw new IllegalStateException(failure.getMessage(), failure);
+            }
+            return values.get(index);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Atomic Int-to-int Hash Map
+ * Concurrent variant of IntIntHashMap for counters such as stock levels.
+ * Values of existing keys are read and updated lock-free with compare-and-set
+ * on the value array; only adding a new key takes the map's lock.
+ * When the table grows, each old value is swapped for a MOVED marker as it
+ * is copied, so an update racing with the copy fails its compare-and-set and
+ * retries on the new table instead of being lost.
+ * Keys must not be 0 (the empty-slot marker) and values must not be
+ * Integer.MIN_VALUE (the MOVED marker). Keys are never removed.
+ */
+public final class AtomicIntIntHashMap {
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int EMPTY = 0;
+    private static final int MOVED = Integer.MIN_VALUE;
+
+    /**
+     * Keys and values of one table generation
+     */
+    private static final class Table {
+        final int[] keys;
+        final int[] values;
+
+        Table(int capacity) {
+            this.keys = new int[capacity];
+            this.values = new int[capacity];
+        }
+    }
+
+    private volatile Table table;
+    private int size; // guarded by this
+
+    public AtomicIntIntHashMap() {
+        this(16);
+    }
+
+    public AtomicIntIntHashMap(int expectedSize) {
+        this.table = new Table(IntIntHashMap.tableSize(expectedSize));
+    }
+
+    /**
+     * Copy the entries of a single-threaded map
+     * @param source Entries to start with
+     */
+    public AtomicIntIntHashMap(IntIntHashMap source) {
+        this(source.size());
+        source.forEach(this::put);
+    }
+
+    /**
+     * Find the slot of a key in a table
+     * @return Slot index, or -1 if the key is absent
+     */
+    private static int find(Table t, int key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int mask = t.keys.length - 1;
+        for (int i = IntIntHashMap.slot(key, mask); ; i = (i + 1) & mask) {
+            int k = (int) INTS.getAcquire(t.keys, i);
+            if (k == key) {
+                return i;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Wait for the table that replaces t to be published
+     */
+    private Table next(Table t) {
+        Table current;
+        while ((current = table) == t) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+
+    /**
+     * Get the value for a key
+     * @param key Key
+     * @param defaultValue Value returned when the key is absent
+     * @return Current value, or defaultValue if absent
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        Table t = table;
+        while (true) {
+            int i = find(t, key);
+            if (i < 0) {
+                return defaultValue;
+            }
+            int value = (int) INTS.getVolatile(t.values, i);
+            if (value != MOVED) {
+                return value;
+            }
+            t = next(t);
+        }
+    }
+
+    /**
+     * Check whether a key is present
+     * @param key Key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(int key) {
+        return find(table, key) >= 0;
+    }
+
+    /**
+     * Subtract an amount unless that would take the value below it
+     * @param key Key
+     * @param amount Amount to subtract
+     * @return true if the key was present with at least amount and was decremented
+     */
+    public boolean tryDecrement(int key, int amount) {
+        Table t = table;
+        while (true) {
+            int i = find(t, key);
+            if (i < 0) {
+                return false;
+            }
+            int value = (int) INTS.getVolatile(t.values, i);
+            if (value == MOVED) {
+                t = next(t);
+            } else if (value < amount) {
+                return false;
+            } else if (INTS.compareAndSet(t.values, i, value, value - amount)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add to the value of a key, inserting the key with value delta if absent
+     * @param key Non-zero key
+     * @param delta Amount to add
+     * @return New value
+     */
+    public int addAndGet(int key, int delta) {
+        Table t = table;
+        while (true) {
+            int i = find(t, key);
+            if (i < 0) {
+                if (insert(key, delta)) {
+                    return delta;
+                }
+                t = table; // inserted by another thread meanwhile
+                continue;
+            }
+            int value = (int) INTS.getVolatile(t.values, i);
+            if (value == MOVED) {
+                t = next(t);
+            } else if (INTS.compareAndSet(t.values, i, value, value + delta)) {
+                return value + delta;
+            }
+        }
+    }
+
+    /**
+     * Set the value of a key
+     * @param key Non-zero key
+     * @param value New value
+     */
+    public void put(int key, int value) {
+        if (value == MOVED) {
+            throw new IllegalArgumentException("Value " + MOVED + " is reserved");
+        }
+        Table t = table;
+        while (true) {
+            int i = find(t, key);
+            if (i < 0) {
+                if (insert(key, value)) {
+                    return;
+                }
+                t = table;
+                continue;
+            }
+            int current = (int) INTS.getVolatile(t.values, i);
+            if (current == MOVED) {
+                t = next(t);
+            } else if (INTS.compareAndSet(t.values, i, current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add a new key under the lock, growing the table first if needed
+     * @return false if the key was already present
+     */
+    private synchronized boolean insert(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        if (value == MOVED) {
+            throw new IllegalArgumentException("Value " + MOVED + " is reserved");
+        }
+
+        Table t = table;
+        if (find(t, key) >= 0) {
+            return false;
+        }
+        if (IntIntHashMap.overLoaded(size + 1, t.keys.length)) {
+            t = grow(t);
+        }
+
+        int mask = t.keys.length - 1;
+        int i = IntIntHashMap.slot(key, mask);
+        while (t.keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        // Value first, so a reader that sees the key also sees its value
+        INTS.setRelease(t.values, i, value);
+        INTS.setRelease(t.keys, i, key);
+        size++;
+        return true;
+    }
+
+    /**
+     * Copy every entry into a table twice the size and publish it
+     * Called with the lock held.
+     */
+    private Table grow(Table old) {
+        Table grown = new Table(old.keys.length * 2);
+        int mask = grown.keys.length - 1;
+        for (int j = 0; j < old.keys.length; j++) {
+            int key = old.keys[j];
+            if (key == EMPTY) {
+                continue;
+            }
+            int value;
+            do {
+                value = (int) INTS.getVolatile(old.values, j);
+            } while (!INTS.compareAndSet(old.values, j, value, MOVED));
+
+            int i = IntIntHashMap.slot(key, mask);
+            while (grown.keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            grown.keys[i] = key;
+            grown.values[i] = value;
+        }
+        table = grown;
+        return grown;
+    }
+
+    /**
+     * Get the number of keys
+     * @return Number of keys
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Visit every entry
+     * Values are read one at a time, so concurrent updates may or may not be seen.
+     * @param consumer Receives each key and value
+     */
+    public void forEach(IntIntHashMap.EntryConsumer consumer) {
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++) {
+            int key = (int) INTS.getAcquire(t.keys, i);
+            if (key != EMPTY) {
+                int value = (int) INTS.getVolatile(t.values, i);
+                consumer.accept(key, value == MOVED ? getOrDefault(key, 0) : value);
+            }
+        }
+    }
+
+    /**
+     * Copy the current entries into a single-threaded map
+     * @return Snapshot of the entries
+     */
+    public IntIntHashMap toMap() {
+        IntIntHashMap copy = new IntIntHashMap(size());
+        forEach(copy::put);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "AtomicIntIntHashMap{size=" + size() + "}";
+    }
+}
@@ -0,0 +1,224 @@
+package dsa;
+
+import java.util.*;
+
+/**
+ * Compact Graph
+ * Immutable compressed sparse row (CSR) copy of a Graph.
+ * Cities are numbered 0..n-1 and the edges of city v are stored in
+ * targets/weights at positions offsets[v] until offsets[v + 1].
+ * Use of() to share one copy per graph version between the index builders.
+ */
+public class CompactGraph {
+    private final String[] names;
+    private final Map<String, Integer> indexByName;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+    private final long sourceVersion;
+    private final boolean symmetric;
+
+    /**
+     * Build a compact copy of a graph
+     * @param graph Source graph
+     */
+    public CompactGraph(Graph graph) {
+        List<String> sortedCities = new ArrayList<>(graph.getAllCities());
+        Collections.sort(sortedCities);
+
+        int n = sortedCities.size();
+        this.names = sortedCities.toArray(new String[0]);
+        this.indexByName = indexOf(names);
+
+        this.offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + graph.getNeighbors(names[i]).size();
+        }
+
+        this.targets = new int[offsets[n]];
+        this.weights = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int position = offsets[i];
+            for (Graph.Edge edge : graph.getNeighbors(names[i])) {
+                targets[position] = indexByName.get(edge.getDestination());
+                weights[position] = edge.getWeight();
+                position++;
+            }
+        }
+
+        this.sourceVersion = graph.getVersion();
+        this.symmetric = !graph.hasDirectedRoutes();
+    }
+
+    /**
+     * Wrap CSR arrays that are already built, as read from a graph snapshot
+     * @param names City names in index order
+     * @param offsets Edge start of each city, plus the total edge count
+     * @param targets Destination of each edge
+     * @param weights Distance of each edge
+     * @param source Graph holding the same routes
+     */
+    CompactGraph(String[] names, int[] offsets, int[] targets, int[] weights, Graph source) {
+        this(names, indexOf(names), offsets, targets, weights, source.getVersion(), !source.hasDirectedRoutes());
+    }
+
+    private CompactGraph(String[] names, Map<String, Integer> indexByName, int[] offsets, int[] targets,
+                         int[] weights, long sourceVersion, boolean symmetric) {
+        this.names = names;
+        this.indexByName = indexByName;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.sourceVersion = sourceVersion;
+        this.symmetric = symmetric;
+    }
+
+    private static Map<String, Integer> indexOf(String[] names) {
+        Map<String, Integer> indexByName = HashMap.newHashMap(names.length);
+        for (int i = 0; i < names.length; i++) {
+            indexByName.put(names[i], i);
+        }
+        return indexByName;
+    }
+
+    /**
+     * Get the compact copy of a graph, building it only if the graph changed since the last one
+     * Graphs read from a snapshot come with their copy, so nothing is rebuilt.
+     * @param graph Source graph
+     * @return Compact copy matching the current graph version
+     */
+    public static CompactGraph of(Graph graph) {
+        CompactGraph compact = graph.compact;
+        if (compact == null || !compact.isCurrent(graph)) {
+            compact = new CompactGraph(graph);
+            graph.compact = compact;
+        }
+        return compact;
+    }
+
+    /**
+     * Get the graph with every edge reversed
+     * Walking its edges from a city follows routes into that city. City
+     * numbers are the same as in this graph.
+     * @return This graph if it is symmetric, otherwise a reversed copy
+     */
+    public CompactGraph transpose() {
+        if (symmetric) {
+            return this;
+        }
+
+        int n = names.length;
+        int[] reversedOffsets = new int[n + 1];
+        int[] sources = new int[targets.length];
+        int[] reversedWeights = new int[targets.length];
+        for (int target : targets) {
+            reversedOffsets[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            reversedOffsets[i + 1] += reversedOffsets[i];
+        }
+        int[] position = Arrays.copyOf(reversedOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int p = position[targets[e]]++;
+                sources[p] = u;
+                reversedWeights[p] = weights[e];
+            }
+        }
+        return new CompactGraph(names, indexByName, reversedOffsets, sources, reversedWeights, sourceVersion, false);
+    }
+
+    /**
+     * Get the index of a city
+     * @param city City name
+     * @return City index, or -1 if the city is not in the graph
+     */
+    public int indexOf(String city) {
+        Integer index = indexByName.get(city);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Get the name of a city by index
+     * @param index City index
+     * @return City name
+     */
+    public String nameOf(int index) {
+        return names[index];
+    }
+
+    /**
+     * Get the number of cities
+     * @return Number of cities
+     */
+    public int getCityCount() {
+        return names.length;
+    }
+
+    /**
+     * Get the number of directed edges
+     * @return Number of directed edges
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Get the position of the first edge of a city
+     * @param city City index
+     * @return First edge position
+     */
+    public int edgeStart(int city) {
+        return offsets[city];
+    }
+
+    /**
+     * Get the position after the last edge of a city
+     * @param city City index
+     * @return End edge position (exclusive)
+     */
+    public int edgeEnd(int city) {
+        return offsets[city + 1];
+    }
+
+    /**
+     * Get the destination of an edge
+     * @param edge Edge position
+     * @return Destination city index
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Get the weight of an edge
+     * @param edge Edge position
+     * @return Distance in kilometers
+     */
+    public int edgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Check if every edge has a reverse edge (all routes bidirectional)
+     * Bottom-up traversals rely on this to use outgoing edges as incoming ones.
+     * @return true if the graph is symmetric
+     */
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * Check if this copy still matches its source graph
+     * @param graph Source graph
+     * @return true if the graph has not been modified since the copy was made
+     */
+    public boolean isCurrent(Graph graph) {
+        return graph.getVersion() == sourceVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactGraph{cities=" + getCityCount() + ", edges=" + getEdgeCount() + "}";
+    }
+}
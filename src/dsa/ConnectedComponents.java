@@ -0,0 +1,106 @@
+package dsa;
+
+/**
+ * Connected Components Index
+ * Labels every city with a component id using union-find over a CompactGraph,
+ * so connectivity checks are answered in O(1) before any search runs.
+ * On graphs with one-way routes the labels are weakly connected components:
+ * different labels prove there is no route, equal labels do not guarantee one.
+ */
+public class ConnectedComponents {
+    private final CompactGraph graph;
+    private final int[] component;
+    private final int componentCount;
+
+    public ConnectedComponents(CompactGraph graph) {
+        this.graph = graph;
+
+        int n = graph.getCityCount();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                union(parent, u, graph.targets[e]);
+            }
+        }
+
+        // Relabel roots as dense component ids
+        this.component = new int[n];
+        int[] label = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (label[root] == 0) {
+                label[root] = ++count;
+            }
+            component[i] = label[root] - 1;
+        }
+        this.componentCount = count;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // path halving
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // Attach the larger index under the smaller to keep trees shallow enough
+            if (rootA < rootB) {
+                parent[rootB] = rootA;
+            } else {
+                parent[rootA] = rootB;
+            }
+        }
+    }
+
+    /**
+     * Get the component id of a city
+     * @param city City name
+     * @return Component id, or -1 if the city is not in the graph
+     */
+    public int componentOf(String city) {
+        int index = graph.indexOf(city);
+        return index != -1 ? component[index] : -1;
+    }
+
+    /**
+     * Check whether a route between two cities may exist
+     * @param city1 First city
+     * @param city2 Second city
+     * @return false if the cities are provably not connected
+     */
+    public boolean areConnected(String city1, String city2) {
+        int component1 = componentOf(city1);
+        return component1 != -1 && component1 == componentOf(city2);
+    }
+
+    /**
+     * Get the number of components
+     * @return Number of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Get the compact graph this index was built on
+     * @return Compact graph
+     */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectedComponents{components=" + componentCount + "}";
+    }
+}
@@ -1,5 +1,8 @@
 package dsa;
 
+import metrics.SearchMetrics;
+import profiling.SearchEvent;
+
 import java.util.*;
 
 /**
@@ -7,11 +10,12 @@ import java.util.*;
  * Finds shortest path between cities in the delivery network
  */
 public class Dijkstra {
+    private static final SearchMetrics METRICS = SearchMetrics.forAlgorithm("dijkstra");
 
     /**
      * Node class for priority queue
      */
-    private static class Node implements Comparable<Node> {
+    static class Node implements Comparable<Node> {
         String city;
         int distance;
         String previous;
@@ -79,6 +83,12 @@ public class Dijkstra {
             return new PathResult(Arrays.asList(startCity), 0);
         }
 
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long settledCount = 0;
+        long relaxedCount = 0;
+
         // Initialize data structures
         Map<String, Integer> distances = new HashMap<>();
         Map<String, String> previous = new HashMap<>();
@@ -106,6 +116,7 @@ public class Dijkstra {
 
             // Mark as visited
             visited.add(currentCity);
+            settledCount++;
 
             // If we reached the destination, break
             if (currentCity.equals(endCity)) {
@@ -116,6 +127,7 @@ public class Dijkstra {
             for (Graph.Edge edge : graph.getNeighbors(currentCity)) {
                 String neighbor = edge.getDestination();
                 int edgeWeight = edge.getWeight();
+                relaxedCount++;
 
                 // Skip if already visited
                 if (visited.contains(neighbor)) {
@@ -137,6 +149,8 @@ public class Dijkstra {
         // Reconstruct path
         List<String> path = reconstructPath(previous, startCity, endCity);
         int totalDistance = distances.get(endCity);
+        METRICS.record(start, settledCount, relaxedCount);
+        event.finish(METRICS.getAlgorithm(), startCity, endCity, settledCount, relaxedCount);
 
         // Return result
         if (path != null && totalDistance != Integer.MAX_VALUE) {
@@ -172,6 +186,17 @@ public class Dijkstra {
         }
     }
 
+    /**
+     * Build a reusable shortest path tree rooted at a source city
+     * The tree is grown lazily, so building it is free until it is queried.
+     * @param graph The city graph
+     * @param sourceCity Source city
+     * @return ShortestPathTree rooted at the source city
+     */
+    public ShortestPathTree buildShortestPathTree(Graph graph, String sourceCity) {
+        return new ShortestPathTree(graph, sourceCity);
+    }
+
     /**
      * Find shortest distances from a source city to all other cities
      * @param graph The city graph
@@ -179,74 +204,41 @@ public class Dijkstra {
      * @return Map of city names to shortest distances
      */
     public Map<String, Integer> findShortestDistances(Graph graph, String sourceCity) {
-        Map<String, Integer> distances = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-        PriorityQueue<Node> priorityQueue = new PriorityQueue<>();
-
-        // Initialize distances
-        for (String city : graph.getAllCities()) {
-            distances.put(city, Integer.MAX_VALUE);
-        }
-        distances.put(sourceCity, 0);
-        priorityQueue.offer(new Node(sourceCity, 0, null));
-
-        // Main algorithm loop
-        while (!priorityQueue.isEmpty()) {
-            Node current = priorityQueue.poll();
-            String currentCity = current.city;
-
-            if (visited.contains(currentCity)) {
-                continue;
-            }
-
-            visited.add(currentCity);
-
-            // Explore neighbors
-            for (Graph.Edge edge : graph.getNeighbors(currentCity)) {
-                String neighbor = edge.getDestination();
-                int edgeWeight = edge.getWeight();
-
-                if (visited.contains(neighbor)) {
-                    continue;
-                }
-
-                int newDistance = distances.get(currentCity) + edgeWeight;
-
-                if (newDistance < distances.get(neighbor)) {
-                    distances.put(neighbor, newDistance);
-                    priorityQueue.offer(new Node(neighbor, newDistance, currentCity));
-                }
-            }
-        }
-
-        return distances;
+        return buildShortestPathTree(graph, sourceCity).getAllDistances();
     }
 
     /**
      * Find the nearest city from a source city
+     * The search stops at the first target settled and the path is read
+     * from the same tree, so no second search is needed.
      * @param graph The city graph
      * @param sourceCity Source city
      * @param targetCities List of target cities to consider
      * @return The nearest city and its distance
      */
     public PathResult findNearestCity(Graph graph, String sourceCity, List<String> targetCities) {
-        Map<String, Integer> distances = findShortestDistances(graph, sourceCity);
-        
-        String nearestCity = null;
-        int minDistance = Integer.MAX_VALUE;
-
-        for (String city : targetCities) {
-            if (distances.containsKey(city) && distances.get(city) < minDistance) {
-                minDistance = distances.get(city);
-                nearestCity = city;
-            }
-        }
+        ShortestPathTree tree = buildShortestPathTree(graph, sourceCity);
+        String nearestCity = tree.findNearest(targetCities);
 
         if (nearestCity != null) {
-            PathResult fullPath = findShortestPath(graph, sourceCity, nearestCity);
-            return fullPath;
+            return tree.getPath(nearestCity);
         } else {
             return new PathResult(null, -1);
         }
     }
+
+    /**
+     * Find the k shortest loopless paths between two cities (Yen's algorithm)
+     * Runs on the graph's shared compact copy (see CompactGraph.of). Each call
+     * gets its own KShortestPaths, whose scratch arrays are per query, so
+     * concurrent calls are safe.
+     * @param graph The city graph
+     * @param startCity Starting city
+     * @param endCity Destination city
+     * @param k Number of alternative paths wanted
+     * @return Paths ordered by distance, the first being the shortest
+     */
+    public List<PathResult> findKShortestPaths(Graph graph, String startCity, String endCity, int k) {
+        return new KShortestPaths(CompactGraph.of(graph)).findPaths(startCity, endCity, k);
+    }
 }
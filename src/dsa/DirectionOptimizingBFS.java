@@ -0,0 +1,230 @@
+package dsa;
+
+import metrics.SearchMetrics;
+import profiling.SearchEvent;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Direction-Optimizing BFS
+ * Unweighted breadth-first search over a CompactGraph using frontier bitmaps.
+ * Small frontiers are expanded top-down (push along outgoing edges); once the
+ * frontier covers a large share of the remaining edges the search switches to
+ * bottom-up (every unvisited city looks for a parent in the frontier), which
+ * is split across cores for large graphs. Bottom-up steps need incoming edges,
+ * so they are only used on symmetric graphs.
+ */
+public class DirectionOptimizingBFS {
+    // Switch to bottom-up when frontier edges exceed unvisited edges / ALPHA
+    private static final int ALPHA = 14;
+    // Switch back to top-down when the frontier drops below cityCount / BETA
+    private static final int BETA = 24;
+    // Bitmap words per parallel task; smaller graphs run bottom-up on one thread
+    private static final int WORDS_PER_TASK = 1024;
+    private static final SearchMetrics METRICS = SearchMetrics.forAlgorithm("bfs");
+
+    private final CompactGraph graph;
+    private final int cityCount;
+    private final int wordCount;
+
+    public DirectionOptimizingBFS(CompactGraph graph) {
+        this.graph = graph;
+        this.cityCount = graph.getCityCount();
+        this.wordCount = (cityCount + 63) >>> 6;
+    }
+
+    /**
+     * Compute hop counts from one or more source cities
+     * @param sources Source city indices
+     * @return Hop count per city index, -1 if unreachable
+     */
+    public int[] levels(int... sources) {
+        return run(sources, null);
+    }
+
+    /**
+     * Compute hop counts, stopping after the first level that reaches a target
+     * @param sources Source city indices
+     * @param targets Bitmap of target cities (null runs to completion)
+     * @return Hop count per city index, -1 if unreachable or not yet visited
+     */
+    public int[] run(int[] sources, long[] targets) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int[] levels = new int[cityCount];
+        Arrays.fill(levels, -1);
+
+        long[] visited = new long[wordCount];
+        long[] frontier = new long[wordCount];
+        long[] next = new long[wordCount];
+
+        long frontierEdges = 0;
+        long unvisitedEdges = graph.getEdgeCount();
+        int frontierSize = 0;
+
+        for (int source : sources) {
+            if ((visited[source >>> 6] & (1L << source)) == 0) {
+                visited[source >>> 6] |= 1L << source;
+                frontier[source >>> 6] |= 1L << source;
+                levels[source] = 0;
+                int degree = graph.offsets[source + 1] - graph.offsets[source];
+                frontierEdges += degree;
+                unvisitedEdges -= degree;
+                frontierSize++;
+            }
+        }
+
+        boolean bottomUp = false;
+        int level = 0;
+        long visitedCount = frontierSize;
+        long scannedEdges = 0;
+
+        while (frontierSize > 0) {
+            if (reachedTarget(frontier, targets)) {
+                break;
+            }
+
+            // Choose the direction for this level
+            if (graph.isSymmetric()) {
+                if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < cityCount / BETA) {
+                    bottomUp = false;
+                }
+            }
+
+            Arrays.fill(next, 0L);
+            long[] counts = bottomUp
+                    ? bottomUpStep(frontier, next, visited, levels, level + 1)
+                    : topDownStep(frontier, next, visited, levels, level + 1);
+
+            frontierSize = (int) counts[0];
+            frontierEdges = counts[1];
+            unvisitedEdges -= counts[1];
+            visitedCount += counts[0];
+            scannedEdges += counts[2];
+            level++;
+
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+
+        METRICS.record(start, visitedCount, scannedEdges);
+        event.finish(METRICS.getAlgorithm(), sources.length == 1 ? graph.nameOf(sources[0]) : sources.length + " sources",
+                null, visitedCount, scannedEdges);
+        return levels;
+    }
+
+    private boolean reachedTarget(long[] frontier, long[] targets) {
+        if (targets == null) {
+            return false;
+        }
+        for (int w = 0; w < wordCount; w++) {
+            if ((frontier[w] & targets[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Push from every frontier city along its outgoing edges
+     * @return {newly visited cities, sum of their degrees, edges scanned}
+     */
+    private long[] topDownStep(long[] frontier, long[] next, long[] visited, int[] levels, int level) {
+        long count = 0;
+        long edges = 0;
+        long scanned = 0;
+
+        for (int w = 0; w < wordCount; w++) {
+            long word = frontier[w];
+            while (word != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                scanned += graph.offsets[u + 1] - graph.offsets[u];
+
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    int v = graph.targets[e];
+                    long bit = 1L << v;
+                    if ((visited[v >>> 6] & bit) == 0) {
+                        visited[v >>> 6] |= bit;
+                        next[v >>> 6] |= bit;
+                        levels[v] = level;
+                        count++;
+                        edges += graph.offsets[v + 1] - graph.offsets[v];
+                    }
+                }
+            }
+        }
+
+        return new long[]{count, edges, scanned};
+    }
+
+    /**
+     * Let every unvisited city look for a parent in the frontier
+     * Each task owns a disjoint range of bitmap words, so no synchronization is needed.
+     * @return {newly visited cities, sum of their degrees, edges scanned}
+     */
+    private long[] bottomUpStep(long[] frontier, long[] next, long[] visited, int[] levels, int level) {
+        int taskCount = (wordCount + WORDS_PER_TASK - 1) / WORDS_PER_TASK;
+
+        if (taskCount <= 1) {
+            long[] counts = new long[3];
+            bottomUpRange(0, wordCount, frontier, next, visited, levels, level, counts);
+            return counts;
+        }
+
+        LongAdder count = new LongAdder();
+        LongAdder edges = new LongAdder();
+        LongAdder scanned = new LongAdder();
+        IntStream.range(0, taskCount).parallel().forEach(task -> {
+            long[] counts = new long[3];
+            int fromWord = task * WORDS_PER_TASK;
+            int toWord = Math.min(wordCount, fromWord + WORDS_PER_TASK);
+            bottomUpRange(fromWord, toWord, frontier, next, visited, levels, level, counts);
+            count.add(counts[0]);
+            edges.add(counts[1]);
+            scanned.add(counts[2]);
+        });
+
+        return new long[]{count.sum(), edges.sum(), scanned.sum()};
+    }
+
+    private void bottomUpRange(int fromWord, int toWord, long[] frontier, long[] next, long[] visited,
+                               int[] levels, int level, long[] counts) {
+        for (int w = fromWord; w < toWord; w++) {
+            long unvisited = ~visited[w];
+            if (w == wordCount - 1 && (cityCount & 63) != 0) {
+                unvisited &= (1L << (cityCount & 63)) - 1; // ignore bits past the last city
+            }
+
+            while (unvisited != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                long bit = unvisited & -unvisited;
+                unvisited &= unvisited - 1;
+
+                for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                    int u = graph.targets[e];
+                    counts[2]++;
+                    if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                        visited[w] |= bit;
+                        next[w] |= bit;
+                        levels[v] = level;
+                        counts[0]++;
+                        counts[1] += graph.offsets[v + 1] - graph.offsets[v];
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DirectionOptimizingBFS{cities=" + cityCount + "}";
+    }
+}
@@ -9,12 +9,24 @@ import java.util.*;
 public class Graph {
     private Map<String, List<Edge>> adjacencyList;
     private Set<String> cities;
+    private long version; // incremented on every modification
+    private boolean hasDirectedRoutes;
+    volatile CompactGraph compact; // last CSR copy handed out by CompactGraph.of
 
     public Graph() {
         this.adjacencyList = new HashMap<>();
         this.cities = new HashSet<>();
     }
 
+    /**
+     * Create an empty graph sized for a number of cities
+     * @param expectedCities Number of cities that will be added
+     */
+    public Graph(int expectedCities) {
+        this.adjacencyList = HashMap.newHashMap(expectedCities);
+        this.cities = HashSet.newHashSet(expectedCities);
+    }
+
     /**
      * Edge class representing a route between cities
      */
@@ -46,7 +58,9 @@ public class Graph {
      * @param city City name
      */
     public void addCity(String city) {
-        cities.add(city);
+        if (cities.add(city)) {
+            version++;
+        }
         adjacencyList.putIfAbsent(city, new ArrayList<>());
     }
 
@@ -63,6 +77,7 @@ public class Graph {
         // Add bidirectional edges
         adjacencyList.get(city1).add(new Edge(city2, distance));
         adjacencyList.get(city2).add(new Edge(city1, distance));
+        version++;
     }
 
     /**
@@ -76,6 +91,22 @@ public class Graph {
         addCity(toCity);
         
         adjacencyList.get(fromCity).add(new Edge(toCity, distance));
+        hasDirectedRoutes = true;
+        version++;
+    }
+
+    /**
+     * Add one edge exactly as stored, without its reverse
+     * Used to rebuild a graph from a snapshot; setDirectedRoutes restores the
+     * directed flag afterwards.
+     */
+    void addEdge(String fromCity, String toCity, int distance) {
+        adjacencyList.get(fromCity).add(new Edge(toCity, distance));
+        version++;
+    }
+
+    void setDirectedRoutes(boolean hasDirectedRoutes) {
+        this.hasDirectedRoutes = hasDirectedRoutes;
     }
 
     /**
@@ -154,6 +185,25 @@ public class Graph {
     public void clear() {
         adjacencyList.clear();
         cities.clear();
+        hasDirectedRoutes = false;
+        version++;
+    }
+
+    /**
+     * Check if any unidirectional route was added
+     * @return true if the graph may contain one-way routes
+     */
+    public boolean hasDirectedRoutes() {
+        return hasDirectedRoutes;
+    }
+
+    /**
+     * Get the modification version of the graph
+     * Derived structures compare it to detect that they are stale
+     * @return Version number
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -0,0 +1,189 @@
+package dsa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Graph Snapshot
+ * Binary copy of a city graph that can be read back without the database.
+ * The graph is stored in its compressed sparse row form (see CompactGraph)
+ * together with the city name dictionary, so reading it is a memory-mapped
+ * scan of a few int arrays instead of a join streamed row by row. The
+ * arrays read back become the graph's CompactGraph (see CompactGraph.of),
+ * so the CSR indexes are built on them without another conversion.
+ *
+ * Every snapshot records a stamp of the data it was built from (see
+ * RouteDAO.getGraphStamp) and a CRC32 of its contents; read() returns null
+ * when either does not match, and the caller loads the graph from its source.
+ * The file is little-endian throughout:
+ *
+ *   header (64 bytes): magic, version, flags, stamp, city count, edge count,
+ *                      name bytes, CRC32 of everything after the header
+ *   offsets (cities + 1 ints), targets, weights (edge count ints each)
+ *   name ends (cities ints), names (UTF-8)
+ */
+public class GraphSnapshot {
+    private static final long MAGIC = 0x4349545947524150L; // "CITYGRAP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int DIRECTED = 1;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Write a snapshot of a graph
+     * The file is written next to its final name and moved into place, so a
+     * reader never sees a half-written snapshot.
+     * @param graph Graph to store
+     * @param file Snapshot file
+     * @param stamp Stamp of the data the graph was loaded from
+     */
+    public static void write(Graph graph, Path file, long stamp) throws IOException {
+        CompactGraph compact = CompactGraph.of(graph);
+        int n = compact.getCityCount();
+        int edges = compact.getEdgeCount();
+
+        byte[][] names = new byte[n][];
+        int[] nameEnds = new int[n];
+        int nameBytes = 0;
+        for (int i = 0; i < n; i++) {
+            names[i] = compact.nameOf(i).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[i].length;
+            nameEnds[i] = nameBytes;
+        }
+
+        long payloadBytes = payloadBytes(n, edges, nameBytes);
+        if (HEADER_BYTES + payloadBytes > Integer.MAX_VALUE) {
+            throw new IOException("Graph too large for a snapshot (" + payloadBytes + " bytes)");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (HEADER_BYTES + payloadBytes)).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.position(HEADER_BYTES);
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.put(compact.offsets).put(compact.targets).put(compact.weights).put(nameEnds);
+        buffer.position(buffer.position() + ints.position() * Integer.BYTES);
+        for (byte[] name : names) {
+            buffer.put(name);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, (int) payloadBytes);
+        buffer.putLong(0, MAGIC)
+                .putInt(8, VERSION)
+                .putInt(12, compact.isSymmetric() ? 0 : DIRECTED)
+                .putLong(16, stamp)
+                .putInt(24, n)
+                .putInt(28, edges)
+                .putInt(32, nameBytes)
+                .putLong(36, crc.getValue());
+
+        Path absolute = file.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Get the size of the data after the header, computed in long so large graphs cannot overflow
+     * Offsets (n + 1), targets and weights (edges each), name ends (n), then the names.
+     * @param n Number of cities
+     * @param edges Number of edges
+     * @param nameBytes Total length of the UTF-8 names
+     * @return Payload size in bytes
+     */
+    private static long payloadBytes(int n, int edges, int nameBytes) {
+        return Integer.BYTES * (2L * n + 1 + 2L * edges) + nameBytes;
+    }
+
+    /**
+     * Read a snapshot into a new graph
+     * The CSR arrays are kept as the graph's compact copy.
+     * @param file Snapshot file
+     * @param stamp Stamp of the current data
+     * @return Graph, or null if there is no snapshot or it is stale or damaged
+     */
+    public static Graph read(Path file, long stamp) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) < HEADER_BYTES) {
+            return null;
+        }
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION || buffer.getLong(16) != stamp) {
+            return null;
+        }
+        boolean directed = (buffer.getInt(12) & DIRECTED) != 0;
+        int n = buffer.getInt(24);
+        int edges = buffer.getInt(28);
+        int nameBytes = buffer.getInt(32);
+        long payloadBytes = payloadBytes(n, edges, nameBytes);
+        if (n < 0 || edges < 0 || nameBytes < 0 || HEADER_BYTES + payloadBytes != buffer.capacity()) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_BYTES, (int) payloadBytes));
+        if (crc.getValue() != buffer.getLong(36)) {
+            return null;
+        }
+
+        IntBuffer ints = buffer.slice(HEADER_BYTES, (int) payloadBytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edges];
+        int[] weights = new int[edges];
+        int[] nameEnds = new int[n];
+        ints.get(offsets).get(targets).get(weights).get(nameEnds);
+
+        byte[] nameData = new byte[nameBytes];
+        buffer.get(HEADER_BYTES + (int) payloadBytes - nameBytes, nameData);
+        String[] names = new String[n];
+        int start = 0;
+        for (int i = 0; i < n; i++) {
+            names[i] = new String(nameData, start, nameEnds[i] - start, StandardCharsets.UTF_8);
+            start = nameEnds[i];
+        }
+
+        Graph graph = new Graph(n);
+        for (String name : names) {
+            graph.addCity(name);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                graph.addEdge(names[i], names[targets[e]], weights[e]);
+            }
+        }
+        graph.setDirectedRoutes(directed);
+        graph.compact = new CompactGraph(names, offsets, targets, weights, graph);
+        return graph;
+    }
+}
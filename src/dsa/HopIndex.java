@@ -0,0 +1,319 @@
+package dsa;
+
+import metrics.SearchMetrics;
+import profiling.SearchEvent;
+
+import java.util.*;
+
+/**
+ * Hop Index
+ * Minimum hop counts between every city and a set of source cities
+ * (warehouses), computed with one multi-source BFS. Ties on hop count are
+ * broken by the shortest distance in km among the minimum-hop paths, so each
+ * city maps to its lexicographically best (hops, km) source.
+ * Paths are measured from each city to the sources, like search() and the
+ * customer's shortest path tree; on a graph with one-way routes the BFS runs
+ * over the reversed edges.
+ */
+public class HopIndex {
+    private static final SearchMetrics BUILD_METRICS = SearchMetrics.forAlgorithm("hop_index_build");
+    private static final SearchMetrics SEARCH_METRICS = SearchMetrics.forAlgorithm("hop_search");
+
+    private final CompactGraph graph;
+    private final int[] hops;          // minimum hops to the nearest source, -1 if unreachable
+    private final int[] distances;     // km along the best minimum-hop path
+    private final int[] nearestSource; // index of the best source, -1 if unreachable
+
+    /**
+     * Result class for hop queries
+     */
+    public static class Result {
+        private final String city;
+        private final int hops;
+        private final int distance;
+
+        public Result(String city, int hops, int distance) {
+            this.city = city;
+            this.hops = hops;
+            this.distance = distance;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public int getHops() {
+            return hops;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return city + " (" + hops + " hops, " + distance + " km)";
+        }
+    }
+
+    private HopIndex(CompactGraph graph, int[] hops, int[] distances, int[] nearestSource) {
+        this.graph = graph;
+        this.hops = hops;
+        this.distances = distances;
+        this.nearestSource = nearestSource;
+    }
+
+    /**
+     * Build the index with a multi-source BFS from all source cities
+     * @param graph Compact city graph
+     * @param sourceCities Source cities (cities not in the graph are ignored)
+     * @return HopIndex over all cities
+     */
+    public static HopIndex build(CompactGraph graph, Collection<String> sourceCities) {
+        int n = graph.getCityCount();
+        int[] distances = new int[n];
+        int[] nearestSource = new int[n];
+        Arrays.fill(nearestSource, -1);
+
+        int[] sources = new int[sourceCities.size()];
+        int sourceCount = 0;
+        for (String city : sourceCities) {
+            int index = graph.indexOf(city);
+            if (index != -1) {
+                sources[sourceCount++] = index;
+            }
+        }
+        sources = Arrays.copyOf(sources, sourceCount);
+
+        if (graph.isSymmetric()) {
+            // Hop levels from the direction-optimizing BFS, then km tie-breaks level by level
+            int[] hops = new DirectionOptimizingBFS(graph).levels(sources);
+            resolveDistances(graph, hops, distances, nearestSource);
+            return new HopIndex(graph, hops, distances, nearestSource);
+        }
+
+        int[] hops = new int[n];
+        Arrays.fill(hops, -1);
+        int[] frontier = new int[n];
+        int frontierSize = 0;
+        for (int index : sources) {
+            if (hops[index] == -1) {
+                hops[index] = 0;
+                nearestSource[index] = index;
+                frontier[frontierSize++] = index;
+            }
+        }
+
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long[] work = new long[2];
+        // Walking reversed edges out of the sources follows the routes from each city into them
+        expandLevels(graph.transpose(), hops, distances, nearestSource, frontier, frontierSize, null, work);
+        BUILD_METRICS.record(start, work[0], work[1]);
+        event.finish(BUILD_METRICS.getAlgorithm(), sourceCount + " sources", null, work[0], work[1]);
+        return new HopIndex(graph, hops, distances, nearestSource);
+    }
+
+    /**
+     * Pick the shortest-km parent of every city from the previous hop level
+     * Requires a symmetric graph, since outgoing edges are used as incoming ones.
+     */
+    private static void resolveDistances(CompactGraph graph, int[] hops, int[] distances, int[] nearestSource) {
+        int n = hops.length;
+
+        // Counting sort of cities by hop level
+        int maxLevel = -1;
+        for (int hop : hops) {
+            maxLevel = Math.max(maxLevel, hop);
+        }
+        int[] levelStart = new int[maxLevel + 2];
+        for (int hop : hops) {
+            if (hop >= 0) {
+                levelStart[hop + 1]++;
+            }
+        }
+        for (int level = 0; level <= maxLevel; level++) {
+            levelStart[level + 1] += levelStart[level];
+        }
+        int[] byLevel = new int[levelStart[maxLevel + 1]];
+        int[] position = Arrays.copyOf(levelStart, levelStart.length);
+        for (int v = 0; v < n; v++) {
+            if (hops[v] >= 0) {
+                byLevel[position[hops[v]]++] = v;
+            }
+        }
+
+        for (int i = 0; i < byLevel.length; i++) {
+            int v = byLevel[i];
+            if (hops[v] == 0) {
+                distances[v] = 0;
+                nearestSource[v] = v;
+                continue;
+            }
+
+            int best = Integer.MAX_VALUE;
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                int u = graph.targets[e];
+                if (hops[u] == hops[v] - 1 && distances[u] + graph.weights[e] < best) {
+                    best = distances[u] + graph.weights[e];
+                    nearestSource[v] = nearestSource[u];
+                }
+            }
+            distances[v] = best;
+        }
+    }
+
+    /**
+     * Level-synchronous BFS that keeps the smallest km among minimum-hop paths
+     * Distances of level L are final once level L has been expanded, so
+     * relaxing only edges into level L + 1 yields the lexicographic optimum.
+     * @param stopAt If not null, stop after the first level containing one of these cities
+     * @param work Receives {cities expanded, edges relaxed}
+     * @return Number of levels expanded
+     */
+    private static int expandLevels(CompactGraph graph, int[] hops, int[] distances, int[] origin,
+                                    int[] frontier, int frontierSize, BitSet stopAt, long[] work) {
+        int[] next = new int[graph.getCityCount()];
+        int level = 0;
+
+        while (frontierSize > 0) {
+            int nextSize = 0;
+            work[0] += frontierSize;
+            for (int i = 0; i < frontierSize; i++) {
+                int u = frontier[i];
+                work[1] += graph.offsets[u + 1] - graph.offsets[u];
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    int v = graph.targets[e];
+                    int distance = distances[u] + graph.weights[e];
+
+                    if (hops[v] == -1) {
+                        hops[v] = level + 1;
+                        distances[v] = distance;
+                        origin[v] = origin[u];
+                        next[nextSize++] = v;
+                    } else if (hops[v] == level + 1 && distance < distances[v]) {
+                        distances[v] = distance;
+                        origin[v] = origin[u];
+                    }
+                }
+            }
+
+            level++;
+            if (stopAt != null) {
+                for (int i = 0; i < nextSize; i++) {
+                    if (stopAt.get(next[i])) {
+                        return level;
+                    }
+                }
+            }
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+        }
+
+        return level;
+    }
+
+    /**
+     * Get the best source for a city (constant time)
+     * @param city City name
+     * @return Best source with hop count and km, or null if no source is reachable
+     */
+    public Result lookup(String city) {
+        int index = graph.indexOf(city);
+        if (index == -1 || hops[index] == -1) {
+            return null;
+        }
+        return new Result(graph.nameOf(nearestSource[index]), hops[index], distances[index]);
+    }
+
+    /**
+     * Get the compact graph this index was built on
+     * @return Compact graph
+     */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Find the lexicographically best (hops, km) target from a start city
+     * Used when the indexed nearest source is not eligible (e.g. out of stock).
+     * On symmetric graphs the hop levels come from the direction-optimizing BFS.
+     * @param graph Compact city graph
+     * @param startCity Starting city
+     * @param targetCities Eligible target cities
+     * @return Best target with hop count and km, or null if none is reachable
+     */
+    public static Result search(CompactGraph graph, String startCity, Collection<String> targetCities) {
+        int start = graph.indexOf(startCity);
+        if (start == -1) {
+            return null;
+        }
+
+        BitSet targets = new BitSet(graph.getCityCount());
+        for (String city : targetCities) {
+            int index = graph.indexOf(city);
+            if (index != -1) {
+                targets.set(index);
+            }
+        }
+        if (targets.isEmpty()) {
+            return null;
+        }
+        if (targets.get(start)) {
+            return new Result(startCity, 0, 0);
+        }
+
+        int n = graph.getCityCount();
+        int[] distances = new int[n];
+        int[] origin = new int[n];
+        int[] hops;
+        int level;
+        if (graph.isSymmetric()) {
+            // Direction-optimizing BFS up to the first level holding a target, then km tie-breaks
+            long[] targetBits = Arrays.copyOf(targets.toLongArray(), (n + 63) >>> 6);
+            hops = new DirectionOptimizingBFS(graph).run(new int[]{start}, targetBits);
+            resolveDistances(graph, hops, distances, origin);
+            level = -1;
+            for (int t = targets.nextSetBit(0); t >= 0; t = targets.nextSetBit(t + 1)) {
+                if (hops[t] >= 0 && (level == -1 || hops[t] < level)) {
+                    level = hops[t];
+                }
+            }
+            if (level == -1) {
+                return null;
+            }
+        } else {
+            hops = new int[n];
+            Arrays.fill(hops, -1);
+            hops[start] = 0;
+
+            int[] frontier = new int[n];
+            frontier[0] = start;
+            SearchEvent event = new SearchEvent();
+            event.begin();
+            long startNanos = System.nanoTime();
+            long[] work = new long[2];
+            level = expandLevels(graph, hops, distances, origin, frontier, 1, targets, work);
+            SEARCH_METRICS.record(startNanos, work[0], work[1]);
+            event.finish(SEARCH_METRICS.getAlgorithm(), startCity, null, work[0], work[1]);
+        }
+
+        // Among the targets reached at the final level, choose the shortest km
+        Result best = null;
+        for (int t = targets.nextSetBit(0); t >= 0; t = targets.nextSetBit(t + 1)) {
+            if (hops[t] == level && (best == null || distances[t] < best.getDistance())) {
+                best = new Result(graph.nameOf(t), hops[t], distances[t]);
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "HopIndex{cities=" + hops.length + "}";
+    }
+}
@@ -0,0 +1,270 @@
+package dsa;
+
+import java.util.Arrays;
+
+/**
+ * Int-to-int Hash Map
+ * Open-addressing map from int keys to int values with no boxing and no
+ * entry objects: two parallel int arrays, linear probing, power-of-two tables
+ * kept at most three quarters full. An entry costs 11-21 bytes depending on
+ * the load, against 50-70 bytes for a HashMap<Integer, Integer> entry.
+ * Key 0 marks an empty slot in the table, so it is kept in a separate field.
+ * Not synchronized; see AtomicIntIntHashMap for concurrent updates.
+ */
+public class IntIntHashMap {
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int size;           // entries in the table, not counting key 0
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /**
+     * Receives the entries of a map
+     */
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = tableSize(expectedSize);
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Copy another map
+     * @param other Map to copy
+     */
+    public IntIntHashMap(IntIntHashMap other) {
+        this.keys = Arrays.copyOf(other.keys, other.keys.length);
+        this.values = Arrays.copyOf(other.values, other.values.length);
+        this.size = other.size;
+        this.hasZeroKey = other.hasZeroKey;
+        this.zeroValue = other.zeroValue;
+    }
+
+    /**
+     * Smallest power-of-two table that holds expectedSize entries within the load limit
+     */
+    static int tableSize(int expectedSize) {
+        long needed = Math.max(4, (long) expectedSize * 4 / 3 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    /**
+     * Check whether a table of the given capacity is over the load limit
+     */
+    static boolean overLoaded(int size, int capacity) {
+        return (long) size * 4 > (long) capacity * 3;
+    }
+
+    static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9; // Fibonacci hashing spreads sequential ids
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the value for a key
+     * @param key Key
+     * @param defaultValue Value returned when the key is absent
+     * @return Value, or defaultValue if absent
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : defaultValue;
+    }
+
+    /**
+     * Check whether a key is present
+     * @param key Key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(int key) {
+        return key == EMPTY ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Associate a value with a key
+     * @param key Key
+     * @param value Value
+     */
+    public void put(int key, int value) {
+        if (key == EMPTY) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (overLoaded(++size, keys.length)) {
+            resize();
+        }
+    }
+
+    /**
+     * Add to the value of a key, treating an absent key as 0
+     * @param key Key
+     * @param delta Amount to add
+     * @return New value
+     */
+    public int addTo(int key, int delta) {
+        if (key != EMPTY) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                return values[i] += delta;
+            }
+        }
+        int value = getOrDefault(key, 0) + delta;
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Remove a key
+     * Later entries of the probe run are shifted back, so lookups never need tombstones.
+     * @param key Key
+     * @return true if the key was present
+     */
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return had;
+        }
+
+        int i = indexOf(key);
+        if (i < 0) {
+            return false;
+        }
+
+        int mask = keys.length - 1;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            // Move the entry at j into the gap unless its home slot lies cyclically in (i, j]
+            boolean stays = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        values[i] = 0;
+        size--;
+        return true;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = slot(oldKeys[j], mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries
+     * @return Number of entries
+     */
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get all keys
+     * @return Keys in table order
+     */
+    public int[] keys() {
+        int[] result = new int[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = EMPTY;
+        }
+        for (int key : keys) {
+            if (key != EMPTY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visit every entry without allocating
+     * @param consumer Receives each key and value
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Sum all values
+     * @return Sum of the values
+     */
+    public long sumValues() {
+        long sum = hasZeroKey ? zeroValue : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "IntIntHashMap{size=" + size() + "}";
+    }
+}
@@ -0,0 +1,337 @@
+package dsa;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Inventory Matrix
+ * Stock levels of every warehouse x product pair in one dense grid of ints
+ * kept outside the Java heap, so even very large grids add nothing for the
+ * garbage collector to trace or copy. Warehouse and product ids are mapped to
+ * dense row and column indices.
+ *
+ * Cells are read and changed with VarHandle compare-and-set on the buffer, so
+ * concurrent reservations never oversell. A cell holds quantity + 1 and 0
+ * means "not stocked", which lets freshly allocated (zeroed) memory start
+ * with nothing stocked.
+ *
+ * The grid is split into chunks of at most 1 GiB because a ByteBuffer is
+ * limited to 2 GiB. It lives in direct buffers, or in a memory-mapped file
+ * that keeps the stock across restarts.
+ * The file is little-endian throughout:
+ *
+ *   header (64 bytes): magic, version, warehouse count, product count
+ *   warehouse ids, product ids (padded to 64 bytes)
+ *   cells, row by row (one row per warehouse)
+ */
+public class InventoryMatrix {
+    private static final VarHandle CELLS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long MAGIC = 0x53544F434B4D5458L; // "STOCKMTX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int CHUNK_SHIFT = 28; // 2^28 cells = 1 GiB per chunk
+    private static final long CHUNK_CELLS = 1L << CHUNK_SHIFT;
+
+    private final int[] warehouseIds;
+    private final int[] productIds;
+    private final IntIntHashMap warehouseIndex;
+    private final IntIntHashMap productIndex;
+    private final ByteBuffer[] chunks;
+    private final boolean restored;
+
+    private InventoryMatrix(int[] warehouseIds, int[] productIds, ByteBuffer[] chunks, boolean restored) {
+        this.warehouseIds = warehouseIds;
+        this.productIds = productIds;
+        this.warehouseIndex = indexOf(warehouseIds);
+        this.productIndex = indexOf(productIds);
+        this.chunks = chunks;
+        this.restored = restored;
+    }
+
+    private static IntIntHashMap indexOf(int[] ids) {
+        IntIntHashMap index = new IntIntHashMap(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], i);
+        }
+        return index;
+    }
+
+    /**
+     * Allocate a grid in direct (off-heap) memory with nothing stocked
+     * @param warehouseIds Warehouse ids, one row each
+     * @param productIds Product ids, one column each
+     * @return Empty matrix
+     */
+    public static InventoryMatrix allocate(int[] warehouseIds, int[] productIds) {
+        long cells = (long) warehouseIds.length * productIds.length;
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(cells)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = ByteBuffer.allocateDirect(chunkBytes(cells, c));
+        }
+        return new InventoryMatrix(warehouseIds.clone(), productIds.clone(), chunks, false);
+    }
+
+    /**
+     * Map a grid file, creating it with nothing stocked if it does not exist
+     * An existing file must have been created for the same warehouses and
+     * products; its stock is kept (see isRestored).
+     * @param file Grid file
+     * @param warehouseIds Warehouse ids, one row each
+     * @param productIds Product ids, one column each
+     * @return File-backed matrix
+     */
+    public static InventoryMatrix open(Path file, int[] warehouseIds, int[] productIds) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        long idBytes = pad((long) (warehouseIds.length + productIds.length) * Integer.BYTES);
+        long dataOffset = HEADER_BYTES + idBytes;
+        long cells = (long) warehouseIds.length * productIds.length;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataOffset);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (exists) {
+                checkHeader(file, header, warehouseIds, productIds);
+            } else {
+                header.putLong(MAGIC).putInt(VERSION).putInt(warehouseIds.length).putInt(productIds.length);
+                header.position(HEADER_BYTES);
+                for (int id : warehouseIds) {
+                    header.putInt(id);
+                }
+                for (int id : productIds) {
+                    header.putInt(id);
+                }
+                header.force();
+            }
+
+            // Mappings stay valid after the channel is closed
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount(cells)];
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        dataOffset + (c * CHUNK_CELLS) * Integer.BYTES, chunkBytes(cells, c));
+            }
+            return new InventoryMatrix(warehouseIds.clone(), productIds.clone(), chunks, exists);
+        }
+    }
+
+    private static void checkHeader(Path file, ByteBuffer header, int[] warehouseIds, int[] productIds) throws IOException {
+        if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException(file + " is not an inventory matrix file");
+        }
+        if (header.getInt() != warehouseIds.length || header.getInt() != productIds.length) {
+            throw new IOException(file + " was created for a different number of warehouses or products");
+        }
+        header.position(HEADER_BYTES);
+        int[] storedWarehouses = new int[warehouseIds.length];
+        int[] storedProducts = new int[productIds.length];
+        header.asIntBuffer().get(storedWarehouses).get(storedProducts);
+        if (!Arrays.equals(storedWarehouses, warehouseIds) || !Arrays.equals(storedProducts, productIds)) {
+            throw new IOException(file + " was created for different warehouses or products");
+        }
+    }
+
+    private static long pad(long bytes) {
+        return (bytes + HEADER_BYTES - 1) / HEADER_BYTES * HEADER_BYTES;
+    }
+
+    private static int chunkCount(long cells) {
+        return (int) Math.max(1, (cells + CHUNK_CELLS - 1) >>> CHUNK_SHIFT);
+    }
+
+    private static int chunkBytes(long cells, int chunk) {
+        long remaining = cells - chunk * CHUNK_CELLS;
+        return (int) (Math.min(CHUNK_CELLS, Math.max(0, remaining)) * Integer.BYTES);
+    }
+
+    /**
+     * Check whether an existing file was mapped, so the stock came from an earlier run
+     * @return true if the stock was restored from a file
+     */
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * Get the row of a warehouse
+     * @param warehouseId Warehouse ID
+     * @return Row index, or -1 if the warehouse is not in the grid
+     */
+    public int warehouseIndex(int warehouseId) {
+        return warehouseIndex.getOrDefault(warehouseId, -1);
+    }
+
+    /**
+     * Get the column of a product
+     * @param productId Product ID
+     * @return Column index, or -1 if the product is not in the grid
+     */
+    public int productIndex(int productId) {
+        return productIndex.getOrDefault(productId, -1);
+    }
+
+    public int getWarehouseCount() {
+        return warehouseIds.length;
+    }
+
+    public int getProductCount() {
+        return productIds.length;
+    }
+
+    public int getWarehouseId(int row) {
+        return warehouseIds[row];
+    }
+
+    public int getProductId(int column) {
+        return productIds[column];
+    }
+
+    private ByteBuffer chunk(long cell) {
+        return chunks[(int) (cell >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long cell) {
+        return (int) (cell & (CHUNK_CELLS - 1)) * Integer.BYTES;
+    }
+
+    private long cell(int row, int column) {
+        return (long) row * productIds.length + column;
+    }
+
+    /**
+     * Check whether a warehouse stocks a product (even if the quantity is 0)
+     * @param row Warehouse row
+     * @param column Product column
+     * @return true if the product is stocked
+     */
+    public boolean isStocked(int row, int column) {
+        long cell = cell(row, column);
+        return (int) CELLS.getVolatile(chunk(cell), offset(cell)) != 0;
+    }
+
+    /**
+     * Get a stock level
+     * @param row Warehouse row
+     * @param column Product column
+     * @return Quantity, 0 if not stocked
+     */
+    public int get(int row, int column) {
+        long cell = cell(row, column);
+        return Math.max(0, (int) CELLS.getVolatile(chunk(cell), offset(cell)) - 1);
+    }
+
+    /**
+     * Set a stock level, marking the product as stocked
+     * @param row Warehouse row
+     * @param column Product column
+     * @param quantity New quantity
+     */
+    public void set(int row, int column, int quantity) {
+        long cell = cell(row, column);
+        CELLS.setVolatile(chunk(cell), offset(cell), quantity + 1);
+    }
+
+    /**
+     * Take stock if enough is available
+     * @param row Warehouse row
+     * @param column Product column
+     * @param quantity Quantity to take
+     * @return true if the product was stocked with at least quantity and was reduced
+     */
+    public boolean tryReserve(int row, int column, int quantity) {
+        long cell = cell(row, column);
+        ByteBuffer chunk = chunk(cell);
+        int offset = offset(cell);
+        while (true) {
+            int stored = (int) CELLS.getVolatile(chunk, offset);
+            if (stored == 0 || stored - 1 < quantity) {
+                return false;
+            }
+            if (CELLS.compareAndSet(chunk, offset, stored, stored - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add stock, marking the product as stocked
+     * @param row Warehouse row
+     * @param column Product column
+     * @param quantity Quantity to add
+     * @return New quantity
+     */
+    public int add(int row, int column, int quantity) {
+        long cell = cell(row, column);
+        ByteBuffer chunk = chunk(cell);
+        int offset = offset(cell);
+        while (true) {
+            int stored = (int) CELLS.getVolatile(chunk, offset);
+            int updated = Math.max(stored, 1) + quantity;
+            if (CELLS.compareAndSet(chunk, offset, stored, updated)) {
+                return updated - 1;
+            }
+        }
+    }
+
+    /**
+     * Visit the stocked products of a warehouse
+     * Cells are read one at a time, so concurrent updates may or may not be seen.
+     * @param row Warehouse row
+     * @param consumer Receives each product id and quantity
+     */
+    public void forEachInRow(int row, IntIntHashMap.EntryConsumer consumer) {
+        long cell = cell(row, 0);
+        for (int column = 0; column < productIds.length; column++, cell++) {
+            int stored = (int) CELLS.getOpaque(chunk(cell), offset(cell));
+            if (stored != 0) {
+                consumer.accept(productIds[column], stored - 1);
+            }
+        }
+    }
+
+    /**
+     * Sum a product's stock over all warehouses
+     * @param column Product column
+     * @return Total quantity
+     */
+    public long productTotal(int column) {
+        long total = 0;
+        for (int row = 0; row < warehouseIds.length; row++) {
+            total += get(row, column);
+        }
+        return total;
+    }
+
+    /**
+     * Write changes of a file-backed matrix to disk
+     */
+    public void force() {
+        for (ByteBuffer chunk : chunks) {
+            if (chunk instanceof MappedByteBuffer mapped) {
+                mapped.force();
+            }
+        }
+    }
+
+    /**
+     * Get the size of the grid
+     * @return Bytes used by the cells
+     */
+    public long getByteSize() {
+        return (long) warehouseIds.length * productIds.length * Integer.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InventoryMatrix{warehouses=%d, products=%d, %.1f MiB%s}",
+                warehouseIds.length, productIds.length, getByteSize() / 1048576.0, restored ? ", restored" : "");
+    }
+}
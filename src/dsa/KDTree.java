@@ -0,0 +1,217 @@
+package dsa;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * K-D Tree Spatial Index
+ * Indexes points by latitude/longitude for nearest-neighbour queries.
+ * Points are stored as 3D unit vectors so that the axis-plane distance is a
+ * true lower bound on the chord length (and therefore on great-circle distance).
+ */
+public class KDTree<T> {
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double[][] points; // unit vectors (x, y, z) in tree order
+    private final List<T> items;     // payloads in tree order
+    private final int[] splitAxis;   // splitting axis per node
+
+    /**
+     * Neighbour class returned by nearest-neighbour queries
+     */
+    public static class Neighbor<T> {
+        private final T item;
+        private final double distanceKm;
+
+        public Neighbor(T item, double distanceKm) {
+            this.item = item;
+            this.distanceKm = distanceKm;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+
+        @Override
+        public String toString() {
+            return item + "(" + String.format("%.1f", distanceKm) + "km)";
+        }
+    }
+
+    /**
+     * Build a balanced tree over the given items
+     * @param items Items to index
+     * @param latitudes Latitude of each item (degrees)
+     * @param longitudes Longitude of each item (degrees)
+     */
+    public KDTree(List<T> items, double[] latitudes, double[] longitudes) {
+        if (items.size() != latitudes.length || items.size() != longitudes.length) {
+            throw new IllegalArgumentException("Items and coordinates must have the same length");
+        }
+
+        int n = items.size();
+        double[][] vectors = new double[n][];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            vectors[i] = toUnitVector(latitudes[i], longitudes[i]);
+            order[i] = i;
+        }
+
+        this.points = new double[n][];
+        this.items = new ArrayList<>(Collections.nCopies(n, (T) null));
+        this.splitAxis = new int[n];
+
+        build(order, 0, n, vectors, items);
+    }
+
+    /**
+     * Recursively place the median of [from, to) at its final slot
+     */
+    private void build(Integer[] order, int from, int to, double[][] vectors, List<T> source) {
+        if (from >= to) {
+            return;
+        }
+
+        // Split on the axis with the widest spread
+        int axis = widestAxis(order, from, to, vectors);
+        Arrays.sort(order, from, to, Comparator.comparingDouble(i -> vectors[i][axis]));
+
+        int mid = (from + to) >>> 1;
+        points[mid] = vectors[order[mid]];
+        items.set(mid, source.get(order[mid]));
+        splitAxis[mid] = axis;
+
+        build(order, from, mid, vectors, source);
+        build(order, mid + 1, to, vectors, source);
+    }
+
+    private int widestAxis(Integer[] order, int from, int to, double[][] vectors) {
+        int bestAxis = 0;
+        double bestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                double v = vectors[order[i]][axis];
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                bestAxis = axis;
+            }
+        }
+        return bestAxis;
+    }
+
+    /**
+     * Find the k nearest items that satisfy a filter
+     * @param latitude Query latitude (degrees)
+     * @param longitude Query longitude (degrees)
+     * @param k Maximum number of neighbours to return
+     * @param filter Only items accepted by this filter are returned (null accepts all)
+     * @return Neighbours sorted by increasing great-circle distance
+     */
+    public List<Neighbor<T>> nearest(double latitude, double longitude, int k, Predicate<T> filter) {
+        List<Neighbor<T>> result = new ArrayList<>();
+        if (k <= 0 || points.length == 0) {
+            return result;
+        }
+
+        double[] query = toUnitVector(latitude, longitude);
+
+        // Max-heap on chord distance so the worst candidate is evicted first
+        PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
+        search(0, points.length, query, k, filter, best);
+
+        List<double[]> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(a -> a[0]));
+        for (double[] entry : ordered) {
+            result.add(new Neighbor<>(items.get((int) entry[1]), chordToKm(entry[0])));
+        }
+        return result;
+    }
+
+    private void search(int from, int to, double[] query, int k, Predicate<T> filter, PriorityQueue<double[]> best) {
+        if (from >= to) {
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        double[] point = points[mid];
+
+        if (filter == null || filter.test(items.get(mid))) {
+            double chord = chordDistance(point, query);
+            if (best.size() < k) {
+                best.offer(new double[]{chord, mid});
+            } else if (chord < best.peek()[0]) {
+                best.poll();
+                best.offer(new double[]{chord, mid});
+            }
+        }
+
+        int axis = splitAxis[mid];
+        double delta = query[axis] - point[axis];
+
+        // Visit the side containing the query first, then the other side only if it can still win
+        if (delta < 0) {
+            search(from, mid, query, k, filter, best);
+            if (best.size() < k || Math.abs(delta) < best.peek()[0]) {
+                search(mid + 1, to, query, k, filter, best);
+            }
+        } else {
+            search(mid + 1, to, query, k, filter, best);
+            if (best.size() < k || Math.abs(delta) < best.peek()[0]) {
+                search(from, mid, query, k, filter, best);
+            }
+        }
+    }
+
+    /**
+     * Get the number of indexed items
+     * @return Number of items
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Great-circle (haversine) distance between two coordinates
+     * @return Distance in kilometers
+     */
+    public static double greatCircleKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[]{cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double chordDistance(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static double chordToKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+    }
+
+    @Override
+    public String toString() {
+        return "KDTree{points=" + size() + "}";
+    }
+}
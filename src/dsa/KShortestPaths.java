@@ -0,0 +1,403 @@
+package dsa;
+
+import metrics.SearchMetrics;
+import profiling.SearchEvent;
+
+import java.util.*;
+
+/**
+ * K-Shortest Loopless Paths (Yen's algorithm)
+ * Finds the k shortest simple paths between two cities on a CompactGraph.
+ * Paths are distinct city sequences; parallel routes between the same two
+ * cities count as one (the shortest).
+ * Optimizations over plain Yen:
+ *  - one reverse Dijkstra from the destination gives exact remaining distances,
+ *    used both as an A* heuristic for every spur search and as a lower bound;
+ *  - a spur path is reused from that reverse tree without searching whenever
+ *    the tree path is not blocked by the current root;
+ *  - the candidate list is capped at the number of paths still needed, and a
+ *    spur search is skipped when its lower bound cannot beat the worst candidate.
+ */
+public class KShortestPaths {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final SearchMetrics METRICS = SearchMetrics.forAlgorithm("k_shortest_paths");
+
+    private final CompactGraph graph;
+    private final int cityCount;
+
+    // Reverse shortest path tree towards the current destination
+    private int[] remaining;   // exact distance to destination in the full graph
+    private int[] successor;   // next city towards the destination, -1 if none
+
+    // Per-search scratch arrays, reset lazily with stamps
+    private final int[] distance;
+    private final int[] parent;
+    private final int[] visitStamp;
+    private final int[] blockedStamp;
+    private final int[] removedTargetStamp;
+    private int stamp;
+    private long settledCount;
+    private long relaxedCount;
+
+    /**
+     * Candidate path with its cumulative distances
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final int[] cities;
+        final int[] prefixDistances; // distance from the start to cities[i]
+        final String key;
+
+        Candidate(int[] cities, int[] prefixDistances) {
+            this.cities = cities;
+            this.prefixDistances = prefixDistances;
+            this.key = Arrays.toString(cities);
+        }
+
+        int cost() {
+            return prefixDistances[prefixDistances.length - 1];
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byCost = Integer.compare(cost(), other.cost());
+            if (byCost != 0) {
+                return byCost;
+            }
+            int byLength = Integer.compare(cities.length, other.cities.length);
+            return byLength != 0 ? byLength : key.compareTo(other.key);
+        }
+    }
+
+    public KShortestPaths(CompactGraph graph) {
+        this.graph = graph;
+        this.cityCount = graph.getCityCount();
+        this.distance = new int[cityCount];
+        this.parent = new int[cityCount];
+        this.visitStamp = new int[cityCount];
+        this.blockedStamp = new int[cityCount];
+        this.removedTargetStamp = new int[cityCount];
+    }
+
+    /**
+     * Find up to k shortest loopless paths
+     * @param startCity Starting city
+     * @param endCity Destination city
+     * @param k Number of paths wanted
+     * @return Paths ordered by distance (fewer than k if no more exist)
+     */
+    public List<Dijkstra.PathResult> findPaths(String startCity, String endCity, int k) {
+        List<Dijkstra.PathResult> results = new ArrayList<>();
+        int start = graph.indexOf(startCity);
+        int end = graph.indexOf(endCity);
+        if (start == -1 || end == -1 || k <= 0) {
+            return results;
+        }
+        if (start == end) {
+            results.add(new Dijkstra.PathResult(Arrays.asList(startCity), 0));
+            return results;
+        }
+
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        buildReverseTree(end);
+        if (remaining[start] == UNREACHABLE) {
+            METRICS.record(startNanos, settledCount, relaxedCount);
+            event.finish(METRICS.getAlgorithm(), startCity, endCity, settledCount, relaxedCount);
+            return results;
+        }
+
+        List<Candidate> accepted = new ArrayList<>();
+        accepted.add(treePath(new int[]{start}, new int[]{0}));
+
+        TreeSet<Candidate> candidates = new TreeSet<>();
+        Set<String> seen = new HashSet<>();
+        seen.add(accepted.get(0).key);
+
+        while (accepted.size() < k) {
+            Candidate previous = accepted.get(accepted.size() - 1);
+            int needed = k - accepted.size();
+
+            for (int j = 0; j < previous.cities.length - 1; j++) {
+                int spurCity = previous.cities[j];
+                int rootCost = previous.prefixDistances[j];
+
+                // Lower bound: removing edges can only make the spur path longer
+                if (candidates.size() >= needed
+                        && rootCost + remaining[spurCity] >= candidates.last().cost()) {
+                    continue;
+                }
+
+                stamp++;
+                // Root cities (except the spur city) may not be revisited
+                for (int i = 0; i < j; i++) {
+                    blockedStamp[previous.cities[i]] = stamp;
+                }
+                // Edges leaving the spur city along paths sharing this root are removed
+                for (Candidate path : accepted) {
+                    if (path.cities.length > j + 1 && sharesRoot(path, previous, j)) {
+                        removedTargetStamp[path.cities[j + 1]] = stamp;
+                    }
+                }
+
+                Candidate spur = reuseTreePath(previous, j);
+                if (spur == null) {
+                    spur = searchSpurPath(previous, j, end);
+                }
+                if (spur == null || !seen.add(spur.key)) {
+                    continue;
+                }
+
+                candidates.add(spur);
+                if (candidates.size() > needed) {
+                    seen.remove(candidates.pollLast().key);
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.pollFirst());
+        }
+
+        for (Candidate path : accepted) {
+            List<String> names = new ArrayList<>(path.cities.length);
+            for (int city : path.cities) {
+                names.add(graph.nameOf(city));
+            }
+            results.add(new Dijkstra.PathResult(names, path.cost()));
+        }
+
+        METRICS.record(startNanos, settledCount, relaxedCount);
+        event.finish(METRICS.getAlgorithm(), startCity, endCity, settledCount, relaxedCount);
+        return results;
+    }
+
+    private static boolean sharesRoot(Candidate path, Candidate root, int length) {
+        for (int i = 0; i <= length; i++) {
+            if (path.cities[i] != root.cities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dijkstra from the destination over reversed edges
+     */
+    private void buildReverseTree(int end) {
+        settledCount = 0;
+        relaxedCount = 0;
+        remaining = new int[cityCount];
+        successor = new int[cityCount];
+        Arrays.fill(remaining, UNREACHABLE);
+        Arrays.fill(successor, -1);
+
+        // Incoming edges: the graph itself when symmetric, otherwise its transpose
+        CompactGraph incoming = graph.transpose();
+        int[] offsets = incoming.offsets;
+        int[] sources = incoming.targets;
+        int[] weights = incoming.weights;
+
+        boolean[] settled = new boolean[cityCount];
+        LongHeap heap = new LongHeap();
+        remaining[end] = 0;
+        heap.push(0, end);
+
+        while (!heap.isEmpty()) {
+            int v = heap.popCity();
+            if (settled[v]) {
+                continue;
+            }
+            settled[v] = true;
+            settledCount++;
+            relaxedCount += offsets[v + 1] - offsets[v];
+
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = sources[e];
+                int candidate = remaining[v] + weights[e];
+                if (!settled[u] && candidate < remaining[u]) {
+                    remaining[u] = candidate;
+                    successor[u] = v;
+                    heap.push(candidate, u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Extend a root path to the destination along the reverse tree
+     */
+    private Candidate treePath(int[] root, int[] rootDistances) {
+        List<Integer> cities = new ArrayList<>();
+        List<Integer> distances = new ArrayList<>();
+        for (int i = 0; i < root.length; i++) {
+            cities.add(root[i]);
+            distances.add(rootDistances[i]);
+        }
+
+        int current = root[root.length - 1];
+        int travelled = rootDistances[rootDistances.length - 1];
+        while (successor[current] != -1) {
+            int next = successor[current];
+            travelled += remaining[current] - remaining[next];
+            cities.add(next);
+            distances.add(travelled);
+            current = next;
+        }
+
+        return new Candidate(toArray(cities), toArray(distances));
+    }
+
+    /**
+     * Reuse the reverse-tree path from the spur city if nothing blocks it
+     * @return Full candidate path, or null if the tree path is blocked
+     */
+    private Candidate reuseTreePath(Candidate previous, int spurIndex) {
+        int spurCity = previous.cities[spurIndex];
+        int next = successor[spurCity];
+        if (next == -1 || removedTargetStamp[next] == stamp) {
+            return null;
+        }
+        for (int city = next; city != -1; city = successor[city]) {
+            if (blockedStamp[city] == stamp) {
+                return null;
+            }
+        }
+
+        return treePath(Arrays.copyOf(previous.cities, spurIndex + 1),
+                Arrays.copyOf(previous.prefixDistances, spurIndex + 1));
+    }
+
+    /**
+     * A* search from the spur city, guided by the exact distances of the full graph
+     * @return Full candidate path, or null if the destination is unreachable
+     */
+    private Candidate searchSpurPath(Candidate previous, int spurIndex, int end) {
+        int spurCity = previous.cities[spurIndex];
+        int rootCost = previous.prefixDistances[spurIndex];
+
+        LongHeap heap = new LongHeap();
+        visitStamp[spurCity] = stamp;
+        distance[spurCity] = 0;
+        parent[spurCity] = -1;
+        heap.push(remaining[spurCity], spurCity);
+
+        // A settled city has visitStamp == -stamp
+        while (!heap.isEmpty()) {
+            int u = heap.popCity();
+            if (visitStamp[u] == -stamp) {
+                continue;
+            }
+            visitStamp[u] = -stamp;
+            settledCount++;
+            if (u == end) {
+                break;
+            }
+            relaxedCount += graph.offsets[u + 1] - graph.offsets[u];
+
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int v = graph.targets[e];
+                if (blockedStamp[v] == stamp || visitStamp[v] == -stamp || remaining[v] == UNREACHABLE) {
+                    continue;
+                }
+                if (u == spurCity && removedTargetStamp[v] == stamp) {
+                    continue;
+                }
+
+                int candidate = distance[u] + graph.weights[e];
+                if (visitStamp[v] != stamp || candidate < distance[v]) {
+                    visitStamp[v] = stamp;
+                    distance[v] = candidate;
+                    parent[v] = u;
+                    heap.push((long) candidate + remaining[v], v);
+                }
+            }
+        }
+
+        if (visitStamp[end] != -stamp) {
+            return null;
+        }
+
+        // Root (without the spur city) followed by the spur path
+        List<Integer> spur = new ArrayList<>();
+        for (int city = end; city != -1; city = parent[city]) {
+            spur.add(city);
+        }
+        Collections.reverse(spur);
+
+        int[] cities = new int[spurIndex + spur.size()];
+        int[] distances = new int[cities.length];
+        System.arraycopy(previous.cities, 0, cities, 0, spurIndex);
+        System.arraycopy(previous.prefixDistances, 0, distances, 0, spurIndex);
+        for (int i = 0; i < spur.size(); i++) {
+            cities[spurIndex + i] = spur.get(i);
+            distances[spurIndex + i] = rootCost + distance[spur.get(i)];
+        }
+        return new Candidate(cities, distances);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Binary min-heap of (priority, city) pairs packed into longs
+     */
+    private static class LongHeap {
+        private long[] heap = new long[16];
+        private int size;
+
+        void push(long priority, int city) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            long entry = (priority << 32) | city;
+            int i = size++;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (heap[p] <= entry) {
+                    break;
+                }
+                heap[i] = heap[p];
+                i = p;
+            }
+            heap[i] = entry;
+        }
+
+        int popCity() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return (int) top;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KShortestPaths{cities=" + cityCount + "}";
+    }
+}
@@ -0,0 +1,239 @@
+package dsa;
+
+import metrics.SearchMetrics;
+import profiling.SearchEvent;
+
+import java.util.*;
+
+/**
+ * Shortest Path Tree
+ * Single-source Dijkstra result that keeps distances, parents and the weight
+ * of each tree edge. The search is resumed lazily: asking for a city settles
+ * only as much of the graph as needed, and later queries continue from there.
+ * The tree must not be used after the underlying graph has been modified.
+ */
+public class ShortestPathTree {
+    private static final SearchMetrics METRICS = SearchMetrics.forAlgorithm("shortest_path_tree");
+
+    private final Graph graph;
+    private final String source;
+    private final Map<String, Integer> distances;
+    private final Map<String, String> parents;
+    private final Map<String, Integer> parentEdgeWeights;
+    private final Set<String> settled;
+    private final PriorityQueue<Dijkstra.Node> frontier;
+
+    public ShortestPathTree(Graph graph, String source) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = new HashMap<>();
+        this.parents = new HashMap<>();
+        this.parentEdgeWeights = new HashMap<>();
+        this.settled = new HashSet<>();
+        this.frontier = new PriorityQueue<>();
+
+        if (graph.hasCity(source)) {
+            distances.put(source, 0);
+            frontier.offer(new Dijkstra.Node(source, 0, null));
+        }
+    }
+
+    /**
+     * Settle cities until the given city is settled or the search is exhausted
+     * @param target City to settle (null settles every reachable city)
+     */
+    private void settleUntil(String target) {
+        // Answered from the part of the tree already settled; not counted as a search
+        if (target != null && settled.contains(target)) {
+            return;
+        }
+        settleUntilAny(target != null ? Collections.singleton(target) : null, target);
+    }
+
+    /**
+     * Settle cities until one of the targets is settled or the search is exhausted
+     * Recorded as one search, however many cities it settles.
+     * @param targets Cities to stop at (null settles every reachable city)
+     * @param label Target shown in the search event, null for several targets
+     * @return First target settled, or null if none was reached
+     */
+    private String settleUntilAny(Set<String> targets, String label) {
+        if (frontier.isEmpty()) {
+            return null;
+        }
+
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int settledBefore = settled.size();
+        long relaxedCount = 0;
+        String reached = null;
+
+        while (!frontier.isEmpty()) {
+            Dijkstra.Node current = frontier.poll();
+            String currentCity = current.city;
+
+            if (!settled.add(currentCity)) {
+                continue;
+            }
+
+            int currentDistance = distances.get(currentCity);
+
+            for (Graph.Edge edge : graph.getNeighbors(currentCity)) {
+                String neighbor = edge.getDestination();
+                relaxedCount++;
+
+                if (settled.contains(neighbor)) {
+                    continue;
+                }
+
+                int newDistance = currentDistance + edge.getWeight();
+                Integer knownDistance = distances.get(neighbor);
+
+                if (knownDistance == null || newDistance < knownDistance) {
+                    distances.put(neighbor, newDistance);
+                    parents.put(neighbor, currentCity);
+                    parentEdgeWeights.put(neighbor, edge.getWeight());
+                    frontier.offer(new Dijkstra.Node(neighbor, newDistance, currentCity));
+                }
+            }
+
+            if (targets != null && targets.contains(currentCity)) {
+                reached = currentCity;
+                break;
+            }
+        }
+
+        METRICS.record(start, settled.size() - settledBefore, relaxedCount);
+        event.finish(METRICS.getAlgorithm(), source, label, settled.size() - settledBefore, relaxedCount);
+        return reached;
+    }
+
+    /**
+     * Get the source city of this tree
+     * @return Source city
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Get the shortest distance from the source to a city
+     * @param city Destination city
+     * @return Distance in km, or -1 if unreachable
+     */
+    public int getDistance(String city) {
+        settleUntil(city);
+        return settled.contains(city) ? distances.get(city) : -1;
+    }
+
+    /**
+     * Check if a city is reachable from the source
+     * @param city Destination city
+     * @return true if reachable
+     */
+    public boolean isReachable(String city) {
+        return getDistance(city) != -1;
+    }
+
+    /**
+     * Get the shortest path from the source to a city
+     * @param city Destination city
+     * @return PathResult containing the path and distance
+     */
+    public Dijkstra.PathResult getPath(String city) {
+        int distance = getDistance(city);
+        if (distance == -1) {
+            return new Dijkstra.PathResult(null, -1);
+        }
+
+        List<String> path = new ArrayList<>();
+        for (String current = city; current != null; current = parents.get(current)) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+
+        return new Dijkstra.PathResult(path, distance);
+    }
+
+    /**
+     * Get the distance of each segment along the path to a city
+     * @param city Destination city
+     * @return Segment distances in path order (empty if unreachable or source)
+     */
+    public List<Integer> getSegmentDistances(String city) {
+        List<Integer> segments = new ArrayList<>();
+        if (getDistance(city) == -1) {
+            return segments;
+        }
+
+        for (String current = city; parents.containsKey(current); current = parents.get(current)) {
+            segments.add(parentEdgeWeights.get(current));
+        }
+        Collections.reverse(segments);
+
+        return segments;
+    }
+
+    /**
+     * Get the parent of a city in the tree
+     * @param city City name
+     * @return Previous city on the shortest path, or null for the source/unreachable
+     */
+    public String getParent(String city) {
+        return getDistance(city) == -1 ? null : parents.get(city);
+    }
+
+    /**
+     * Get the nearest of the given cities
+     * @param targetCities Candidate cities
+     * @return Nearest reachable city, or null if none is reachable
+     */
+    public String findNearest(Collection<String> targetCities) {
+        Set<String> targets = new HashSet<>(targetCities);
+
+        // Every unsettled city is at least as far as any settled one,
+        // so a settled target is already the nearest
+        String nearest = null;
+        int minDistance = Integer.MAX_VALUE;
+        for (String city : targets) {
+            if (settled.contains(city) && distances.get(city) < minDistance) {
+                minDistance = distances.get(city);
+                nearest = city;
+            }
+        }
+        if (nearest != null) {
+            return nearest;
+        }
+
+        // Otherwise keep settling, as one search, until the first target is reached
+        return settleUntilAny(targets, null);
+    }
+
+    /**
+     * Get shortest distances to every city in the graph
+     * @return Map of city names to distances (Integer.MAX_VALUE when unreachable)
+     */
+    public Map<String, Integer> getAllDistances() {
+        settleUntil(null);
+
+        Map<String, Integer> result = new HashMap<>();
+        for (String city : graph.getAllCities()) {
+            result.put(city, distances.getOrDefault(city, Integer.MAX_VALUE));
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of cities settled so far
+     * @return Settled city count
+     */
+    public int getSettledCount() {
+        return settled.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ShortestPathTree{source=" + source + ", settled=" + settled.size() + "}";
+    }
+}
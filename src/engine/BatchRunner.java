@@ -0,0 +1,306 @@
+package engine;
+
+import dao.DAOFactory;
+import dao.OrderProcessor;
+import dsa.CompactGraph;
+import dsa.ConnectedComponents;
+import dsa.Dijkstra;
+import dsa.Graph;
+import dsa.ShortestPathTree;
+import engine.CommandParser.OrderRequest;
+import engine.CommandParser.ParsedCommand;
+import engine.CommandParser.RouteQuery;
+import models.Order;
+import models.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch Runner
+ * Runs shell commands from a file or pipe without the interactive shell.
+ * Lines are read and parsed one at a time. Route and product search commands
+ * are independent of each other and run on a thread pool; order commands
+ * change stock, so they run one after another on a single thread in input
+ * order. Product listings report stock, so they run on that same thread and
+ * always see exactly the orders of the lines before them. Results are
+ * written in input order as one tab-separated line each:
+ *
+ *   line  kind  status  fields...
+ *   3     route   ok   1234  Lahore>Multan>Karachi
+ *   4     routes  ok   1234:Lahore>Multan>Karachi  1290:Lahore>Sukkur>Karachi
+ *   5     order   ok   17  Lahore  210  52100.00
+ *   6     search  ok   2  1:Laptop  8:Laptop Pro
+ *   7     products  ok  15  14
+ *
+ * Status is ok, not_found (no route, no matching product, order not
+ * fulfilled) or error. Blank lines and lines starting with # are skipped;
+ * exit or quit ends the batch.
+ */
+public class BatchRunner {
+    // Results buffered ahead of the writer per worker thread
+    private static final int WINDOW_PER_THREAD = 256;
+
+    private final DAOFactory daoFactory;
+    private final int threads;
+    private final Graph cityGraph;
+    private final Dijkstra dijkstra;
+    private final ConnectedComponents components;
+    private OrderProcessor orderProcessor; // created on the first order
+
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public BatchRunner(DAOFactory daoFactory, int threads) {
+        this.daoFactory = daoFactory;
+        this.threads = Math.max(1, threads);
+        this.cityGraph = daoFactory.getCityGraph();
+        this.dijkstra = new Dijkstra();
+        this.components = new ConnectedComponents(CompactGraph.of(cityGraph));
+    }
+
+    /**
+     * Run every command of the input
+     * Commands report only through their result lines; nothing is printed
+     * to System.out.
+     * @param input Command lines
+     * @param output Stream for result lines
+     * @return Number of commands run
+     */
+    public long run(BufferedReader input, PrintStream output) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ExecutorService orderLane = Executors.newSingleThreadExecutor();
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        int window = threads * WINDOW_PER_THREAD;
+        long commands = 0;
+
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                if (trimmed.equalsIgnoreCase("exit") || trimmed.equalsIgnoreCase("quit")) {
+                    break;
+                }
+
+                pending.add(submit(lineNumber, trimmed, workers, orderLane));
+                commands++;
+                while (pending.size() > window) {
+                    write(pending.poll(), output);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                write(pending.poll(), output);
+            }
+            output.flush();
+        } finally {
+            workers.shutdownNow();
+            orderLane.shutdownNow();
+        }
+        return commands;
+    }
+
+    private Future<String> submit(int lineNumber, String line, ExecutorService workers, ExecutorService orderLane) {
+        ParsedCommand parsed = CommandParser.parse(line);
+        switch (parsed.getCommand()) {
+            case "order":
+                return orderLane.submit(guarded(lineNumber, "order", () -> order(parsed.getOrder())));
+            case "route":
+                RouteQuery query = parsed.getRoute();
+                String kind = query != null && query.wantsAlternatives() ? "routes" : "route";
+                if (parsed.getError() != null) {
+                    return completed(guarded(lineNumber, kind, () -> error(parsed.getError())));
+                }
+                return workers.submit(guarded(lineNumber, kind, () -> route(query)));
+            case "list":
+                if (parsed.getArgument(0).equalsIgnoreCase("products")) {
+                    if (parsed.getArgument(1).equalsIgnoreCase("search") && parsed.getArgumentCount() > 2) {
+                        String term = String.join(" ", List.of(parsed.getArguments()).subList(2, parsed.getArgumentCount()));
+                        return workers.submit(guarded(lineNumber, "search", () -> search(term)));
+                    }
+                    // Stock counts depend on the orders before this line
+                    return orderLane.submit(guarded(lineNumber, "products", this::listProducts));
+                }
+                break;
+            default:
+                break;
+        }
+
+        return completed(guarded(lineNumber, parsed.getCommand(), () -> error("unsupported command")));
+    }
+
+    /**
+     * Run a result on the reading thread, for lines that need no work
+     */
+    private static Future<String> completed(Callable<String> result) {
+        FutureTask<String> task = new FutureTask<>(result);
+        task.run();
+        return task;
+    }
+
+    /**
+     * Prefix a command's fields with its line number and kind, turning failures into error lines
+     */
+    private Callable<String> guarded(int lineNumber, String kind, Callable<String> command) {
+        return () -> {
+            String fields;
+            try {
+                fields = command.call();
+            } catch (Exception e) {
+                fields = error(e.getMessage());
+            }
+            return lineNumber + "\t" + kind + "\t" + fields;
+        };
+    }
+
+    private String route(RouteQuery query) {
+        if (query == null) {
+            return error("usage: show route <city1> to <city2> [alternatives [k]]");
+        }
+        String fromCity = query.getFromCity();
+        String toCity = query.getToCity();
+        if (!components.areConnected(fromCity, toCity)) {
+            return notFound();
+        }
+
+        if (query.wantsAlternatives()) {
+            int k = query.getAlternatives();
+            List<Dijkstra.PathResult> routes = dijkstra.findKShortestPaths(cityGraph, fromCity, toCity, k);
+            if (routes.isEmpty()) {
+                return notFound();
+            }
+            StringBuilder fields = new StringBuilder("ok");
+            for (Dijkstra.PathResult route : routes) {
+                fields.append('\t').append(route.getDistance()).append(':').append(path(route));
+            }
+            return ok(fields.toString());
+        }
+
+        ShortestPathTree tree = dijkstra.buildShortestPathTree(cityGraph, fromCity);
+        Dijkstra.PathResult result = tree.getPath(toCity);
+        if (!result.isPathFound()) {
+            return notFound();
+        }
+        return ok("ok\t" + result.getDistance() + "\t" + path(result));
+    }
+
+    private String order(OrderRequest request) {
+        if (request == null) {
+            return error("usage: order <product> from <city> [fast]");
+        }
+        String productName = request.getProductName();
+        String customerCity = request.getCustomerCity();
+        boolean fastDelivery = request.isFastDelivery();
+
+        if (orderProcessor == null) {
+            orderProcessor = new OrderProcessor(daoFactory);
+            orderProcessor.setQuiet(true); // the result line reports failures
+        }
+        Order order = orderProcessor.processOrder(productName, customerCity, 1, fastDelivery);
+        if (order == null || order.getStatus() != Order.OrderStatus.CONFIRMED) {
+            return notFound();
+        }
+        return ok(String.format("ok\t%d\t%s\t%d\t%.2f", order.getId(), clean(order.getWarehouseCity()),
+                order.getDeliveryDistance(), order.getFinalTotal()));
+    }
+
+    private String search(String term) throws Exception {
+        List<Product> products = daoFactory.getProductDAO().deepSearchProducts(term);
+        if (products.isEmpty()) {
+            return notFound();
+        }
+        StringBuilder fields = new StringBuilder("ok\t").append(products.size());
+        for (Product product : products) {
+            fields.append('\t').append(product.getId()).append(':').append(clean(product.getName()));
+        }
+        return ok(fields.toString());
+    }
+
+    private String listProducts() throws Exception {
+        int[] inStock = new int[1];
+        int total = daoFactory.getProductDAO().forEachProduct(0, 0, product -> {
+            if (product.isInStock()) {
+                inStock[0]++;
+            }
+        });
+        return ok("ok\t" + total + "\t" + inStock[0]);
+    }
+
+    private static String path(Dijkstra.PathResult result) {
+        StringBuilder path = new StringBuilder();
+        for (String city : result.getPath()) {
+            if (path.length() > 0) {
+                path.append('>');
+            }
+            path.append(clean(city));
+        }
+        return path.toString();
+    }
+
+    /**
+     * Keep a value on one field of one line
+     */
+    private static String clean(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private String ok(String fields) {
+        ok.increment();
+        return fields;
+    }
+
+    private String notFound() {
+        notFound.increment();
+        return "not_found";
+    }
+
+    private String error(String message) {
+        errors.increment();
+        return "error\t" + clean(message);
+    }
+
+    /**
+     * Write a result once it is ready, flushing first if the writer has to wait
+     */
+    private static void write(Future<String> result, PrintStream output) throws IOException {
+        if (!result.isDone()) {
+            output.flush();
+        }
+        try {
+            output.println(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a command", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Command failed", e.getCause());
+        }
+    }
+
+    public long getOkCount() {
+        return ok.sum();
+    }
+
+    public long getNotFoundCount() {
+        return notFound.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+}
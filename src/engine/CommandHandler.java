@@ -1,23 +1,90 @@
 package engine;
 
 import commands.*;
+import dao.DAOFactory;
 import engine.CommandParser.ParsedCommand;
+import engine.CommandRegistry.Cost;
+import importer.ImportPipeline;
+import metrics.Metrics;
+import utils.Printer;
+
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Command Handler
- * Routes parsed commands to appropriate command implementations
+ * Routes parsed commands to the implementations registered in a
+ * CommandRegistry. Commands that load data are created on first use;
+ * warmUp() starts creating them in the background, so a command only waits
+ * for the data it needs.
+ *
+ * handleCommand() runs a command right away. The shell uses dispatch(),
+ * which runs slow read-only commands as background jobs (see JobQueue) so the
+ * prompt comes back at once, and shows their output in the order the
+ * commands were typed:
+ *  - IMMEDIATE commands (jobs, wait, clear) run on the shell thread;
+ *  - STREAMING commands (list) run on the shell thread once pending results
+ *    are shown, so a long listing reaches the terminal as it is read instead
+ *    of being held in a job's captured output until the last row;
+ *  - read-only HIGH commands, and LOW ones typed while results are pending,
+ *    become ordered jobs;
+ *  - LONG_RUNNING commands become detached jobs;
+ *  - other mutating commands first wait for every pending job, so they see
+ *    the same data as when run one after another.
  */
 public class CommandHandler {
-    private final ListProductsCommand listProductsCommand;
-    private final OrderCommand orderCommand;
-    private final RouteCommand routeCommand;
+    // How long the shell waits for a background command before showing the prompt
+    private static final long FOREGROUND_MILLIS = 200;
+
+    private final LazyComponent<ListProductsCommand> listProductsCommand;
+    private final LazyComponent<OrderCommand> orderCommand;
+    private final LazyComponent<RouteCommand> routeCommand;
     private final HelpCommand helpCommand;
+    private final StatsCommand statsCommand;
+    private final ReportCommand reportCommand;
+    private final CommandRegistry registry;
+    private JobQueue jobs; // created by the first background command
 
     public CommandHandler() {
-        this.listProductsCommand = new ListProductsCommand();
-        this.orderCommand = new OrderCommand();
-        this.routeCommand = new RouteCommand();
+        this.listProductsCommand = new LazyComponent<>("list", ListProductsCommand::new);
+        this.orderCommand = new LazyComponent<>("order", OrderCommand::new);
+        this.routeCommand = new LazyComponent<>("route", RouteCommand::new);
         this.helpCommand = new HelpCommand();
+        this.statsCommand = new StatsCommand();
+        this.reportCommand = new ReportCommand();
+
+        this.registry = new CommandRegistry();
+        registry.register("list", true, Cost.STREAMING, this::listProducts);
+        registry.register("order", false, Cost.HIGH, command -> orderCommand.get().execute(command.getOrder()));
+        registry.register("route", true, Cost.HIGH, this::showRoute);
+        registry.register("import", false, Cost.LONG_RUNNING, this::importFeed);
+        registry.register("report", true, Cost.HIGH, command -> reportCommand.execute(command.getArguments()));
+        registry.register("export", true, Cost.LONG_RUNNING, command -> reportCommand.export(command.getArguments()));
+        registry.register("help", true, Cost.LOW, command -> helpCommand.execute(command.getArguments()));
+        registry.register("stats", true, Cost.LOW, command -> statsCommand.execute(command.getArguments()));
+        registry.register("clear", true, Cost.IMMEDIATE, command -> clearScreen());
+        registry.register("jobs", true, Cost.IMMEDIATE, command -> listJobs());
+        registry.register("wait", true, Cost.IMMEDIATE, this::waitForJobs);
+    }
+
+    /**
+     * Get the registry, to add or replace commands
+     * @return Command registry
+     */
+    public CommandRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Start loading the route and order commands in parallel background threads
+     * The route command loads the city graph while the order command loads
+     * cities and warehouse locations. Does nothing with store.warmup=false.
+     */
+    public void warmUp() {
+        if (Boolean.parseBoolean(System.getProperty("store.warmup", "true"))) {
+            routeCommand.warmUp();
+            orderCommand.warmUp();
+        }
     }
 
     /**
@@ -25,51 +92,175 @@ public class CommandHandler {
      * @param input Raw user input
      */
     public void handleCommand(String input) {
-        ParsedCommand parsedCommand;
-        
-        // Use specialized parsers for complex commands
-        if (input.toLowerCase().startsWith("order ") && input.toLowerCase().contains(" from ")) {
-            parsedCommand = CommandParser.parseOrderCommand(input);
-        } else if (input.toLowerCase().startsWith("show route ") && input.toLowerCase().contains(" to ")) {
-            parsedCommand = CommandParser.parseRouteCommand(input);
+        ParsedCommand parsedCommand = CommandParser.parse(input);
+        run(registry.lookup(parsedCommand.getCommand()), parsedCommand);
+    }
+
+    /**
+     * Handle a command typed in the shell, in the background if it is slow
+     * Falls back to handleCommand() when output cannot be captured.
+     * @param input Raw user input
+     */
+    public void dispatch(String input) {
+        ParsedCommand parsedCommand = CommandParser.parse(input);
+        CommandRegistry.Entry entry = registry.lookup(parsedCommand.getCommand());
+        if (entry == null || entry.getCost() == Cost.IMMEDIATE || !Printer.canCapture()) {
+            run(entry, parsedCommand);
+            return;
+        }
+
+        boolean pending = jobs != null && jobs.hasPending();
+        if (entry.getCost() == Cost.STREAMING) {
+            if (pending) {
+                jobs.awaitOrdered();
+            }
+            run(entry, parsedCommand);
+        } else if (entry.getCost() == Cost.LONG_RUNNING) {
+            submit(input, true, entry, parsedCommand);
+        } else if (!entry.isReadOnly()) {
+            if (pending) {
+                jobs.awaitAll();
+            }
+            run(entry, parsedCommand);
+        } else if (entry.getCost() == Cost.HIGH || pending) {
+            submit(input, false, entry, parsedCommand);
+        } else {
+            run(entry, parsedCommand);
+        }
+    }
+
+    private void submit(String input, boolean detached, CommandRegistry.Entry entry, ParsedCommand parsedCommand) {
+        if (jobs == null) {
+            jobs = new JobQueue(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+        JobQueue.Job job = jobs.submit(input.trim(), detached, () -> run(entry, parsedCommand));
+
+        // Quick commands still answer before the next prompt
+        if (detached || !jobs.printCompleted(job, FOREGROUND_MILLIS)) {
+            System.out.println("⏳ [" + job.getId() + "] running in the background;"
+                    + " its output follows at a later prompt ('jobs', 'wait " + job.getId() + "')");
+        }
+    }
+
+    /**
+     * Show the output of background commands that have finished, in order
+     */
+    public void printCompletedJobs() {
+        if (jobs != null) {
+            jobs.printCompleted();
+        }
+    }
+
+    /**
+     * Wait for background commands, show their output and stop the workers
+     */
+    public void close() {
+        if (jobs != null) {
+            jobs.shutdown();
+            jobs = null;
+        }
+    }
+
+    /**
+     * Run a command on the current thread and record its duration
+     */
+    private void run(CommandRegistry.Entry entry, ParsedCommand parsedCommand) {
+        long start = System.nanoTime();
+        String command;
+        if (entry == null) {
+            System.out.println("❌ Unknown command: " + parsedCommand.getCommand());
+            System.out.println("💡 Type 'help' for available commands");
+            command = "unknown"; // keep arbitrary input out of the metric labels
+        } else {
+            command = entry.getName();
+            try {
+                entry.getAction().execute(parsedCommand);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        Metrics.timer("store_command_seconds", "command", command).record(System.nanoTime() - start);
+    }
+
+    private void listProducts(ParsedCommand parsedCommand) {
+        if (parsedCommand.hasArguments() && parsedCommand.getArgument(0).equals("products")) {
+            listProductsCommand.get().execute(parsedCommand.getArguments());
         } else {
-            parsedCommand = CommandParser.parse(input);
-        }
-        
-        String command = parsedCommand.getCommand();
-        
-        switch (command) {
-            case "list":
-                if (parsedCommand.hasArguments() && parsedCommand.getArgument(0).equals("products")) {
-                    listProductsCommand.execute(parsedCommand.getArguments());
-                } else {
-                    System.out.println("❌ Usage: list products");
-                }
-                break;
-                
-            case "order":
-                orderCommand.execute(parsedCommand.getArguments());
-                break;
-                
-            case "route":
-                routeCommand.execute(parsedCommand.getArguments());
-                break;
-
-            case "help":
-                helpCommand.execute(parsedCommand.getArguments());
-                break;
-                
-            case "clear":
-                clearScreen();
-                break;
-                
-            default:
-                System.out.println("❌ Unknown command: " + command);
-                System.out.println("💡 Type 'help' for available commands");
-                break;
+            System.out.println("❌ Usage: list products [page <n> | after <id> | search <term>]");
+        }
+    }
+
+    private void showRoute(ParsedCommand parsedCommand) {
+        if (parsedCommand.getError() != null) {
+            Printer.printError(parsedCommand.getError());
+        } else {
+            routeCommand.get().execute(parsedCommand.getRoute());
+        }
+    }
+
+    /**
+     * Import a supplier feed: "import <file> [fresh]"
+     * Runs as a background job; its output is shown when it finishes.
+     */
+    private void importFeed(ParsedCommand parsedCommand) throws Exception {
+        String[] arguments = parsedCommand.getArguments();
+        int count = arguments.length;
+        boolean fresh = count > 1 && arguments[count - 1].equalsIgnoreCase("fresh");
+        if (fresh) {
+            count--;
+        }
+        if (count == 0) {
+            System.out.println("❌ Usage: import <feed.csv | feed.ndjson> [fresh]");
+            return;
+        }
+
+        ImportPipeline pipeline = new ImportPipeline(DAOFactory.getInstance(), ImportPipeline.DEFAULT_WRITERS);
+        pipeline.setFresh(fresh);
+        pipeline.setProgressInterval(0);
+        ImportPipeline.Result result = pipeline.run(Path.of(String.join(" ", Arrays.copyOf(arguments, count))));
+        if (!result.isAlreadyComplete()) {
+            Printer.printSuccess("Import done: " + result);
+        }
+    }
+
+    /**
+     * List background commands whose output has not been shown yet
+     */
+    private void listJobs() {
+        if (jobs == null || !jobs.hasPending()) {
+            Printer.printInfo("No background jobs");
+            return;
+        }
+        for (JobQueue.Job job : jobs.getJobs()) {
+            System.out.printf("  [%d] %-8s %7.2f s  %s%n", job.getId(), job.isDone() ? "done" : "running",
+                    job.getElapsedNanos() / 1e9, job.getLine());
         }
     }
-    
+
+    /**
+     * Wait for all background commands, or the one given by its ID
+     */
+    private void waitForJobs(ParsedCommand parsedCommand) {
+        if (jobs == null || !jobs.hasPending()) {
+            Printer.printInfo("No background jobs");
+            return;
+        }
+        if (!parsedCommand.hasArguments()) {
+            jobs.awaitAll();
+            return;
+        }
+        try {
+            if (!jobs.await(Integer.parseInt(parsedCommand.getArgument(0)))) {
+                Printer.printError("No pending job " + parsedCommand.getArgument(0));
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Usage: wait [job id]");
+        }
+    }
+
     /**
      * Clear the console screen
      */
@@ -1,107 +1,357 @@
 package engine;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Locale;
 
 /**
  * Command Parser
- * Parses user input into command and arguments
+ * Parses user input into command and arguments.
+ * A single hand-written scan over the input recognizes the command keyword
+ * case-insensitively and, for orders and routes, the "from", "to", "fast" and
+ * "alternatives" keywords, producing typed OrderRequest and RouteQuery
+ * objects. No regular expressions are used and no lower-case copy of the
+ * input is made; only the names themselves are copied out as substrings.
+ *
+ *   order <product> from <city> [fast]
+ *   [show] route <city1> to <city2> [alternatives [k]]
+ *   <command> [arguments...]
  */
 public class CommandParser {
-    
+    public static final int DEFAULT_ALTERNATIVES = 3;
+    public static final int MAX_ALTERNATIVES = 10;
+
+    private static final String[] NO_ARGUMENTS = new String[0];
+    private static final String[] KEYWORDS = {"list", "order", "route", "show", "help", "stats", "clear"};
+
     /**
      * Parse command string into command and arguments
      * @param input Raw user input
      * @return ParsedCommand object
      */
     public static ParsedCommand parse(String input) {
-        if (input == null || input.trim().isEmpty()) {
-            return new ParsedCommand("", new String[0]);
-        }
-        
-        String[] parts = input.trim().split("\\s+");
-        String command = parts[0].toLowerCase();
-        String[] args = Arrays.copyOfRange(parts, 1, parts.length);
-        
-        return new ParsedCommand(command, args);
+        if (input == null) {
+            return new ParsedCommand("", NO_ARGUMENTS);
+        }
+        int end = trimEnd(input, 0, input.length());
+        int start = skipSpace(input, 0, end);
+        if (start == end) {
+            return new ParsedCommand("", NO_ARGUMENTS);
+        }
+
+        int wordEnd = wordEnd(input, start, end);
+        String command = keyword(input, start, wordEnd);
+        int rest = skipSpace(input, wordEnd, end);
+
+        switch (command) {
+            case "order":
+                return parseOrder(input, rest, end);
+            case "route":
+                return parseRoute(input, rest, end);
+            case "show":
+                int next = wordEnd(input, rest, end);
+                if (isWord(input, rest, next, "route")) {
+                    return parseRoute(input, skipSpace(input, next, end), end);
+                }
+                break;
+            default:
+                break;
+        }
+        return new ParsedCommand(command, words(input, rest, end));
     }
-    
+
     /**
-     * Parse complex commands like "order Laptop from Lahore"
-     * @param input Raw user input
-     * @return ParsedCommand with structured arguments
+     * Parse "<product> from <city> [fast]"
+     * @return Order command, without a request if the input does not match
      */
-    public static ParsedCommand parseOrderCommand(String input) {
-        // Handle "order <product> from <city>" pattern
-        if (input.toLowerCase().startsWith("order ") && input.toLowerCase().contains(" from ")) {
-            String[] parts = input.split("(?i)\\s+from\\s+");
-            if (parts.length == 2) {
-                String productPart = parts[0].substring(6).trim(); // Remove "order "
-                String cityPart = parts[1].trim();
-                
-                return new ParsedCommand("order", new String[]{productPart, cityPart});
+    private static ParsedCommand parseOrder(String input, int start, int end) {
+        int from = findWord(input, start, end, "from");
+        if (from <= start) {
+            return new ParsedCommand("order", null, null, null);
+        }
+        int cityStart = skipSpace(input, from + 4, end);
+        int cityEnd = end;
+        boolean fast = false;
+
+        int lastWord = lastWordStart(input, cityStart, end);
+        if (lastWord > cityStart && isWord(input, lastWord, end, "fast")) {
+            fast = true;
+            cityEnd = trimEnd(input, cityStart, lastWord);
+        }
+        if (cityStart == cityEnd) {
+            return new ParsedCommand("order", null, null, null);
+        }
+
+        OrderRequest order = new OrderRequest(input.substring(start, trimEnd(input, start, from)),
+                input.substring(cityStart, cityEnd), fast);
+        return new ParsedCommand("order", order, null, null);
+    }
+
+    /**
+     * Parse "<city1> to <city2> [alternatives [k]]"
+     * @return Route command, without a query if the input does not match
+     */
+    private static ParsedCommand parseRoute(String input, int start, int end) {
+        int to = findWord(input, start, end, "to");
+        if (to <= start) {
+            return new ParsedCommand("route", null, null, null);
+        }
+        int destinationStart = skipSpace(input, to + 2, end);
+        int destinationEnd = end;
+        int alternatives = 0;
+
+        int keyword = findWord(input, destinationStart, end, "alternatives");
+        if (keyword > destinationStart) {
+            destinationEnd = trimEnd(input, destinationStart, keyword);
+            int countStart = skipSpace(input, keyword + "alternatives".length(), end);
+            if (countStart == end) {
+                alternatives = DEFAULT_ALTERNATIVES;
+            } else {
+                try {
+                    alternatives = Math.min(MAX_ALTERNATIVES,
+                            Math.max(1, Integer.parseInt(input, countStart, end, 10)));
+                } catch (NumberFormatException e) {
+                    return new ParsedCommand("route", null, null,
+                            "Invalid number of alternatives: " + input.substring(countStart, end));
+                }
             }
         }
-        
-        return parse(input);
+        if (destinationStart == destinationEnd) {
+            return new ParsedCommand("route", null, null, null);
+        }
+
+        RouteQuery route = new RouteQuery(input.substring(start, trimEnd(input, start, to)),
+                input.substring(destinationStart, destinationEnd), alternatives);
+        return new ParsedCommand("route", null, route, null);
     }
-    
+
     /**
-     * Parse route commands like "show route Lahore to Karachi"
-     * @param input Raw user input
-     * @return ParsedCommand with from and to cities
+     * Get the lower-case command keyword, without copying the input for known commands
+     */
+    private static String keyword(String input, int start, int end) {
+        for (String keyword : KEYWORDS) {
+            if (isWord(input, start, end, keyword)) {
+                return keyword;
+            }
+        }
+        return input.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split the input into whitespace-separated words
+     */
+    private static String[] words(String input, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i = skipSpace(input, wordEnd(input, i, end), end)) {
+            count++;
+        }
+        if (count == 0) {
+            return NO_ARGUMENTS;
+        }
+
+        String[] words = new String[count];
+        int n = 0;
+        for (int i = start; i < end; ) {
+            int wordEnd = wordEnd(input, i, end);
+            words[n++] = input.substring(i, wordEnd);
+            i = skipSpace(input, wordEnd, end);
+        }
+        return words;
+    }
+
+    /**
+     * Find a whitespace-separated word, ignoring case
+     * @return Start of the first occurrence, or -1
      */
-    public static ParsedCommand parseRouteCommand(String input) {
-        // Handle "show route <city1> to <city2>" pattern
-        if (input.toLowerCase().startsWith("show route ") && input.toLowerCase().contains(" to ")) {
-            String routePart = input.substring(11); // Remove "show route "
-            String[] cities = routePart.split("(?i)\\s+to\\s+");
-            if (cities.length == 2) {
-                return new ParsedCommand("route", new String[]{cities[0].trim(), cities[1].trim()});
+    private static int findWord(String input, int start, int end, String word) {
+        for (int i = skipSpace(input, start, end); i < end; ) {
+            int wordEnd = wordEnd(input, i, end);
+            if (isWord(input, i, wordEnd, word)) {
+                return i;
             }
+            i = skipSpace(input, wordEnd, end);
+        }
+        return -1;
+    }
+
+    private static boolean isWord(String input, int start, int end, String word) {
+        return end - start == word.length() && input.regionMatches(true, start, word, 0, word.length());
+    }
+
+    private static int lastWordStart(String input, int start, int end) {
+        int i = end;
+        while (i > start && !Character.isWhitespace(input.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int wordEnd(String input, int start, int end) {
+        int i = start;
+        while (i < end && !Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpace(String input, int start, int end) {
+        int i = start;
+        while (i < end && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(String input, int start, int end) {
+        int i = end;
+        while (i > start && Character.isWhitespace(input.charAt(i - 1))) {
+            i--;
         }
+        return i;
+    }
 
-        return parse(input);
+    /**
+     * Order Request
+     * "order <product> from <city> [fast]"
+     */
+    public static class OrderRequest {
+        private final String productName;
+        private final String customerCity;
+        private final boolean fastDelivery;
+
+        public OrderRequest(String productName, String customerCity, boolean fastDelivery) {
+            this.productName = productName;
+            this.customerCity = customerCity;
+            this.fastDelivery = fastDelivery;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public String getCustomerCity() {
+            return customerCity;
+        }
+
+        public boolean isFastDelivery() {
+            return fastDelivery;
+        }
+
+        @Override
+        public String toString() {
+            return "OrderRequest{" + productName + " from " + customerCity + (fastDelivery ? ", fast" : "") + "}";
+        }
     }
 
+    /**
+     * Route Query
+     * "show route <city1> to <city2> [alternatives [k]]"
+     */
+    public static class RouteQuery {
+        private final String fromCity;
+        private final String toCity;
+        private final int alternatives;
+
+        public RouteQuery(String fromCity, String toCity, int alternatives) {
+            this.fromCity = fromCity;
+            this.toCity = toCity;
+            this.alternatives = alternatives;
+        }
+
+        public String getFromCity() {
+            return fromCity;
+        }
+
+        public String getToCity() {
+            return toCity;
+        }
+
+        /**
+         * Get the number of alternative routes requested
+         * @return Number of routes (1 to MAX_ALTERNATIVES), or 0 for the shortest route only
+         */
+        public int getAlternatives() {
+            return alternatives;
+        }
+
+        public boolean wantsAlternatives() {
+            return alternatives > 0;
+        }
+
+        @Override
+        public String toString() {
+            return "RouteQuery{" + fromCity + " to " + toCity
+                    + (alternatives > 0 ? ", alternatives=" + alternatives : "") + "}";
+        }
+    }
 
-    
     /**
      * Parsed Command Data Structure
+     * Orders and routes carry a typed request instead of arguments; it is null
+     * when the input did not match the command's grammar (see getError).
      */
     public static class ParsedCommand {
         private final String command;
         private final String[] arguments;
-        
+        private final OrderRequest order;
+        private final RouteQuery route;
+        private final String error;
+
         public ParsedCommand(String command, String[] arguments) {
             this.command = command;
             this.arguments = arguments;
+            this.order = null;
+            this.route = null;
+            this.error = null;
+        }
+
+        private ParsedCommand(String command, OrderRequest order, RouteQuery route, String error) {
+            this.command = command;
+            this.arguments = NO_ARGUMENTS;
+            this.order = order;
+            this.route = route;
+            this.error = error;
         }
-        
+
         public String getCommand() {
             return command;
         }
-        
+
         public String[] getArguments() {
             return arguments;
         }
-        
+
         public String getArgument(int index) {
             return index < arguments.length ? arguments[index] : "";
         }
-        
+
         public int getArgumentCount() {
             return arguments.length;
         }
-        
+
         public boolean hasArguments() {
             return arguments.length > 0;
         }
-        
+
+        public OrderRequest getOrder() {
+            return order;
+        }
+
+        public RouteQuery getRoute() {
+            return route;
+        }
+
+        /**
+         * Get the reason the input could not be parsed, if there is a specific one
+         * @return Error message, or null
+         */
+        public String getError() {
+            return error;
+        }
+
         @Override
         public String toString() {
-            return "Command: " + command + ", Args: " + Arrays.toString(arguments);
+            Object details = order != null ? order : route != null ? route : Arrays.toString(arguments);
+            return "Command: " + command + ", Args: " + details;
         }
     }
 }
@@ -0,0 +1,108 @@
+package engine;
+
+import engine.CommandParser.ParsedCommand;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command Registry
+ * Maps command keywords to their implementations together with what the
+ * shell needs to know to schedule them: whether the command changes data and
+ * how long it is expected to take (see CommandHandler.dispatch).
+ */
+public class CommandRegistry {
+
+    /**
+     * Expected cost of a command, which decides where the shell runs it
+     */
+    public enum Cost {
+        IMMEDIATE,    // controls the shell itself; always runs on the shell thread right away
+        LOW,          // runs on the shell thread unless earlier results are still pending
+        HIGH,         // read-only ones run on the worker pool, results shown in order
+        STREAMING,    // long listings printed as they are read; run on the shell thread after pending results
+        LONG_RUNNING  // always a background job, shown when it finishes
+    }
+
+    /**
+     * Runs a parsed command
+     */
+    public interface Action {
+        void execute(ParsedCommand command) throws Exception;
+    }
+
+    /**
+     * A registered command
+     */
+    public static class Entry {
+        private final String name;
+        private final boolean readOnly;
+        private final Cost cost;
+        private final Action action;
+
+        public Entry(String name, boolean readOnly, Cost cost, Action action) {
+            this.name = name;
+            this.readOnly = readOnly;
+            this.cost = cost;
+            this.action = action;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Check whether the command leaves stock, orders and other data unchanged
+         * Read-only commands may run concurrently with each other.
+         * @return true if the command only reads
+         */
+        public boolean isReadOnly() {
+            return readOnly;
+        }
+
+        public Cost getCost() {
+            return cost;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + (readOnly ? "read-only" : "mutating") + ", " + cost + ")";
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Register a command, replacing any command with the same keyword
+     * @param name Lower-case command keyword
+     * @param readOnly true if the command never changes data
+     * @param cost Expected cost
+     * @param action Implementation
+     */
+    public synchronized void register(String name, boolean readOnly, Cost cost, Action action) {
+        entries.put(name, new Entry(name, readOnly, cost, action));
+    }
+
+    /**
+     * Look up a command
+     * @param name Lower-case command keyword
+     * @return Entry, or null if no command has that keyword
+     */
+    public synchronized Entry lookup(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * Get every registered command
+     * @return Entries in registration order
+     */
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+}
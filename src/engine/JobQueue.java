@@ -0,0 +1,251 @@
+package engine;
+
+import utils.Printer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Job Queue
+ * Runs shell commands on a pool of worker threads and shows their output on
+ * the shell thread. Each job's System.out is captured (see
+ * Printer.beginCapture) and printed once the job is done:
+ *  - ordered jobs are shown in submission order, so a quick command never
+ *    overtakes the result of a slower one typed before it;
+ *  - detached jobs (long-running work such as imports) are shown as soon as
+ *    they finish, without holding back the ordered ones.
+ * All methods must be called from the shell thread.
+ */
+public class JobQueue {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * A command running or finished in the background
+     */
+    public static class Job {
+        private final int id;
+        private final String line;
+        private final boolean detached;
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private Future<byte[]> output;
+
+        Job(int id, String line, boolean detached) {
+            this.id = id;
+            this.line = line;
+            this.detached = detached;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+        public boolean isDetached() {
+            return detached;
+        }
+
+        public boolean isDone() {
+            return output.isDone();
+        }
+
+        /**
+         * Get the time the job has been running, or ran
+         * @return Elapsed nanoseconds
+         */
+        public long getElapsedNanos() {
+            long end = endNanos;
+            return (end != 0 ? end : System.nanoTime()) - startNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + id + "] " + line;
+        }
+    }
+
+    private final ExecutorService workers;
+    private final ArrayDeque<Job> ordered = new ArrayDeque<>();
+    private final List<Job> detached = new ArrayList<>();
+    private int nextId = 1;
+
+    public JobQueue(int threads) {
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "shell-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start a command in the background
+     * @param line Command line, shown with the output
+     * @param detached true to show the output when done instead of in order
+     * @param command Command to run; exceptions are reported in its output
+     * @return Job
+     */
+    public Job submit(String line, boolean detached, Runnable command) {
+        Job job = new Job(nextId++, line, detached);
+        job.output = workers.submit(() -> {
+            Printer.beginCapture();
+            try {
+                command.run();
+            } catch (Exception e) {
+                System.out.println("❌ Error executing command: " + e.getMessage());
+            } finally {
+                job.endNanos = System.nanoTime();
+            }
+            return Printer.endCapture();
+        });
+        (detached ? this.detached : ordered).add(job);
+        return job;
+    }
+
+    /**
+     * Check whether any job has not been shown yet
+     * @return true if jobs are running or waiting to be shown
+     */
+    public boolean hasPending() {
+        return !ordered.isEmpty() || !detached.isEmpty();
+    }
+
+    /**
+     * Get the jobs that have not been shown yet
+     * @return Ordered jobs first, then detached ones
+     */
+    public List<Job> getJobs() {
+        List<Job> jobs = new ArrayList<>(ordered);
+        jobs.addAll(detached);
+        return jobs;
+    }
+
+    /**
+     * Show every job that is done and whose turn has come, without waiting
+     */
+    public void printCompleted() {
+        while (!ordered.isEmpty() && ordered.peek().isDone()) {
+            print(ordered.poll());
+        }
+        for (Iterator<Job> it = detached.iterator(); it.hasNext(); ) {
+            Job job = it.next();
+            if (job.isDone()) {
+                it.remove();
+                print(job);
+            }
+        }
+    }
+
+    /**
+     * Wait a short while for a job, then show every job that is done
+     * @param job Job to wait for
+     * @param timeoutMillis Longest time to wait
+     * @return true if the job was done in time
+     */
+    public boolean printCompleted(Job job, long timeoutMillis) {
+        try {
+            job.output.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            // shown by printCompleted() once done
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean done = job.isDone();
+        printCompleted();
+        return done;
+    }
+
+    /**
+     * Wait for every job and show them
+     */
+    public void awaitAll() {
+        while (!ordered.isEmpty()) {
+            print(ordered.poll());
+        }
+        while (!detached.isEmpty()) {
+            print(detached.remove(0));
+        }
+    }
+
+    /**
+     * Wait for the ordered jobs and show them, leaving detached jobs running
+     */
+    public void awaitOrdered() {
+        while (!ordered.isEmpty()) {
+            print(ordered.poll());
+        }
+    }
+
+    /**
+     * Wait for one job and show it, together with the ordered jobs before it
+     * @param id Job ID
+     * @return false if no pending job has that ID
+     */
+    public boolean await(int id) {
+        for (Iterator<Job> it = detached.iterator(); it.hasNext(); ) {
+            Job job = it.next();
+            if (job.getId() == id) {
+                it.remove();
+                print(job);
+                return true;
+            }
+        }
+        if (ordered.stream().noneMatch(job -> job.getId() == id)) {
+            return false;
+        }
+        Job job;
+        do {
+            job = ordered.poll();
+            print(job);
+        } while (job.getId() != id);
+        return true;
+    }
+
+    /**
+     * Wait for a job if needed and print its header and output
+     */
+    private void print(Job job) {
+        byte[] output = null;
+        String failure = null;
+        try {
+            output = job.output.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Interrupted while waiting for job " + job.getId();
+        } catch (ExecutionException | CancellationException e) {
+            failure = "Job " + job.getId() + " failed: " + e.getMessage();
+        }
+
+        System.out.printf("%s📬 [%d] %s%s (%.2f s)%n", Printer.CYAN, job.getId(), job.getLine(), Printer.RESET,
+                job.getElapsedNanos() / (double) NANOS_PER_SECOND);
+        if (output != null) {
+            Printer.printCaptured(output);
+        } else {
+            Printer.printError(failure);
+        }
+    }
+
+    /**
+     * Wait for every job, show them and stop the worker threads
+     */
+    public void shutdown() {
+        awaitAll();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package engine;
+
+import metrics.Metrics;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Lazy Component
+ * Holds a component that is created once, on first use or by a background
+ * warm-up, whichever comes first. A caller that needs the component while the
+ * warm-up is still creating it waits for that creation instead of starting a
+ * second one; if the warm-up has not started yet, the caller creates it itself.
+ * Creation time is recorded as store_startup_seconds{component}.
+ * @param <T> Component type
+ */
+public class LazyComponent<T> {
+    private final String name;
+    private final FutureTask<T> task;
+
+    public LazyComponent(String name, Supplier<T> factory) {
+        this.name = name;
+        this.task = new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            T component = factory.get();
+            Metrics.timer("store_startup_seconds", "component", name).record(System.nanoTime() - start);
+            return component;
+        });
+    }
+
+    /**
+     * Get the component, creating it or waiting for its creation if needed
+     * @return Component
+     */
+    public T get() {
+        task.run(); // does nothing if the component is already being created or done
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to create " + name, cause);
+        }
+    }
+
+    /**
+     * Start creating the component on a background daemon thread
+     */
+    public void warmUp() {
+        if (!task.isDone()) {
+            Thread.ofPlatform().daemon().name("warmup-" + name).start(task);
+        }
+    }
+
+    /**
+     * Check whether the component has been created
+     * @return true if get() returns without waiting
+     */
+    public boolean isReady() {
+        return task.isDone();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyComponent{" + name + (isReady() ? ", ready" : "") + "}";
+    }
+}
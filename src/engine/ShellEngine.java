@@ -5,7 +5,10 @@ import java.util.Scanner;
 
 /**
  * Core CLI Shell Engine
- * Manages the main input loop and user interaction
+ * Manages the main input loop and user interaction.
+ * Output is flushed once per command (see Printer.useBufferedOutput).
+ * Slow read-only commands run in the background (see CommandHandler.dispatch);
+ * their output is shown before the next prompt once it is ready.
  */
 public class ShellEngine {
     private final Scanner scanner;
@@ -23,9 +26,18 @@ public class ShellEngine {
      */
     public void start() {
         Printer.printWelcome();
+        commandHandler.warmUp();
         
         while (running) {
+            commandHandler.printCompletedJobs();
             System.out.print("StoreAlgorithms> ");
+            Printer.flush();
+            if (!scanner.hasNextLine()) {
+                // End of input, as when commands are piped in
+                System.out.println();
+                stop();
+                break;
+            }
             String input = scanner.nextLine().trim();
             
             if (input.isEmpty()) {
@@ -38,8 +50,9 @@ public class ShellEngine {
             }
             
             try {
-                commandHandler.handleCommand(input);
+                commandHandler.dispatch(input);
             } catch (Exception e) {
+                Printer.flush();
                 System.err.println("❌ Error executing command: " + e.getMessage());
                 System.out.println("💡 Type 'help' for available commands");
             }
@@ -51,8 +64,10 @@ public class ShellEngine {
      */
     public void stop() {
         running = false;
+        commandHandler.close();
         scanner.close();
         Printer.printGoodbye();
+        Printer.flush();
     }
 
     /**
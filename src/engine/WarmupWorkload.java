@@ -0,0 +1,136 @@
+package engine;
+
+import config.DBConnection;
+import dao.DAOFactory;
+import generator.Dataset;
+import generator.DatasetGenerator;
+import metrics.Metrics;
+import models.City;
+import models.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Warm-up Workload
+ * Runs the commands of a typical session against a small generated dataset:
+ * route searches (Dijkstra, Yen's alternatives), product listing and search,
+ * and orders, both through the interactive CommandHandler and the batch
+ * runner. When MySQL is reachable, the read-only commands run against it too,
+ * so the JDBC driver is exercised as well.
+ *
+ * Main --train runs it and exits. bin/store runs that under
+ * -XX:ArchiveClassesAtExit with its output discarded, so the class-data
+ * archive holds every class a real run loads, already parsed and verified.
+ */
+public class WarmupWorkload {
+    private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    private final int rounds;
+    private final long seed;
+
+    public WarmupWorkload(int rounds, long seed) {
+        this.rounds = Math.max(1, rounds);
+        this.seed = seed;
+    }
+
+    /**
+     * Run the workload
+     * The shell commands print as in a real session; batch results are discarded.
+     * @return Number of commands run
+     */
+    public long run() throws IOException {
+        DAOFactory previous = DAOFactory.getInstance();
+        try {
+            DatasetGenerator generator = new DatasetGenerator(seed);
+            generator.setCityCount(300);
+            generator.setProductCount(30);
+            generator.setWarehouseCount(5);
+            Dataset dataset = generator.generate();
+            DAOFactory factory = DAOFactory.inMemory(dataset);
+            if (Metrics.isEnabled()) {
+                factory = factory.instrumented();
+            }
+
+            long commands = 0;
+            Random random = new Random(seed);
+            for (int round = 0; round < rounds; round++) {
+                commands += runShell(factory, dataset, random);
+                commands += runBatch(factory, commands(dataset, random, true));
+            }
+
+            if (previous.requiresDatabase() && loadJdbcDriver() && DBConnection.testConnection()) {
+                commands += runBatch(previous, commands(dataset, random, false));
+            }
+            return commands;
+        } finally {
+            DAOFactory.setInstance(previous);
+        }
+    }
+
+    /**
+     * Run commands through the interactive command handler
+     */
+    private long runShell(DAOFactory factory, Dataset dataset, Random random) {
+        DAOFactory.setInstance(factory);
+        CommandHandler handler = new CommandHandler();
+        long commands = 0;
+        for (String command : commands(dataset, random, true).split("\n")) {
+            handler.handleCommand(command);
+            commands++;
+        }
+        handler.handleCommand("help");
+        handler.handleCommand("stats");
+        return commands + 2;
+    }
+
+    private long runBatch(DAOFactory factory, String commands) throws IOException {
+        return new BatchRunner(factory, 2).run(new BufferedReader(new StringReader(commands)),
+                new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Build one round of commands over random cities and products of the dataset
+     * @param withOrders Include orders, which change stock
+     */
+    private static String commands(Dataset dataset, Random random, boolean withOrders) {
+        List<City> cities = dataset.getCities();
+        List<Product> products = dataset.getProducts();
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            String from = cities.get(random.nextInt(cities.size())).getName();
+            String to = cities.get(random.nextInt(cities.size())).getName();
+            String product = products.get(random.nextInt(products.size())).getName();
+            commands.append("show route ").append(from).append(" to ").append(to).append('\n');
+            if (i % 5 == 0) {
+                commands.append("show route ").append(from).append(" to ").append(to).append(" alternatives 3\n");
+                commands.append("list products\n");
+                commands.append("list products page 2\n");
+            }
+            commands.append("list products search ").append(product.split(" ")[0].toLowerCase()).append('\n');
+            if (withOrders) {
+                commands.append("order ").append(product).append(" from ").append(from)
+                        .append(i % 2 == 0 ? " fast" : "").append('\n');
+            }
+        }
+        return commands.toString();
+    }
+
+    /**
+     * Load the MySQL driver if it is on the class path
+     * @return true if the driver is available
+     */
+    private static boolean loadJdbcDriver() {
+        try {
+            Class.forName(JDBC_DRIVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
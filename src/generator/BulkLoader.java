@@ -0,0 +1,201 @@
+package generator;
+
+import config.DBConnection;
+import models.City;
+import models.Product;
+import models.Route;
+import models.Warehouse;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk Loader
+ * Loads a generated Dataset into the store_algorithms schema.
+ * Rows are written with multi-row INSERT statements (explicit ids, so routes,
+ * warehouses and inventory can reference cities and products directly) on a
+ * single connection with autocommit off, committing every few statements.
+ */
+public class BulkLoader {
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final int STATEMENTS_PER_COMMIT = 20;
+
+    /**
+     * Binds the columns of one row starting at a parameter index
+     */
+    private interface RowBinder {
+        void bind(PreparedStatement stmt, int row, int parameterIndex) throws SQLException;
+    }
+
+    /**
+     * Load the dataset
+     * @param dataset Generated dataset
+     * @param truncate Empty the tables (including orders) before loading
+     * @throws SQLException if any statement fails; the open batch is rolled back
+     */
+    public void load(Dataset dataset, boolean truncate) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            conn.setAutoCommit(false);
+
+            try {
+                if (truncate) {
+                    truncateTables(conn);
+                }
+
+                List<City> cities = dataset.getCities();
+                insertRows(conn, "cities", "id, name, province, latitude, longitude, population", 6, cities.size(),
+                        (stmt, row, i) -> {
+                            City city = cities.get(row);
+                            stmt.setInt(i, city.getId());
+                            stmt.setString(i + 1, city.getName());
+                            stmt.setString(i + 2, city.getProvince());
+                            stmt.setDouble(i + 3, city.getLatitude());
+                            stmt.setDouble(i + 4, city.getLongitude());
+                            stmt.setInt(i + 5, city.getPopulation());
+                        });
+
+                List<Route> routes = dataset.getRoutes();
+                insertRows(conn, "routes", "id, from_city_id, to_city_id, distance, road_type", 5, routes.size(),
+                        (stmt, row, i) -> {
+                            Route route = routes.get(row);
+                            stmt.setInt(i, route.getId());
+                            stmt.setInt(i + 1, route.getFromCityId());
+                            stmt.setInt(i + 2, route.getToCityId());
+                            stmt.setInt(i + 3, route.getDistance());
+                            stmt.setString(i + 4, route.getRoadType());
+                        });
+
+                List<Product> products = dataset.getProducts();
+                insertRows(conn, "products", "id, name, price, quantity, category, description", 6, products.size(),
+                        (stmt, row, i) -> {
+                            Product product = products.get(row);
+                            stmt.setInt(i, product.getId());
+                            stmt.setString(i + 1, product.getName());
+                            stmt.setDouble(i + 2, product.getPrice());
+                            stmt.setInt(i + 3, product.getQuantity());
+                            stmt.setString(i + 4, product.getCategory());
+                            stmt.setString(i + 5, product.getDescription());
+                        });
+
+                List<Warehouse> warehouses = dataset.getWarehouses();
+                insertRows(conn, "warehouses", "id, name, city_id, address, capacity", 5, warehouses.size(),
+                        (stmt, row, i) -> {
+                            Warehouse warehouse = warehouses.get(row);
+                            stmt.setInt(i, warehouse.getId());
+                            stmt.setString(i + 1, warehouse.getName());
+                            stmt.setInt(i + 2, warehouse.getCityId());
+                            stmt.setString(i + 3, warehouse.getAddress());
+                            stmt.setInt(i + 4, warehouse.getCapacity());
+                        });
+
+                // Flatten inventory maps into (warehouse, product, quantity) rows
+                List<int[]> inventory = new ArrayList<>();
+                for (Warehouse warehouse : warehouses) {
+                    warehouse.getInventory().forEach((productId, quantity) ->
+                            inventory.add(new int[]{warehouse.getId(), productId, quantity}));
+                }
+                insertRows(conn, "warehouse_inventory", "warehouse_id, product_id, quantity", 3, inventory.size(),
+                        (stmt, row, i) -> {
+                            int[] entry = inventory.get(row);
+                            stmt.setInt(i, entry[0]);
+                            stmt.setInt(i + 1, entry[1]);
+                            stmt.setInt(i + 2, entry[2]);
+                        });
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void truncateTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET FOREIGN_KEY_CHECKS = 0");
+            for (String table : new String[]{"orders", "warehouse_inventory", "warehouses", "routes", "products", "cities"}) {
+                stmt.execute("TRUNCATE TABLE " + table);
+            }
+            stmt.execute("SET FOREIGN_KEY_CHECKS = 1");
+        }
+        System.out.println("🧹 Tables truncated");
+    }
+
+    /**
+     * Insert rows in chunks of ROWS_PER_STATEMENT using one multi-row INSERT per chunk
+     */
+    private void insertRows(Connection conn, String table, String columns, int columnCount,
+                            int rowCount, RowBinder binder) throws SQLException {
+        if (rowCount == 0) {
+            return;
+        }
+
+        PreparedStatement full = null;
+        int statements = 0;
+        try {
+            for (int start = 0; start < rowCount; start += ROWS_PER_STATEMENT) {
+                int rows = Math.min(ROWS_PER_STATEMENT, rowCount - start);
+
+                // The full-size statement is prepared once and reused; the last chunk gets its own
+                PreparedStatement stmt;
+                if (rows == ROWS_PER_STATEMENT) {
+                    if (full == null) {
+                        full = conn.prepareStatement(insertSql(table, columns, columnCount, rows));
+                    }
+                    stmt = full;
+                } else {
+                    stmt = conn.prepareStatement(insertSql(table, columns, columnCount, rows));
+                }
+
+                try {
+                    for (int r = 0; r < rows; r++) {
+                        binder.bind(stmt, start + r, r * columnCount + 1);
+                    }
+                    stmt.executeUpdate();
+                } finally {
+                    if (stmt != full) {
+                        stmt.close();
+                    }
+                }
+
+                if (++statements % STATEMENTS_PER_COMMIT == 0) {
+                    conn.commit();
+                }
+            }
+        } finally {
+            if (full != null) {
+                full.close();
+            }
+        }
+
+        conn.commit();
+        System.out.printf("📦 %-20s %,d rows%n", table, rowCount);
+    }
+
+    private static String insertSql(String table, String columns, int columnCount, int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int c = 0; c < columnCount; c++) {
+            row.append(c == 0 ? "?" : ", ?");
+        }
+        row.append(")");
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(columns).append(") VALUES ");
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+}
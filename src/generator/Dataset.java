@@ -0,0 +1,92 @@
+package generator;
+
+import dsa.Graph;
+import models.City;
+import models.Product;
+import models.Route;
+import models.Warehouse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dataset
+ * A generated set of cities, routes, products, warehouses and inventory
+ * matching the store_algorithms schema. Inventory is kept inside each Warehouse.
+ */
+public class Dataset {
+    private final List<City> cities;
+    private final List<Route> routes;
+    private final List<Product> products;
+    private final List<Warehouse> warehouses;
+
+    public Dataset(List<City> cities, List<Route> routes, List<Product> products, List<Warehouse> warehouses) {
+        this.cities = cities;
+        this.routes = routes;
+        this.products = products;
+        this.warehouses = warehouses;
+    }
+
+    public List<City> getCities() {
+        return cities;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public List<Warehouse> getWarehouses() {
+        return warehouses;
+    }
+
+    /**
+     * Get the number of inventory rows (warehouse, product pairs)
+     * @return Number of inventory rows
+     */
+    public long getInventoryRowCount() {
+        long rows = 0;
+        for (Warehouse warehouse : warehouses) {
+            rows += warehouse.getInventory().size();
+        }
+        return rows;
+    }
+
+    /**
+     * Build the city graph described by the routes
+     * @return Graph with every city and bidirectional route
+     */
+    public Graph toGraph() {
+        Graph graph = new Graph();
+        for (City city : cities) {
+            graph.addCity(city.getName());
+        }
+        for (Route route : routes) {
+            graph.addRoute(route.getFromCityName(), route.getToCityName(), route.getDistance());
+        }
+        return graph;
+    }
+
+    /**
+     * Get the names of cities hosting warehouses
+     * @return Distinct warehouse city names
+     */
+    public List<String> getWarehouseCityNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Warehouse warehouse : warehouses) {
+            names.add(warehouse.getCityName());
+        }
+        return new ArrayList<>(names);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Dataset{cities=%d, routes=%d, products=%d, warehouses=%d, inventory=%d}",
+                cities.size(), routes.size(), products.size(), warehouses.size(), getInventoryRowCount());
+    }
+}
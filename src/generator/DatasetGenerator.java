@@ -0,0 +1,400 @@
+package generator;
+
+import config.DBConnection;
+import dsa.KDTree;
+import models.City;
+import models.Product;
+import models.Route;
+import models.Warehouse;
+
+import java.util.*;
+
+/**
+ * Dataset Generator
+ * Seeded generator for realistic road networks and catalogs at any scale.
+ * Cities are placed around population clusters inside Pakistan's bounding box,
+ * linked to their nearest neighbours (planar-ish, always connected), and road
+ * distances never undercut the great-circle distance. Products, warehouse
+ * placements and inventory follow skewed (Zipf-like) popularity.
+ *
+ * Usage: java generator.DatasetGenerator [--seed 42] [--cities 1000] [--products 5000]
+ *        [--warehouses 20] [--coverage 0.6] [--load] [--truncate]
+ */
+public class DatasetGenerator {
+    // Bounding box of the delivery region (degrees)
+    private static final double MIN_LATITUDE = 24.5;
+    private static final double MAX_LATITUDE = 36.5;
+    private static final double MIN_LONGITUDE = 61.5;
+    private static final double MAX_LONGITUDE = 75.5;
+
+    // Each city is linked to this many nearest neighbours
+    private static final int NEIGHBOURS_PER_CITY = 3;
+
+    private static final String[] SYLLABLES = {
+        "ab", "bad", "bar", "dar", "de", "ga", "gul", "ha", "ja", "kan", "kot", "la",
+        "ma", "mir", "na", "nag", "pur", "qa", "ra", "sar", "sha", "ta", "wal", "za"
+    };
+    private static final String[] PROVINCES = {
+        "Punjab", "Sindh", "Khyber Pakhtunkhwa", "Balochistan", "Gilgit-Baltistan"
+    };
+    private static final String[] CATEGORIES = {
+        "Computers", "Mobiles", "Audio", "Gaming", "Accessories", "Appliances", "Cameras", "Networking"
+    };
+    private static final String[][] CATEGORY_ITEMS = {
+        {"Laptop", "Desktop", "Monitor", "Tablet"},
+        {"Mobile", "Smartwatch", "Power Bank", "Phone Case"},
+        {"Headphones", "Speaker", "Earbuds", "Soundbar"},
+        {"Gaming Console", "Controller", "Gaming Chair", "VR Headset"},
+        {"Mouse", "Keyboard", "USB Cable", "Webcam"},
+        {"Microwave", "Air Fryer", "Blender", "Iron"},
+        {"Camera", "Lens", "Tripod", "Memory Card"},
+        {"Router", "Switch", "Range Extender", "Modem"}
+    };
+    private static final double[] CATEGORY_BASE_PRICE = {
+        90000, 30000, 6000, 40000, 2500, 15000, 60000, 8000
+    };
+    private static final String[] BRANDS = {
+        "Nova", "Apex", "Zenith", "Orion", "Vertex", "Pulse", "Quantum", "Falcon"
+    };
+
+    private final long seed;
+    private int cityCount = 1000;
+    private int productCount = 5000;
+    private int warehouseCount = 20;
+    private double inventoryCoverage = 0.6; // share of the catalog each warehouse stocks
+
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public void setCityCount(int cityCount) {
+        this.cityCount = cityCount;
+    }
+
+    public void setProductCount(int productCount) {
+        this.productCount = productCount;
+    }
+
+    public void setWarehouseCount(int warehouseCount) {
+        this.warehouseCount = warehouseCount;
+    }
+
+    public void setInventoryCoverage(double inventoryCoverage) {
+        this.inventoryCoverage = inventoryCoverage;
+    }
+
+    /**
+     * Generate a complete dataset
+     * The same seed and sizes always produce the same dataset.
+     * @return Generated dataset
+     */
+    public Dataset generate() {
+        Random random = new Random(seed);
+        List<City> cities = generateCities(random);
+        List<Route> routes = generateRoutes(cities, random);
+        List<Product> products = generateProducts(random);
+        List<Warehouse> warehouses = generateWarehouses(cities, random);
+        generateInventory(warehouses, products, random);
+        return new Dataset(cities, routes, products, warehouses);
+    }
+
+    /**
+     * Place cities around population clusters
+     */
+    private List<City> generateCities(Random random) {
+        int clusterCount = Math.max(3, (int) Math.sqrt(cityCount) / 2);
+        double[][] clusters = new double[clusterCount][];
+        for (int i = 0; i < clusterCount; i++) {
+            clusters[i] = new double[]{uniform(random, MIN_LATITUDE, MAX_LATITUDE), uniform(random, MIN_LONGITUDE, MAX_LONGITUDE)};
+        }
+
+        // Population follows a Zipf-like rank distribution over a shuffled order
+        List<Integer> ranks = new ArrayList<>();
+        for (int i = 1; i <= cityCount; i++) {
+            ranks.add(i);
+        }
+        Collections.shuffle(ranks, random);
+
+        Set<String> usedNames = new HashSet<>();
+        List<City> cities = new ArrayList<>(cityCount);
+        for (int i = 0; i < cityCount; i++) {
+            double latitude;
+            double longitude;
+            if (random.nextDouble() < 0.7) {
+                double[] cluster = clusters[random.nextInt(clusterCount)];
+                latitude = clamp(cluster[0] + random.nextGaussian() * 0.6, MIN_LATITUDE, MAX_LATITUDE);
+                longitude = clamp(cluster[1] + random.nextGaussian() * 0.6, MIN_LONGITUDE, MAX_LONGITUDE);
+            } else {
+                latitude = uniform(random, MIN_LATITUDE, MAX_LATITUDE);
+                longitude = uniform(random, MIN_LONGITUDE, MAX_LONGITUDE);
+            }
+
+            int population = (int) (5000 + 15_000_000 / Math.pow(ranks.get(i), 1.1));
+            String province = PROVINCES[provinceIndex(latitude, longitude)];
+            cities.add(new City(i + 1, uniqueCityName(random, usedNames), province, latitude, longitude, population));
+        }
+        return cities;
+    }
+
+    private String uniqueCityName(Random random, Set<String> usedNames) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int s = 0; s < syllables; s++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+
+        String candidate = name.toString();
+        if (!usedNames.add(candidate)) {
+            candidate = candidate + " " + (usedNames.size() + 1);
+            usedNames.add(candidate);
+        }
+        return candidate;
+    }
+
+    private static int provinceIndex(double latitude, double longitude) {
+        if (latitude > 35.0) {
+            return 4; // Gilgit-Baltistan
+        }
+        if (longitude < 67.5) {
+            return 3; // Balochistan
+        }
+        if (latitude < 28.5) {
+            return 1; // Sindh
+        }
+        return longitude < 71.5 && latitude > 32.0 ? 2 : 0; // Khyber Pakhtunkhwa or Punjab
+    }
+
+    /**
+     * Link every city to its nearest neighbours, then join any disconnected parts
+     */
+    private List<Route> generateRoutes(List<City> cities, Random random) {
+        int n = cities.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        List<Integer> indices = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = cities.get(i).getLatitude();
+            longitudes[i] = cities.get(i).getLongitude();
+            indices.add(i);
+        }
+        KDTree<Integer> index = new KDTree<>(indices, latitudes, longitudes);
+
+        List<Route> routes = new ArrayList<>();
+        Set<Long> linked = new HashSet<>();
+        int[] component = new int[n];
+        for (int i = 0; i < n; i++) {
+            component[i] = i;
+        }
+
+        for (int i = 0; i < n; i++) {
+            final int from = i;
+            for (KDTree.Neighbor<Integer> neighbor : index.nearest(latitudes[i], longitudes[i], NEIGHBOURS_PER_CITY, c -> c != from)) {
+                addRoute(cities, routes, linked, component, from, neighbor.getItem(), random);
+            }
+        }
+
+        // Join remaining components to their nearest city in another component
+        while (true) {
+            Map<Integer, Integer> representatives = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                representatives.putIfAbsent(find(component, i), i);
+            }
+            if (representatives.size() <= 1) {
+                break;
+            }
+
+            for (int city : representatives.values()) {
+                int root = find(component, city);
+                List<KDTree.Neighbor<Integer>> nearest = index.nearest(latitudes[city], longitudes[city], 1,
+                        c -> find(component, c) != root);
+                if (!nearest.isEmpty()) {
+                    addRoute(cities, routes, linked, component, city, nearest.get(0).getItem(), random);
+                }
+            }
+        }
+
+        assignRoadTypes(cities, routes);
+        return routes;
+    }
+
+    /**
+     * Classify roads relative to the generated network, so the mix holds at any scale:
+     * links between the top 10% most populous cities are motorways, the longest
+     * 20% of the remaining links are highways and the rest are city roads.
+     */
+    private void assignRoadTypes(List<City> cities, List<Route> routes) {
+        int[] populations = new int[cities.size()];
+        int[] distances = new int[routes.size()];
+        for (int i = 0; i < populations.length; i++) {
+            populations[i] = cities.get(i).getPopulation();
+        }
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = routes.get(i).getDistance();
+        }
+        Arrays.sort(populations);
+        Arrays.sort(distances);
+        int metroPopulation = populations[(int) (populations.length * 0.9)];
+        int highwayDistance = distances[(int) (distances.length * 0.8)];
+
+        for (Route route : routes) {
+            // City ids are 1-based positions in the list
+            City from = cities.get(route.getFromCityId() - 1);
+            City to = cities.get(route.getToCityId() - 1);
+            if (from.getPopulation() >= metroPopulation && to.getPopulation() >= metroPopulation) {
+                route.setRoadType("motorway");
+            } else if (route.getDistance() >= highwayDistance) {
+                route.setRoadType("highway");
+            }
+        }
+    }
+
+    private void addRoute(List<City> cities, List<Route> routes, Set<Long> linked, int[] component,
+                          int a, int b, Random random) {
+        long key = (long) Math.min(a, b) * cities.size() + Math.max(a, b);
+        if (!linked.add(key)) {
+            return;
+        }
+
+        City from = cities.get(a);
+        City to = cities.get(b);
+        double straight = KDTree.greatCircleKm(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+        int distance = Math.max(1, (int) Math.ceil(straight * uniform(random, 1.15, 1.45))); // never below great-circle
+
+        routes.add(new Route(routes.size() + 1, from.getId(), from.getName(), to.getId(), to.getName(), distance, "city_road", true));
+
+        int rootA = find(component, a);
+        int rootB = find(component, b);
+        if (rootA != rootB) {
+            component[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private static int find(int[] component, int x) {
+        while (component[x] != x) {
+            component[x] = component[component[x]];
+            x = component[x];
+        }
+        return x;
+    }
+
+    /**
+     * Generate a catalog with category-dependent prices
+     */
+    private List<Product> generateProducts(Random random) {
+        List<Product> products = new ArrayList<>(productCount);
+        Set<String> plainNames = new HashSet<>();
+        for (int i = 0; i < productCount; i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            String item = CATEGORY_ITEMS[category][random.nextInt(CATEGORY_ITEMS[category].length)];
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+
+            // First product of each kind keeps the plain item name, e.g. "Laptop"
+            String name = plainNames.add(item) ? item : brand + " " + item + " " + (100 + i);
+            double price = Math.round(CATEGORY_BASE_PRICE[category] * Math.exp(random.nextGaussian() * 0.4));
+
+            products.add(new Product(i + 1, name, price, 0, CATEGORIES[category],
+                    brand + " " + item.toLowerCase() + " in " + CATEGORIES[category].toLowerCase()));
+        }
+        return products;
+    }
+
+    /**
+     * Place warehouses in the most populous cities
+     */
+    private List<Warehouse> generateWarehouses(List<City> cities, Random random) {
+        List<City> byPopulation = new ArrayList<>(cities);
+        byPopulation.sort((a, b) -> Integer.compare(b.getPopulation(), a.getPopulation()));
+
+        List<Warehouse> warehouses = new ArrayList<>(warehouseCount);
+        for (int i = 0; i < warehouseCount; i++) {
+            City city = byPopulation.get(i % byPopulation.size());
+            int number = i / byPopulation.size() + 1;
+            String name = city.getName() + (number == 1 ? " Central" : " Depot " + number);
+            Warehouse warehouse = new Warehouse(i + 1, name, city.getId(), city.getName(),
+                    "Plot " + (1 + random.nextInt(300)) + ", Industrial Area, " + city.getName(),
+                    5000 + random.nextInt(10) * 5000);
+            warehouses.add(warehouse);
+        }
+        return warehouses;
+    }
+
+    /**
+     * Stock a share of the catalog in every warehouse; popular products are stocked deeper
+     */
+    private void generateInventory(List<Warehouse> warehouses, List<Product> products, Random random) {
+        int[] totals = new int[products.size()];
+        for (Warehouse warehouse : warehouses) {
+            for (int p = 0; p < products.size(); p++) {
+                if (random.nextDouble() >= inventoryCoverage) {
+                    continue;
+                }
+                double popularity = 1.0 / Math.pow(p + 1, 0.3);
+                int quantity = (int) (random.nextDouble() * random.nextDouble() * 200 * popularity);
+                warehouse.addProduct(products.get(p).getId(), quantity);
+                totals[p] += quantity;
+            }
+        }
+
+        for (int p = 0; p < products.size(); p++) {
+            products.get(p).setQuantity(totals[p]);
+        }
+    }
+
+    private static double uniform(Random random, double min, double max) {
+        return min + random.nextDouble() * (max - min);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public static void main(String[] args) {
+        long seed = 42;
+        int cities = 1000;
+        int products = 5000;
+        int warehouses = 20;
+        double coverage = 0.6;
+        boolean load = false;
+        boolean truncate = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--cities" -> cities = Integer.parseInt(args[++i]);
+                case "--products" -> products = Integer.parseInt(args[++i]);
+                case "--warehouses" -> warehouses = Integer.parseInt(args[++i]);
+                case "--coverage" -> coverage = Double.parseDouble(args[++i]);
+                case "--load" -> load = true;
+                case "--truncate" -> truncate = true;
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        generator.setCityCount(cities);
+        generator.setProductCount(products);
+        generator.setWarehouseCount(warehouses);
+        generator.setInventoryCoverage(coverage);
+
+        long start = System.nanoTime();
+        Dataset dataset = generator.generate();
+        System.out.printf("Generated %s in %d ms%n", dataset, (System.nanoTime() - start) / 1_000_000);
+
+        if (load) {
+            try {
+                start = System.nanoTime();
+                new BulkLoader().load(dataset, truncate);
+                System.out.printf("Loaded into database in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                System.err.println("Bulk load failed: " + e.getMessage());
+                System.exit(1);
+            } finally {
+                DBConnection.closeConnection();
+            }
+        }
+    }
+}
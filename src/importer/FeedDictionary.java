@@ -0,0 +1,118 @@
+package importer;
+
+import dao.ProductDAO;
+import dao.WarehouseDAO;
+import dsa.IntIntHashMap;
+import dsa.IntObjectHashMap;
+import models.Warehouse;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Feed Dictionary
+ * Validates feed records against the catalog and the warehouse list, both
+ * loaded once when an import starts, and resolves them to the product and
+ * warehouse ids the bulk DAO calls take. Names match case-insensitively.
+ * A row that names a city but no warehouse goes to the city's first
+ * warehouse (lowest id).
+ */
+public class FeedDictionary {
+    private final Map<String, Integer> productsByName = new HashMap<>();
+    private final IntIntHashMap productIds = new IntIntHashMap();
+    private final Map<String, List<Warehouse>> warehousesByCity = new HashMap<>();
+    private final IntObjectHashMap<Warehouse> warehousesById = new IntObjectHashMap<>();
+
+    /**
+     * Load the catalog and the warehouses
+     * @param productDAO Catalog source
+     * @param warehouseDAO Warehouse source
+     * @return Dictionary
+     */
+    public static FeedDictionary load(ProductDAO productDAO, WarehouseDAO warehouseDAO) throws SQLException {
+        FeedDictionary dictionary = new FeedDictionary();
+        productDAO.forEachProduct(0, 0, product -> {
+            dictionary.productsByName.putIfAbsent(key(product.getName()), product.getId());
+            dictionary.productIds.put(product.getId(), 1);
+        });
+
+        List<Warehouse> warehouses = new ArrayList<>(warehouseDAO.getAllWarehouses());
+        warehouses.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        for (Warehouse warehouse : warehouses) {
+            warehouse.setInventory(null); // only the names are needed
+            dictionary.warehousesById.put(warehouse.getId(), warehouse);
+            dictionary.warehousesByCity.computeIfAbsent(key(warehouse.getCityName()), city -> new ArrayList<>())
+                    .add(warehouse);
+        }
+        return dictionary;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Resolve the product of a record
+     * @param record Parsed record
+     * @return Product ID
+     * @throws IllegalArgumentException if the product is not in the catalog
+     */
+    public int productId(FeedParser.Record record) {
+        if (record.getProductId() != 0) {
+            if (!productIds.containsKey(record.getProductId())) {
+                throw new IllegalArgumentException("Unknown product id: " + record.getProductId());
+            }
+            return record.getProductId();
+        }
+        Integer id = productsByName.get(key(record.getProduct()));
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown product: " + record.getProduct());
+        }
+        return id;
+    }
+
+    /**
+     * Resolve the warehouse of a record
+     * @param record Parsed record
+     * @return Warehouse ID
+     * @throws IllegalArgumentException if the warehouse or city is unknown or the two do not match
+     */
+    public int warehouseId(FeedParser.Record record) {
+        if (record.getWarehouseId() != 0) {
+            Warehouse warehouse = warehousesById.get(record.getWarehouseId());
+            if (warehouse == null) {
+                throw new IllegalArgumentException("Unknown warehouse id: " + record.getWarehouseId());
+            }
+            if (record.getCity() != null && !warehouse.getCityName().equalsIgnoreCase(record.getCity().trim())) {
+                throw new IllegalArgumentException("Warehouse " + warehouse.getId() + " is not in " + record.getCity());
+            }
+            return warehouse.getId();
+        }
+
+        List<Warehouse> inCity = warehousesByCity.get(key(record.getCity()));
+        if (inCity == null) {
+            throw new IllegalArgumentException("No warehouse in city: " + record.getCity());
+        }
+        if (record.getWarehouse() == null) {
+            return inCity.get(0).getId();
+        }
+        for (Warehouse warehouse : inCity) {
+            if (warehouse.getName().equalsIgnoreCase(record.getWarehouse())) {
+                return warehouse.getId();
+            }
+        }
+        throw new IllegalArgumentException("Unknown warehouse in " + record.getCity() + ": " + record.getWarehouse());
+    }
+
+    public int getProductCount() {
+        return productIds.size();
+    }
+
+    public int getWarehouseCount() {
+        return warehousesById.size();
+    }
+}
@@ -0,0 +1,423 @@
+package importer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Feed Parser
+ * Turns one line of a supplier feed into a Record. Two formats are read:
+ *  - CSV: the first line names the columns. Fields may be quoted with ",
+ *    and "" inside quotes stands for one quote character.
+ *  - NDJSON: one flat JSON object per line.
+ * Recognized columns (keys) are product or product_id, city, warehouse or
+ * warehouse_id, quantity and price; other columns are ignored. Each row
+ * needs a product, a quantity and either a city or a warehouse_id.
+ *
+ *   product,city,warehouse,quantity,price
+ *   Laptop,Lahore,,25,94999
+ *   {"product": "Mouse", "city": "Karachi", "quantity": 140}
+ *
+ * A line that cannot be parsed throws IllegalArgumentException with the
+ * reason, which the import writes to its rejects file.
+ */
+public class FeedParser {
+
+    /**
+     * Feed file format
+     */
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        /**
+         * Guess the format from the file name
+         * @param file Feed file
+         * @return NDJSON for .ndjson, .jsonl and .json files, CSV otherwise
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * One row of the feed
+     */
+    public static class Record {
+        private String product;
+        private int productId;
+        private String city;
+        private String warehouse;
+        private int warehouseId;
+        private int quantity = -1;
+        private double price = Double.NaN;
+
+        /**
+         * @return Product name, or null if the row gives a product id
+         */
+        public String getProduct() {
+            return product;
+        }
+
+        /**
+         * @return Product ID, or 0 if the row gives a product name
+         */
+        public int getProductId() {
+            return productId;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        /**
+         * @return Warehouse name, or null to use the city's first warehouse
+         */
+        public String getWarehouse() {
+            return warehouse;
+        }
+
+        /**
+         * @return Warehouse ID, or 0 if the row gives a city
+         */
+        public int getWarehouseId() {
+            return warehouseId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * @return New price, or NaN to leave the price unchanged
+         */
+        public double getPrice() {
+            return price;
+        }
+
+        public boolean hasPrice() {
+            return !Double.isNaN(price);
+        }
+    }
+
+    private static final String[] COLUMNS = {"product", "product_id", "city", "warehouse", "warehouse_id", "quantity", "price"};
+    private static final int PRODUCT = 0;
+    private static final int PRODUCT_ID = 1;
+    private static final int CITY = 2;
+    private static final int WAREHOUSE = 3;
+    private static final int WAREHOUSE_ID = 4;
+    private static final int QUANTITY = 5;
+    private static final int PRICE = 6;
+
+    private final Format format;
+    private final int[] csvColumns; // feed column of each of COLUMNS, -1 if absent
+
+    private FeedParser(Format format, int[] csvColumns) {
+        this.format = format;
+        this.csvColumns = csvColumns;
+    }
+
+    /**
+     * Create a parser for a CSV feed
+     * @param header First line of the feed
+     * @return Parser
+     * @throws IllegalArgumentException if a required column is missing
+     */
+    public static FeedParser csv(String header) {
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1); // byte order mark written by spreadsheet tools
+        }
+        List<String> names = splitCsv(header);
+        int[] columns = new int[COLUMNS.length];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            columns[c] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).trim().equalsIgnoreCase(COLUMNS[c])) {
+                    columns[c] = i;
+                    break;
+                }
+            }
+        }
+
+        if (columns[PRODUCT] < 0 && columns[PRODUCT_ID] < 0) {
+            throw new IllegalArgumentException("Feed has no product or product_id column");
+        }
+        if (columns[QUANTITY] < 0) {
+            throw new IllegalArgumentException("Feed has no quantity column");
+        }
+        if (columns[CITY] < 0 && columns[WAREHOUSE_ID] < 0) {
+            throw new IllegalArgumentException("Feed has no city or warehouse_id column");
+        }
+        return new FeedParser(Format.CSV, columns);
+    }
+
+    /**
+     * Create a parser for an NDJSON feed
+     * @return Parser
+     */
+    public static FeedParser ndjson() {
+        return new FeedParser(Format.NDJSON, null);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Parse one line
+     * @param line Line of the feed, not blank
+     * @return Record
+     * @throws IllegalArgumentException if the line is malformed or misses a required field
+     */
+    public Record parse(String line) {
+        Record record = new Record();
+        if (format == Format.CSV) {
+            List<String> fields = splitCsv(line);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                int column = csvColumns[c];
+                if (column >= 0 && column < fields.size()) {
+                    set(record, c, fields.get(column).trim());
+                }
+            }
+        } else {
+            new JsonObjectScanner(line).scan(record);
+        }
+
+        if (record.product == null && record.productId == 0) {
+            throw new IllegalArgumentException("Missing product");
+        }
+        if (record.quantity < 0) {
+            throw new IllegalArgumentException("Missing quantity");
+        }
+        if (record.city == null && record.warehouseId == 0) {
+            throw new IllegalArgumentException("Missing city");
+        }
+        return record;
+    }
+
+    /**
+     * Store a field value; empty values count as absent
+     */
+    private static void set(Record record, int column, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        switch (column) {
+            case PRODUCT -> record.product = value;
+            case PRODUCT_ID -> record.productId = parseId("product_id", value);
+            case CITY -> record.city = value;
+            case WAREHOUSE -> record.warehouse = value;
+            case WAREHOUSE_ID -> record.warehouseId = parseId("warehouse_id", value);
+            case QUANTITY -> {
+                try {
+                    record.quantity = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid quantity: " + value);
+                }
+                if (record.quantity < 0) {
+                    throw new IllegalArgumentException("Negative quantity: " + value);
+                }
+            }
+            case PRICE -> {
+                try {
+                    record.price = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid price: " + value);
+                }
+                if (!(record.price >= 0) || Double.isInfinite(record.price)) {
+                    throw new IllegalArgumentException("Invalid price: " + value);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static int parseId(String column, String value) {
+        try {
+            int id = Integer.parseInt(value);
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid " + column + ": " + value);
+    }
+
+    /**
+     * Split a CSV line into fields
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Reads the keys and values of one flat JSON object
+     * Strings, numbers, booleans and null are accepted as values; nested
+     * objects and arrays are not.
+     */
+    private static class JsonObjectScanner {
+        private final String text;
+        private int pos;
+
+        JsonObjectScanner(String text) {
+            this.text = text;
+        }
+
+        void scan(Record record) {
+            skipSpace();
+            expect('{');
+            skipSpace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipSpace();
+                    String key = readString();
+                    skipSpace();
+                    expect(':');
+                    skipSpace();
+                    String value = readValue();
+                    for (int c = 0; c < COLUMNS.length; c++) {
+                        if (COLUMNS[c].equalsIgnoreCase(key)) {
+                            set(record, c, value != null ? value.trim() : null);
+                            break;
+                        }
+                    }
+                    skipSpace();
+                    char next = peek();
+                    pos++;
+                    if (next == '}') {
+                        break;
+                    }
+                    if (next != ',') {
+                        throw error("Expected , or }");
+                    }
+                }
+            }
+            skipSpace();
+            if (pos < text.length()) {
+                throw error("Unexpected text after the object");
+            }
+        }
+
+        /**
+         * @return Value as text, or null for a JSON null
+         */
+        private String readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw error("Nested values are not supported");
+            }
+            int start = pos;
+            while (pos < text.length() && ",}] \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("Missing value");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("Invalid escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> value.append(escaped); // \" \\ \/
+                }
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected " + c);
+            }
+            pos++;
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at column " + (pos + 1) + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Feed Reader
+ * Reads a feed file line by line and keeps the byte offset just after the
+ * last line read, so an import can later continue from exactly that point
+ * (see ImportCheckpoint) without reading the lines before it again.
+ * Lines end with \n or \r\n and are decoded as UTF-8.
+ */
+public class FeedReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private long offset;     // byte offset of the next unread line
+    private long lineNumber; // lines read so far, including skipped ones
+
+    public FeedReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.flip();
+    }
+
+    /**
+     * Continue reading at a line boundary found by an earlier read
+     * @param offset Byte offset returned by getOffset()
+     * @param lineNumber Line number returned by getLineNumber() at that offset
+     */
+    public void seek(long offset, long lineNumber) throws IOException {
+        channel.position(offset);
+        buffer.clear().flip();
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Read the next line
+     * @return Line without its line ending, or null at the end of the file
+     */
+    public String readLine() throws IOException {
+        byte[] bytes = buffer.array();
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read <= 0) {
+                    if (length == 0) {
+                        return null;
+                    }
+                    break; // last line has no line ending
+                }
+            }
+
+            // Copy up to the next newline in one go
+            int start = buffer.position();
+            int end = start;
+            int limit = buffer.limit();
+            while (end < limit && bytes[end] != '\n') {
+                end++;
+            }
+            int count = end - start;
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(bytes, start, line, length, count);
+            length += count;
+            offset += count;
+
+            if (end < limit) {
+                buffer.position(end + 1);
+                offset++;
+                break;
+            }
+            buffer.position(end);
+        }
+
+        lineNumber++;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the byte offset just after the last line read
+     * @return Offset of the next line
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the number of the last line read
+     * @return One-based line number, 0 before the first line
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Get the size of the feed
+     * @return Size in bytes
+     */
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,135 @@
+package importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Import Checkpoint
+ * How far the import of a feed has got: every line up to the byte offset
+ * has been either committed to the database or written to the rejects file.
+ * The feed's size and modification time are kept too, so a checkpoint is not
+ * applied to a different file of the same name.
+ * Stored in properties format and replaced atomically, so a crash leaves
+ * either the previous checkpoint or the new one.
+ */
+public class ImportCheckpoint {
+    private final long feedSize;
+    private final long feedModified;
+    private final long offset;
+    private final long lineNumber;
+    private final long importedRows;
+    private final long rejectedRows;
+    private final long rejectsLength;
+    private final boolean complete;
+
+    public ImportCheckpoint(long feedSize, long feedModified, long offset, long lineNumber,
+                            long importedRows, long rejectedRows, long rejectsLength, boolean complete) {
+        this.feedSize = feedSize;
+        this.feedModified = feedModified;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+        this.importedRows = importedRows;
+        this.rejectedRows = rejectedRows;
+        this.rejectsLength = rejectsLength;
+        this.complete = complete;
+    }
+
+    /**
+     * Read a checkpoint
+     * @param file Checkpoint file
+     * @return Checkpoint, or null if the file does not exist or cannot be read
+     */
+    public static ImportCheckpoint load(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return new ImportCheckpoint(
+                    Long.parseLong(properties.getProperty("feed.size")),
+                    Long.parseLong(properties.getProperty("feed.modified")),
+                    Long.parseLong(properties.getProperty("offset")),
+                    Long.parseLong(properties.getProperty("line")),
+                    Long.parseLong(properties.getProperty("rows.imported")),
+                    Long.parseLong(properties.getProperty("rows.rejected")),
+                    Long.parseLong(properties.getProperty("rejects.length")),
+                    Boolean.parseBoolean(properties.getProperty("complete")));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: ignoring unreadable import checkpoint " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the checkpoint, replacing the file atomically
+     * @param file Checkpoint file
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("feed.size", Long.toString(feedSize));
+        properties.setProperty("feed.modified", Long.toString(feedModified));
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("line", Long.toString(lineNumber));
+        properties.setProperty("rows.imported", Long.toString(importedRows));
+        properties.setProperty("rows.rejected", Long.toString(rejectedRows));
+        properties.setProperty("rejects.length", Long.toString(rejectsLength));
+        properties.setProperty("complete", Boolean.toString(complete));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Import progress; delete to import the feed from the start");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Check whether the checkpoint was made for the feed as it is now
+     * @param feed Feed file
+     * @return true if the feed's size and modification time are unchanged
+     */
+    public boolean matches(Path feed) throws IOException {
+        return Files.size(feed) == feedSize && Files.getLastModifiedTime(feed).toMillis() == feedModified;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Get the length of the rejects file when the checkpoint was made
+     * Rejects written after it belong to lines that will be read again.
+     * @return Length in bytes
+     */
+    public long getRejectsLength() {
+        return rejectsLength;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportCheckpoint{line=" + lineNumber + ", offset=" + offset + ", imported=" + importedRows
+                + ", rejected=" + rejectedRows + (complete ? ", complete" : "") + "}";
+    }
+}
@@ -0,0 +1,745 @@
+package importer;
+
+import dao.DAOFactory;
+import dao.ProductDAO;
+import dao.WarehouseDAO;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.Metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Import Pipeline
+ * Streams a supplier feed (CSV or NDJSON, see FeedParser) into warehouse
+ * stock and product prices. The stages run on their own threads, joined by
+ * bounded queues so a slow stage holds back the ones before it:
+ *  1. the reader cuts the feed into chunks of lines;
+ *  2. the parser parses each line and validates it against the catalog and
+ *     the warehouses (FeedDictionary); bad lines go to the rejects file;
+ *  3. the writers set stock levels and prices with the bulk DAO calls, each
+ *     on its own pooled connection. Rows are spread over the writers by
+ *     product, so all rows of a product are written in feed order by one
+ *     writer and the last row in the feed wins.
+ * Each writer sizes its batches so a commit takes about TARGET_BATCH_MILLIS,
+ * doubling or halving the size as commits get faster or slower, and retries
+ * a failed batch a few times before the import stops.
+ *
+ * Progress is saved to <feed>.checkpoint (see ImportCheckpoint) up to the
+ * last chunk every writer has committed. Setting stock levels and prices is
+ * idempotent, so a stopped import continues from the checkpoint when run
+ * again; at most the chunks after the checkpoint are written a second time.
+ * Rejected lines are listed in <feed>.rejects as "line, reason, text".
+ */
+public class ImportPipeline {
+    public static final int DEFAULT_WRITERS = 4;
+
+    private static final int CHUNK_LINES = 512;
+    private static final int QUEUED_CHUNKS = 16;
+    private static final int MIN_BATCH_ROWS = 100;
+    private static final int INITIAL_BATCH_ROWS = 1000;
+    private static final int MAX_BATCH_ROWS = 20_000;
+    private static final long TARGET_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long FLUSH_WAIT_MILLIS = 50; // commit a partial batch when no rows arrive for this long
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final long CHECKPOINT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Import Result
+     */
+    public static class Result {
+        private final long importedRows;
+        private final long rejectedRows;
+        private final long rowsThisRun;
+        private final long resumedAtLine;
+        private final double seconds;
+        private final boolean alreadyComplete;
+
+        public Result(long importedRows, long rejectedRows, long rowsThisRun, long resumedAtLine,
+                      double seconds, boolean alreadyComplete) {
+            this.importedRows = importedRows;
+            this.rejectedRows = rejectedRows;
+            this.rowsThisRun = rowsThisRun;
+            this.resumedAtLine = resumedAtLine;
+            this.seconds = seconds;
+            this.alreadyComplete = alreadyComplete;
+        }
+
+        /**
+         * @return Rows imported from the feed, including earlier runs
+         */
+        public long getImportedRows() {
+            return importedRows;
+        }
+
+        /**
+         * @return Lines rejected, including earlier runs
+         */
+        public long getRejectedRows() {
+            return rejectedRows;
+        }
+
+        public long getRowsThisRun() {
+            return rowsThisRun;
+        }
+
+        /**
+         * @return Line after which this run continued, 0 if it started at the beginning
+         */
+        public long getResumedAtLine() {
+            return resumedAtLine;
+        }
+
+        public double getSeconds() {
+            return seconds;
+        }
+
+        public double getRowsPerSecond() {
+            return seconds > 0 ? rowsThisRun / seconds : 0;
+        }
+
+        /**
+         * @return true if the checkpoint showed the feed was already imported
+         */
+        public boolean isAlreadyComplete() {
+            return alreadyComplete;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d rows imported, %,d rejected (%,d rows in %.1f s, %,.0f rows/s)",
+                    importedRows, rejectedRows, rowsThisRun, seconds, getRowsPerSecond());
+        }
+    }
+
+    private final DAOFactory daoFactory;
+    private final int writers;
+    private FeedParser.Format format; // null to choose by file name
+    private boolean fresh = false;
+    private long progressIntervalMillis = 5000;
+
+    public ImportPipeline(DAOFactory daoFactory, int writers) {
+        this.daoFactory = daoFactory;
+        this.writers = Math.max(1, writers);
+    }
+
+    /**
+     * Set the feed format instead of choosing it by file extension
+     * @param format Feed format
+     */
+    public void setFormat(FeedParser.Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Ignore any checkpoint and import the feed from the first line
+     * @param fresh true to start over
+     */
+    public void setFresh(boolean fresh) {
+        this.fresh = fresh;
+    }
+
+    /**
+     * Set how often a progress line is printed
+     * @param millis Interval in milliseconds, 0 for no progress lines
+     */
+    public void setProgressInterval(long millis) {
+        this.progressIntervalMillis = millis;
+    }
+
+    public static Path checkpointFile(Path feed) {
+        return feed.resolveSibling(feed.getFileName() + ".checkpoint");
+    }
+
+    public static Path rejectsFile(Path feed) {
+        return feed.resolveSibling(feed.getFileName() + ".rejects");
+    }
+
+    /**
+     * Import a feed, continuing from its checkpoint if there is one
+     * @param feed Feed file
+     * @return Result
+     * @throws IOException if the feed cannot be read or is not a valid feed
+     * @throws SQLException if a batch still fails after retries; the checkpoint is kept
+     */
+    public Result run(Path feed) throws IOException, SQLException {
+        if (!Files.isRegularFile(feed)) {
+            throw new IOException("Feed not found: " + feed);
+        }
+        Path checkpointFile = checkpointFile(feed);
+        ImportCheckpoint checkpoint = fresh ? null : ImportCheckpoint.load(checkpointFile);
+        if (checkpoint != null && !checkpoint.matches(feed)) {
+            System.out.println("⚠️ " + feed + " changed since its checkpoint; importing it from the start");
+            checkpoint = null;
+        }
+        if (checkpoint != null && checkpoint.isComplete()) {
+            System.out.println("✅ " + feed + " was already imported (delete " + checkpointFile.getFileName()
+                    + " or import with fresh to import it again)");
+            return new Result(checkpoint.getImportedRows(), checkpoint.getRejectedRows(), 0, 0, 0, true);
+        }
+
+        long start = System.nanoTime();
+        FeedDictionary dictionary = FeedDictionary.load(daoFactory.getProductDAO(), daoFactory.getWarehouseDAO());
+        System.out.printf("📚 Validating against %,d products and %,d warehouses%n",
+                dictionary.getProductCount(), dictionary.getWarehouseCount());
+
+        try (FeedReader reader = new FeedReader(feed)) {
+            FeedParser parser;
+            try {
+                parser = openParser(feed, reader);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(feed + ": " + e.getMessage(), e);
+            }
+
+            Mark base;
+            if (checkpoint != null) {
+                reader.seek(checkpoint.getOffset(), checkpoint.getLineNumber());
+                base = new Mark(checkpoint.getOffset(), checkpoint.getLineNumber(), checkpoint.getImportedRows(),
+                        checkpoint.getRejectedRows(), checkpoint.getRejectsLength());
+                System.out.printf("↩️ Continuing after line %,d (%,d rows imported before)%n",
+                        checkpoint.getLineNumber(), checkpoint.getImportedRows());
+            } else {
+                base = new Mark(reader.getOffset(), reader.getLineNumber(), 0, 0, 0);
+            }
+            return new Run(feed, reader, parser, dictionary, base, checkpoint != null).execute(start);
+        }
+    }
+
+    /**
+     * Create the parser, reading the header line of a CSV feed
+     */
+    private FeedParser openParser(Path feed, FeedReader reader) throws IOException {
+        FeedParser.Format feedFormat = format != null ? format : FeedParser.Format.of(feed);
+        if (feedFormat == FeedParser.Format.NDJSON) {
+            return FeedParser.ndjson();
+        }
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Feed is empty");
+        }
+        return FeedParser.csv(header);
+    }
+
+    /**
+     * Lines read together and passed between the stages
+     */
+    private static class Chunk {
+        final long seq;
+        final String[] lines;
+        final int count;
+        final long firstLine;
+        final long endOffset;
+        final long endLine;
+
+        Chunk(long seq, String[] lines, int count, long firstLine, long endOffset, long endLine) {
+            this.seq = seq;
+            this.lines = lines;
+            this.count = count;
+            this.firstLine = firstLine;
+            this.endOffset = endOffset;
+            this.endLine = endLine;
+        }
+    }
+
+    /**
+     * The valid rows of one chunk that go to one writer
+     */
+    private static class Slice {
+        final long seq;
+        final int[] warehouseIds;
+        final int[] productIds;
+        final int[] quantities;
+        final double[] prices; // NaN when the row has no price
+        int count;
+
+        Slice(long seq, int capacity) {
+            this.seq = seq;
+            this.warehouseIds = new int[capacity];
+            this.productIds = new int[capacity];
+            this.quantities = new int[capacity];
+            this.prices = new double[capacity];
+        }
+
+        void add(int warehouseId, int productId, int quantity, double price) {
+            warehouseIds[count] = warehouseId;
+            productIds[count] = productId;
+            quantities[count] = quantity;
+            prices[count] = price;
+            count++;
+        }
+    }
+
+    /**
+     * Rows a writer commits together
+     */
+    private static class Batch {
+        int[] warehouseIds = new int[INITIAL_BATCH_ROWS];
+        int[] productIds = new int[INITIAL_BATCH_ROWS];
+        int[] quantities = new int[INITIAL_BATCH_ROWS];
+        int[] priceProductIds = new int[INITIAL_BATCH_ROWS];
+        double[] prices = new double[INITIAL_BATCH_ROWS];
+        int count;
+        int priceCount;
+        long lastSeq = -1;
+
+        void add(Slice slice) {
+            if (count + slice.count > warehouseIds.length) {
+                int capacity = Math.max(warehouseIds.length * 2, count + slice.count);
+                warehouseIds = Arrays.copyOf(warehouseIds, capacity);
+                productIds = Arrays.copyOf(productIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                priceProductIds = Arrays.copyOf(priceProductIds, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            System.arraycopy(slice.warehouseIds, 0, warehouseIds, count, slice.count);
+            System.arraycopy(slice.productIds, 0, productIds, count, slice.count);
+            System.arraycopy(slice.quantities, 0, quantities, count, slice.count);
+            count += slice.count;
+            for (int i = 0; i < slice.count; i++) {
+                if (!Double.isNaN(slice.prices[i])) {
+                    priceProductIds[priceCount] = slice.productIds[i];
+                    prices[priceCount++] = slice.prices[i];
+                }
+            }
+            lastSeq = slice.seq;
+        }
+
+        void clear() {
+            count = 0;
+            priceCount = 0;
+        }
+    }
+
+    /**
+     * Where the feed stands after a chunk, with running totals
+     */
+    private static class Mark {
+        final long offset;
+        final long line;
+        final long validRows;
+        final long rejectedRows;
+        final long rejectsLength;
+
+        Mark(long offset, long line, long validRows, long rejectedRows, long rejectsLength) {
+            this.offset = offset;
+            this.line = line;
+            this.validRows = validRows;
+            this.rejectedRows = rejectedRows;
+            this.rejectsLength = rejectsLength;
+        }
+    }
+
+    /**
+     * Body of a stage thread
+     */
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private static final Chunk END_OF_CHUNKS = new Chunk(-1, new String[0], 0, 0, 0, 0);
+    private static final Slice END_OF_SLICES = new Slice(-1, 0);
+
+    /**
+     * State of one import
+     */
+    private class Run {
+        private final Path feed;
+        private final FeedReader reader;
+        private final FeedParser parser;
+        private final FeedDictionary dictionary;
+        private final Mark base;
+        private final boolean resumed;
+        private final Path checkpointFile;
+        private final Path rejectsFile;
+        private final long feedSize;
+        private final long feedModified;
+
+        private final BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+        private final List<BlockingQueue<Slice>> slices = new ArrayList<>();
+        private final ConcurrentHashMap<Long, Mark> marks = new ConcurrentHashMap<>();
+        private final AtomicLongArray committedSeq;
+        private final AtomicIntegerArray batchSizes;
+        private final LongAdder imported = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final CountDownLatch writersDone;
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private volatile long readOffset;
+
+        // Written by the parser; flushed under the lock before a checkpoint
+        private OutputStream rejects;
+        private long rejectsLength;
+
+        // Guarded by this
+        private long watermark = -1;
+        private Mark committed;
+        private long lastSave = System.nanoTime();
+
+        private final Counter importedCounter = Metrics.counter("store_import_rows_total", "status", "imported");
+        private final Counter rejectedCounter = Metrics.counter("store_import_rows_total", "status", "rejected");
+        private final Histogram batchTimer = Metrics.timer("store_import_batch_seconds");
+
+        Run(Path feed, FeedReader reader, FeedParser parser, FeedDictionary dictionary, Mark base, boolean resumed)
+                throws IOException {
+            this.feed = feed;
+            this.reader = reader;
+            this.parser = parser;
+            this.dictionary = dictionary;
+            this.base = base;
+            this.resumed = resumed;
+            this.committed = base;
+            this.checkpointFile = checkpointFile(feed);
+            this.rejectsFile = rejectsFile(feed);
+            this.feedSize = Files.size(feed);
+            this.feedModified = Files.getLastModifiedTime(feed).toMillis();
+            this.readOffset = base.offset;
+            this.rejectsLength = base.rejectsLength;
+            this.committedSeq = new AtomicLongArray(writers);
+            this.batchSizes = new AtomicIntegerArray(writers);
+            this.writersDone = new CountDownLatch(writers);
+            for (int w = 0; w < writers; w++) {
+                slices.add(new ArrayBlockingQueue<>(QUEUED_CHUNKS));
+                committedSeq.set(w, -1);
+                batchSizes.set(w, INITIAL_BATCH_ROWS);
+            }
+        }
+
+        Result execute(long start) throws IOException, SQLException {
+            // Rejects after the checkpoint belong to lines that are read again
+            if (!resumed) {
+                Files.deleteIfExists(rejectsFile);
+            } else if (Files.exists(rejectsFile)) {
+                try (FileChannel channel = FileChannel.open(rejectsFile, StandardOpenOption.WRITE)) {
+                    channel.truncate(base.rejectsLength);
+                }
+            }
+
+            start("import-reader", this::read, false);
+            start("import-parser", this::parse, false);
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                start("import-writer-" + w, () -> write(writer), true);
+            }
+
+            long wait = progressIntervalMillis > 0 ? progressIntervalMillis : 1000;
+            try {
+                while (!writersDone.await(wait, TimeUnit.MILLISECONDS) && failure.get() == null) {
+                    if (progressIntervalMillis > 0) {
+                        printProgress(start);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(new IOException("Import interrupted"));
+            }
+            joinAll();
+
+            Exception error = failure.get();
+            try {
+                saveCheckpoint(error == null);
+            } catch (IOException e) {
+                if (error == null) {
+                    throw e;
+                }
+                error.addSuppressed(e);
+            } finally {
+                closeRejects();
+            }
+
+            long rows = imported.sum();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (error != null) {
+                System.out.printf("❌ Import stopped after line %,d: %s%n", committed.line, error.getMessage());
+                System.out.println("💡 Run the import again to continue from there");
+                if (error instanceof SQLException sql) {
+                    throw sql;
+                }
+                if (error instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException(error.getMessage(), error);
+            }
+
+            Result result = new Result(committed.validRows, committed.rejectedRows, rows, resumed ? base.line : 0,
+                    seconds, false);
+            if (result.getRejectedRows() > 0) {
+                System.out.printf("⚠️ %,d lines rejected, see %s%n", result.getRejectedRows(), rejectsFile);
+            }
+            return result;
+        }
+
+        private void start(String name, Stage stage, boolean writer) {
+            Thread thread = Thread.ofPlatform().daemon().name(name).start(() -> {
+                try {
+                    stage.run();
+                } catch (InterruptedException e) {
+                    // stopped because another stage failed
+                } catch (Exception e) {
+                    fail(e);
+                } finally {
+                    if (writer) {
+                        writersDone.countDown();
+                    }
+                }
+            });
+            threads.add(thread);
+            if (failure.get() != null) {
+                thread.interrupt(); // a stage failed before this one started
+            }
+        }
+
+        /**
+         * Record the first failure and stop every stage
+         */
+        private void fail(Exception e) {
+            if (failure.compareAndSet(null, e)) {
+                for (Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        private void joinAll() {
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Reader stage: cut the feed into chunks
+         */
+        private void read() throws IOException, InterruptedException {
+            long seq = 0;
+            while (true) {
+                String[] lines = new String[CHUNK_LINES];
+                long firstLine = reader.getLineNumber() + 1;
+                int count = 0;
+                String line;
+                while (count < CHUNK_LINES && (line = reader.readLine()) != null) {
+                    lines[count++] = line;
+                }
+                if (count > 0) {
+                    chunks.put(new Chunk(seq++, lines, count, firstLine, reader.getOffset(), reader.getLineNumber()));
+                    readOffset = reader.getOffset();
+                }
+                if (count < CHUNK_LINES) {
+                    break;
+                }
+            }
+            chunks.put(END_OF_CHUNKS);
+        }
+
+        /**
+         * Parser stage: parse, validate and spread the rows over the writers
+         */
+        private void parse() throws IOException, InterruptedException {
+            long validRows = base.validRows;
+            long rejectedRows = base.rejectedRows;
+            while (true) {
+                Chunk chunk = chunks.take();
+                if (chunk == END_OF_CHUNKS) {
+                    break;
+                }
+
+                Slice[] out = new Slice[writers];
+                for (int w = 0; w < writers; w++) {
+                    out[w] = new Slice(chunk.seq, chunk.count);
+                }
+                for (int i = 0; i < chunk.count; i++) {
+                    String line = chunk.lines[i];
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        FeedParser.Record record = parser.parse(line);
+                        int productId = dictionary.productId(record);
+                        int warehouseId = dictionary.warehouseId(record);
+                        out[productId % writers].add(warehouseId, productId, record.getQuantity(), record.getPrice());
+                        validRows++;
+                    } catch (IllegalArgumentException e) {
+                        reject(chunk.firstLine + i, e.getMessage(), line);
+                        rejectedRows++;
+                    }
+                }
+
+                marks.put(chunk.seq, new Mark(chunk.endOffset, chunk.endLine, validRows, rejectedRows, rejectsLength));
+                for (int w = 0; w < writers; w++) {
+                    slices.get(w).put(out[w]);
+                }
+            }
+            for (int w = 0; w < writers; w++) {
+                slices.get(w).put(END_OF_SLICES);
+            }
+        }
+
+        private void reject(long lineNumber, String reason, String line) throws IOException {
+            byte[] bytes = (lineNumber + "\t" + reason + "\t" + line + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (this) {
+                if (rejects == null) {
+                    rejects = new BufferedOutputStream(Files.newOutputStream(rejectsFile,
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), 1 << 16);
+                }
+                rejects.write(bytes);
+                rejectsLength += bytes.length;
+            }
+            rejected.increment();
+            rejectedCounter.increment();
+        }
+
+        /**
+         * Writer stage: commit this writer's rows in adaptively sized batches
+         */
+        private void write(int writer) throws SQLException, IOException, InterruptedException {
+            BlockingQueue<Slice> queue = slices.get(writer);
+            Batch batch = new Batch();
+            int target = INITIAL_BATCH_ROWS;
+            while (true) {
+                Slice slice = batch.count == 0 ? queue.take() : queue.poll(FLUSH_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                if (slice != null && slice != END_OF_SLICES) {
+                    if (batch.count == 0 && slice.count == 0) {
+                        committed(writer, slice.seq); // nothing of this chunk for this writer
+                        continue;
+                    }
+                    batch.add(slice);
+                    if (batch.count < target) {
+                        continue;
+                    }
+                }
+
+                if (batch.count > 0) {
+                    target = commit(writer, batch, target);
+                    committed(writer, batch.lastSeq);
+                    batch.clear();
+                }
+                if (slice == END_OF_SLICES) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Write a batch, retrying failures, and adjust the batch size
+         * @return Batch size to aim for next
+         */
+        private int commit(int writer, Batch batch, int target) throws SQLException, InterruptedException {
+            WarehouseDAO warehouseDAO = daoFactory.getWarehouseDAO();
+            ProductDAO productDAO = daoFactory.getProductDAO();
+            for (int attempt = 1; ; attempt++) {
+                long start = System.nanoTime();
+                try {
+                    warehouseDAO.setInventory(batch.warehouseIds, batch.productIds, batch.quantities, batch.count);
+                    if (batch.priceCount > 0) {
+                        productDAO.updatePrices(batch.priceProductIds, batch.prices, batch.priceCount);
+                    }
+                } catch (SQLException e) {
+                    if (attempt == MAX_ATTEMPTS || Thread.currentThread().isInterrupted()) {
+                        throw e;
+                    }
+                    System.err.println("Warning: writing " + batch.count + " rows failed (" + e.getMessage()
+                            + "), retrying");
+                    target = Math.max(MIN_BATCH_ROWS, target / 2);
+                    batchSizes.set(writer, target);
+                    Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+                    continue;
+                }
+
+                long elapsed = System.nanoTime() - start;
+                batchTimer.record(elapsed);
+                imported.add(batch.count);
+                importedCounter.add(batch.count);
+
+                if (elapsed < TARGET_BATCH_NANOS / 2 && batch.count >= target) {
+                    target = Math.min(MAX_BATCH_ROWS, target * 2);
+                } else if (elapsed > TARGET_BATCH_NANOS * 2) {
+                    target = Math.max(MIN_BATCH_ROWS, target / 2);
+                }
+                batchSizes.set(writer, target);
+                return target;
+            }
+        }
+
+        /**
+         * Note that a writer has committed every row of the chunks up to seq
+         * and move the checkpoint to the last chunk all writers have committed
+         */
+        private void committed(int writer, long seq) throws IOException {
+            committedSeq.set(writer, seq);
+            long low = Long.MAX_VALUE;
+            for (int w = 0; w < writers; w++) {
+                low = Math.min(low, committedSeq.get(w));
+            }
+
+            synchronized (this) {
+                if (low <= watermark) {
+                    return;
+                }
+                Mark mark = marks.get(low);
+                for (long s = watermark + 1; s <= low; s++) {
+                    marks.remove(s);
+                }
+                watermark = low;
+                committed = mark;
+                if (System.nanoTime() - lastSave >= CHECKPOINT_INTERVAL_NANOS) {
+                    saveCheckpoint(false);
+                }
+            }
+        }
+
+        private synchronized void saveCheckpoint(boolean complete) throws IOException {
+            if (rejects != null) {
+                rejects.flush(); // the checkpoint must not count rejects that are not in the file yet
+            }
+            new ImportCheckpoint(feedSize, feedModified, committed.offset, committed.line, committed.validRows,
+                    committed.rejectedRows, committed.rejectsLength, complete).save(checkpointFile);
+            lastSave = System.nanoTime();
+        }
+
+        private synchronized void closeRejects() throws IOException {
+            if (rejects != null) {
+                rejects.close();
+                rejects = null;
+            }
+        }
+
+        private void printProgress(long start) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long rows = imported.sum();
+            long batchRows = 0;
+            for (int w = 0; w < writers; w++) {
+                batchRows += batchSizes.get(w);
+            }
+            System.out.printf("📥 %,d rows imported, %,d rejected | %.0f%% of %s read | %,.0f rows/s | batches of ~%,d rows%n",
+                    base.validRows + rows, base.rejectedRows + rejected.sum(),
+                    feedSize > 0 ? 100.0 * readOffset / feedSize : 100.0, feed.getFileName(),
+                    rows / seconds, batchRows / writers);
+            System.out.flush();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package loadtest;
+
+import config.DBConnection;
+import dao.DAOFactory;
+import dao.OrderProcessor;
+import metrics.Histogram;
+import models.City;
+import models.Order;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Order Load Generator
+ * Replays a mix of orders against OrderProcessor.processOrder at a fixed rate.
+ * The generator is open-loop: order i is due at start + i / rate whether or not
+ * earlier orders have finished, and its latency is measured from that due time.
+ * Queueing behind slow orders therefore shows up in the percentiles instead of
+ * silently lowering the offered load (coordinated omission).
+ *
+ * Runs against the database configured for DBConnection (point it at another
+ * MySQL-compatible server with -Ddb.url=... -Ddb.user=... -Ddb.password=...),
+ * or with --backend memory against the in-memory DAOs (see DAOFactory).
+ *
+ * Usage: java loadtest.OrderLoadGenerator [--rate 50] [--duration 30] [--warmup 5]
+ *        [--threads 8] [--quantity 1] [--seed 42] [--backend jdbc|memory]
+ *        [--mix standard=70,fast=20,unknown-product=5,unknown-city=5]
+ */
+public class OrderLoadGenerator {
+
+    /**
+     * Kinds of orders in the mix
+     */
+    public enum OrderType {
+        STANDARD("standard", true),
+        FAST("fast", true),
+        UNKNOWN_PRODUCT("unknown-product", false),
+        UNKNOWN_CITY("unknown-city", false);
+
+        private final String label;
+        private final boolean expectedToSucceed;
+
+        OrderType(String label, boolean expectedToSucceed) {
+            this.label = label;
+            this.expectedToSucceed = expectedToSucceed;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public boolean isExpectedToSucceed() {
+            return expectedToSucceed;
+        }
+
+        static OrderType fromLabel(String label) {
+            for (OrderType type : values()) {
+                if (type.label.equalsIgnoreCase(label)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown order type: " + label);
+        }
+    }
+
+    private final OrderProcessor orderProcessor;
+    private final List<String> productNames;
+    private final List<String> cityNames;
+    private final Map<OrderType, Integer> mix;
+
+    private double rate = 50;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private int threads = 8;
+    private int quantity = 1;
+    private long seed = 42;
+
+    // Results of the measured phase
+    private final Histogram latency = new Histogram();
+    private final Map<OrderType, Histogram> latencyByType = new EnumMap<>(OrderType.class);
+    private final Map<OrderProcessor.Stage, Histogram> stageLatency = new EnumMap<>(OrderProcessor.Stage.class);
+    private final Map<OrderType, LongAdder> succeeded = new EnumMap<>(OrderType.class);
+    private final Map<OrderType, LongAdder> failed = new EnumMap<>(OrderType.class);
+    private final ThreadLocal<Boolean> measuring = ThreadLocal.withInitial(() -> false);
+    private long maxDispatchLagNanos;
+
+    public OrderLoadGenerator(OrderProcessor orderProcessor, List<String> productNames, List<String> cityNames,
+                              Map<OrderType, Integer> mix) {
+        this.orderProcessor = orderProcessor;
+        this.productNames = productNames;
+        this.cityNames = cityNames;
+        this.mix = mix;
+
+        for (OrderType type : OrderType.values()) {
+            latencyByType.put(type, new Histogram());
+            succeeded.put(type, new LongAdder());
+            failed.put(type, new LongAdder());
+        }
+        for (OrderProcessor.Stage stage : OrderProcessor.Stage.values()) {
+            stageLatency.put(stage, new Histogram());
+        }
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Run the warm-up and measured phases and print the report
+     */
+    public void run() throws InterruptedException {
+        orderProcessor.setStageListener((stage, nanos) -> {
+            if (measuring.get()) {
+                stageLatency.get(stage).record(nanos);
+            }
+        });
+
+        Random random = new Random(seed);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long roundTripsAtStart = -1;
+
+        // Failure messages would serialize the workers on System.out and flood the terminal
+        orderProcessor.setQuiet(true);
+        try {
+            for (long i = 0; ; i++) {
+                long due = start + i * intervalNanos;
+                if (due >= end) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < due) {
+                    LockSupport.parkNanos(due - now);
+                }
+
+                boolean measured = due >= measureStart;
+                if (measured) {
+                    if (roundTripsAtStart == -1) {
+                        roundTripsAtStart = DBConnection.getRoundTripCount();
+                    }
+                    maxDispatchLagNanos = Math.max(maxDispatchLagNanos, now - due);
+                }
+
+                OrderType type = pickType(random);
+                String product = type == OrderType.UNKNOWN_PRODUCT
+                        ? "NoSuchProduct" + i
+                        : productNames.get(random.nextInt(productNames.size()));
+                String city = type == OrderType.UNKNOWN_CITY
+                        ? "NoSuchCity" + i
+                        : cityNames.get(random.nextInt(cityNames.size()));
+                workers.execute(() -> placeOrder(type, product, city, due, measured));
+            }
+
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.HOURS);
+        } finally {
+            orderProcessor.setQuiet(false);
+            orderProcessor.setStageListener(null);
+        }
+
+        long roundTrips = roundTripsAtStart == -1 ? 0 : DBConnection.getRoundTripCount() - roundTripsAtStart;
+        printReport(roundTrips, (System.nanoTime() - measureStart) / 1e9);
+    }
+
+    private OrderType pickType(Random random) {
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            totalWeight += weight;
+        }
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<OrderType, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        return OrderType.STANDARD;
+    }
+
+    private void placeOrder(OrderType type, String product, String city, long due, boolean measured) {
+        measuring.set(measured);
+        Order order = orderProcessor.processOrder(product, city, quantity, type == OrderType.FAST);
+        long elapsed = System.nanoTime() - due;
+        measuring.set(false);
+
+        if (measured) {
+            latency.record(elapsed);
+            latencyByType.get(type).record(elapsed);
+            (order != null ? succeeded : failed).get(type).increment();
+        }
+    }
+
+    private void printReport(long roundTrips, double measuredSeconds) {
+        long orders = latency.getCount();
+        System.out.println();
+        System.out.println("📈 Order load test");
+        System.out.printf("Target rate: %.1f orders/s, achieved: %.1f orders/s over %.1f s (%d orders, %d threads)%n",
+                rate, orders / measuredSeconds, measuredSeconds, orders, threads);
+        System.out.printf("Max dispatch lag: %.2f ms%n", maxDispatchLagNanos / 1e6);
+        System.out.printf("DB round trips per order: %.2f%n", orders == 0 ? 0.0 : (double) roundTrips / orders);
+
+        System.out.println();
+        System.out.printf("%-16s %8s %8s %8s %9s%n", "Order type", "Orders", "OK", "Failed", "Error %");
+        for (OrderType type : OrderType.values()) {
+            long ok = succeeded.get(type).sum();
+            long bad = failed.get(type).sum();
+            if (ok + bad == 0) {
+                continue;
+            }
+            // Orders for unknown products or cities are errors when they succeed
+            long errors = type.isExpectedToSucceed() ? bad : ok;
+            System.out.printf("%-16s %8d %8d %8d %8.2f%%%n", type.getLabel(), ok + bad, ok, bad, 100.0 * errors / (ok + bad));
+        }
+
+        System.out.println();
+        System.out.printf("%-22s %8s %9s %9s %9s %9s %9s %9s%n", "Latency (ms)", "Count", "Mean", "p50", "p90", "p99", "p99.9", "Max");
+        printLatency("end-to-end", latency);
+        for (OrderType type : OrderType.values()) {
+            printLatency("  " + type.getLabel(), latencyByType.get(type));
+        }
+        for (OrderProcessor.Stage stage : OrderProcessor.Stage.values()) {
+            printLatency("stage " + stage.name().toLowerCase(), stageLatency.get(stage));
+        }
+    }
+
+    private static void printLatency(String label, Histogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        System.out.printf("%-22s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label, histogram.getCount(),
+                histogram.getMean() / 1e6,
+                histogram.getPercentile(50) / 1e6,
+                histogram.getPercentile(90) / 1e6,
+                histogram.getPercentile(99) / 1e6,
+                histogram.getPercentile(99.9) / 1e6,
+                histogram.getMax() / 1e6);
+    }
+
+    /**
+     * Parse a mix such as "standard=70,fast=20,unknown-product=5,unknown-city=5"
+     * @param spec Mix specification
+     * @return Weight per order type
+     */
+    static Map<OrderType, Integer> parseMix(String spec) {
+        Map<OrderType, Integer> mix = new EnumMap<>(OrderType.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            mix.put(OrderType.fromLabel(pair[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    public static void main(String[] args) {
+        String mixSpec = "standard=70,fast=20,unknown-product=5,unknown-city=5";
+        double rate = 50;
+        int duration = 30;
+        int warmup = 5;
+        int threads = 8;
+        int quantity = 1;
+        long seed = 42;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--rate" -> rate = Double.parseDouble(args[++i]);
+                    case "--duration" -> duration = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--quantity" -> quantity = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--mix" -> mixSpec = args[++i];
+                    case "--backend" -> System.setProperty("store.backend", args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (rate <= 0 || duration <= 0 || threads <= 0) {
+                throw new IllegalArgumentException("--rate, --duration and --threads must be positive");
+            }
+
+            DAOFactory daoFactory = DAOFactory.getInstance();
+            List<String> productNames = new ArrayList<>();
+            daoFactory.getProductDAO().forEachProductByName(product -> productNames.add(product.getName()));
+            List<String> cityNames = new ArrayList<>();
+            for (City city : daoFactory.getCityDAO().getAllCities()) {
+                cityNames.add(city.getName());
+            }
+            if (productNames.isEmpty() || cityNames.isEmpty()) {
+                System.err.println("No products or cities found; load a dataset first (see generator.DatasetGenerator)");
+                System.exit(1);
+            }
+
+            OrderLoadGenerator generator = new OrderLoadGenerator(new OrderProcessor(daoFactory), productNames, cityNames, parseMix(mixSpec));
+            generator.setRate(rate);
+            generator.setDurationSeconds(duration);
+            generator.setWarmupSeconds(warmup);
+            generator.setThreads(threads);
+            generator.setQuantity(quantity);
+            generator.setSeed(seed);
+
+            System.out.printf("🚀 %s backend, %d products, %d cities; %.1f orders/s for %d s after %d s warm-up%n",
+                    daoFactory.getBackend(), productNames.size(), cityNames.size(), rate, duration, warmup);
+            generator.run();
+        } catch (Exception e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+}
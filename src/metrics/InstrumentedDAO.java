@@ -0,0 +1,95 @@
+package metrics;
+
+import profiling.DaoQueryEvent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instrumented DAO
+ * Wraps a DAO interface in a proxy that times every method call into
+ * store_dao_call_seconds{dao, method} and counts failures into
+ * store_dao_errors_total{dao, method}, and emits a DaoQueryEvent for Flight
+ * Recorder. Timers are resolved once per method when the proxy is created,
+ * so a call costs two clock reads and one histogram update on top of the
+ * DAO itself.
+ */
+public final class InstrumentedDAO {
+
+    private InstrumentedDAO() {
+    }
+
+    /**
+     * Wrap a DAO
+     * @param daoInterface DAO interface to expose
+     * @param target Implementation to time
+     * @return Timed proxy implementing the interface
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> daoInterface, T target) {
+        String dao = daoInterface.getSimpleName();
+        Map<Method, Histogram> timers = new HashMap<>();
+        Map<Method, Counter> errors = new HashMap<>();
+        Map<Method, String> queries = new HashMap<>();
+        for (Method method : daoInterface.getMethods()) {
+            queries.put(method, dao + "." + method.getName());
+            timers.put(method, Metrics.timer("store_dao_call_seconds", "dao", dao, "method", method.getName()));
+            errors.put(method, Metrics.counter("store_dao_errors_total", "dao", dao, "method", method.getName()));
+        }
+
+        return (T) Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[]{daoInterface}, (proxy, method, args) -> {
+            Histogram timer = timers.get(method);
+            if (timer == null) {
+                // equals, hashCode and toString
+                return method.invoke(target, args);
+            }
+
+            DaoQueryEvent event = new DaoQueryEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Object result = null;
+            boolean failed = true;
+            try {
+                result = method.invoke(target, args);
+                failed = false;
+                return result;
+            } catch (InvocationTargetException e) {
+                errors.get(method).increment();
+                throw e.getCause();
+            } finally {
+                timer.record(System.nanoTime() - start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.query = queries.get(method);
+                    event.rows = failed ? -1 : rowCount(result);
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        });
+    }
+
+    /**
+     * Estimate the rows behind a DAO result
+     * @return Collection size, 1/0 for single objects and flags, -1 for numbers
+     */
+    private static int rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Boolean flag) {
+            return flag ? 1 : 0;
+        }
+        return result instanceof Number ? -1 : 1;
+    }
+}
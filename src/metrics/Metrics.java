@@ -0,0 +1,110 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics Registry
+ * Application-wide timers (histograms of nanoseconds) and counters.
+ * Series are identified Prometheus-style by a name plus label pairs, e.g.
+ * store_dao_call_seconds{dao="ProductDAO",method="getProductByName"}.
+ * Look-ups go through a concurrent map, so hot paths keep the returned
+ * Histogram or Counter in a field instead of looking it up per event.
+ * Set the system property store.metrics=false to skip DAO instrumentation.
+ */
+public final class Metrics {
+    private static final ConcurrentHashMap<String, Histogram> timers = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private static volatile long startNanos = System.nanoTime();
+
+    private Metrics() {
+    }
+
+    /**
+     * Check whether optional instrumentation should be installed
+     * @return false if disabled with -Dstore.metrics=false
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("store.metrics"));
+    }
+
+    /**
+     * Get or create a timer
+     * @param name Metric name
+     * @param labels Alternating label names and values
+     * @return Histogram recording nanoseconds
+     */
+    public static Histogram timer(String name, String... labels) {
+        return timers.computeIfAbsent(series(name, labels), key -> new Histogram());
+    }
+
+    /**
+     * Get or create a counter
+     * @param name Metric name
+     * @param labels Alternating label names and values
+     * @return Counter
+     */
+    public static Counter counter(String name, String... labels) {
+        return counters.computeIfAbsent(series(name, labels), key -> new Counter());
+    }
+
+    /**
+     * Build the series key for a name and labels
+     */
+    static String series(String name, String... labels) {
+        if (labels.length == 0) {
+            return name;
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+
+        StringBuilder key = new StringBuilder(name).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return key.append('}').toString();
+    }
+
+    /**
+     * Get all timers
+     * @return Timers by series key, sorted
+     */
+    public static Map<String, Histogram> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    /**
+     * Get all counters
+     * @return Counters by series key, sorted
+     */
+    public static Map<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    /**
+     * Get the time since startup or the last reset
+     * @return Elapsed seconds
+     */
+    public static double getElapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    /**
+     * Clear all recorded values (registered series are kept)
+     */
+    public static void reset() {
+        for (Histogram timer : timers.values()) {
+            timer.reset();
+        }
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        startNanos = System.nanoTime();
+    }
+}
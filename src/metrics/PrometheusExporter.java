@@ -0,0 +1,88 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * Prometheus Exporter
+ * Renders the metrics registry in the Prometheus text exposition format.
+ * Timers become summaries in seconds (0.5/0.9/0.99/0.999 quantiles, _sum,
+ * _count), counters become counters. The file can be served as-is or picked
+ * up by the node exporter's textfile collector.
+ */
+public final class PrometheusExporter {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusExporter() {
+    }
+
+    /**
+     * Render all metrics
+     * @return Exposition text
+     */
+    public static String export() {
+        StringBuilder out = new StringBuilder();
+        String currentName = null;
+
+        for (Map.Entry<String, Histogram> entry : Metrics.getTimers().entrySet()) {
+            Histogram histogram = entry.getValue();
+            String name = nameOf(entry.getKey());
+            String labels = labelsOf(entry.getKey());
+            if (!name.equals(currentName)) {
+                out.append("# TYPE ").append(name).append(" summary\n");
+                currentName = name;
+            }
+
+            for (double quantile : QUANTILES) {
+                out.append(name).append(withLabel(labels, "quantile", format(quantile))).append(' ')
+                        .append(format(histogram.getPercentile(quantile * 100) / 1e9)).append('\n');
+            }
+            out.append(name).append("_sum").append(labels).append(' ').append(format(histogram.getSum() / 1e9)).append('\n');
+            out.append(name).append("_count").append(labels).append(' ').append(histogram.getCount()).append('\n');
+        }
+
+        currentName = null;
+        for (Map.Entry<String, Counter> entry : Metrics.getCounters().entrySet()) {
+            String name = nameOf(entry.getKey());
+            if (!name.equals(currentName)) {
+                out.append("# TYPE ").append(name).append(" counter\n");
+                currentName = name;
+            }
+            out.append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Write all metrics to a file
+     * @param file Target file, replaced if it exists
+     */
+    public static void writeTo(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, export());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String nameOf(String series) {
+        int brace = series.indexOf('{');
+        return brace == -1 ? series : series.substring(0, brace);
+    }
+
+    private static String labelsOf(String series) {
+        int brace = series.indexOf('{');
+        return brace == -1 ? "" : series.substring(brace);
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    private static String format(double value) {
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,53 @@
+package metrics;
+
+/**
+ * Search Metrics
+ * Timer and work counters of one graph search algorithm:
+ *  - store_search_seconds{algorithm}                time per call
+ *  - store_search_nodes_settled_total{algorithm}    cities settled / visited
+ *  - store_search_edges_relaxed_total{algorithm}    edges examined from settled cities
+ * Searches count their work in local variables and report it once per call,
+ * so the inner loops stay free of shared writes.
+ */
+public final class SearchMetrics {
+    private final String algorithm;
+    private final Histogram timer;
+    private final Counter nodesSettled;
+    private final Counter edgesRelaxed;
+
+    private SearchMetrics(String algorithm) {
+        this.algorithm = algorithm;
+        this.timer = Metrics.timer("store_search_seconds", "algorithm", algorithm);
+        this.nodesSettled = Metrics.counter("store_search_nodes_settled_total", "algorithm", algorithm);
+        this.edgesRelaxed = Metrics.counter("store_search_edges_relaxed_total", "algorithm", algorithm);
+    }
+
+    /**
+     * Get the metrics of an algorithm
+     * @param algorithm Label value, e.g. "dijkstra"
+     * @return Search metrics (keep in a static field)
+     */
+    public static SearchMetrics forAlgorithm(String algorithm) {
+        return new SearchMetrics(algorithm);
+    }
+
+    /**
+     * Get the algorithm label
+     * @return Algorithm label value
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Record one search
+     * @param startNanos System.nanoTime() when the search started
+     * @param settled Cities settled
+     * @param relaxed Edges examined
+     */
+    public void record(long startNanos, long settled, long relaxed) {
+        timer.record(System.nanoTime() - startNanos);
+        nodesSettled.add(settled);
+        edgesRelaxed.add(relaxed);
+    }
+}
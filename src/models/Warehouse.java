@@ -1,7 +1,6 @@
 package models;
 
-import java.util.HashMap;
-import java.util.Map;
+import dsa.IntIntHashMap;
 
 /**
  * Warehouse Model
@@ -14,11 +13,11 @@ public class Warehouse {
     private String cityName;
     private String address;
     private int capacity;
-    private Map<Integer, Integer> inventory; // productId -> quantity
+    private IntIntHashMap inventory; // productId -> quantity
 
     // Default constructor
     public Warehouse() {
-        this.inventory = new HashMap<>();
+        this.inventory = new IntIntHashMap();
     }
 
     // Basic constructor
@@ -26,7 +25,7 @@ public class Warehouse {
         this.id = id;
         this.name = name;
         this.cityId = cityId;
-        this.inventory = new HashMap<>();
+        this.inventory = new IntIntHashMap();
     }
 
     // Constructor with city name
@@ -35,7 +34,7 @@ public class Warehouse {
         this.name = name;
         this.cityId = cityId;
         this.cityName = cityName;
-        this.inventory = new HashMap<>();
+        this.inventory = new IntIntHashMap();
     }
 
     // Full constructor
@@ -46,7 +45,7 @@ public class Warehouse {
         this.cityName = cityName;
         this.address = address;
         this.capacity = capacity;
-        this.inventory = new HashMap<>();
+        this.inventory = new IntIntHashMap();
     }
 
     // Getters and Setters
@@ -98,21 +97,22 @@ public class Warehouse {
         this.capacity = capacity;
     }
 
-    public Map<Integer, Integer> getInventory() {
+    public IntIntHashMap getInventory() {
         return inventory;
     }
 
-    public void setInventory(Map<Integer, Integer> inventory) {
+    public void setInventory(IntIntHashMap inventory) {
         this.inventory = inventory;
     }
 
     // Business methods
     public boolean hasProduct(int productId) {
-        return inventory.containsKey(productId) && inventory.get(productId) > 0;
+        return inventory.getOrDefault(productId, 0) > 0;
     }
 
     public boolean hasStock(int productId, int requiredQuantity) {
-        return inventory.containsKey(productId) && inventory.get(productId) >= requiredQuantity;
+        int quantity = inventory.getOrDefault(productId, -1);
+        return quantity >= 0 && quantity >= requiredQuantity;
     }
 
     public int getProductQuantity(int productId) {
@@ -120,16 +120,13 @@ public class Warehouse {
     }
 
     public void addProduct(int productId, int quantity) {
-        inventory.put(productId, inventory.getOrDefault(productId, 0) + quantity);
+        inventory.addTo(productId, quantity);
     }
 
     public boolean removeProduct(int productId, int quantity) {
         if (hasStock(productId, quantity)) {
-            int currentQuantity = inventory.get(productId);
-            if (currentQuantity == quantity) {
+            if (inventory.addTo(productId, -quantity) == 0) {
                 inventory.remove(productId);
-            } else {
-                inventory.put(productId, currentQuantity - quantity);
             }
             return true;
         }
@@ -137,7 +134,7 @@ public class Warehouse {
     }
 
     public int getTotalProducts() {
-        return inventory.values().stream().mapToInt(Integer::intValue).sum();
+        return (int) inventory.sumValues();
     }
 
     public boolean isAtCapacity() {
@@ -0,0 +1,38 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Cache Event
+ * Flight Recorder event for a cache look-up; the duration of a miss
+ * includes rebuilding the cached value
+ */
+@Name("store.Cache")
+@Label("Cache Access")
+@Category({"StoreAlgorithms", "Routing"})
+@Description("Hit or miss on a derived routing structure")
+public class CacheEvent extends Event {
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    public boolean hit;
+
+    /**
+     * Fill in and commit the event if it is enabled and over its threshold
+     * @param cache Cache name
+     * @param hit true if the cached value was used
+     */
+    public void finish(String cache, boolean hit) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.hit = hit;
+            commit();
+        }
+    }
+}
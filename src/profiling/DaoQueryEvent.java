@@ -0,0 +1,29 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * DAO Query Event
+ * Flight Recorder event for one DAO method call, recorded by InstrumentedDAO.
+ * The query id is "Interface.method"; the JDBC time inside it shows up as
+ * jdk.SocketRead events on the same thread.
+ */
+@Name("store.DaoQuery")
+@Label("DAO Query")
+@Category({"StoreAlgorithms", "Data Access"})
+@Description("One data access call")
+public class DaoQueryEvent extends Event {
+    @Label("Query")
+    public String query;
+
+    @Label("Rows")
+    @Description("Rows returned or changed, -1 if not known")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
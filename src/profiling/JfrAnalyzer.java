@@ -0,0 +1,402 @@
+package profiling;
+
+import dao.OrderProcessor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import metrics.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JFR Analyzer
+ * Summarizes a Flight Recorder recording made with store.jfc:
+ *  - order latency and the per-stage breakdown of order time
+ *  - graph searches per algorithm with the work they did
+ *  - DAO queries ranked by total time, and cache hit rates
+ *  - the slowest orders next to the GC pauses, lock waits, parking and
+ *    socket reads (JDBC round trips) that overlapped them
+ *
+ * Usage: java profiling.JfrAnalyzer <recording.jfr> [--top 10]
+ */
+public class JfrAnalyzer {
+    private static final String[] WAIT_KINDS = {"GC", "Lock", "Park", "Socket"};
+    private static final int GC = 0;
+    private static final int LOCK = 1;
+    private static final int PARK = 2;
+    private static final int SOCKET = 3;
+
+    /**
+     * Time span of an event in epoch nanoseconds
+     */
+    private static class Interval {
+        final long start;
+        final long end;
+
+        Interval(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long duration() {
+            return end - start;
+        }
+    }
+
+    /**
+     * One recorded order with the time it spent waiting
+     */
+    private static class OrderSpan extends Interval {
+        final long threadId;
+        final boolean fulfilled;
+        final boolean fastDelivery;
+        final long[] waits = new long[WAIT_KINDS.length];
+
+        OrderSpan(long start, long end, long threadId, boolean fulfilled, boolean fastDelivery) {
+            super(start, end);
+            this.threadId = threadId;
+            this.fulfilled = fulfilled;
+            this.fastDelivery = fastDelivery;
+        }
+    }
+
+    /**
+     * Latency and two summed fields of one group of events
+     * (settled/relaxed for searches, rows/failures for queries, hits/miss time for caches)
+     */
+    private static class Group {
+        final Histogram latency = new Histogram();
+        long first;
+        long second;
+    }
+
+    private final List<OrderSpan> orders = new ArrayList<>();
+    private final Map<String, Group> stages = new HashMap<>();
+    private final Map<String, Group> searches = new TreeMap<>();
+    private final Map<String, Group> queries = new HashMap<>();
+    private final Map<String, Group> caches = new TreeMap<>();
+    private final List<Interval> gcPauses = new ArrayList<>();
+    // Waits per Java thread id, one list per wait kind (the GC slot is unused)
+    private final Map<Long, List<List<Interval>>> threadWaits = new HashMap<>();
+    private long recordingStart = Long.MAX_VALUE;
+    private long recordingEnd = Long.MIN_VALUE;
+
+    /**
+     * Read every event of a recording
+     * @param recording Path to a .jfr file
+     */
+    public void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                accept(file.readEvent());
+            }
+        }
+        correlate();
+    }
+
+    private void accept(RecordedEvent event) {
+        long start = nanos(event.getStartTime());
+        long end = nanos(event.getEndTime());
+        recordingStart = Math.min(recordingStart, start);
+        recordingEnd = Math.max(recordingEnd, end);
+
+        switch (event.getEventType().getName()) {
+            case "store.Order" -> orders.add(new OrderSpan(start, end, threadId(event),
+                    event.getBoolean("fulfilled"), event.getBoolean("fastDelivery")));
+            case "store.OrderStage" -> group(stages, event.getString("stage"), event);
+            case "store.Search" -> {
+                Group group = group(searches, event.getString("algorithm"), event);
+                group.first += event.getLong("settled");
+                group.second += event.getLong("relaxed");
+            }
+            case "store.DaoQuery" -> {
+                Group group = group(queries, event.getString("query"), event);
+                group.first += Math.max(0, event.getInt("rows"));
+                group.second += event.getBoolean("failed") ? 1 : 0;
+            }
+            case "store.Cache" -> {
+                Group group = group(caches, event.getString("cache"), event);
+                if (event.getBoolean("hit")) {
+                    group.first++;
+                } else {
+                    group.second += event.getDuration().toNanos();
+                }
+            }
+            case "jdk.GCPhasePause" -> gcPauses.add(new Interval(start, end));
+            case "jdk.JavaMonitorEnter" -> addWait(LOCK, event, start, end);
+            case "jdk.ThreadPark" -> addWait(PARK, event, start, end);
+            case "jdk.SocketRead", "jdk.SocketWrite" -> addWait(SOCKET, event, start, end);
+            default -> {
+                // other JVM events are not summarized
+            }
+        }
+    }
+
+    private static Group group(Map<String, Group> groups, String key, RecordedEvent event) {
+        Group group = groups.computeIfAbsent(key == null ? "?" : key, k -> new Group());
+        group.latency.record(event.getDuration().toNanos());
+        return group;
+    }
+
+    private void addWait(int kind, RecordedEvent event, long start, long end) {
+        List<List<Interval>> waits = threadWaits.computeIfAbsent(threadId(event), id -> {
+            List<List<Interval>> lists = new ArrayList<>();
+            for (int i = 0; i < WAIT_KINDS.length; i++) {
+                lists.add(new ArrayList<>());
+            }
+            return lists;
+        });
+        waits.get(kind).add(new Interval(start, end));
+    }
+
+    /**
+     * Attribute GC pauses and same-thread waits to the orders they overlap
+     */
+    private void correlate() {
+        Comparator<Interval> byStart = Comparator.comparingLong(interval -> interval.start);
+        gcPauses.sort(byStart);
+        for (List<List<Interval>> waits : threadWaits.values()) {
+            for (List<Interval> list : waits) {
+                list.sort(byStart);
+            }
+        }
+
+        for (OrderSpan order : orders) {
+            order.waits[GC] = overlap(gcPauses, order);
+            List<List<Interval>> waits = threadWaits.get(order.threadId);
+            if (waits != null) {
+                for (int kind = LOCK; kind <= SOCKET; kind++) {
+                    order.waits[kind] = overlap(waits.get(kind), order);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sum the overlap of non-overlapping, start-sorted intervals with an order
+     */
+    private static long overlap(List<Interval> intervals, Interval order) {
+        // Intervals do not overlap each other, so their ends are sorted too
+        int low = 0;
+        int high = intervals.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (intervals.get(mid).end <= order.start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        long total = 0;
+        for (int i = low; i < intervals.size() && intervals.get(i).start < order.end; i++) {
+            Interval interval = intervals.get(i);
+            total += Math.min(interval.end, order.end) - Math.max(interval.start, order.start);
+        }
+        return total;
+    }
+
+    /**
+     * Print the summary
+     * @param top Number of slowest orders to list
+     */
+    public void printReport(int top) {
+        System.out.println();
+        System.out.println("📈 Flight recording summary");
+        if (recordingStart > recordingEnd) {
+            System.out.println("The recording contains no events");
+            return;
+        }
+        long fulfilled = orders.stream().filter(order -> order.fulfilled).count();
+        System.out.printf("Span: %.1f s, %d orders (%d fulfilled, %d failed)%n",
+                (recordingEnd - recordingStart) / 1e9, orders.size(), fulfilled, orders.size() - fulfilled);
+        if (orders.isEmpty() && searches.isEmpty() && queries.isEmpty()) {
+            System.out.println("No store.* events found; record with settings=default,settings=store.jfc");
+            return;
+        }
+
+        printOrders();
+        printSearches();
+        printQueries();
+        printCaches();
+        printWaits(top);
+    }
+
+    private void printOrders() {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Histogram all = new Histogram();
+        Histogram standard = new Histogram();
+        Histogram fast = new Histogram();
+        long orderTime = 0;
+        for (OrderSpan order : orders) {
+            all.record(order.duration());
+            (order.fastDelivery ? fast : standard).record(order.duration());
+            orderTime += order.duration();
+        }
+
+        System.out.println();
+        System.out.printf("%-22s %8s %9s %9s %9s %9s %9s %8s%n", "Latency (ms)", "Count", "Mean", "p50", "p90", "p99", "Max", "Share");
+        printLatency("order", all, -1);
+        printLatency("  standard", standard, -1);
+        printLatency("  fast", fast, -1);
+        for (OrderProcessor.Stage stage : OrderProcessor.Stage.values()) {
+            Group group = stages.get(stage.name());
+            if (group != null) {
+                printLatency("stage " + stage.name().toLowerCase(), group.latency, 100.0 * group.latency.getSum() / orderTime);
+            }
+        }
+    }
+
+    private void printSearches() {
+        if (searches.isEmpty()) {
+            return;
+        }
+        System.out.println();
+        System.out.printf("%-22s %8s %9s %9s %9s %12s %12s%n", "Search", "Count", "Mean ms", "p99 ms", "Max ms", "Settled/avg", "Relaxed/avg");
+        for (Map.Entry<String, Group> entry : searches.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            long count = latency.getCount();
+            System.out.printf("%-22s %8d %9.3f %9.3f %9.3f %12.1f %12.1f%n", entry.getKey(), count,
+                    latency.getMean() / 1e6, latency.getPercentile(99) / 1e6, latency.getMax() / 1e6,
+                    (double) entry.getValue().first / count, (double) entry.getValue().second / count);
+        }
+    }
+
+    private void printQueries() {
+        if (queries.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Group>> ranked = new ArrayList<>(queries.entrySet());
+        ranked.sort((a, b) -> Long.compare(b.getValue().latency.getSum(), a.getValue().latency.getSum()));
+
+        System.out.println();
+        System.out.printf("%-46s %8s %10s %9s %9s %9s %7s%n", "DAO query (by total time)", "Count", "Total ms", "Mean ms", "p99 ms", "Rows/avg", "Failed");
+        for (Map.Entry<String, Group> entry : ranked) {
+            Histogram latency = entry.getValue().latency;
+            long count = latency.getCount();
+            System.out.printf("%-46s %8d %10.1f %9.3f %9.3f %9.1f %7d%n", entry.getKey(), count,
+                    latency.getSum() / 1e6, latency.getMean() / 1e6, latency.getPercentile(99) / 1e6,
+                    (double) entry.getValue().first / count, entry.getValue().second);
+        }
+    }
+
+    private void printCaches() {
+        if (caches.isEmpty()) {
+            return;
+        }
+        System.out.println();
+        System.out.printf("%-22s %8s %8s %8s %12s%n", "Cache", "Hits", "Misses", "Hit %", "Miss ms/avg");
+        for (Map.Entry<String, Group> entry : caches.entrySet()) {
+            Group group = entry.getValue();
+            long count = group.latency.getCount();
+            long misses = count - group.first;
+            System.out.printf("%-22s %8d %8d %7.1f%% %12s%n", entry.getKey(), group.first, misses, 100.0 * group.first / count,
+                    misses == 0 ? "-" : String.format("%.3f", group.second / 1e6 / misses));
+        }
+    }
+
+    private void printWaits(int top) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<OrderSpan> slowest = new ArrayList<>(orders);
+        slowest.sort((a, b) -> Long.compare(b.duration(), a.duration()));
+        int tail = Math.max(1, orders.size() / 100);
+
+        System.out.println();
+        System.out.printf("%-22s %8s %9s", "Time in waits", "Orders", "Mean ms");
+        for (String kind : WAIT_KINDS) {
+            System.out.printf(" %8s", kind + " %");
+        }
+        System.out.println();
+        printWaitShare("all orders", orders);
+        printWaitShare("slowest 1%", slowest.subList(0, tail));
+
+        System.out.println();
+        System.out.printf("%-10s %10s %8s", "At (s)", "Order ms", "Thread");
+        for (String kind : WAIT_KINDS) {
+            System.out.printf(" %9s", kind + " ms");
+        }
+        System.out.println();
+        for (OrderSpan order : slowest.subList(0, Math.min(top, slowest.size()))) {
+            System.out.printf("%-10.3f %10.2f %8d", (order.start - recordingStart) / 1e9, order.duration() / 1e6, order.threadId);
+            for (long wait : order.waits) {
+                System.out.printf(" %9.2f", wait / 1e6);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printWaitShare(String label, List<OrderSpan> spans) {
+        long total = 0;
+        long[] waits = new long[WAIT_KINDS.length];
+        for (OrderSpan order : spans) {
+            total += order.duration();
+            for (int kind = 0; kind < waits.length; kind++) {
+                waits[kind] += order.waits[kind];
+            }
+        }
+        System.out.printf("%-22s %8d %9.2f", label, spans.size(), total / 1e6 / spans.size());
+        for (long wait : waits) {
+            System.out.printf(" %7.1f%%", total == 0 ? 0.0 : 100.0 * wait / total);
+        }
+        System.out.println();
+    }
+
+    private static void printLatency(String label, Histogram histogram, double share) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        System.out.printf("%-22s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %8s%n", label, histogram.getCount(),
+                histogram.getMean() / 1e6,
+                histogram.getPercentile(50) / 1e6,
+                histogram.getPercentile(90) / 1e6,
+                histogram.getPercentile(99) / 1e6,
+                histogram.getMax() / 1e6,
+                share < 0 ? "" : String.format("%.1f%%", share));
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static long threadId(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread != null ? thread.getJavaThreadId() : -1;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java profiling.JfrAnalyzer <recording.jfr> [--top 10]");
+            System.exit(1);
+        }
+
+        int top = 10;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--top")) {
+                    top = Integer.parseInt(args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+
+            JfrAnalyzer analyzer = new JfrAnalyzer();
+            analyzer.read(Path.of(args[0]));
+            analyzer.printReport(top);
+        } catch (Exception e) {
+            System.err.println("Analysis failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Order Event
+ * Flight Recorder event spanning one OrderProcessor.processOrder call.
+ * Stage, search, DAO and cache events of the order are nested inside it on
+ * the same thread, next to the JVM's own GC, lock and socket events.
+ */
+@Name("store.Order")
+@Label("Order")
+@Category({"StoreAlgorithms", "Orders"})
+@Description("One order from product lookup to the saved order row")
+public class OrderEvent extends Event {
+    @Label("Product")
+    public String product;
+
+    @Label("Customer City")
+    public String customerCity;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Fast Delivery")
+    public boolean fastDelivery;
+
+    @Label("Fulfilled")
+    public boolean fulfilled;
+
+    @Label("Warehouse City")
+    public String warehouseCity;
+
+    @Label("Delivery Distance")
+    @Description("Road distance in km, -1 if the order failed")
+    public int deliveryDistance = -1;
+}
@@ -0,0 +1,20 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Order Stage Event
+ * Flight Recorder event for one stage of an order (see OrderProcessor.Stage)
+ */
+@Name("store.OrderStage")
+@Label("Order Stage")
+@Category({"StoreAlgorithms", "Orders"})
+@Description("One stage of processing an order")
+public class OrderStageEvent extends Event {
+    @Label("Stage")
+    public String stage;
+}
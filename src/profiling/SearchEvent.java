@@ -0,0 +1,53 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Search Event
+ * Flight Recorder event for one graph search (Dijkstra, BFS, hop index, Yen)
+ */
+@Name("store.Search")
+@Label("Graph Search")
+@Category({"StoreAlgorithms", "Routing"})
+@Description("One shortest path or hop search over the city graph")
+public class SearchEvent extends Event {
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Target")
+    @Description("Destination city, empty for searches towards several targets or all cities")
+    public String target;
+
+    @Label("Cities Settled")
+    public long settled;
+
+    @Label("Edges Relaxed")
+    public long relaxed;
+
+    /**
+     * Fill in and commit the event if it is enabled and over its threshold
+     * @param algorithm Algorithm label, as used by SearchMetrics
+     * @param source Source city
+     * @param target Destination city, or null
+     * @param settled Cities settled
+     * @param relaxed Edges examined
+     */
+    public void finish(String algorithm, String source, String target, long settled, long relaxed) {
+        end();
+        if (shouldCommit()) {
+            this.algorithm = algorithm;
+            this.source = source;
+            this.target = target;
+            this.settled = settled;
+            this.relaxed = relaxed;
+            commit();
+        }
+    }
+}
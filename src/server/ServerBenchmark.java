@@ -0,0 +1,329 @@
+package server;
+
+import config.DBConnection;
+import dao.DAOFactory;
+import metrics.Histogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server Benchmark
+ * Drives the HTTP API with many concurrent clients and reports latency per
+ * endpoint. Each client is a virtual thread that sends a request, waits for
+ * the response and sends the next one over its kept-alive connection, so the
+ * benchmark is closed-loop: the number of clients is fixed and throughput is
+ * the result (use loadtest.OrderLoadGenerator for a fixed arrival rate).
+ *
+ * Without --url a StoreServer is started in-process on a free port with the
+ * backend chosen by --backend (see DAOFactory).
+ *
+ * Usage: java server.ServerBenchmark [--url http://localhost:8080] [--clients 200]
+ *        [--duration 10] [--warmup 3] [--seed 42] [--backend jdbc|memory]
+ *        [--mix route=50,search=20,products=20,order=10]
+ */
+public class ServerBenchmark {
+    private static final Pattern NAME = Pattern.compile("\"name\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern CITY = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    /**
+     * Kinds of requests in the mix
+     */
+    public enum RequestType {
+        ROUTE("route"),
+        SEARCH("search"),
+        PRODUCTS("products"),
+        ORDER("order");
+
+        private final String label;
+
+        RequestType(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        static RequestType fromLabel(String label) {
+            for (RequestType type : values()) {
+                if (type.label.equalsIgnoreCase(label)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown request type: " + label);
+        }
+    }
+
+    private final String baseUrl;
+    private final Map<RequestType, Integer> mix;
+    private final HttpClient client;
+    private final List<String> productNames = new ArrayList<>();
+    private final List<String> cityNames = new ArrayList<>();
+
+    private int clients = 200;
+    private int durationSeconds = 10;
+    private int warmupSeconds = 3;
+    private long seed = 42;
+
+    // Results of the measured phase
+    private final Map<RequestType, Histogram> latency = new EnumMap<>(RequestType.class);
+    private final Map<RequestType, LongAdder> rejected = new EnumMap<>(RequestType.class);
+    private final Map<RequestType, LongAdder> errors = new EnumMap<>(RequestType.class);
+
+    public ServerBenchmark(String baseUrl, Map<RequestType, Integer> mix) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        for (RequestType type : RequestType.values()) {
+            latency.put(type, new Histogram());
+            rejected.put(type, new LongAdder());
+            errors.put(type, new LongAdder());
+        }
+    }
+
+    public void setClients(int clients) {
+        this.clients = clients;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Fetch the city names and the first page of products to build requests from
+     */
+    public void loadNames() throws Exception {
+        String cities = get("/cities").body();
+        Matcher cityMatcher = CITY.matcher(cities.substring(cities.indexOf('[')));
+        while (cityMatcher.find()) {
+            cityNames.add(unescape(cityMatcher.group(1)));
+        }
+
+        Matcher productMatcher = NAME.matcher(get("/products?limit=500").body());
+        while (productMatcher.find()) {
+            productNames.add(unescape(productMatcher.group(1)));
+        }
+        if (cityNames.isEmpty() || productNames.isEmpty()) {
+            throw new IllegalStateException("The server has no cities or products");
+        }
+    }
+
+    /**
+     * Run the warm-up and measured phases and print the report
+     */
+    public void run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Random random = new Random(seed + i);
+            threads.add(Thread.ofVirtual().name("bench-client-" + i).start(() -> {
+                while (true) {
+                    long sent = System.nanoTime();
+                    if (sent >= end) {
+                        return;
+                    }
+                    RequestType type = pickType(random);
+                    int status;
+                    try {
+                        status = send(type, random);
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    if (sent >= measureStart) {
+                        latency.get(type).record(System.nanoTime() - sent);
+                        if (status < 0 || status >= 500) {
+                            errors.get(type).increment();
+                        } else if (status >= 400) {
+                            rejected.get(type).increment();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        printReport((System.nanoTime() - measureStart) / 1e9);
+    }
+
+    private RequestType pickType(Random random) {
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            totalWeight += weight;
+        }
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<RequestType, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        return RequestType.ROUTE;
+    }
+
+    private int send(RequestType type, Random random) throws Exception {
+        String city = cityNames.get(random.nextInt(cityNames.size()));
+        String product = productNames.get(random.nextInt(productNames.size()));
+        return switch (type) {
+            case ROUTE -> get("/route?from=" + encode(city)
+                    + "&to=" + encode(cityNames.get(random.nextInt(cityNames.size())))).statusCode();
+            case SEARCH -> get("/products/search?q=" + encode(product.split(" ")[0].toLowerCase())).statusCode();
+            case PRODUCTS -> get("/products?page=" + (1 + random.nextInt(5))).statusCode();
+            case ORDER -> client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("product=" + encode(product) + "&city=" + encode(city)
+                            + "&fast=" + random.nextBoolean()))
+                    .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        };
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void printReport(double measuredSeconds) {
+        long requests = 0;
+        for (Histogram histogram : latency.values()) {
+            requests += histogram.getCount();
+        }
+        System.out.println();
+        System.out.println("📈 HTTP server benchmark");
+        System.out.printf("%s: %d clients, %.1f requests/s over %.1f s (%d requests)%n",
+                baseUrl, clients, requests / measuredSeconds, measuredSeconds, requests);
+
+        System.out.println();
+        System.out.printf("%-12s %8s %8s %8s %9s %9s %9s %9s %9s %9s%n", "Latency (ms)", "Count", "4xx", "Errors",
+                "Mean", "p50", "p90", "p99", "p99.9", "Max");
+        for (RequestType type : RequestType.values()) {
+            Histogram histogram = latency.get(type);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-12s %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", type.getLabel(),
+                    histogram.getCount(), rejected.get(type).sum(), errors.get(type).sum(),
+                    histogram.getMean() / 1e6,
+                    histogram.getPercentile(50) / 1e6,
+                    histogram.getPercentile(90) / 1e6,
+                    histogram.getPercentile(99) / 1e6,
+                    histogram.getPercentile(99.9) / 1e6,
+                    histogram.getMax() / 1e6);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String unescape(String value) {
+        return value.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    /**
+     * Parse a mix such as "route=50,search=20,products=20,order=10"
+     * @param spec Mix specification
+     * @return Weight per request type
+     */
+    static Map<RequestType, Integer> parseMix(String spec) {
+        Map<RequestType, Integer> mix = new EnumMap<>(RequestType.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            mix.put(RequestType.fromLabel(pair[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    public static void main(String[] args) {
+        String url = null;
+        String mixSpec = "route=50,search=20,products=20,order=10";
+        int clients = 200;
+        int duration = 10;
+        int warmup = 3;
+        long seed = 42;
+
+        StoreServer server = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--url" -> url = args[++i];
+                    case "--clients" -> clients = Integer.parseInt(args[++i]);
+                    case "--duration" -> duration = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--mix" -> mixSpec = args[++i];
+                    case "--backend" -> System.setProperty("store.backend", args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (clients <= 0 || duration <= 0) {
+                throw new IllegalArgumentException("--clients and --duration must be positive");
+            }
+
+            if (url == null) {
+                server = new StoreServer(DAOFactory.getInstance(), 0);
+                server.start();
+                url = "http://localhost:" + server.getPort();
+            }
+
+            ServerBenchmark benchmark = new ServerBenchmark(url, parseMix(mixSpec));
+            benchmark.setClients(clients);
+            benchmark.setDurationSeconds(duration);
+            benchmark.setWarmupSeconds(warmup);
+            benchmark.setSeed(seed);
+            benchmark.loadNames();
+
+            System.out.printf("🚀 %s: %d clients for %d s after %d s warm-up (%d cities, %d products)%n",
+                    url, clients, duration, warmup, benchmark.cityNames.size(), benchmark.productNames.size());
+            benchmark.run();
+        } catch (Exception e) {
+            System.err.println("Benchmark failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+            DBConnection.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dao.DAOFactory;
+import dao.OrderProcessor;
+import dsa.CompactGraph;
+import dsa.ConnectedComponents;
+import dsa.Dijkstra;
+import dsa.Graph;
+import dsa.ShortestPathTree;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.PrometheusExporter;
+import models.City;
+import models.Order;
+import models.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Store Server
+ * Embedded HTTP/JSON API over the same operations as the shell, built on the
+ * JDK's own HTTP server. Every request runs on its own virtual thread, so a
+ * request waiting on the database parks cheaply and thousands of clients can
+ * be connected at once. Responses have a fixed length, so HTTP/1.1 clients
+ * keep their connections open between requests.
+ *
+ * The city graph, its components, the order processor (with its caches) and
+ * the DAOs are built once and shared by all requests.
+ *
+ *   GET  /health
+ *   GET  /route?from=Lahore&to=Karachi[&alternatives=3]
+ *   GET  /products[?page=2 | ?after=40][&limit=20]
+ *   GET  /products/search?q=laptop
+ *   GET  /cities
+ *   POST /orders   product=Laptop&city=Lahore[&quantity=1][&fast=true]
+ *   GET  /metrics  (Prometheus text format)
+ *
+ * Order parameters may be sent as a form body or in the query string.
+ */
+public class StoreServer {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_ALTERNATIVES = 3;
+    private static final int MAX_ALTERNATIVES = 10;
+    private static final int BACKLOG = 4096;
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY
+        // the body waits for the client's delayed ACK (about 40 ms per request)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final DAOFactory daoFactory;
+    private final Graph cityGraph;
+    private final Dijkstra dijkstra;
+    private final ConnectedComponents components;
+    private final OrderProcessor orderProcessor;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Handler body for one endpoint
+     */
+    private interface Endpoint {
+        /**
+         * Write the response body
+         * @param params Query (and form) parameters
+         * @param json Writer for the response body
+         * @return HTTP status code
+         */
+        int handle(Map<String, String> params, JsonWriter json) throws Exception;
+    }
+
+    public StoreServer(DAOFactory daoFactory, int port) throws IOException {
+        this.daoFactory = daoFactory;
+        this.cityGraph = daoFactory.getCityGraph();
+        this.dijkstra = new Dijkstra();
+        this.components = new ConnectedComponents(CompactGraph.of(cityGraph));
+        this.orderProcessor = new OrderProcessor(daoFactory);
+        orderProcessor.setQuiet(true); // failures are reported in the response
+
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(executor);
+
+        endpoint("/health", "GET", this::health);
+        endpoint("/route", "GET", this::route);
+        endpoint("/products", "GET", this::products);
+        endpoint("/products/search", "GET", this::search);
+        endpoint("/cities", "GET", this::cities);
+        endpoint("/orders", "POST", this::order);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = PrometheusExporter.export().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            send(exchange, 200, body);
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests and wait up to a second for running ones
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Get the bound port (useful when the server was created on port 0)
+     * @return Port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void endpoint(String path, String method, Endpoint endpoint) {
+        // Looked up once here rather than per request; response counters once per status code
+        Histogram requestTimer = Metrics.timer("store_http_request_seconds", "path", path);
+        AtomicReferenceArray<Counter> responseCounters = new AtomicReferenceArray<>(600);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            JsonWriter json = new JsonWriter();
+            int status;
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    status = error(json, 404, "No such endpoint: " + exchange.getRequestURI().getPath());
+                } else if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    status = error(json, 405, "Use " + method + " for " + path);
+                } else {
+                    status = endpoint.handle(parameters(exchange), json);
+                }
+            } catch (IllegalArgumentException e) {
+                json = new JsonWriter();
+                status = error(json, 400, e.getMessage());
+            } catch (Exception e) {
+                json = new JsonWriter();
+                status = error(json, 500, e.getMessage());
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            send(exchange, status, json.toString().getBytes(StandardCharsets.UTF_8));
+            requestTimer.record(System.nanoTime() - start);
+            Counter responses = responseCounters.get(status);
+            if (responses == null) {
+                responses = Metrics.counter("store_http_responses_total", "path", path, "status", Integer.toString(status));
+                responseCounters.set(status, responses);
+            }
+            responses.increment();
+        });
+    }
+
+    private int health(Map<String, String> params, JsonWriter json) {
+        json.beginObject()
+                .name("status").value("ok")
+                .name("backend").value(daoFactory.getBackend())
+                .name("cities").value(cityGraph.getCityCount())
+                .endObject();
+        return 200;
+    }
+
+    private int route(Map<String, String> params, JsonWriter json) {
+        String from = required(params, "from");
+        String to = required(params, "to");
+        if (!components.areConnected(from, to)) {
+            return error(json, 404, "No route from " + from + " to " + to);
+        }
+
+        if (params.containsKey("alternatives")) {
+            String value = params.get("alternatives");
+            int k = value.isEmpty() ? DEFAULT_ALTERNATIVES
+                    : Math.min(MAX_ALTERNATIVES, Math.max(1, integer(params, "alternatives", DEFAULT_ALTERNATIVES)));
+
+            List<Dijkstra.PathResult> routes = dijkstra.findKShortestPaths(cityGraph, from, to, k);
+            json.beginObject()
+                    .name("from").value(from)
+                    .name("to").value(to)
+                    .name("routes").beginArray();
+            for (Dijkstra.PathResult route : routes) {
+                json.beginObject().name("distance").value(route.getDistance());
+                path(json, route);
+                json.endObject();
+            }
+            json.endArray().endObject();
+            return routes.isEmpty() ? 404 : 200;
+        }
+
+        ShortestPathTree tree = dijkstra.buildShortestPathTree(cityGraph, from);
+        Dijkstra.PathResult result = tree.getPath(to);
+        if (!result.isPathFound()) {
+            return error(json, 404, "No route from " + from + " to " + to);
+        }
+        json.beginObject()
+                .name("from").value(from)
+                .name("to").value(to)
+                .name("distance").value(result.getDistance());
+        path(json, result);
+        json.endObject();
+        return 200;
+    }
+
+    private int products(Map<String, String> params, JsonWriter json) throws Exception {
+        int limit = Math.min(MAX_PAGE_SIZE, Math.max(1, integer(params, "limit", DEFAULT_PAGE_SIZE)));
+        int afterId = integer(params, "after", 0);
+        if (params.containsKey("page")) {
+            int page = integer(params, "page", 1);
+            if (page < 1) {
+                throw new IllegalArgumentException("Page numbers start at 1");
+            }
+            afterId = page == 1 ? 0 : daoFactory.getProductDAO().getProductIdAt((page - 1) * limit - 1);
+        }
+
+        int[] inStock = new int[1];
+        int[] lastId = new int[1];
+        json.beginObject().name("products").beginArray();
+        int count = afterId < 0 ? 0 : daoFactory.getProductDAO().forEachProduct(afterId, limit, product -> {
+            product(json, product);
+            if (product.isInStock()) {
+                inStock[0]++;
+            }
+            lastId[0] = product.getId();
+        });
+        json.endArray()
+                .name("count").value(count)
+                .name("inStock").value(inStock[0])
+                .name("next");
+        if (count == limit) {
+            json.value(lastId[0]);
+        } else {
+            json.nullValue();
+        }
+        json.endObject();
+        return 200;
+    }
+
+    private int search(Map<String, String> params, JsonWriter json) throws Exception {
+        String term = required(params, "q");
+        List<Product> products = daoFactory.getProductDAO().deepSearchProducts(term);
+        json.beginObject()
+                .name("query").value(term)
+                .name("count").value(products.size())
+                .name("products").beginArray();
+        for (Product product : products) {
+            product(json, product);
+        }
+        json.endArray().endObject();
+        return 200;
+    }
+
+    private int cities(Map<String, String> params, JsonWriter json) throws Exception {
+        json.beginObject().name("cities").beginArray();
+        for (City city : daoFactory.getCityDAO().getAllCities()) {
+            json.value(city.getName());
+        }
+        json.endArray().endObject();
+        return 200;
+    }
+
+    private int order(Map<String, String> params, JsonWriter json) {
+        String product = required(params, "product");
+        String city = required(params, "city");
+        int quantity = integer(params, "quantity", 1);
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        boolean fast = Boolean.parseBoolean(params.getOrDefault("fast", "false"));
+
+        Order order = orderProcessor.processOrder(product, city, quantity, fast);
+        if (order == null || order.getStatus() != Order.OrderStatus.CONFIRMED) {
+            return error(json, 422, "Order could not be fulfilled: unknown product or city, no stock, or no route");
+        }
+        json.beginObject()
+                .name("id").value(order.getId())
+                .name("status").value(order.getStatus().name())
+                .name("product").value(order.getProductName())
+                .name("quantity").value(order.getQuantity())
+                .name("city").value(order.getCustomerCity())
+                .name("fast").value(fast)
+                .name("warehouseCity").value(order.getWarehouseCity())
+                .name("distance").value(order.getDeliveryDistance())
+                .name("total").value(order.getFinalTotal())
+                .endObject();
+        return 201;
+    }
+
+    private static void product(JsonWriter json, Product product) {
+        json.beginObject()
+                .name("id").value(product.getId())
+                .name("name").value(product.getName())
+                .name("price").value(product.getPrice())
+                .name("quantity").value(product.getQuantity())
+                .name("category").value(product.getCategory())
+                .endObject();
+    }
+
+    private static void path(JsonWriter json, Dijkstra.PathResult result) {
+        json.name("path").beginArray();
+        for (String city : result.getPath()) {
+            json.value(city);
+        }
+        json.endArray();
+    }
+
+    private static int error(JsonWriter json, int status, String message) {
+        json.beginObject().name("error").value(message).endObject();
+        return status;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value.trim();
+    }
+
+    private static int integer(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Collect query parameters, plus form parameters from a POST body
+     */
+    private static Map<String, String> parameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        if (exchange.getRequestMethod().equalsIgnoreCase("POST")) {
+            try (InputStream body = exchange.getRequestBody()) {
+                parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
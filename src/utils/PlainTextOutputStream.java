@@ -0,0 +1,131 @@
+package utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Plain Text Output Stream
+ * Filters UTF-8 console output down to plain text: ANSI escape sequences
+ * and emoji (with their variation selectors and the spaces that follow
+ * them) are dropped. Box drawing, arrows and bullets are kept.
+ */
+public class PlainTextOutputStream extends FilterOutputStream {
+    private static final int NORMAL = 0;
+    private static final int ESCAPE = 1;        // after ESC
+    private static final int CSI = 2;           // inside ESC [ ... final byte
+    private static final int MULTI_BYTE = 3;    // collecting a UTF-8 sequence
+
+    private final byte[] chunk = new byte[8192];
+    private int chunkLength;
+
+    private int state = NORMAL;
+    private final byte[] sequence = new byte[4];
+    private int sequenceLength;
+    private int sequenceExpected;
+    private boolean dropSpace;
+
+    public PlainTextOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        accept((byte) b);
+        drain();
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            accept(bytes[i]);
+            if (chunkLength > chunk.length - 4) {
+                drain();
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void accept(byte b) {
+        int value = b & 0xFF;
+        switch (state) {
+            case ESCAPE:
+                state = value == '[' ? CSI : NORMAL;
+                return;
+            case CSI:
+                if (value >= 0x40 && value <= 0x7E) {
+                    state = NORMAL;
+                }
+                return;
+            case MULTI_BYTE:
+                sequence[sequenceLength++] = b;
+                if (sequenceLength == sequenceExpected) {
+                    state = NORMAL;
+                    if (isEmoji(codePoint())) {
+                        dropSpace = true;
+                    } else {
+                        keep(sequence, sequenceLength);
+                    }
+                }
+                return;
+            default:
+                break;
+        }
+
+        if (value == 0x1B) {
+            state = ESCAPE;
+        } else if (value >= 0xC0) {
+            sequence[0] = b;
+            sequenceLength = 1;
+            sequenceExpected = value >= 0xF0 ? 4 : value >= 0xE0 ? 3 : 2;
+            state = MULTI_BYTE;
+        } else if (value == ' ' && dropSpace) {
+            // spaces after an emoji only separated it from the text
+        } else {
+            dropSpace = false;
+            chunk[chunkLength++] = b;
+        }
+    }
+
+    private void keep(byte[] bytes, int length) {
+        dropSpace = false;
+        System.arraycopy(bytes, 0, chunk, chunkLength, length);
+        chunkLength += length;
+    }
+
+    private int codePoint() {
+        int lead = sequence[0] & 0xFF;
+        int codePoint = lead & (sequenceLength == 4 ? 0x07 : sequenceLength == 3 ? 0x0F : 0x1F);
+        for (int i = 1; i < sequenceLength; i++) {
+            codePoint = (codePoint << 6) | (sequence[i] & 0x3F);
+        }
+        return codePoint;
+    }
+
+    /**
+     * Emoji and pictographic symbols used in the console output
+     */
+    private static boolean isEmoji(int codePoint) {
+        return codePoint >= 0x1F000                              // emoji planes
+                || (codePoint >= 0x2600 && codePoint <= 0x27BF)  // symbols and dingbats (✅ ❌ ⚠)
+                || (codePoint >= 0x2300 && codePoint <= 0x23FF)  // technical (⏱ ⌛)
+                || (codePoint >= 0x2B00 && codePoint <= 0x2BFF)  // arrows and shapes (⭐)
+                || (codePoint >= 0xFE00 && codePoint <= 0xFE0F)  // variation selectors
+                || codePoint == 0x2139                           // ℹ
+                || codePoint == 0x200D                           // zero width joiner
+                || codePoint == 0x20E3;                          // keycap
+    }
+
+    private void drain() throws IOException {
+        if (chunkLength > 0) {
+            out.write(chunk, 0, chunkLength);
+            chunkLength = 0;
+        }
+    }
+}
@@ -1,19 +1,161 @@
 package utils;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Utility class for formatted console output
+ * In plain mode (-Dstore.output=plain, Main --plain, or the NO_COLOR
+ * environment variable) the color codes below are empty strings and
+ * useBufferedOutput() also filters emoji out of everything printed.
  */
 public class Printer {
-    
+    private static final boolean PLAIN = "plain".equalsIgnoreCase(System.getProperty("store.output"))
+            || System.getenv("NO_COLOR") != null;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
     // ANSI Color codes
-    public static final String RESET = "\u001B[0m";
-    public static final String RED = "\u001B[31m";
-    public static final String GREEN = "\u001B[32m";
-    public static final String YELLOW = "\u001B[33m";
-    public static final String BLUE = "\u001B[34m";
-    public static final String PURPLE = "\u001B[35m";
-    public static final String CYAN = "\u001B[36m";
-    public static final String WHITE = "\u001B[37m";
+    public static final String RESET = color("\u001B[0m");
+    public static final String RED = color("\u001B[31m");
+    public static final String GREEN = color("\u001B[32m");
+    public static final String YELLOW = color("\u001B[33m");
+    public static final String BLUE = color("\u001B[34m");
+    public static final String PURPLE = color("\u001B[35m");
+    public static final String CYAN = color("\u001B[36m");
+    public static final String WHITE = color("\u001B[37m");
+
+    // Pre-rendered pieces of product lines, so listings need no format parsing
+    private static final String PRODUCT_PREFIX = PLAIN ? "" : CYAN + "📦 ";
+    private static final String PRODUCT_PRICE = " " + YELLOW + "(Rs. ";
+    private static final String PRODUCT_QUANTITY = ") " + GREEN + "- Qty: ";
+    private static final String PRODUCT_OUT_OF_STOCK_PREFIX = PLAIN ? "" : RED + "📦 ";
+    private static final String PRODUCT_OUT_OF_STOCK = ") " + RED + "- Out of Stock" + RESET;
+
+    private static boolean buffered = false;
+    private static final ThreadLocal<ByteArrayOutputStream> capture = new ThreadLocal<>();
+
+    private static String color(String code) {
+        return PLAIN ? "" : code;
+    }
+
+    /**
+     * Check whether output is plain text (no colors or emoji)
+     * @return true in plain mode
+     */
+    public static boolean isPlain() {
+        return PLAIN;
+    }
+
+    /**
+     * Route System.out through a large buffer without autoflush
+     * Output then reaches the terminal when flush() is called (once per
+     * command) or when the buffer fills, so long listings still stream.
+     * In plain mode emoji and escape codes are filtered out as well.
+     */
+    public static synchronized void useBufferedOutput() {
+        if (buffered) {
+            return;
+        }
+        buffered = true;
+
+        OutputStream console = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE);
+        Charset charset = System.out.charset(); // keep the console encoding
+        if (PLAIN) {
+            console = new PlainTextOutputStream(console);
+            charset = StandardCharsets.UTF_8; // the filter recognizes emoji in UTF-8
+        }
+        System.setOut(new PrintStream(new CaptureOutputStream(console), false, charset));
+        Runtime.getRuntime().addShutdownHook(new Thread(Printer::flush));
+    }
+
+    /**
+     * Sends the output of a thread that is capturing to its buffer and
+     * everything else to the console. PrintStream encodes each print call
+     * completely while holding its lock, so the bytes of one call always
+     * arrive here on the thread that made it.
+     */
+    private static class CaptureOutputStream extends OutputStream {
+        private final OutputStream console;
+
+        CaptureOutputStream(OutputStream console) {
+            this.console = console;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ByteArrayOutputStream buffer = capture.get();
+            if (buffer != null) {
+                buffer.write(b);
+            } else {
+                console.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            ByteArrayOutputStream buffer = capture.get();
+            if (buffer != null) {
+                buffer.write(bytes, offset, length);
+            } else {
+                console.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (capture.get() == null) {
+                console.flush();
+            }
+        }
+    }
+
+    /**
+     * Check whether System.out of a thread can be captured (see beginCapture)
+     * @return true once useBufferedOutput() has been called
+     */
+    public static synchronized boolean canCapture() {
+        return buffered;
+    }
+
+    /**
+     * Collect what the current thread prints to System.out instead of showing it
+     * Used to run commands in the background and show their output later, in order.
+     */
+    public static void beginCapture() {
+        capture.set(new ByteArrayOutputStream());
+    }
+
+    /**
+     * Stop capturing the current thread's output
+     * @return Everything printed since beginCapture()
+     */
+    public static byte[] endCapture() {
+        ByteArrayOutputStream buffer = capture.get();
+        capture.remove();
+        return buffer != null ? buffer.toByteArray() : new byte[0];
+    }
+
+    /**
+     * Print output captured earlier
+     * @param output Bytes returned by endCapture()
+     */
+    public static void printCaptured(byte[] output) {
+        System.out.write(output, 0, output.length);
+    }
+
+    /**
+     * Write buffered output to the console
+     */
+    public static void flush() {
+        System.out.flush();
+    }
     
     /**
      * Print welcome message
@@ -78,8 +220,23 @@ public class Printer {
      * @param quantity Available quantity
      */
     public static void printProduct(int id, String name, double price, int quantity) {
-        System.out.printf(CYAN + "📦 %d. %s " + YELLOW + "(Rs. %.0f) " + GREEN + "- Qty: %d%n" + RESET, 
-                         id, name, price, quantity);
+        System.out.println(new StringBuilder(96)
+                .append(PRODUCT_PREFIX).append(id).append(". ").append(name)
+                .append(PRODUCT_PRICE).append(Math.round(price))
+                .append(PRODUCT_QUANTITY).append(quantity).append(RESET));
+    }
+
+    /**
+     * Print an out of stock product
+     * @param id Product ID
+     * @param name Product name
+     * @param price Product price
+     */
+    public static void printOutOfStockProduct(int id, String name, double price) {
+        System.out.println(new StringBuilder(96)
+                .append(PRODUCT_OUT_OF_STOCK_PREFIX).append(id).append(". ").append(name)
+                .append(PRODUCT_PRICE).append(Math.round(price))
+                .append(PRODUCT_OUT_OF_STOCK));
     }
     
     /**
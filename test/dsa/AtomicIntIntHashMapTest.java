@@ -0,0 +1,123 @@
+package dsa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Randomized checks of AtomicIntIntHashMap against java.util.HashMap,
+ * and of its compare-and-set updates under concurrent growth
+ */
+class AtomicIntIntHashMapTest {
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(41);
+        AtomicIntIntHashMap map = new AtomicIntIntHashMap(4); // small, so the table grows many times
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 2_000_000; i++) {
+            int key = 1 + random.nextInt(50_000);
+            int amount = random.nextInt(100);
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    map.put(key, amount);
+                    expected.put(key, amount);
+                }
+                case 1 -> assertEquals(expected.merge(key, amount, Integer::sum), map.addAndGet(key, amount));
+                case 2 -> {
+                    Integer current = expected.get(key);
+                    boolean decremented = current != null && current >= amount;
+                    if (decremented) {
+                        expected.put(key, current - amount);
+                    }
+                    assertEquals(decremented, map.tryDecrement(key, amount));
+                }
+                case 3 -> assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(key, -1));
+                default -> assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        IntIntHashMap copy = map.toMap();
+        assertEquals(expected.size(), copy.size());
+        expected.forEach((key, value) -> assertEquals(value, copy.getOrDefault(key, -1)));
+    }
+
+    @Test
+    void copiesSingleThreadedMap() {
+        IntIntHashMap source = new IntIntHashMap();
+        for (int key = 1; key <= 1000; key++) {
+            source.put(key, key * 3);
+        }
+
+        AtomicIntIntHashMap map = new AtomicIntIntHashMap(source);
+        assertEquals(1000, map.size());
+        for (int key = 1; key <= 1000; key++) {
+            assertEquals(key * 3, map.getOrDefault(key, -1));
+        }
+        assertFalse(map.containsKey(1001));
+    }
+
+    @Test
+    void concurrentUpdatesDuringGrowthKeepExactTotal() throws Exception {
+        int threads = 4;
+        int keys = 20_000;
+        int rounds = 200_000;
+        AtomicIntIntHashMap map = new AtomicIntIntHashMap(4);
+        AtomicLong expectedTotal = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                workers[t] = pool.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    long total = 0;
+                    for (int i = 0; i < rounds; i++) {
+                        // New keys keep arriving, so updates race with table growth
+                        int key = 1 + random.nextInt(Math.min(keys, 16 + i / 4));
+                        int amount = 1 + random.nextInt(10);
+                        if (random.nextInt(3) == 0) {
+                            if (map.tryDecrement(key, amount)) {
+                                total -= amount;
+                            }
+                        } else {
+                            map.addAndGet(key, amount);
+                            total += amount;
+                        }
+                    }
+                    expectedTotal.addAndGet(total);
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long[] total = new long[1];
+        map.forEach((key, value) -> {
+            assertTrue(value >= 0, "stock below zero for key " + key);
+            total[0] += value;
+        });
+        assertEquals(expectedTotal.get(), total[0]);
+    }
+}
@@ -0,0 +1,104 @@
+package dsa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Randomized checks of IntIntHashMap against java.util.HashMap, covering
+ * backward-shift removal, the separately stored key 0 and table growth
+ */
+class IntIntHashMapTest {
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(41);
+        IntIntHashMap map = new IntIntHashMap(4); // small, so the table grows many times
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 2_000_000; i++) {
+            // Key 0 included; the narrower range of the second half churns keys through remove and re-insert
+            int key = random.nextInt(i < 1_000_000 ? 20_000 : 2_000);
+            int amount = random.nextInt(100);
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    map.put(key, amount);
+                    expected.put(key, amount);
+                }
+                case 1 -> assertEquals(expected.merge(key, amount, Integer::sum), map.addTo(key, amount));
+                case 2, 3 -> assertEquals(expected.remove(key) != null, map.remove(key));
+                case 4 -> assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(key, -1));
+                default -> assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+        }
+
+        assertMatches(expected, map);
+    }
+
+    @Test
+    void removeKeepsCollidingKeysReachable() {
+        IntIntHashMap map = new IntIntHashMap(64);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int key = 1; key <= 48; key++) {
+            map.put(key, key * 7);
+            expected.put(key, key * 7);
+        }
+
+        // Remove every other key, then the rest, checking all survivors after each step
+        for (int start = 1; start <= 2; start++) {
+            for (int key = start; key <= 48; key += 2) {
+                assertTrue(map.remove(key));
+                assertFalse(map.remove(key));
+                expected.remove(key);
+                assertMatches(expected, map);
+            }
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void zeroKeyIsStoredApart() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.getOrDefault(0, -1));
+
+        assertEquals(5, map.addTo(0, 5));
+        map.put(1, 3);
+        assertTrue(map.containsKey(0));
+        assertEquals(2, map.size());
+        assertEquals(8, map.sumValues());
+
+        IntIntHashMap copy = new IntIntHashMap(map);
+        assertTrue(map.remove(0));
+        assertFalse(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(1, map.size());
+        assertEquals(5, copy.getOrDefault(0, -1));
+    }
+
+    private static void assertMatches(Map<Integer, Integer> expected, IntIntHashMap map) {
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.isEmpty(), map.isEmpty());
+        expected.forEach((key, value) -> assertEquals(value, map.getOrDefault(key, -1)));
+
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), keys);
+
+        long[] total = new long[1];
+        map.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            total[0] += value;
+        });
+        assertEquals(expected.values().stream().mapToLong(Integer::longValue).sum(), total[0]);
+        assertEquals(total[0], map.sumValues());
+    }
+}